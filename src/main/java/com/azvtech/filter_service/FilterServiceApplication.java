@@ -1,9 +1,14 @@
 package com.azvtech.filter_service;
 
+import com.azvtech.filter_service.config.FilterProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@EnableConfigurationProperties(FilterProperties.class)
 public class FilterServiceApplication {
 
 	public static void main(String[] args) {
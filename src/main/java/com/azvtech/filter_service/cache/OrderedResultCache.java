@@ -0,0 +1,121 @@
+package com.azvtech.filter_service.cache;
+
+import com.azvtech.filter_service.config.FilterProperties;
+import com.azvtech.filter_service.model.GpsData;
+import com.azvtech.filter_service.store.VehicleReader;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cache do resultado filtrado e ordenado de uma consulta, compartilhado por todas as suas páginas.
+ *
+ * <p>Guarda apenas as ordens, na ordem do resultado (referências às strings
+ * canônicas dos dicionários), e não as páginas: cada página é uma fatia do
+ * array, resolvida para os registros atuais no armazenamento. O peso de cada
+ * entrada é o tamanho do array, de modo que o limite de memória vale para o
+ * total de ordens guardadas. Entradas vivem por uma janela curta e guardam a
+ * versão dos dados de onde a ordem saiu: sem snapshots, quem consulta só a
+ * reaproveita enquanto essa versão for a atual; com snapshots, a entrada
+ * guarda também a versão imutável, e as páginas seguintes são lidas dela.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class OrderedResultCache {
+
+    /**
+     * Ordem de um resultado e a fonte dos registros das páginas.
+     */
+    public static final class OrderedResult {
+
+        private final String[] ordens;
+        private final VehicleReader source;
+        private final long version;
+
+        OrderedResult(String[] ordens, VehicleReader source, long version) {
+            this.ordens = ordens;
+            this.source = source;
+            this.version = version;
+        }
+
+        public String[] getOrdens() {
+            return ordens;
+        }
+
+        /**
+         * Snapshot de onde a ordem saiu, ou null para ler o armazenamento atual.
+         */
+        public VehicleReader getSource() {
+            return source;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    private final Cache<ResultCacheKey, OrderedResult> cache;
+    private final boolean enabled;
+
+    public OrderedResultCache() {
+        this(new FilterProperties.Cache());
+    }
+
+    public OrderedResultCache(FilterProperties.Cache config) {
+        this.enabled = config.isEnabled() && config.getOrderedResultTtlMs() > 0;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(Math.max(0, config.getOrderedResultMaxOrdens()))
+                .weigher((ResultCacheKey key, OrderedResult result) -> Math.max(1, result.ordens.length))
+                .expireAfterWrite(Duration.ofMillis(Math.max(0, config.getOrderedResultTtlMs())))
+                .build();
+    }
+
+    /**
+     * Retorna as ordens do resultado em cache, ou null se ausente ou expirado.
+     */
+    public String[] get(ResultCacheKey key) {
+        OrderedResult result = lookup(key);
+        return result != null ? result.ordens : null;
+    }
+
+    /**
+     * Retorna o resultado em cache com a sua fonte, ou null se ausente ou expirado.
+     */
+    public OrderedResult lookup(ResultCacheKey key) {
+        return enabled ? cache.getIfPresent(key) : null;
+    }
+
+    /**
+     * Guarda as ordens do resultado já filtrado e ordenado.
+     */
+    public String[] put(ResultCacheKey key, List<GpsData> ordered) {
+        return put(key, ordered, null, 0).ordens;
+    }
+
+    /**
+     * Guarda as ordens do resultado e o snapshot de onde saíram.
+     */
+    public OrderedResult put(ResultCacheKey key, List<GpsData> ordered, VehicleReader source, long version) {
+        String[] ordens = new String[ordered.size()];
+        for (int i = 0; i < ordens.length; i++) {
+            ordens[i] = ordered.get(i).getOrdem();
+        }
+        OrderedResult result = new OrderedResult(ordens, source, version);
+        if (enabled) {
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,158 @@
+package com.azvtech.filter_service.cache;
+
+import com.azvtech.filter_service.config.FilterProperties;
+import com.azvtech.filter_service.dto.FilterResponse;
+import com.azvtech.filter_service.dto.QueryMetadata;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+
+/**
+ * Cache de respostas de filtro marcadas com a versão dos dados.
+ *
+ * <p>Uma entrada é servida como {@code HIT} enquanto a versão dos dados em
+ * memória for a mesma de quando foi calculada. Depois que a ingestão altera
+ * os dados, ela ainda pode ser servida como {@code STALE} dentro da janela
+ * de obsolescência configurada ({@code filter.cache.max-stale-ms}); fora
+ * dela a consulta é recalculada ({@code MISS}). Consultas por janela de
+ * tempo ({@code ultimosMinutos}) mudam com o relógio mesmo sem novos dados:
+ * suas entradas vivem no máximo {@code filter.cache.time-window-ttl-ms}, em
+ * vez do tempo de vida geral ({@code filter.cache.ttl-ms}).</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class QueryResultCache {
+
+    public static final String CACHE_NAME = "gpsFilters";
+
+    public static final String HIT = "HIT";
+    public static final String MISS = "MISS";
+    public static final String STALE = "STALE";
+
+    private final Cache<ResultCacheKey, Entry> cache;
+    private final boolean enabled;
+    private final long maxStaleNanos;
+
+    public QueryResultCache() {
+        this(new FilterProperties.Cache());
+    }
+
+    public QueryResultCache(FilterProperties.Cache config) {
+        this.enabled = config.isEnabled();
+        this.maxStaleNanos = Duration.ofMillis(Math.max(0, config.getMaxStaleMs())).toNanos();
+        long ttlNanos = Duration.ofMillis(Math.max(0, config.getTtlMs())).toNanos();
+        long timeWindowTtlNanos = Math.min(ttlNanos, Duration.ofMillis(Math.max(0, config.getTimeWindowTtlMs())).toNanos());
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfter(new WriteExpiry(ttlNanos, timeWindowTtlNanos))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Retorna a resposta em cache utilizável para a versão atual, já com o
+     * status e o tempo de processamento desta chamada, ou null em caso de MISS.
+     */
+    public FilterResponse lookup(ResultCacheKey key, long currentVersion, long processingTimeMs) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.dataVersion == currentVersion) {
+            return copyWithStatus(entry.response, HIT, processingTimeMs);
+        }
+        if (System.nanoTime() - entry.createdNanos <= maxStaleNanos) {
+            return copyWithStatus(entry.response, STALE, processingTimeMs);
+        }
+        return null;
+    }
+
+    /**
+     * Armazena a resposta calculada para a versão informada.
+     */
+    public void put(ResultCacheKey key, long dataVersion, FilterResponse response) {
+        if (enabled) {
+            cache.put(key, new Entry(response, dataVersion, System.nanoTime()));
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Cache Caffeine subjacente, para exportação das estatísticas.
+     */
+    public Cache<ResultCacheKey, ?> getNativeCache() {
+        return cache;
+    }
+
+    /**
+     * Cópia rasa da resposta com metadados próprios: a instância em cache nunca é alterada.
+     */
+    private static FilterResponse copyWithStatus(FilterResponse cached, String status, long processingTimeMs) {
+        QueryMetadata source = cached.getMetadata();
+        QueryMetadata metadata = new QueryMetadata(processingTimeMs, source.getFilteredCount(), status);
+        metadata.setQueryTimestamp(source.getQueryTimestamp());
+        metadata.setQueryPlan(source.getQueryPlan());
+        metadata.setCandidateCount(source.getCandidateCount());
+        metadata.setSnapshotVersion(source.getSnapshotVersion());
+        metadata.setExecutionMode(source.getExecutionMode());
+        return new FilterResponse(cached.getData(), cached.getPagination(), metadata);
+    }
+
+    /**
+     * Expiração a partir da escrita, mais curta para consultas por janela de tempo.
+     */
+    private static final class WriteExpiry implements Expiry<ResultCacheKey, Entry> {
+        private final long ttlNanos;
+        private final long timeWindowTtlNanos;
+
+        WriteExpiry(long ttlNanos, long timeWindowTtlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.timeWindowTtlNanos = timeWindowTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(ResultCacheKey key, Entry entry, long currentTime) {
+            return key.hasTimeWindow() ? timeWindowTtlNanos : ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(ResultCacheKey key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ResultCacheKey key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static final class Entry {
+        final FilterResponse response;
+        final long dataVersion;
+        final long createdNanos;
+
+        Entry(FilterResponse response, long dataVersion, long createdNanos) {
+            this.response = response;
+            this.dataVersion = dataVersion;
+            this.createdNanos = createdNanos;
+        }
+    }
+}
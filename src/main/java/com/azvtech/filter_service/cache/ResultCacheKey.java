@@ -0,0 +1,128 @@
+package com.azvtech.filter_service.cache;
+
+import com.azvtech.filter_service.dto.FilterRequest;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Chave normalizada do cache de resultados.
+ *
+ * <p>Requisições equivalentes produzem a mesma chave: linhas e ordens são
+ * ordenadas e sem repetição, coordenadas são arredondadas para 5 casas
+ * decimais (~1 m) e o raio para metros; filtros inativos são descartados.
+ * Paginação, ordenação e cursor fazem parte da chave, exceto nas chaves de
+ * {@link #forOrdering(FilterRequest)}, compartilhadas por todas as páginas.
+ * A versão de snapshot pedida explicitamente também faz parte da chave, de
+ * modo que uma consulta fixada numa versão nunca é servida (nem como STALE)
+ * com a resposta de outra versão.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public final class ResultCacheKey {
+
+    private static final double COORDINATE_SCALE = 1e5;
+    private static final double RADIUS_SCALE = 1e3;
+
+    private final Set<String> linhas;
+    private final Set<String> ordens;
+    private final long latitude;
+    private final long longitude;
+    private final long raioMetros;
+    private final int ultimosMinutos;
+    private final int pageSize;
+    private final int pageNumber;
+    private final String sortBy;
+    private final String sortDirection;
+    private final String cursor;
+    private final Long snapshotVersion;
+
+    private ResultCacheKey(FilterRequest request, boolean paging) {
+        boolean location = request.hasLocationFilter();
+        this.linhas = request.hasLinhasFilter() ? canonical(request.getLinhas()) : null;
+        this.ordens = request.hasOrdensFilter() ? canonical(request.getOrdens()) : null;
+        this.latitude = location ? Math.round(request.getLatitude() * COORDINATE_SCALE) : Long.MIN_VALUE;
+        this.longitude = location ? Math.round(request.getLongitude() * COORDINATE_SCALE) : Long.MIN_VALUE;
+        this.raioMetros = location ? Math.round(request.getRaioKm() * RADIUS_SCALE) : Long.MIN_VALUE;
+        this.ultimosMinutos = request.hasTimeFilter() ? request.getUltimosMinutos() : 0;
+        this.pageSize = paging && request.getPageSize() != null ? request.getPageSize() : 0;
+        this.pageNumber = paging && request.getPageNumber() != null ? request.getPageNumber() : 0;
+        this.sortBy = request.getSortBy();
+        this.sortDirection = request.getSortDirection() != null ? request.getSortDirection().toLowerCase() : null;
+        this.cursor = paging && request.hasCursor() ? request.getCursor() : null;
+        this.snapshotVersion = request.getSnapshotVersion();
+    }
+
+    /**
+     * Chave de uma página específica da consulta.
+     */
+    public static ResultCacheKey of(FilterRequest request) {
+        return new ResultCacheKey(request, true);
+    }
+
+    /**
+     * Chave do resultado ordenado completo: mesmos filtros e ordenação, qualquer página.
+     */
+    public static ResultCacheKey forOrdering(FilterRequest request) {
+        return new ResultCacheKey(request, false);
+    }
+
+    /**
+     * Indica se a consulta filtra por janela de tempo ({@code ultimosMinutos}),
+     * cujo resultado muda com o relógio mesmo sem novos dados.
+     */
+    public boolean hasTimeWindow() {
+        return ultimosMinutos > 0;
+    }
+
+    private static Set<String> canonical(List<String> values) {
+        Set<String> result = new TreeSet<>();
+        for (String value : values) {
+            if (value != null) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ResultCacheKey other)) return false;
+        return latitude == other.latitude
+                && longitude == other.longitude
+                && raioMetros == other.raioMetros
+                && ultimosMinutos == other.ultimosMinutos
+                && pageSize == other.pageSize
+                && pageNumber == other.pageNumber
+                && Objects.equals(linhas, other.linhas)
+                && Objects.equals(ordens, other.ordens)
+                && Objects.equals(sortBy, other.sortBy)
+                && Objects.equals(sortDirection, other.sortDirection)
+                && Objects.equals(cursor, other.cursor)
+                && Objects.equals(snapshotVersion, other.snapshotVersion);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(linhas, ordens, latitude, longitude, raioMetros, ultimosMinutos,
+                pageSize, pageNumber, sortBy, sortDirection, cursor, snapshotVersion);
+    }
+
+    @Override
+    public String toString() {
+        return "ResultCacheKey{" +
+                "linhas=" + linhas +
+                ", ordens=" + ordens +
+                ", ultimosMinutos=" + ultimosMinutos +
+                ", pageSize=" + pageSize +
+                ", pageNumber=" + pageNumber +
+                ", sortBy='" + sortBy + '\'' +
+                ", sortDirection='" + sortDirection + '\'' +
+                ", snapshotVersion=" + snapshotVersion +
+                '}';
+    }
+}
@@ -0,0 +1,117 @@
+package com.azvtech.filter_service.cache;
+
+import com.azvtech.filter_service.config.FilterProperties;
+import com.azvtech.filter_service.dto.TrajectoryPoint;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Cache dos trechos simplificados de trajetória, por veículo, bloco de tempo e tolerância.
+ *
+ * <p>Apenas blocos encerrados (o veículo já tem ponto posterior ao fim do
+ * bloco) são guardados, pois o histórico só recebe pontos em ordem
+ * crescente. Cada entrada registra quantos pontos brutos o bloco tinha: se o
+ * histórico descartou parte deles, a entrada deixa de valer. O peso é a
+ * quantidade de pontos simplificados.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class SimplifiedTrajectoryCache {
+
+    private final Cache<Key, Entry> cache;
+    private final boolean enabled;
+
+    public SimplifiedTrajectoryCache() {
+        this(new FilterProperties.Cache());
+    }
+
+    public SimplifiedTrajectoryCache(FilterProperties.Cache config) {
+        this.enabled = config.isEnabled() && config.getSimplifiedMaxPoints() > 0;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(Math.max(0, config.getSimplifiedMaxPoints()))
+                .weigher((Key key, Entry entry) -> Math.max(1, entry.points.size()))
+                .expireAfterAccess(Duration.ofMillis(Math.max(0, config.getSimplifiedTtlMs())))
+                .build();
+    }
+
+    /**
+     * Retorna os pontos simplificados do bloco, ou null se ausente ou se o
+     * bloco não tem mais a mesma quantidade de pontos brutos.
+     */
+    public List<TrajectoryPoint> get(Key key, int rawCount) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(key);
+        return entry != null && entry.rawCount == rawCount ? entry.points : null;
+    }
+
+    public void put(Key key, int rawCount, List<TrajectoryPoint> points) {
+        if (enabled) {
+            cache.put(key, new Entry(rawCount, List.copyOf(points)));
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Chave de um bloco: veículo, início do bloco, tolerância e filtro de linhas.
+     */
+    public static final class Key {
+
+        private final String ordem;
+        private final long blockStartMillis;
+        private final double toleranceMeters;
+        private final List<String> linhas;
+
+        public Key(String ordem, long blockStartMillis, double toleranceMeters, List<String> linhas) {
+            this.ordem = ordem;
+            this.blockStartMillis = blockStartMillis;
+            this.toleranceMeters = toleranceMeters;
+            this.linhas = linhas != null
+                    ? linhas.stream().filter(Objects::nonNull).sorted().distinct().toList()
+                    : null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return blockStartMillis == other.blockStartMillis
+                    && Double.compare(toleranceMeters, other.toleranceMeters) == 0
+                    && Objects.equals(ordem, other.ordem)
+                    && Objects.equals(linhas, other.linhas);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ordem, blockStartMillis, toleranceMeters, linhas);
+        }
+    }
+
+    private static final class Entry {
+        final int rawCount;
+        final List<TrajectoryPoint> points;
+
+        Entry(int rawCount, List<TrajectoryPoint> points) {
+            this.rawCount = rawCount;
+            this.points = points;
+        }
+    }
+}
@@ -1 +1,30 @@
+package com.azvtech.filter_service.config;
 
+import com.azvtech.filter_service.cache.QueryResultCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuração do cache de resultados de consulta.
+ *
+ * <p>Cria o {@link QueryResultCache} a partir de {@code filter.cache.*} e
+ * exporta as estatísticas do Caffeine (acertos, faltas, remoções) para o
+ * Micrometer com o nome {@value QueryResultCache#CACHE_NAME}.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public QueryResultCache queryResultCache(FilterProperties properties, ObjectProvider<MeterRegistry> registry) {
+        QueryResultCache cache = new QueryResultCache(properties.getCache());
+        registry.ifAvailable(meterRegistry ->
+                CaffeineCacheMetrics.monitor(meterRegistry, cache.getNativeCache(), QueryResultCache.CACHE_NAME));
+        return cache;
+    }
+}
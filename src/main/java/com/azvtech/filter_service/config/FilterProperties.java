@@ -0,0 +1,793 @@
+package com.azvtech.filter_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Propriedades de configuração do serviço de filtros ({@code filter.*}).
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+@ConfigurationProperties(prefix = "filter")
+public class FilterProperties {
+
+    private final Store store = new Store();
+
+    private final Query query = new Query();
+
+    private final Cache cache = new Cache();
+
+    private final Kafka kafka = new Kafka();
+
+    private final Ingest ingest = new Ingest();
+
+    private final History history = new History();
+
+    private final Snapshot snapshot = new Snapshot();
+
+    public Store getStore() {
+        return store;
+    }
+
+    public Query getQuery() {
+        return query;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Kafka getKafka() {
+        return kafka;
+    }
+
+    public Ingest getIngest() {
+        return ingest;
+    }
+
+    public History getHistory() {
+        return history;
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Configurações do armazenamento em memória ({@code filter.store.*}).
+     */
+    public static class Store {
+
+        /**
+         * Implementação do armazenamento: mapa de objetos, colunas primitivas ou buffer fora do heap.
+         */
+        private StoreType type = StoreType.MAP;
+
+        /**
+         * Capacidade inicial (em veículos) dos armazenamentos baseados em slots.
+         */
+        private int initialCapacity = 1024;
+
+        /**
+         * Janela de retenção: registros mais antigos que isso são removidos.
+         */
+        private int retentionMinutes = 10;
+
+        /**
+         * Intervalo entre execuções da remoção de dados antigos.
+         */
+        private long evictionIntervalMs = 30_000;
+
+        /**
+         * Quantidade de shards (partições pelo hash da ordem): 0 usa um por
+         * processador disponível e 1 mantém um único armazenamento.
+         */
+        private int shards = 0;
+
+        private final OffHeap offHeap = new OffHeap();
+
+        public StoreType getType() {
+            return type;
+        }
+
+        public void setType(StoreType type) {
+            this.type = type;
+        }
+
+        public int getInitialCapacity() {
+            return initialCapacity;
+        }
+
+        public void setInitialCapacity(int initialCapacity) {
+            this.initialCapacity = initialCapacity;
+        }
+
+        public int getRetentionMinutes() {
+            return retentionMinutes;
+        }
+
+        public void setRetentionMinutes(int retentionMinutes) {
+            this.retentionMinutes = retentionMinutes;
+        }
+
+        public long getEvictionIntervalMs() {
+            return evictionIntervalMs;
+        }
+
+        public void setEvictionIntervalMs(long evictionIntervalMs) {
+            this.evictionIntervalMs = evictionIntervalMs;
+        }
+
+        public int getShards() {
+            return shards;
+        }
+
+        public void setShards(int shards) {
+            this.shards = shards;
+        }
+
+        /**
+         * Quantidade efetiva de shards, resolvendo o valor automático.
+         */
+        public int resolveShardCount() {
+            return shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+        }
+
+        public OffHeap getOffHeap() {
+            return offHeap;
+        }
+    }
+
+    /**
+     * Limites do armazenamento fora do heap ({@code filter.store.off-heap.*}).
+     */
+    public static class OffHeap {
+
+        /**
+         * Quantidade máxima de veículos; novos veículos além disso são rejeitados.
+         */
+        private int maxCapacity = 1_000_000;
+
+        /**
+         * Fator de crescimento do buffer quando a capacidade se esgota.
+         */
+        private double growthFactor = 2.0;
+
+        public int getMaxCapacity() {
+            return maxCapacity;
+        }
+
+        public void setMaxCapacity(int maxCapacity) {
+            this.maxCapacity = maxCapacity;
+        }
+
+        public double getGrowthFactor() {
+            return growthFactor;
+        }
+
+        public void setGrowthFactor(double growthFactor) {
+            this.growthFactor = growthFactor;
+        }
+    }
+
+    /**
+     * Configurações de compilação de consultas ({@code filter.query.*}).
+     */
+    public static class Query {
+
+        /**
+         * Quantidade máxima de planos compilados mantidos para formas de consulta repetidas.
+         */
+        private int planCacheSize = 256;
+
+        /**
+         * Fração da frota acima da qual um índice deixa de compensar e a consulta usa varredura completa.
+         */
+        private double fullScanSelectivity = 0.5;
+
+        /**
+         * Candidatos estimados a partir dos quais a consulta é executada em paralelo;
+         * abaixo disso, roda na própria thread da requisição.
+         */
+        private int parallelThreshold = 4096;
+
+        /**
+         * Registros avaliados por tarefa na execução paralela.
+         */
+        private int chunkSize = 1024;
+
+        /**
+         * Threads do pool dedicado às consultas (0 usa uma por processador disponível).
+         */
+        private int parallelism = 0;
+
+        /**
+         * Repassa as consultas recebidas em threads virtuais ao pool de consultas
+         * (threads de plataforma), limitando o trabalho de CPU simultâneo.
+         */
+        private boolean offloadVirtualThreads = true;
+
+        /**
+         * Conta exatamente os aceitos nas páginas servidas pela visão ordenada
+         * (uma varredura por página); desligado, o total é o limite superior estimado pelo planejador.
+         */
+        private boolean exactSortedViewCount = false;
+
+        public int getPlanCacheSize() {
+            return planCacheSize;
+        }
+
+        public void setPlanCacheSize(int planCacheSize) {
+            this.planCacheSize = planCacheSize;
+        }
+
+        public double getFullScanSelectivity() {
+            return fullScanSelectivity;
+        }
+
+        public void setFullScanSelectivity(double fullScanSelectivity) {
+            this.fullScanSelectivity = fullScanSelectivity;
+        }
+
+        public int getParallelThreshold() {
+            return parallelThreshold;
+        }
+
+        public void setParallelThreshold(int parallelThreshold) {
+            this.parallelThreshold = parallelThreshold;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public boolean isOffloadVirtualThreads() {
+            return offloadVirtualThreads;
+        }
+
+        public void setOffloadVirtualThreads(boolean offloadVirtualThreads) {
+            this.offloadVirtualThreads = offloadVirtualThreads;
+        }
+
+        public boolean isExactSortedViewCount() {
+            return exactSortedViewCount;
+        }
+
+        public void setExactSortedViewCount(boolean exactSortedViewCount) {
+            this.exactSortedViewCount = exactSortedViewCount;
+        }
+
+        /**
+         * Quantidade efetiva de threads do pool de consultas, resolvendo o valor automático.
+         */
+        public int resolveParallelism() {
+            return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    /**
+     * Cache de resultados de consulta ({@code filter.cache.*}).
+     */
+    public static class Cache {
+
+        private boolean enabled = true;
+
+        /**
+         * Quantidade máxima de respostas em cache.
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * Tempo de vida de uma resposta, independentemente da versão dos dados.
+         */
+        private long ttlMs = 30_000;
+
+        /**
+         * Tempo de vida máximo das respostas de consultas por janela de tempo
+         * ({@code ultimosMinutos}), que mudam com o relógio mesmo sem novos dados.
+         */
+        private long timeWindowTtlMs = 1_000;
+
+        /**
+         * Por quanto tempo uma resposta ainda pode ser servida (como STALE) depois
+         * que a ingestão alterou os dados. Zero invalida a cada alteração.
+         */
+        private long maxStaleMs = 0;
+
+        /**
+         * Por quanto tempo o resultado filtrado e ordenado de uma consulta é
+         * reaproveitado pelas páginas seguintes (pageNumber maior que zero).
+         */
+        private long orderedResultTtlMs = 2_000;
+
+        /**
+         * Limite de memória dos resultados ordenados: total de ordens guardadas somando todas as consultas.
+         */
+        private long orderedResultMaxOrdens = 1_000_000;
+
+        /**
+         * Limite de memória dos trechos de trajetória simplificados: total de pontos guardados.
+         */
+        private long simplifiedMaxPoints = 500_000;
+
+        /**
+         * Tempo sem acesso após o qual um trecho simplificado sai do cache.
+         */
+        private long simplifiedTtlMs = 600_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public long getTtlMs() {
+            return ttlMs;
+        }
+
+        public void setTtlMs(long ttlMs) {
+            this.ttlMs = ttlMs;
+        }
+
+        public long getTimeWindowTtlMs() {
+            return timeWindowTtlMs;
+        }
+
+        public void setTimeWindowTtlMs(long timeWindowTtlMs) {
+            this.timeWindowTtlMs = timeWindowTtlMs;
+        }
+
+        public long getMaxStaleMs() {
+            return maxStaleMs;
+        }
+
+        public void setMaxStaleMs(long maxStaleMs) {
+            this.maxStaleMs = maxStaleMs;
+        }
+
+        public long getOrderedResultTtlMs() {
+            return orderedResultTtlMs;
+        }
+
+        public void setOrderedResultTtlMs(long orderedResultTtlMs) {
+            this.orderedResultTtlMs = orderedResultTtlMs;
+        }
+
+        public long getOrderedResultMaxOrdens() {
+            return orderedResultMaxOrdens;
+        }
+
+        public void setOrderedResultMaxOrdens(long orderedResultMaxOrdens) {
+            this.orderedResultMaxOrdens = orderedResultMaxOrdens;
+        }
+
+        public long getSimplifiedMaxPoints() {
+            return simplifiedMaxPoints;
+        }
+
+        public void setSimplifiedMaxPoints(long simplifiedMaxPoints) {
+            this.simplifiedMaxPoints = simplifiedMaxPoints;
+        }
+
+        public long getSimplifiedTtlMs() {
+            return simplifiedTtlMs;
+        }
+
+        public void setSimplifiedTtlMs(long simplifiedTtlMs) {
+            this.simplifiedTtlMs = simplifiedTtlMs;
+        }
+    }
+
+    /**
+     * Ingestão de posições pelo Kafka ({@code filter.kafka.*}).
+     * A conexão com o broker usa {@code spring.kafka.bootstrap-servers}.
+     */
+    public static class Kafka {
+
+        private boolean enabled = false;
+
+        private String topic = "gps-data";
+
+        private String groupId = "filter-service";
+
+        /**
+         * Quantidade de consumidores do listener (limitada pelo número de partições do tópico).
+         */
+        private int concurrency = 1;
+
+        /**
+         * Quantidade máxima de mensagens entregues em cada lote ({@code max.poll.records}).
+         */
+        private int maxPollRecords = 500;
+
+        /**
+         * Bytes mínimos que o broker acumula antes de responder a um fetch ({@code fetch.min.bytes}).
+         */
+        private int fetchMinBytes = 1;
+
+        /**
+         * Espera máxima do broker por {@code fetchMinBytes} ({@code fetch.max.wait.ms}).
+         */
+        private int fetchMaxWaitMs = 500;
+
+        /**
+         * Bytes máximos retornados por partição em cada fetch ({@code max.partition.fetch.bytes}).
+         */
+        private int maxPartitionFetchBytes = 1_048_576;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getTopic() {
+            return topic;
+        }
+
+        public void setTopic(String topic) {
+            this.topic = topic;
+        }
+
+        public String getGroupId() {
+            return groupId;
+        }
+
+        public void setGroupId(String groupId) {
+            this.groupId = groupId;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public int getMaxPollRecords() {
+            return maxPollRecords;
+        }
+
+        public void setMaxPollRecords(int maxPollRecords) {
+            this.maxPollRecords = maxPollRecords;
+        }
+
+        public int getFetchMinBytes() {
+            return fetchMinBytes;
+        }
+
+        public void setFetchMinBytes(int fetchMinBytes) {
+            this.fetchMinBytes = fetchMinBytes;
+        }
+
+        public int getFetchMaxWaitMs() {
+            return fetchMaxWaitMs;
+        }
+
+        public void setFetchMaxWaitMs(int fetchMaxWaitMs) {
+            this.fetchMaxWaitMs = fetchMaxWaitMs;
+        }
+
+        public int getMaxPartitionFetchBytes() {
+            return maxPartitionFetchBytes;
+        }
+
+        public void setMaxPartitionFetchBytes(int maxPartitionFetchBytes) {
+            this.maxPartitionFetchBytes = maxPartitionFetchBytes;
+        }
+    }
+
+    /**
+     * Fila de ingestão entre os consumidores e o armazenamento ({@code filter.ingest.*}).
+     */
+    public static class Ingest {
+
+        /**
+         * Publica as posições em uma fila limitada drenada por uma única thread aplicadora.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Quantidade máxima de registros pendentes na fila.
+         */
+        private int queueCapacity = 65_536;
+
+        /**
+         * O que fazer quando a fila enche.
+         */
+        private IngestPolicy policy = IngestPolicy.BLOCK;
+
+        /**
+         * Ocupação (fração da capacidade) a partir da qual o consumidor Kafka é pausado.
+         */
+        private double highWatermark = 0.8;
+
+        /**
+         * Ocupação abaixo da qual o consumidor Kafka pausado é retomado.
+         */
+        private double lowWatermark = 0.5;
+
+        /**
+         * Quantidade máxima de registros aplicados por lote drenado.
+         */
+        private int drainBatchSize = 1_024;
+
+        /**
+         * Pausa da thread aplicadora quando a fila está vazia.
+         */
+        private long idleParkMicros = 100;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public IngestPolicy getPolicy() {
+            return policy;
+        }
+
+        public void setPolicy(IngestPolicy policy) {
+            this.policy = policy;
+        }
+
+        public double getHighWatermark() {
+            return highWatermark;
+        }
+
+        public void setHighWatermark(double highWatermark) {
+            this.highWatermark = highWatermark;
+        }
+
+        public double getLowWatermark() {
+            return lowWatermark;
+        }
+
+        public void setLowWatermark(double lowWatermark) {
+            this.lowWatermark = lowWatermark;
+        }
+
+        public int getDrainBatchSize() {
+            return drainBatchSize;
+        }
+
+        public void setDrainBatchSize(int drainBatchSize) {
+            this.drainBatchSize = drainBatchSize;
+        }
+
+        public long getIdleParkMicros() {
+            return idleParkMicros;
+        }
+
+        public void setIdleParkMicros(long idleParkMicros) {
+            this.idleParkMicros = idleParkMicros;
+        }
+    }
+
+    /**
+     * Histórico de posições por veículo ({@code filter.history.*}).
+     */
+    public static class History {
+
+        private boolean enabled = true;
+
+        /**
+         * Pontos mantidos por veículo (120 pontos = 30 minutos com envio a cada 15 s).
+         */
+        private int capacityPerVehicle = 120;
+
+        /**
+         * Total de pontos somando todos os veículos; define quantos veículos têm histórico.
+         */
+        private long maxPoints = 2_400_000;
+
+        /**
+         * Veículos sem posição há mais tempo que isso perdem o histórico.
+         */
+        private int retentionMinutes = 30;
+
+        /**
+         * Formato das séries: arrays primitivos ou blocos compactados (históricos longos).
+         */
+        private HistoryFormat format = HistoryFormat.RING;
+
+        /**
+         * Pontos por bloco no formato compactado.
+         */
+        private int blockSize = 512;
+
+        /**
+         * Duração dos blocos de tempo simplificados (e guardados em cache) separadamente.
+         */
+        private int simplifyBlockMinutes = 30;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCapacityPerVehicle() {
+            return capacityPerVehicle;
+        }
+
+        public void setCapacityPerVehicle(int capacityPerVehicle) {
+            this.capacityPerVehicle = capacityPerVehicle;
+        }
+
+        public long getMaxPoints() {
+            return maxPoints;
+        }
+
+        public void setMaxPoints(long maxPoints) {
+            this.maxPoints = maxPoints;
+        }
+
+        public int getRetentionMinutes() {
+            return retentionMinutes;
+        }
+
+        public void setRetentionMinutes(int retentionMinutes) {
+            this.retentionMinutes = retentionMinutes;
+        }
+
+        public HistoryFormat getFormat() {
+            return format;
+        }
+
+        public void setFormat(HistoryFormat format) {
+            this.format = format;
+        }
+
+        public int getBlockSize() {
+            return blockSize;
+        }
+
+        public void setBlockSize(int blockSize) {
+            this.blockSize = blockSize;
+        }
+
+        public int getSimplifyBlockMinutes() {
+            return simplifyBlockMinutes;
+        }
+
+        public void setSimplifyBlockMinutes(int simplifyBlockMinutes) {
+            this.simplifyBlockMinutes = simplifyBlockMinutes;
+        }
+    }
+
+    /**
+     * Versões imutáveis dos dados para consultas ({@code filter.snapshot.*}).
+     */
+    public static class Snapshot {
+
+        private boolean enabled = false;
+
+        /**
+         * Intervalo de publicação de uma nova versão com as alterações acumuladas.
+         */
+        private long publishIntervalMs = 100;
+
+        /**
+         * Por quanto tempo versões anteriores continuam consultáveis (paginação por versão).
+         */
+        private long retentionMs = 5_000;
+
+        /**
+         * Máximo de versões retidas, independentemente do tempo.
+         */
+        private int maxRetained = 64;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getPublishIntervalMs() {
+            return publishIntervalMs;
+        }
+
+        public void setPublishIntervalMs(long publishIntervalMs) {
+            this.publishIntervalMs = publishIntervalMs;
+        }
+
+        public long getRetentionMs() {
+            return retentionMs;
+        }
+
+        public void setRetentionMs(long retentionMs) {
+            this.retentionMs = retentionMs;
+        }
+
+        public int getMaxRetained() {
+            return maxRetained;
+        }
+
+        public void setMaxRetained(int maxRetained) {
+            this.maxRetained = maxRetained;
+        }
+    }
+
+    /**
+     * Implementações disponíveis de armazenamento de veículos.
+     */
+    public enum StoreType {
+        MAP,
+        COLUMNAR,
+        OFF_HEAP
+    }
+
+    /**
+     * Formatos das séries do histórico de posições.
+     */
+    public enum HistoryFormat {
+        /**
+         * Buffer circular em arrays primitivos (22 bytes por ponto).
+         */
+        RING,
+        /**
+         * Blocos com delta-do-delta e bits de tamanho variável (poucos bytes por ponto).
+         */
+        COMPRESSED
+    }
+
+    /**
+     * Políticas da fila de ingestão quando ela enche.
+     */
+    public enum IngestPolicy {
+        /**
+         * Fila circular sem descarte: produtores esperam por espaço.
+         */
+        BLOCK,
+        /**
+         * Descarta o registro pendente mais antigo do mesmo veículo (ou, se ele
+         * não tiver nenhum, do veículo que espera há mais tempo).
+         */
+        DROP_OLDEST_PER_VEHICLE,
+        /**
+         * Mantém apenas o registro mais recente de cada veículo; produtores
+         * esperam apenas quando um novo veículo não cabe na fila.
+         */
+        KEEP_LATEST_PER_VEHICLE
+    }
+}
@@ -0,0 +1,72 @@
+package com.azvtech.filter_service.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+
+import java.util.Map;
+
+/**
+ * Configuração do consumo de posições GPS pelo Kafka ({@code filter.kafka.enabled=true}).
+ *
+ * <p>Define a fábrica de containers em lote usada pelo
+ * {@link com.azvtech.filter_service.integration.GpsDataConsumer}: cada
+ * chamada do listener recebe até {@code max-poll-records} mensagens, e os
+ * parâmetros de fetch permitem trocar latência por lotes maiores. As demais
+ * propriedades do consumidor vêm de {@code spring.kafka.*}.</p>
+ *
+ * <p>Com {@code spring.threads.virtual.enabled} (perfil {@code virtual-threads}),
+ * as threads dos containers são virtuais: o listener espera a fila de
+ * ingestão sem ocupar uma thread de plataforma.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+@Configuration
+@EnableKafka
+@ConditionalOnProperty(prefix = "filter.kafka", name = "enabled", havingValue = "true")
+public class KafkaConfig {
+
+    public static final String BATCH_LISTENER_FACTORY = "gpsBatchListenerFactory";
+
+    @Bean
+    public ConsumerFactory<String, String> gpsConsumerFactory(KafkaProperties kafkaProperties,
+                                                               FilterProperties properties) {
+        FilterProperties.Kafka kafka = properties.getKafka();
+        Map<String, Object> config = kafkaProperties.buildConsumerProperties(null);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, kafka.getGroupId());
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, kafka.getMaxPollRecords());
+        config.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, kafka.getFetchMinBytes());
+        config.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, kafka.getFetchMaxWaitMs());
+        config.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, kafka.getMaxPartitionFetchBytes());
+        return new DefaultKafkaConsumerFactory<>(config);
+    }
+
+    @Bean(name = BATCH_LISTENER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, String> gpsBatchListenerFactory(
+            ConsumerFactory<String, String> gpsConsumerFactory, FilterProperties properties,
+            Environment environment) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(gpsConsumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(Math.max(1, properties.getKafka().getConcurrency()));
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("gps-kafka-");
+            executor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(executor);
+        }
+        return factory;
+    }
+}
@@ -2,6 +2,8 @@ package com.azvtech.filter_service.controller;
 
 import com.azvtech.filter_service.dto.FilterRequest;
 import com.azvtech.filter_service.dto.FilterResponse;
+import com.azvtech.filter_service.dto.TrajectoryRequest;
+import com.azvtech.filter_service.dto.TrajectoryResponse;
 import com.azvtech.filter_service.metrics.ServiceMetrics;
 import com.azvtech.filter_service.service.GpsFilterService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,9 +17,7 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.http.converter.HttpMessageNotReadableException;
 
 /**
  * Controller REST para endpoints de filtro de dados GPS.
@@ -60,6 +60,27 @@ public class GpsFilterController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/trajectories")
+    @Operation(
+            summary = "Trajetórias recentes dos veículos",
+            description = "Retorna, por veículo, as posições registradas na janela pedida, para as ordens ou linhas informadas."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Trajetórias retornadas com sucesso",
+                    content = @Content(schema = @Schema(implementation = TrajectoryResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Requisição inválida")
+    })
+    public ResponseEntity<TrajectoryResponse> getTrajectories(
+            @Parameter(description = "Veículos, linhas e janela da trajetória", required = true)
+            @Valid @RequestBody TrajectoryRequest request) {
+
+        logger.info("Recebida consulta de trajetórias: {}", request);
+        TrajectoryResponse response = filterService.getTrajectories(request);
+        logger.debug("Trajetórias processadas: {} veículos retornados", response.getCurrentCount());
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/health")
     @Operation(summary = "Health check do serviço", description = "Verifica se o serviço está funcionando")
     @ApiResponse(responseCode = "200", description = "Serviço saudável")
@@ -105,24 +126,4 @@ public class GpsFilterController {
         ServiceMetrics metrics = filterService.getServiceMetrics();
         return ResponseEntity.ok("Active records: " + metrics.getActiveRecords());
     }
-
-    // Exception Handlers
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<String> handleValidationException(MethodArgumentNotValidException ex) {
-        logger.warn("Requisição inválida: {}", ex.getMessage());
-        return ResponseEntity.badRequest().body("Dados de entrada inválidos: " +
-                ex.getBindingResult().getFieldErrors().get(0).getDefaultMessage());
-    }
-
-    @ExceptionHandler(HttpMessageNotReadableException.class)
-    public ResponseEntity<String> handleJsonParseException(HttpMessageNotReadableException ex) {
-        logger.warn("JSON inválido: {}", ex.getMessage());
-        return ResponseEntity.badRequest().body("JSON malformado");
-    }
-
-    @ExceptionHandler(Exception.class)
-    public ResponseEntity<String> handleGenericException(Exception ex) {
-        logger.error("Erro interno ao processar filtro: {}", ex.getMessage(), ex);
-        return ResponseEntity.internalServerError().body("Erro interno do servidor");
-    }
 }
\ No newline at end of file
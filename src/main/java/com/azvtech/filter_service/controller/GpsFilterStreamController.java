@@ -0,0 +1,85 @@
+package com.azvtech.filter_service.controller;
+
+import com.azvtech.filter_service.dto.FilterRequest;
+import com.azvtech.filter_service.dto.GpsDataResponse;
+import com.azvtech.filter_service.query.ResultStream;
+import com.azvtech.filter_service.service.GpsFilterService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+/**
+ * Controller REST para consumo do resultado completo de um filtro em
+ * streaming (NDJSON: um {@link GpsDataResponse} por linha).
+ *
+ * <p>A consulta é validada e planejada antes da resposta começar, de modo que
+ * requisições inválidas ainda recebem 400. Os registros são então
+ * serializados um a um, diretamente do percurso do serviço: a escrita
+ * bloqueante no socket regula o ritmo do percurso (um cliente lento pausa a
+ * leitura dos dados), e a lista de respostas nunca é montada em memória.
+ * Com snapshots, o resultado vem da versão fixada no início da requisição
+ * (ver {@link GpsFilterService#openStream(FilterRequest)}).</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/v1/filter")
+@Tag(name = "GPS Filter API", description = "APIs para filtros em tempo real de dados GPS")
+public class GpsFilterStreamController {
+
+    private static final Logger logger = LoggerFactory.getLogger(GpsFilterStreamController.class);
+
+    private final GpsFilterService filterService;
+    private final NdjsonStreamWriter writer;
+
+    public GpsFilterStreamController(GpsFilterService filterService, ObjectMapper objectMapper) {
+        this.filterService = filterService;
+        this.writer = new NdjsonStreamWriter(objectMapper);
+    }
+
+    @PostMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Filtrar dados GPS em streaming",
+            description = "Aplica os mesmos filtros e a mesma ordenação do endpoint paginado e envia o resultado "
+                    + "completo como NDJSON, à medida que o cliente o consome. A paginação por número é "
+                    + "ignorada; o cursor, se informado, define o ponto de partida."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Resultado enviado em streaming"),
+            @ApiResponse(responseCode = "400", description = "Requisição inválida")
+    })
+    public ResponseEntity<StreamingResponseBody> streamGpsData(
+            @Parameter(description = "Parâmetros de filtro", required = true)
+            @Valid @RequestBody FilterRequest request) {
+
+        logger.info("Recebida solicitação de filtro em streaming: {}", request);
+        ResultStream stream = filterService.openStream(request);
+
+        StreamingResponseBody body = output -> {
+            try {
+                int written = writer.write(stream, output);
+                logger.debug("Streaming concluído: {} registros enviados", written);
+            } catch (IOException e) {
+                // Cliente desconectado: o percurso já foi interrompido pela falha de escrita
+                logger.debug("Streaming interrompido: {}", e.getMessage());
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
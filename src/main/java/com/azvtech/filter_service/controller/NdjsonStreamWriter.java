@@ -0,0 +1,69 @@
+package com.azvtech.filter_service.controller;
+
+import com.azvtech.filter_service.dto.GpsDataResponse;
+import com.azvtech.filter_service.query.ResultStream;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Serializa um {@link ResultStream} como NDJSON (um {@link GpsDataResponse}
+ * por linha) diretamente no destino.
+ *
+ * <p>Um único gerador JSON é reaproveitado por todo o resultado, e o buffer é
+ * enviado ao destino a cada {@value #FLUSH_INTERVAL} registros: a memória
+ * usada não depende do tamanho do resultado.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public final class NdjsonStreamWriter {
+
+    // Registros escritos entre envios explícitos do buffer ao destino
+    static final int FLUSH_INTERVAL = 256;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+
+    public NdjsonStreamWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writerFor(GpsDataResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Escreve todos os registros do resultado; o destino não é fechado.
+     *
+     * @return quantidade de registros escritos
+     * @throws IOException se a escrita falhar (por exemplo, cliente desconectado)
+     */
+    public int write(ResultStream stream, OutputStream output) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            int[] written = {0};
+            try {
+                stream.forEach(response -> {
+                    try {
+                        writer.writeValue(generator, response);
+                        generator.writeRaw('\n');
+                        if (++written[0] % FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                        return true;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            generator.flush();
+            return written[0];
+        }
+    }
+}
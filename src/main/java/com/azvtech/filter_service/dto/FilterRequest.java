@@ -2,6 +2,7 @@ package com.azvtech.filter_service.dto;
 
 import jakarta.validation.constraints.*;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * DTO para representar os parâmetros de filtro para consulta de dados GPS.
@@ -88,6 +89,21 @@ public class FilterRequest {
     @Pattern(regexp = "^(asc|desc)$", message = "Direção de ordenação deve ser 'asc' ou 'desc'")
     private String sortDirection = "desc";
 
+    /**
+     * Cursor opaco retornado em {@link PaginationInfo#getNextCursor()}.
+     * Quando informado, a página começa logo depois do último registro da
+     * página anterior e {@code pageNumber} é ignorado.
+     */
+    private String cursor;
+
+    /**
+     * Versão dos dados ({@code snapshotVersion} de uma resposta anterior) a
+     * consultar, com {@code filter.snapshot.enabled}: mantém páginas
+     * seguintes consistentes com a primeira enquanto a versão estiver retida.
+     * Ausente: versão atual (ou a do cursor).
+     */
+    private Long snapshotVersion;
+
     // Construtores
     public FilterRequest() {
     }
@@ -189,6 +205,22 @@ public class FilterRequest {
         this.sortDirection = sortDirection;
     }
 
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public Long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+
+    public void setSnapshotVersion(Long snapshotVersion) {
+        this.snapshotVersion = snapshotVersion;
+    }
+
     // Métodos utilitários
     /**
      * Verifica se o filtro por linha está ativo.
@@ -218,6 +250,13 @@ public class FilterRequest {
         return ultimosMinutos != null && ultimosMinutos > 0;
     }
 
+    /**
+     * Verifica se a requisição continua uma paginação por cursor.
+     */
+    public boolean hasCursor() {
+        return cursor != null && !cursor.isBlank();
+    }
+
     /**
      * Verifica se há algum filtro ativo.
      */
@@ -226,6 +265,30 @@ public class FilterRequest {
                 hasLocationFilter() || hasTimeFilter();
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FilterRequest that)) return false;
+        return Objects.equals(linhas, that.linhas) &&
+                Objects.equals(ordens, that.ordens) &&
+                Objects.equals(latitude, that.latitude) &&
+                Objects.equals(longitude, that.longitude) &&
+                Objects.equals(raioKm, that.raioKm) &&
+                Objects.equals(ultimosMinutos, that.ultimosMinutos) &&
+                Objects.equals(pageSize, that.pageSize) &&
+                Objects.equals(pageNumber, that.pageNumber) &&
+                Objects.equals(sortBy, that.sortBy) &&
+                Objects.equals(sortDirection, that.sortDirection) &&
+                Objects.equals(cursor, that.cursor) &&
+                Objects.equals(snapshotVersion, that.snapshotVersion);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(linhas, ordens, latitude, longitude, raioKm, ultimosMinutos,
+                pageSize, pageNumber, sortBy, sortDirection, cursor, snapshotVersion);
+    }
+
     @Override
     public String toString() {
         return "FilterRequest{" +
@@ -239,6 +302,8 @@ public class FilterRequest {
                 ", pageNumber=" + pageNumber +
                 ", sortBy='" + sortBy + '\'' +
                 ", sortDirection='" + sortDirection + '\'' +
+                ", cursor='" + cursor + '\'' +
+                ", snapshotVersion=" + snapshotVersion +
                 '}';
     }
 }
\ No newline at end of file
@@ -16,6 +16,21 @@ public class PaginationInfo {
     private int totalPages;
     private long totalElements;
 
+    /**
+     * Indica que {@code totalElements} é um limite superior estimado, e não a contagem exata.
+     */
+    private boolean totalEstimated;
+
+    /**
+     * Cursor para a próxima página (paginação por chave), ou null se esta for a última.
+     */
+    private String nextCursor;
+
+    /**
+     * Versão dos dados em memória quando a página foi montada.
+     */
+    private long dataVersion;
+
     // Construtores
     public PaginationInfo() {
     }
@@ -60,6 +75,30 @@ public class PaginationInfo {
         this.totalElements = totalElements;
     }
 
+    public boolean isTotalEstimated() {
+        return totalEstimated;
+    }
+
+    public void setTotalEstimated(boolean totalEstimated) {
+        this.totalEstimated = totalEstimated;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public long getDataVersion() {
+        return dataVersion;
+    }
+
+    public void setDataVersion(long dataVersion) {
+        this.dataVersion = dataVersion;
+    }
+
     /**
      * Verifica se existe próxima página.
      */
@@ -95,6 +134,9 @@ public class PaginationInfo {
                 ", pageSize=" + pageSize +
                 ", totalPages=" + totalPages +
                 ", totalElements=" + totalElements +
+                ", totalEstimated=" + totalEstimated +
+                ", nextCursor='" + nextCursor + '\'' +
+                ", dataVersion=" + dataVersion +
                 '}';
     }
 }
\ No newline at end of file
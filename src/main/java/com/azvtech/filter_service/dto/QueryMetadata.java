@@ -18,6 +18,26 @@ public class QueryMetadata {
     private LocalDateTime queryTimestamp;
     private String cacheStatus;
 
+    /**
+     * Caminho de acesso escolhido pelo planejador (índice condutor, interseção e filtros).
+     */
+    private String queryPlan;
+
+    /**
+     * Quantidade de registros avaliados pelos filtros.
+     */
+    private int candidateCount;
+
+    /**
+     * Versão imutável dos dados lida pela consulta (null sem {@code filter.snapshot.enabled}).
+     */
+    private Long snapshotVersion;
+
+    /**
+     * Modo de execução escolhido pela estimativa de candidatos ("sequencial" ou "paralelo").
+     */
+    private String executionMode;
+
     // Construtores
     public QueryMetadata() {
         this.queryTimestamp = LocalDateTime.now();
@@ -63,6 +83,38 @@ public class QueryMetadata {
         this.cacheStatus = cacheStatus;
     }
 
+    public String getQueryPlan() {
+        return queryPlan;
+    }
+
+    public void setQueryPlan(String queryPlan) {
+        this.queryPlan = queryPlan;
+    }
+
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    public void setCandidateCount(int candidateCount) {
+        this.candidateCount = candidateCount;
+    }
+
+    public Long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+
+    public void setSnapshotVersion(Long snapshotVersion) {
+        this.snapshotVersion = snapshotVersion;
+    }
+
+    public String getExecutionMode() {
+        return executionMode;
+    }
+
+    public void setExecutionMode(String executionMode) {
+        this.executionMode = executionMode;
+    }
+
     @Override
     public String toString() {
         return "QueryMetadata{" +
@@ -70,6 +122,10 @@ public class QueryMetadata {
                 ", filteredCount=" + filteredCount +
                 ", queryTimestamp=" + queryTimestamp +
                 ", cacheStatus='" + cacheStatus + '\'' +
+                ", queryPlan='" + queryPlan + '\'' +
+                ", candidateCount=" + candidateCount +
+                ", snapshotVersion=" + snapshotVersion +
+                ", executionMode='" + executionMode + '\'' +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.azvtech.filter_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de um ponto da trajetória de um veículo.
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TrajectoryPoint {
+
+    private double latitude;
+    private double longitude;
+    private int velocidade;
+    private String linha;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime datahoraservidor;
+
+    // Construtores
+    public TrajectoryPoint() {
+    }
+
+    public TrajectoryPoint(double latitude, double longitude, int velocidade, String linha,
+                           LocalDateTime datahoraservidor) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.velocidade = velocidade;
+        this.linha = linha;
+        this.datahoraservidor = datahoraservidor;
+    }
+
+    // Getters e Setters
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    public int getVelocidade() {
+        return velocidade;
+    }
+
+    public void setVelocidade(int velocidade) {
+        this.velocidade = velocidade;
+    }
+
+    public String getLinha() {
+        return linha;
+    }
+
+    public void setLinha(String linha) {
+        this.linha = linha;
+    }
+
+    public LocalDateTime getDatahoraservidor() {
+        return datahoraservidor;
+    }
+
+    public void setDatahoraservidor(LocalDateTime datahoraservidor) {
+        this.datahoraservidor = datahoraservidor;
+    }
+}
@@ -0,0 +1,142 @@
+package com.azvtech.filter_service.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
+
+import java.util.List;
+
+/**
+ * DTO com os parâmetros da consulta de trajetórias.
+ *
+ * <p>Informe as ordens dos veículos, as linhas ou ambos. Com linhas, apenas
+ * os pontos registrados nessas linhas fazem parte da trajetória. A paginação
+ * é por veículo. Com {@code toleranciaMetros}, cada trajetória é simplificada
+ * (Douglas–Peucker) para desenho em mapa.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class TrajectoryRequest {
+
+    /**
+     * Números de ordem dos veículos.
+     */
+    private List<String> ordens;
+
+    /**
+     * Linhas de ônibus; restringe os pontos aos registrados nessas linhas.
+     */
+    private List<String> linhas;
+
+    /**
+     * Janela da trajetória em minutos. Valor padrão: 30
+     */
+    @Positive(message = "Limite de minutos deve ser positivo")
+    private Integer ultimosMinutos = 30;
+
+    /**
+     * Tolerância da simplificação em metros: pontos a menos disso da
+     * polilinha simplificada são omitidos. Ausente: todos os pontos.
+     */
+    @DecimalMin(value = "0.0", message = "Tolerância não pode ser negativa")
+    private Double toleranciaMetros;
+
+    /**
+     * Veículos por página. Valor padrão: 20, mínimo: 1, máximo: 100
+     */
+    @Min(value = 1, message = "Tamanho da página deve ser no mínimo 1")
+    @Max(value = 100, message = "Tamanho da página deve ser no máximo 100")
+    private Integer pageSize = 20;
+
+    /**
+     * Número da página (baseado em zero).
+     */
+    @Min(value = 0, message = "Número da página não pode ser negativo")
+    private Integer pageNumber = 0;
+
+    // Construtores
+    public TrajectoryRequest() {
+    }
+
+    public TrajectoryRequest(List<String> ordens, List<String> linhas, Integer ultimosMinutos) {
+        this.ordens = ordens;
+        this.linhas = linhas;
+        this.ultimosMinutos = ultimosMinutos;
+    }
+
+    // Getters e Setters
+    public List<String> getOrdens() {
+        return ordens;
+    }
+
+    public void setOrdens(List<String> ordens) {
+        this.ordens = ordens;
+    }
+
+    public List<String> getLinhas() {
+        return linhas;
+    }
+
+    public void setLinhas(List<String> linhas) {
+        this.linhas = linhas;
+    }
+
+    public Integer getUltimosMinutos() {
+        return ultimosMinutos;
+    }
+
+    public void setUltimosMinutos(Integer ultimosMinutos) {
+        this.ultimosMinutos = ultimosMinutos;
+    }
+
+    public Double getToleranciaMetros() {
+        return toleranciaMetros;
+    }
+
+    public void setToleranciaMetros(Double toleranciaMetros) {
+        this.toleranciaMetros = toleranciaMetros;
+    }
+
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(Integer pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public Integer getPageNumber() {
+        return pageNumber;
+    }
+
+    public void setPageNumber(Integer pageNumber) {
+        this.pageNumber = pageNumber;
+    }
+
+    // Métodos utilitários
+    public boolean hasOrdensFilter() {
+        return ordens != null && !ordens.isEmpty();
+    }
+
+    public boolean hasLinhasFilter() {
+        return linhas != null && !linhas.isEmpty();
+    }
+
+    public boolean hasSimplification() {
+        return toleranciaMetros != null && toleranciaMetros > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "TrajectoryRequest{" +
+                "ordens=" + ordens +
+                ", linhas=" + linhas +
+                ", ultimosMinutos=" + ultimosMinutos +
+                ", toleranciaMetros=" + toleranciaMetros +
+                ", pageSize=" + pageSize +
+                ", pageNumber=" + pageNumber +
+                '}';
+    }
+}
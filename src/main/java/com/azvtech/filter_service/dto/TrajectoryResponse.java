@@ -0,0 +1,59 @@
+package com.azvtech.filter_service.dto;
+
+import java.util.List;
+
+/**
+ * DTO de resposta da consulta de trajetórias, com o mesmo envelope de
+ * paginação e metadados de {@link FilterResponse}.
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class TrajectoryResponse {
+
+    private List<VehicleTrajectory> data;
+    private PaginationInfo pagination;
+    private QueryMetadata metadata;
+
+    // Construtores
+    public TrajectoryResponse() {
+    }
+
+    public TrajectoryResponse(List<VehicleTrajectory> data, PaginationInfo pagination, QueryMetadata metadata) {
+        this.data = data;
+        this.pagination = pagination;
+        this.metadata = metadata;
+    }
+
+    // Getters e Setters
+    public List<VehicleTrajectory> getData() {
+        return data;
+    }
+
+    public void setData(List<VehicleTrajectory> data) {
+        this.data = data;
+    }
+
+    public PaginationInfo getPagination() {
+        return pagination;
+    }
+
+    public void setPagination(PaginationInfo pagination) {
+        this.pagination = pagination;
+    }
+
+    public QueryMetadata getMetadata() {
+        return metadata;
+    }
+
+    public void setMetadata(QueryMetadata metadata) {
+        this.metadata = metadata;
+    }
+
+    /**
+     * Retorna a quantidade de veículos na página atual.
+     */
+    public int getCurrentCount() {
+        return data != null ? data.size() : 0;
+    }
+}
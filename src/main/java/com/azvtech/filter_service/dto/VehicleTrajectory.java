@@ -0,0 +1,68 @@
+package com.azvtech.filter_service.dto;
+
+import java.util.List;
+
+/**
+ * DTO com a trajetória recente de um veículo, em ordem cronológica.
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class VehicleTrajectory {
+
+    private String ordem;
+    private List<TrajectoryPoint> pontos;
+
+    /**
+     * Pontos na janela antes da simplificação (igual a {@code pontos} sem tolerância).
+     */
+    private int pontosOriginais;
+
+    // Construtores
+    public VehicleTrajectory() {
+    }
+
+    public VehicleTrajectory(String ordem, List<TrajectoryPoint> pontos) {
+        this.ordem = ordem;
+        this.pontos = pontos;
+        this.pontosOriginais = pontos != null ? pontos.size() : 0;
+    }
+
+    public VehicleTrajectory(String ordem, List<TrajectoryPoint> pontos, int pontosOriginais) {
+        this.ordem = ordem;
+        this.pontos = pontos;
+        this.pontosOriginais = pontosOriginais;
+    }
+
+    // Getters e Setters
+    public String getOrdem() {
+        return ordem;
+    }
+
+    public void setOrdem(String ordem) {
+        this.ordem = ordem;
+    }
+
+    public List<TrajectoryPoint> getPontos() {
+        return pontos;
+    }
+
+    public void setPontos(List<TrajectoryPoint> pontos) {
+        this.pontos = pontos;
+    }
+
+    public int getPontosOriginais() {
+        return pontosOriginais;
+    }
+
+    public void setPontosOriginais(int pontosOriginais) {
+        this.pontosOriginais = pontosOriginais;
+    }
+
+    /**
+     * Quantidade de pontos da trajetória.
+     */
+    public int getPointCount() {
+        return pontos != null ? pontos.size() : 0;
+    }
+}
@@ -3,16 +3,16 @@ package com.azvtech.filter_service.exception;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.validation.FieldError;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
- * Handler global para exceções da aplicação.
+ * Handler global para exceções da aplicação, comum aos controllers de
+ * filtro, trajetórias e streaming: entradas inválidas (validação, JSON
+ * malformado, cursor ou parâmetros recusados pelo serviço) respondem 400 com
+ * a mensagem; qualquer outra falha responde 500 sem expor detalhes.
  *
  * @author Fellipe Toledo
  */
@@ -22,25 +22,27 @@ public class GlobalExceptionHandler {
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<Map<String, String>> handleValidationExceptions(
-            MethodArgumentNotValidException ex) {
-
-        Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getAllErrors().forEach(error -> {
-            String fieldName = ((FieldError) error).getField();
-            String errorMessage = error.getDefaultMessage();
-            errors.put(fieldName, errorMessage);
-        });
+    public ResponseEntity<String> handleValidationException(MethodArgumentNotValidException ex) {
+        logger.warn("Requisição inválida: {}", ex.getMessage());
+        return ResponseEntity.badRequest().body("Dados de entrada inválidos: " +
+                ex.getBindingResult().getFieldErrors().get(0).getDefaultMessage());
+    }
 
-        logger.warn("Erro de validação: {}", errors);
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<String> handleJsonParseException(HttpMessageNotReadableException ex) {
+        logger.warn("JSON inválido: {}", ex.getMessage());
+        return ResponseEntity.badRequest().body("JSON malformado");
+    }
 
-        return ResponseEntity.badRequest().body(errors);
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex) {
+        logger.warn("Requisição inválida: {}", ex.getMessage());
+        return ResponseEntity.badRequest().body(ex.getMessage());
     }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleGenericException(Exception ex) {
-        logger.error("Erro interno do servidor: {}", ex.getMessage(), ex);
-        return ResponseEntity.internalServerError()
-                .body("Erro interno do servidor: " + ex.getMessage());
+        logger.error("Erro interno ao processar requisição: {}", ex.getMessage(), ex);
+        return ResponseEntity.internalServerError().body("Erro interno do servidor");
     }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.azvtech.filter_service.history;
+
+/**
+ * Leitura sequencial dos bits gravados por {@link BitWriter}.
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+final class BitReader {
+
+    private final long[] words;
+    private long position;
+
+    BitReader(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Lê os próximos {@code bits} (1 a 64) como valor sem sinal.
+     */
+    long read(int bits) {
+        int index = (int) (position >>> 6);
+        int free = 64 - (int) (position & 63);
+        long value;
+        if (bits <= free) {
+            value = (words[index] >>> (free - bits)) & BitWriter.mask(bits);
+        } else {
+            int rest = bits - free;
+            value = ((words[index] & BitWriter.mask(free)) << rest) | (words[index + 1] >>> (64 - rest));
+        }
+        position += bits;
+        return value;
+    }
+
+    boolean readBit() {
+        return read(1) != 0;
+    }
+}
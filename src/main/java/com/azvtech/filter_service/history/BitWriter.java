@@ -0,0 +1,74 @@
+package com.azvtech.filter_service.history;
+
+import java.util.Arrays;
+
+/**
+ * Escrita sequencial de bits (do mais significativo para o menos) em um array de longs.
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+final class BitWriter {
+
+    private long[] words;
+    private long bitLength;
+
+    BitWriter(int initialWords) {
+        this.words = new long[Math.max(1, initialWords)];
+    }
+
+    /**
+     * Escreve os {@code bits} menos significativos do valor (1 a 64).
+     */
+    void write(long value, int bits) {
+        ensureCapacity(bitLength + bits);
+        long masked = value & mask(bits);
+        int index = (int) (bitLength >>> 6);
+        int free = 64 - (int) (bitLength & 63);
+        if (bits <= free) {
+            words[index] |= masked << (free - bits);
+        } else {
+            int rest = bits - free;
+            words[index] |= masked >>> rest;
+            words[index + 1] |= masked << (64 - rest);
+        }
+        bitLength += bits;
+    }
+
+    void writeBit(boolean bit) {
+        write(bit ? 1 : 0, 1);
+    }
+
+    long bitLength() {
+        return bitLength;
+    }
+
+    /**
+     * Array interno; válido até a próxima escrita.
+     */
+    long[] words() {
+        return words;
+    }
+
+    /**
+     * Reduz o array ao necessário para os bits escritos.
+     */
+    void trim() {
+        words = Arrays.copyOf(words, (int) ((bitLength + 63) >>> 6));
+    }
+
+    int allocatedBytes() {
+        return words.length * Long.BYTES;
+    }
+
+    static long mask(int bits) {
+        return bits == 64 ? -1L : (1L << bits) - 1;
+    }
+
+    private void ensureCapacity(long bits) {
+        int needed = (int) ((bits + 63) >>> 6);
+        if (needed > words.length) {
+            words = Arrays.copyOf(words, Math.max(needed, words.length + (words.length >> 1) + 1));
+        }
+    }
+}
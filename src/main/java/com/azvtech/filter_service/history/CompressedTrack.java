@@ -0,0 +1,352 @@
+package com.azvtech.filter_service.history;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+
+/**
+ * Série de posições de um veículo compactada em blocos, para históricos
+ * longos (um dia inteiro) com poucos bytes por ponto.
+ *
+ * <p>Cada bloco guarda o primeiro ponto por extenso e os demais como
+ * sequência de bits, no estilo do Gorilla:</p>
+ * <ul>
+ *   <li>data/hora: delta-do-delta em segundos (ou milissegundos, se algum
+ *       ponto do bloco não cair em segundo exato), com prefixos de tamanho
+ *       variável; envio regular custa 1 bit;</li>
+ *   <li>latitude/longitude: delta-do-delta em ponto fixo de 1e-5 graus
+ *       (~1 m), as duas coordenadas na mesma faixa de bits; veículo parado ou
+ *       em velocidade constante custa 1 bit;</li>
+ *   <li>velocidade: delta em 1, 6 ou 12 bits;</li>
+ *   <li>linha: 1 bit, mais o id quando troca.</li>
+ * </ul>
+ *
+ * <p>Um bloco é fechado ao atingir {@code blockSize} pontos. Os blocos
+ * registram a primeira e a última data/hora, e varreduras por janela de
+ * tempo decodificam só os blocos que a intersectam. Quando a série passa de
+ * {@code capacity} pontos, o bloco mais antigo é descartado inteiro.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class CompressedTrack implements PositionTrack {
+
+    static final double FIXED_POINT_SCALE = 1e5;
+
+    /**
+     * Pontos por bloco padrão (~2 horas com envio a cada 15 s).
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 512;
+
+    private static final int MAX_VELOCIDADE = 1023;
+
+    private final int capacity;
+    private final int blockSize;
+    private final ArrayDeque<Block> blocks = new ArrayDeque<>();
+    private int count;
+
+    public CompressedTrack(int capacity) {
+        this(capacity, DEFAULT_BLOCK_SIZE);
+    }
+
+    public CompressedTrack(int capacity, int blockSize) {
+        if (capacity <= 0 || blockSize <= 1) {
+            throw new IllegalArgumentException("Capacidade e tamanho de bloco do histórico devem ser positivos");
+        }
+        this.capacity = capacity;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public synchronized boolean append(long epoch, double lat, double lon, int speed, int linha) {
+        Block open = blocks.peekLast();
+        if (open != null && epoch <= open.lastEpoch) {
+            return false;
+        }
+        int fixedLat = toFixed(lat);
+        int fixedLon = toFixed(lon);
+        int velocidade = Math.max(0, Math.min(MAX_VELOCIDADE, speed));
+
+        if (open == null || open.count >= blockSize || !open.accepts(epoch)) {
+            if (open != null) {
+                open.seal();
+            }
+            blocks.addLast(new Block(epoch, fixedLat, fixedLon, velocidade, linha, blockSize));
+        } else {
+            open.append(epoch, fixedLat, fixedLon, velocidade, linha);
+        }
+        count++;
+
+        // Mantém ao menos 'capacity' pontos, descartando blocos inteiros
+        while (blocks.size() > 1 && count - blocks.peekFirst().count >= capacity) {
+            count -= blocks.removeFirst().count;
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized TrackPoints pointsSince(long cutoffMillis, BitSet linhaIds) {
+        TrackPoints points = new TrackPoints(0);
+        for (Block block : blocks) {
+            if (block.lastEpoch >= cutoffMillis) {
+                block.decode(cutoffMillis, linhaIds, points::add);
+            }
+        }
+        return points;
+    }
+
+    @Override
+    public synchronized void trimBefore(long cutoffMillis) {
+        while (!blocks.isEmpty() && blocks.peekFirst().lastEpoch < cutoffMillis) {
+            count -= blocks.removeFirst().count;
+        }
+    }
+
+    @Override
+    public synchronized long newestEpochMillis() {
+        Block open = blocks.peekLast();
+        return open != null ? open.lastEpoch : Long.MIN_VALUE;
+    }
+
+    @Override
+    public synchronized int size() {
+        return count;
+    }
+
+    @Override
+    public synchronized long memoryBytes() {
+        long total = 0;
+        for (Block block : blocks) {
+            total += block.memoryBytes();
+        }
+        return total;
+    }
+
+    public synchronized int blockCount() {
+        return blocks.size();
+    }
+
+    private static int toFixed(double degrees) {
+        // Limitado a ±180 graus para que os deltas caibam em int
+        return (int) Math.round(Math.max(-180, Math.min(180, degrees)) * FIXED_POINT_SCALE);
+    }
+
+    /**
+     * Bloco de pontos: primeiro ponto por extenso, demais codificados em bits.
+     */
+    private static final class Block {
+
+        // Cabeçalho do objeto, campos e referência do array de bits
+        private static final int OVERHEAD_BYTES = 96;
+
+        final long firstEpoch;
+        final int firstLat;
+        final int firstLon;
+        final int firstVelocidade;
+        final int firstLinha;
+        final int unitMillis;
+        final BitWriter bits;
+        long lastEpoch;
+        int count = 1;
+
+        // Estado do codificador (último ponto e últimos deltas)
+        private long prevTimeDelta;
+        private int prevLat;
+        private int prevLon;
+        private int prevLatDelta;
+        private int prevLonDelta;
+        private int prevVelocidade;
+        private int prevLinha;
+
+        Block(long epoch, int lat, int lon, int velocidade, int linha, int blockSize) {
+            this.firstEpoch = epoch;
+            this.firstLat = lat;
+            this.firstLon = lon;
+            this.firstVelocidade = velocidade;
+            this.firstLinha = linha;
+            this.unitMillis = epoch % 1000 == 0 ? 1000 : 1;
+            // ~24 bits por ponto em trajetos típicos
+            this.bits = new BitWriter(blockSize * 24 / 64);
+            this.lastEpoch = epoch;
+            this.prevLat = lat;
+            this.prevLon = lon;
+            this.prevVelocidade = velocidade;
+            this.prevLinha = linha;
+        }
+
+        boolean accepts(long epoch) {
+            return epoch % unitMillis == 0;
+        }
+
+        void append(long epoch, int lat, int lon, int velocidade, int linha) {
+            long timeDelta = (epoch - lastEpoch) / unitMillis;
+            writeTime(zigzag(timeDelta - prevTimeDelta));
+            prevTimeDelta = timeDelta;
+            lastEpoch = epoch;
+
+            int latDelta = lat - prevLat;
+            int lonDelta = lon - prevLon;
+            writeCoordinates(zigzag((long) latDelta - prevLatDelta), zigzag((long) lonDelta - prevLonDelta));
+            prevLat = lat;
+            prevLon = lon;
+            prevLatDelta = latDelta;
+            prevLonDelta = lonDelta;
+
+            writeVelocidade(velocidade);
+            prevVelocidade = velocidade;
+
+            if (linha == prevLinha) {
+                bits.writeBit(false);
+            } else {
+                bits.writeBit(true);
+                bits.write(linha, 32);
+                prevLinha = linha;
+            }
+            count++;
+        }
+
+        int decode(long cutoffMillis, BitSet linhaIds, PointVisitor visitor) {
+            long epoch = firstEpoch;
+            long timeDelta = 0;
+            int lat = firstLat;
+            int lon = firstLon;
+            int latDelta = 0;
+            int lonDelta = 0;
+            int velocidade = firstVelocidade;
+            int linha = firstLinha;
+            int visited = visit(epoch, lat, lon, velocidade, linha, cutoffMillis, linhaIds, visitor);
+
+            BitReader reader = new BitReader(bits.words());
+            for (int i = 1; i < count; i++) {
+                timeDelta += unzigzag(readTime(reader));
+                epoch += timeDelta * unitMillis;
+
+                int width = coordinateWidth(reader);
+                if (width > 0) {
+                    latDelta += (int) unzigzag(reader.read(width));
+                    lonDelta += (int) unzigzag(reader.read(width));
+                }
+                lat += latDelta;
+                lon += lonDelta;
+
+                if (reader.readBit()) {
+                    velocidade = reader.readBit()
+                            ? (int) reader.read(10)
+                            : velocidade + (int) unzigzag(reader.read(4));
+                }
+                if (reader.readBit()) {
+                    linha = (int) reader.read(32);
+                }
+                visited += visit(epoch, lat, lon, velocidade, linha, cutoffMillis, linhaIds, visitor);
+            }
+            return visited;
+        }
+
+        void seal() {
+            bits.trim();
+        }
+
+        long memoryBytes() {
+            return OVERHEAD_BYTES + bits.allocatedBytes();
+        }
+
+        // Prefixos: 0 | 10 + 7 bits | 110 + 12 bits | 1110 + 20 bits | 1111 + 64 bits
+        private void writeTime(long zigzag) {
+            if (zigzag == 0) {
+                bits.write(0b0, 1);
+            } else if (zigzag < (1L << 7)) {
+                bits.write(0b10, 2);
+                bits.write(zigzag, 7);
+            } else if (zigzag < (1L << 12)) {
+                bits.write(0b110, 3);
+                bits.write(zigzag, 12);
+            } else if (zigzag < (1L << 20)) {
+                bits.write(0b1110, 4);
+                bits.write(zigzag, 20);
+            } else {
+                bits.write(0b1111, 4);
+                bits.write(zigzag, 64);
+            }
+        }
+
+        private static long readTime(BitReader reader) {
+            if (!reader.readBit()) {
+                return 0;
+            }
+            if (!reader.readBit()) {
+                return reader.read(7);
+            }
+            if (!reader.readBit()) {
+                return reader.read(12);
+            }
+            return reader.readBit() ? reader.read(64) : reader.read(20);
+        }
+
+        // Prefixos: 0 | 10 + 2x6 bits | 110 + 2x9 bits | 1110 + 2x13 bits | 1111 + 2x32 bits
+        private void writeCoordinates(long latZigzag, long lonZigzag) {
+            long max = Math.max(latZigzag, lonZigzag);
+            int width;
+            if (max == 0) {
+                bits.write(0b0, 1);
+                return;
+            } else if (max < (1L << 6)) {
+                bits.write(0b10, 2);
+                width = 6;
+            } else if (max < (1L << 9)) {
+                bits.write(0b110, 3);
+                width = 9;
+            } else if (max < (1L << 13)) {
+                bits.write(0b1110, 4);
+                width = 13;
+            } else {
+                bits.write(0b1111, 4);
+                width = 32;
+            }
+            bits.write(latZigzag, width);
+            bits.write(lonZigzag, width);
+        }
+
+        private static int coordinateWidth(BitReader reader) {
+            if (!reader.readBit()) {
+                return 0;
+            }
+            if (!reader.readBit()) {
+                return 6;
+            }
+            if (!reader.readBit()) {
+                return 9;
+            }
+            return reader.readBit() ? 32 : 13;
+        }
+
+        // Prefixos: 0 (igual) | 10 + delta em 4 bits | 11 + valor em 10 bits
+        private void writeVelocidade(int velocidade) {
+            long zigzag = zigzag(velocidade - prevVelocidade);
+            if (zigzag == 0) {
+                bits.write(0b0, 1);
+            } else if (zigzag < (1L << 4)) {
+                bits.write(0b10, 2);
+                bits.write(zigzag, 4);
+            } else {
+                bits.write(0b11, 2);
+                bits.write(velocidade, 10);
+            }
+        }
+
+        private static int visit(long epoch, int lat, int lon, int velocidade, int linha,
+                                 long cutoffMillis, BitSet linhaIds, PointVisitor visitor) {
+            if (epoch < cutoffMillis || (linhaIds != null && (linha < 0 || !linhaIds.get(linha)))) {
+                return 0;
+            }
+            visitor.visit(epoch, lat / FIXED_POINT_SCALE, lon / FIXED_POINT_SCALE, velocidade, linha);
+            return 1;
+        }
+
+        private static long zigzag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+
+        private static long unzigzag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.azvtech.filter_service.history;
+
+import com.azvtech.filter_service.config.FilterProperties;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Histórico recente de posições por ordem, com memória previsível.
+ *
+ * <p>Cada veículo recebe uma série de capacidade fixa
+ * ({@code filter.history.capacity-per-vehicle}): um {@link PositionRing} ou,
+ * com {@code filter.history.format=compressed}, um {@link CompressedTrack}
+ * para janelas de horas com poucos bytes por ponto. O total de pontos
+ * ({@code filter.history.max-points}) limita quantos veículos podem ter
+ * histórico. Veículos novos além desse limite não são registrados até que
+ * a remoção periódica libere espaço.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class PositionHistory {
+
+    private final ConcurrentHashMap<String, PositionTrack> tracks = new ConcurrentHashMap<>();
+    private final int capacityPerVehicle;
+    private final int maxVehicles;
+    private final FilterProperties.HistoryFormat format;
+    private final int blockSize;
+    private final AtomicLong rejectedVehicles = new AtomicLong(0);
+
+    public PositionHistory() {
+        this(new FilterProperties.History());
+    }
+
+    public PositionHistory(FilterProperties.History config) {
+        this.capacityPerVehicle = Math.max(1, config.getCapacityPerVehicle());
+        this.maxVehicles = (int) Math.min(Integer.MAX_VALUE, Math.max(0, config.getMaxPoints() / capacityPerVehicle));
+        this.format = config.getFormat() != null ? config.getFormat() : FilterProperties.HistoryFormat.RING;
+        this.blockSize = Math.max(2, config.getBlockSize());
+    }
+
+    /**
+     * Registra uma posição do veículo.
+     *
+     * @return true se o ponto foi gravado
+     */
+    public boolean record(String ordem, long epochMillis, double latitude, double longitude,
+                          int velocidade, int linhaId) {
+        if (ordem == null || epochMillis == Long.MIN_VALUE) {
+            return false;
+        }
+        PositionTrack track = tracks.get(ordem);
+        if (track == null) {
+            if (tracks.size() >= maxVehicles) {
+                rejectedVehicles.incrementAndGet();
+                return false;
+            }
+            track = tracks.computeIfAbsent(ordem, key -> newTrack());
+        }
+        return track.append(epochMillis, latitude, longitude, velocidade, linhaId);
+    }
+
+    /**
+     * Histórico do veículo, ou null se não houver.
+     */
+    public PositionTrack trackOf(String ordem) {
+        return ordem != null ? tracks.get(ordem) : null;
+    }
+
+    /**
+     * Ordens com histórico.
+     */
+    public Set<String> ordens() {
+        return tracks.keySet();
+    }
+
+    /**
+     * Descarta os pontos anteriores ao corte (quando o formato permite) e o
+     * histórico dos veículos sem posição desde o corte.
+     *
+     * @return quantidade de veículos descartados
+     */
+    public int evictOlderThan(long cutoffMillis) {
+        int removed = 0;
+        for (Map.Entry<String, PositionTrack> entry : tracks.entrySet()) {
+            PositionTrack track = entry.getValue();
+            if (track.newestEpochMillis() < cutoffMillis) {
+                if (tracks.remove(entry.getKey(), track)) {
+                    removed++;
+                }
+            } else {
+                track.trimBefore(cutoffMillis);
+            }
+        }
+        return removed;
+    }
+
+    public int vehicleCount() {
+        return tracks.size();
+    }
+
+    public int getMaxVehicles() {
+        return maxVehicles;
+    }
+
+    public int getCapacityPerVehicle() {
+        return capacityPerVehicle;
+    }
+
+    public FilterProperties.HistoryFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Memória máxima dos pontos no formato ring, em bytes, com todos os
+     * veículos permitidos (limite superior também para o formato compactado).
+     */
+    public long memoryBudgetBytes() {
+        return (long) maxVehicles * capacityPerVehicle * PositionRing.BYTES_PER_POINT;
+    }
+
+    /**
+     * Memória ocupada pelos pontos gravados, em bytes.
+     */
+    public long memoryBytes() {
+        long total = 0;
+        for (PositionTrack track : tracks.values()) {
+            total += track.memoryBytes();
+        }
+        return total;
+    }
+
+    /**
+     * Veículos não registrados por falta de espaço no orçamento.
+     */
+    public long getRejectedVehicles() {
+        return rejectedVehicles.get();
+    }
+
+    public void clear() {
+        tracks.clear();
+    }
+
+    private PositionTrack newTrack() {
+        return format == FilterProperties.HistoryFormat.COMPRESSED
+                ? new CompressedTrack(capacityPerVehicle, blockSize)
+                : new PositionRing(capacityPerVehicle);
+    }
+}
@@ -0,0 +1,106 @@
+package com.azvtech.filter_service.history;
+
+import java.util.BitSet;
+
+/**
+ * Buffer circular de capacidade fixa com as posições recentes de um veículo.
+ *
+ * <p>Os pontos ficam em arrays primitivos paralelos (epoch em milissegundos,
+ * latitude/longitude em ponto fixo de 1e-7 graus, velocidade e id da linha
+ * no dicionário), sem um objeto por ponto: cada ponto ocupa 22 bytes. Quando
+ * cheio, o ponto mais antigo é sobrescrito.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class PositionRing implements PositionTrack {
+
+    static final double FIXED_POINT_SCALE = 1e7;
+
+    /**
+     * Bytes ocupados por ponto nos arrays primitivos.
+     */
+    public static final int BYTES_PER_POINT = Long.BYTES + 3 * Integer.BYTES + Short.BYTES;
+
+    private final long[] epochMillis;
+    private final int[] latitude;
+    private final int[] longitude;
+    private final short[] velocidade;
+    private final int[] linhaId;
+
+    // Próxima posição de escrita e quantidade de pontos válidos
+    private int head;
+    private int count;
+
+    public PositionRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacidade do histórico deve ser positiva");
+        }
+        this.epochMillis = new long[capacity];
+        this.latitude = new int[capacity];
+        this.longitude = new int[capacity];
+        this.velocidade = new short[capacity];
+        this.linhaId = new int[capacity];
+    }
+
+    @Override
+    public synchronized boolean append(long epoch, double lat, double lon, int speed, int linha) {
+        if (count > 0 && epoch <= newestUnsafe()) {
+            return false;
+        }
+        epochMillis[head] = epoch;
+        latitude[head] = (int) Math.round(lat * FIXED_POINT_SCALE);
+        longitude[head] = (int) Math.round(lon * FIXED_POINT_SCALE);
+        velocidade[head] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, speed));
+        linhaId[head] = linha;
+        head = (head + 1) % epochMillis.length;
+        if (count < epochMillis.length) {
+            count++;
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized TrackPoints pointsSince(long cutoffMillis, BitSet linhaIds) {
+        int capacity = epochMillis.length;
+        int start = (head - count + capacity) % capacity;
+        // Pontos em ordem crescente: os anteriores ao corte formam um prefixo
+        int first = 0;
+        while (first < count && epochMillis[(start + first) % capacity] < cutoffMillis) {
+            first++;
+        }
+        TrackPoints points = new TrackPoints(count - first);
+        for (int i = first; i < count; i++) {
+            int index = (start + i) % capacity;
+            if (linhaIds != null && (linhaId[index] < 0 || !linhaIds.get(linhaId[index]))) {
+                continue;
+            }
+            points.add(epochMillis[index], latitude[index] / FIXED_POINT_SCALE,
+                    longitude[index] / FIXED_POINT_SCALE, velocidade[index], linhaId[index]);
+        }
+        return points;
+    }
+
+    @Override
+    public synchronized long newestEpochMillis() {
+        return count > 0 ? newestUnsafe() : Long.MIN_VALUE;
+    }
+
+    @Override
+    public synchronized int size() {
+        return count;
+    }
+
+    @Override
+    public long memoryBytes() {
+        return (long) epochMillis.length * BYTES_PER_POINT;
+    }
+
+    public int capacity() {
+        return epochMillis.length;
+    }
+
+    private long newestUnsafe() {
+        return epochMillis[(head - 1 + epochMillis.length) % epochMillis.length];
+    }
+}
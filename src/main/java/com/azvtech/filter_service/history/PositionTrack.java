@@ -0,0 +1,66 @@
+package com.azvtech.filter_service.history;
+
+import java.util.BitSet;
+
+/**
+ * Série temporal das posições de um veículo.
+ *
+ * <p>Implementações: {@link PositionRing} (arrays primitivos de capacidade
+ * fixa) e {@link CompressedTrack} (blocos compactados, para históricos
+ * longos). Pontos chegam em ordem crescente de data/hora.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public interface PositionTrack {
+
+    /**
+     * Recebe os pontos de {@link #forEachSince}, do mais antigo para o mais recente.
+     */
+    @FunctionalInterface
+    interface PointVisitor {
+        void visit(long epochMillis, double latitude, double longitude, int velocidade, int linhaId);
+    }
+
+    /**
+     * Acrescenta um ponto. Pontos não posteriores ao mais recente são ignorados.
+     *
+     * @return true se o ponto foi gravado
+     */
+    boolean append(long epochMillis, double latitude, double longitude, int velocidade, int linhaId);
+
+    /**
+     * Copia, em ordem cronológica, os pontos a partir do corte, opcionalmente
+     * apenas os das linhas informadas (ids do dicionário; null = todas).
+     * A cópia é feita sob o monitor da série; quem a percorre não o segura.
+     */
+    TrackPoints pointsSince(long cutoffMillis, BitSet linhaIds);
+
+    /**
+     * Visita, em ordem cronológica, os pontos a partir do corte. O visitante
+     * roda sobre a cópia de {@link #pointsSince}, fora do monitor da série.
+     *
+     * @return quantidade de pontos visitados
+     */
+    default int forEachSince(long cutoffMillis, BitSet linhaIds, PointVisitor visitor) {
+        return pointsSince(cutoffMillis, linhaIds).forEach(visitor);
+    }
+
+    /**
+     * Descarta, quando o formato permite, os pontos anteriores ao corte.
+     */
+    default void trimBefore(long cutoffMillis) {
+    }
+
+    /**
+     * Epoch do ponto mais recente, ou {@link Long#MIN_VALUE} se vazio.
+     */
+    long newestEpochMillis();
+
+    int size();
+
+    /**
+     * Bytes ocupados pelos pontos.
+     */
+    long memoryBytes();
+}
@@ -0,0 +1,78 @@
+package com.azvtech.filter_service.history;
+
+import java.util.Arrays;
+
+/**
+ * Cópia dos pontos de uma série, em ordem cronológica.
+ *
+ * <p>É preenchida sob o monitor da série ({@link PositionTrack#pointsSince})
+ * e percorrida depois dele liberado: visitantes lentos não bloqueiam a
+ * gravação de novas posições, e a mesma cópia pode ser percorrida mais de
+ * uma vez sem reler a série. Os pontos ficam em arrays primitivos
+ * paralelos, como no {@link PositionRing}.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public final class TrackPoints {
+
+    private long[] epochMillis;
+    private double[] latitude;
+    private double[] longitude;
+    private int[] velocidade;
+    private int[] linhaId;
+    private int size;
+
+    TrackPoints(int expectedSize) {
+        int capacity = Math.max(0, expectedSize);
+        this.epochMillis = new long[capacity];
+        this.latitude = new double[capacity];
+        this.longitude = new double[capacity];
+        this.velocidade = new int[capacity];
+        this.linhaId = new int[capacity];
+    }
+
+    /**
+     * Acrescenta um ponto durante a cópia (apenas sob o monitor da série de origem).
+     */
+    void add(long epoch, double lat, double lon, int speed, int linha) {
+        if (size == epochMillis.length) {
+            grow();
+        }
+        epochMillis[size] = epoch;
+        latitude[size] = lat;
+        longitude[size] = lon;
+        velocidade[size] = speed;
+        linhaId[size] = linha;
+        size++;
+    }
+
+    /**
+     * Visita os pontos copiados, do mais antigo para o mais recente.
+     *
+     * @return quantidade de pontos visitados
+     */
+    public int forEach(PositionTrack.PointVisitor visitor) {
+        for (int i = 0; i < size; i++) {
+            visitor.visit(epochMillis[i], latitude[i], longitude[i], velocidade[i], linhaId[i]);
+        }
+        return size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void grow() {
+        int capacity = Math.max(8, epochMillis.length * 2);
+        epochMillis = Arrays.copyOf(epochMillis, capacity);
+        latitude = Arrays.copyOf(latitude, capacity);
+        longitude = Arrays.copyOf(longitude, capacity);
+        velocidade = Arrays.copyOf(velocidade, capacity);
+        linhaId = Arrays.copyOf(linhaId, capacity);
+    }
+}
@@ -0,0 +1,161 @@
+package com.azvtech.filter_service.history;
+
+import java.util.Arrays;
+
+/**
+ * Simplificação de trajetórias pelo algoritmo de Douglas–Peucker.
+ *
+ * <p>Os pontos são acumulados em arrays primitivos com {@link #add} e
+ * {@link #emit} visita, em ordem, apenas os necessários para que a polilinha
+ * fique a no máximo {@code toleranceMeters} de cada ponto descartado. O
+ * primeiro e o último ponto são sempre mantidos, de modo que trechos
+ * simplificados separadamente (por bloco de tempo) se encaixam sem lacunas.
+ * A recursão é feita com pilha explícita e as distâncias numa projeção
+ * equirretangular local, suficiente para trechos urbanos.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class TrajectorySimplifier implements PositionTrack.PointVisitor {
+
+    private static final double METERS_PER_DEGREE_LAT = 110_574;
+    private static final double METERS_PER_DEGREE_LON = 111_320;
+
+    private final double toleranceMeters;
+    private long[] epochMillis = new long[64];
+    private double[] latitude = new double[64];
+    private double[] longitude = new double[64];
+    private int[] velocidade = new int[64];
+    private int[] linhaId = new int[64];
+    private int count;
+
+    public TrajectorySimplifier(double toleranceMeters) {
+        if (toleranceMeters < 0) {
+            throw new IllegalArgumentException("Tolerância da simplificação não pode ser negativa");
+        }
+        this.toleranceMeters = toleranceMeters;
+    }
+
+    @Override
+    public void visit(long epoch, double lat, double lon, int speed, int linha) {
+        add(epoch, lat, lon, speed, linha);
+    }
+
+    /**
+     * Acumula um ponto, em ordem cronológica.
+     */
+    public void add(long epoch, double lat, double lon, int speed, int linha) {
+        if (count == epochMillis.length) {
+            int capacity = count * 2;
+            epochMillis = Arrays.copyOf(epochMillis, capacity);
+            latitude = Arrays.copyOf(latitude, capacity);
+            longitude = Arrays.copyOf(longitude, capacity);
+            velocidade = Arrays.copyOf(velocidade, capacity);
+            linhaId = Arrays.copyOf(linhaId, capacity);
+        }
+        epochMillis[count] = epoch;
+        latitude[count] = lat;
+        longitude[count] = lon;
+        velocidade[count] = speed;
+        linhaId[count] = linha;
+        count++;
+    }
+
+    /**
+     * Visita os pontos mantidos pela simplificação e esvazia o acumulador.
+     *
+     * @return quantidade de pontos mantidos
+     */
+    public int emit(PositionTrack.PointVisitor visitor) {
+        boolean[] keep = simplify();
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (keep[i]) {
+                visitor.visit(epochMillis[i], latitude[i], longitude[i], velocidade[i], linhaId[i]);
+                kept++;
+            }
+        }
+        count = 0;
+        return kept;
+    }
+
+    /**
+     * Descarta os pontos acumulados sem visitá-los.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Pontos acumulados desde o último {@link #emit}.
+     */
+    public int size() {
+        return count;
+    }
+
+    public double getToleranceMeters() {
+        return toleranceMeters;
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private boolean[] simplify() {
+        boolean[] keep = new boolean[count];
+        if (count <= 2) {
+            Arrays.fill(keep, true);
+            return keep;
+        }
+
+        // Projeção em metros em torno do primeiro ponto
+        double lonScale = METERS_PER_DEGREE_LON * Math.cos(Math.toRadians(latitude[0]));
+        double[] x = new double[count];
+        double[] y = new double[count];
+        for (int i = 0; i < count; i++) {
+            x[i] = (longitude[i] - longitude[0]) * lonScale;
+            y[i] = (latitude[i] - latitude[0]) * METERS_PER_DEGREE_LAT;
+        }
+
+        keep[0] = true;
+        keep[count - 1] = true;
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = count - 1;
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+            int farthest = -1;
+            double maxDistance = toleranceMeters;
+            for (int i = first + 1; i < last; i++) {
+                double distance = distanceToSegment(x[i], y[i], x[first], y[first], x[last], y[last]);
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    farthest = i;
+                }
+            }
+            if (farthest < 0) {
+                continue;
+            }
+            keep[farthest] = true;
+            if (top + 4 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[top++] = first;
+            stack[top++] = farthest;
+            stack[top++] = farthest;
+            stack[top++] = last;
+        }
+        return keep;
+    }
+
+    private static double distanceToSegment(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        if (lengthSquared == 0) {
+            return Math.hypot(px - ax, py - ay);
+        }
+        double t = Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / lengthSquared));
+        return Math.hypot(px - (ax + t * dx), py - (ay + t * dy));
+    }
+}
@@ -0,0 +1,93 @@
+package com.azvtech.filter_service.index;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice secundário concorrente linha -> conjunto de ordens.
+ *
+ * <p>Permite que consultas com filtro por linha visitem apenas os veículos
+ * das linhas solicitadas, em vez de varrer toda a frota em memória.
+ * Buckets vazios são removidos para que o índice não acumule linhas
+ * que deixaram de operar.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class LinhaIndex {
+
+    private final ConcurrentHashMap<String, Set<String>> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Associa o veículo à linha informada.
+     */
+    public void add(String linha, String ordem) {
+        if (linha == null || ordem == null) {
+            return;
+        }
+        buckets.compute(linha, (key, ordens) -> {
+            Set<String> bucket = ordens != null ? ordens : ConcurrentHashMap.newKeySet();
+            bucket.add(ordem);
+            return bucket;
+        });
+    }
+
+    /**
+     * Remove o veículo da linha informada, descartando o bucket se ficar vazio.
+     */
+    public void remove(String linha, String ordem) {
+        if (linha == null || ordem == null) {
+            return;
+        }
+        buckets.computeIfPresent(linha, (key, ordens) -> {
+            ordens.remove(ordem);
+            return ordens.isEmpty() ? null : ordens;
+        });
+    }
+
+    /**
+     * Move o veículo entre linhas (quando o ônibus troca de linha).
+     * Não faz nada se a linha não mudou.
+     */
+    public void move(String linhaAnterior, String novaLinha, String ordem) {
+        if (linhaAnterior != null && linhaAnterior.equals(novaLinha)) {
+            return;
+        }
+        remove(linhaAnterior, ordem);
+        add(novaLinha, ordem);
+    }
+
+    /**
+     * Retorna uma visão somente leitura das ordens associadas à linha.
+     */
+    public Set<String> ordensOf(String linha) {
+        if (linha == null) {
+            return Collections.emptySet();
+        }
+        Set<String> ordens = buckets.get(linha);
+        return ordens != null ? Collections.unmodifiableSet(ordens) : Collections.emptySet();
+    }
+
+    /**
+     * Retorna a quantidade de veículos associados à linha.
+     */
+    public int bucketSize(String linha) {
+        if (linha == null) {
+            return 0;
+        }
+        Set<String> ordens = buckets.get(linha);
+        return ordens != null ? ordens.size() : 0;
+    }
+
+    /**
+     * Retorna a quantidade de linhas indexadas.
+     */
+    public int linhaCount() {
+        return buckets.size();
+    }
+
+    public void clear() {
+        buckets.clear();
+    }
+}
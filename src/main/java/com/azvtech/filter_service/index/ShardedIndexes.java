@@ -0,0 +1,206 @@
+package com.azvtech.filter_service.index;
+
+import com.azvtech.filter_service.model.GpsData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Índices secundários particionados pelos mesmos shards do armazenamento.
+ *
+ * <p>Cada shard tem seu próprio {@link VehicleIndexes}, atualizado apenas
+ * pelas escritas das ordens daquele shard ({@link #of(String)}). As consultas
+ * somam as estimativas e unem os candidatos de todos os shards; os percursos
+ * ordenados intercalam as visões dos shards (merge k-way), preservando a
+ * ordem global das páginas.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class ShardedIndexes {
+
+    private final VehicleIndexes[] shards;
+    private final ToIntFunction<String> shardOf;
+
+    /**
+     * @param shardCount quantidade de shards (a mesma do armazenamento)
+     * @param shardOf    índice do shard responsável por uma ordem
+     */
+    public ShardedIndexes(int shardCount, ToIntFunction<String> shardOf) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Quantidade de shards deve ser positiva");
+        }
+        this.shards = new VehicleIndexes[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new VehicleIndexes();
+        }
+        this.shardOf = shardOf;
+    }
+
+    private ShardedIndexes(VehicleIndexes single) {
+        this.shards = new VehicleIndexes[]{single};
+        this.shardOf = ordem -> 0;
+    }
+
+    /**
+     * Conjunto de shard único sobre índices já existentes.
+     */
+    public static ShardedIndexes single(VehicleIndexes indexes) {
+        return new ShardedIndexes(indexes);
+    }
+
+    /**
+     * Índices do shard responsável pela ordem.
+     */
+    public VehicleIndexes of(String ordem) {
+        return shards[shardOf.applyAsInt(ordem)];
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    // ========== ESTIMATIVAS E CANDIDATOS (somados entre os shards) ==========
+
+    public int linhaBucketSize(String linha) {
+        int total = 0;
+        for (VehicleIndexes shard : shards) {
+            total += shard.getLinhaIndex().bucketSize(linha);
+        }
+        return total;
+    }
+
+    public void linhaOrdens(String linha, Collection<String> target) {
+        for (VehicleIndexes shard : shards) {
+            target.addAll(shard.getLinhaIndex().ordensOf(linha));
+        }
+    }
+
+    public int estimateSpatialCandidates(double latitude, double longitude, double radiusKm) {
+        int total = 0;
+        for (VehicleIndexes shard : shards) {
+            total += shard.getSpatialIndex().estimateCandidates(latitude, longitude, radiusKm);
+        }
+        return total;
+    }
+
+    public Set<String> spatialCandidates(double latitude, double longitude, double radiusKm) {
+        if (shards.length == 1) {
+            return shards[0].getSpatialIndex().candidates(latitude, longitude, radiusKm);
+        }
+        Set<String> candidates = new HashSet<>();
+        for (VehicleIndexes shard : shards) {
+            candidates.addAll(shard.getSpatialIndex().candidates(latitude, longitude, radiusKm));
+        }
+        return candidates;
+    }
+
+    /**
+     * Soma as caudas recentes dos shards, parando em {@code limit} no total.
+     */
+    public int countSince(long cutoffMillis, int limit) {
+        int total = 0;
+        for (VehicleIndexes shard : shards) {
+            if (total >= limit) {
+                break;
+            }
+            total += shard.getTimeIndex().countSince(cutoffMillis, limit - total);
+        }
+        return total;
+    }
+
+    public List<String> ordensSince(long cutoffMillis) {
+        if (shards.length == 1) {
+            return shards[0].getTimeIndex().ordensSince(cutoffMillis);
+        }
+        List<String> ordens = new ArrayList<>();
+        for (VehicleIndexes shard : shards) {
+            ordens.addAll(shard.getTimeIndex().ordensSince(cutoffMillis));
+        }
+        return ordens;
+    }
+
+    public List<TimeIndex.Entry> expiredBefore(long cutoffMillis) {
+        if (shards.length == 1) {
+            return shards[0].getTimeIndex().expiredBefore(cutoffMillis);
+        }
+        List<TimeIndex.Entry> expired = new ArrayList<>();
+        for (VehicleIndexes shard : shards) {
+            expired.addAll(shard.getTimeIndex().expiredBefore(cutoffMillis));
+        }
+        return expired;
+    }
+
+    public void clear() {
+        for (VehicleIndexes shard : shards) {
+            shard.clear();
+        }
+    }
+
+    // ========== PERCURSO ORDENADO ==========
+
+    /**
+     * Percorre os veículos de todos os shards na ordem do campo informado,
+     * começando logo depois de {@code after} (ou desde o início se for null).
+     *
+     * <p>Com um shard, delega à visão dele. Com vários, mantém um iterador
+     * por shard e entrega sempre o menor registro entre as cabeças, de modo
+     * que o percurso para assim que a página é completada.</p>
+     *
+     * @see SortedViews#walk(String, boolean, GpsData, Function, Predicate)
+     */
+    public void walk(String sortBy, boolean descending, GpsData after,
+                     Function<String, GpsData> resolver, Predicate<GpsData> visitor) {
+        if (shards.length == 1) {
+            shards[0].getSortedViews().walk(sortBy, descending, after, resolver, visitor);
+            return;
+        }
+
+        Comparator<GpsData> order = SortedViews.viewOrder(sortBy, descending);
+        PriorityQueue<Head> heads = new PriorityQueue<>(shards.length, (a, b) -> order.compare(a.current, b.current));
+        for (VehicleIndexes shard : shards) {
+            Iterator<GpsData> records = shard.getSortedViews().iterator(sortBy, descending, after, resolver);
+            if (records.hasNext()) {
+                heads.add(new Head(records.next(), records));
+            }
+        }
+
+        while (!heads.isEmpty()) {
+            Head head = heads.poll();
+            if (!visitor.test(head.current)) {
+                return;
+            }
+            if (head.records.hasNext()) {
+                head.current = head.records.next();
+                heads.add(head);
+            }
+        }
+    }
+
+    public void walk(String sortBy, boolean descending,
+                     Function<String, GpsData> resolver, Predicate<GpsData> visitor) {
+        walk(sortBy, descending, null, resolver, visitor);
+    }
+
+    /**
+     * Registro corrente de um shard no merge k-way.
+     */
+    private static final class Head {
+        private GpsData current;
+        private final Iterator<GpsData> records;
+
+        Head(GpsData current, Iterator<GpsData> records) {
+            this.current = current;
+            this.records = records;
+        }
+    }
+}
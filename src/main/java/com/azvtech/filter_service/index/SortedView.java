@@ -0,0 +1,90 @@
+package com.azvtech.filter_service.index;
+
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Visão ordenada concorrente (chave de ordenação, ordem) da frota.
+ *
+ * <p>Mantida junto com o armazenamento: cada veículo aparece uma única vez,
+ * na posição da sua chave atual. Chaves nulas ficam no início e a ordem
+ * desempata chaves iguais, de modo que a sequência é total e estável entre
+ * requisições.</p>
+ *
+ * @param <K> tipo da chave de ordenação
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class SortedView<K extends Comparable<? super K>> {
+
+    private final ConcurrentSkipListSet<Entry<K>> entries = new ConcurrentSkipListSet<>(
+            Comparator.comparing((Entry<K> entry) -> entry.key, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(entry -> entry.ordem));
+
+    public void add(K key, String ordem) {
+        if (ordem != null) {
+            entries.add(new Entry<>(key, ordem));
+        }
+    }
+
+    public void remove(K key, String ordem) {
+        if (ordem != null) {
+            entries.remove(new Entry<>(key, ordem));
+        }
+    }
+
+    /**
+     * Reposiciona o veículo quando sua chave muda. Não faz nada se a chave não mudou.
+     */
+    public void move(K oldKey, K newKey, String ordem) {
+        if (oldKey == null ? newKey == null : oldKey.equals(newKey)) {
+            return;
+        }
+        remove(oldKey, ordem);
+        add(newKey, ordem);
+    }
+
+    /**
+     * Retorna as entradas em ordem crescente ou decrescente (visão concorrente, sem cópia).
+     */
+    public NavigableSet<Entry<K>> entries(boolean descending) {
+        return descending ? entries.descendingSet() : entries;
+    }
+
+    /**
+     * Retorna as entradas posteriores a (chave, ordem) no sentido informado, excluindo-a.
+     */
+    public NavigableSet<Entry<K>> entriesAfter(K key, String ordem, boolean descending) {
+        return entries(descending).tailSet(new Entry<>(key, ordem), false);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Entrada da visão: chave de ordenação e ordem do veículo.
+     */
+    public static final class Entry<K> {
+        private final K key;
+        private final String ordem;
+
+        public Entry(K key, String ordem) {
+            this.key = key;
+            this.ordem = ordem;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public String getOrdem() {
+            return ordem;
+        }
+    }
+}
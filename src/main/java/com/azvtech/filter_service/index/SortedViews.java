@@ -0,0 +1,229 @@
+package com.azvtech.filter_service.index;
+
+import com.azvtech.filter_service.model.GpsData;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Visões ordenadas por cada campo de ordenação aceito em {@code FilterRequest.sortBy}.
+ *
+ * <p>Ordem, linha e velocidade têm visões próprias; data/hora reutiliza o
+ * {@link TimeIndex}, que já é mantido ordenado. Consultas paginadas pouco
+ * seletivas percorrem a visão a partir do início e param ao completar a
+ * página, em vez de ordenar todos os registros.</p>
+ *
+ * <p>Os comparadores de {@link #comparatorFor(String, String)} seguem
+ * exatamente a ordem das visões (chave, depois ordem como desempate), para
+ * que os dois caminhos de execução produzam as mesmas páginas.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class SortedViews {
+
+    public static final String DEFAULT_SORT_BY = "datahoraservidor";
+
+    private final SortedView<String> byOrdem = new SortedView<>();
+    private final SortedView<String> byLinha = new SortedView<>();
+    private final SortedView<Integer> byVelocidade = new SortedView<>();
+    private final TimeIndex timeIndex;
+
+    public SortedViews(TimeIndex timeIndex) {
+        this.timeIndex = timeIndex;
+    }
+
+    /**
+     * Normaliza o campo de ordenação (null usa o padrão).
+     */
+    public static String sortKey(String sortBy) {
+        return sortBy != null ? sortBy : DEFAULT_SORT_BY;
+    }
+
+    /**
+     * Verifica se existe visão ordenada para o campo informado.
+     */
+    public static boolean supports(String sortBy) {
+        return switch (sortKey(sortBy)) {
+            case "ordem", "linha", "velocidade", "datahoraservidor" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Comparador equivalente à visão do campo: chave (nulos primeiro) e ordem como desempate.
+     */
+    public static Comparator<GpsData> comparatorFor(String sortBy, String sortDirection) {
+        Comparator<GpsData> comparator = switch (sortKey(sortBy)) {
+            case "ordem" -> Comparator.comparing(GpsData::getOrdem);
+            case "linha" -> Comparator.comparing(GpsData::getLinha, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(GpsData::getOrdem);
+            case "velocidade" -> Comparator.comparingInt(GpsData::getVelocidade)
+                    .thenComparing(GpsData::getOrdem);
+            default -> Comparator.comparing(GpsData::getDatahoraservidor, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(GpsData::getOrdem);
+        };
+
+        if ("desc".equalsIgnoreCase(sortDirection)) {
+            comparator = comparator.reversed();
+        }
+        return comparator;
+    }
+
+    // ========== MANUTENÇÃO (o índice de tempo é mantido à parte) ==========
+
+    public void add(GpsData current) {
+        String ordem = current.getOrdem();
+        byOrdem.add(ordem, ordem);
+        byLinha.add(current.getLinha(), ordem);
+        byVelocidade.add(current.getVelocidade(), ordem);
+    }
+
+    public void move(GpsData previous, GpsData current) {
+        String ordem = current.getOrdem();
+        byLinha.move(previous.getLinha(), current.getLinha(), ordem);
+        byVelocidade.move(previous.getVelocidade(), current.getVelocidade(), ordem);
+    }
+
+    public void remove(GpsData previous) {
+        String ordem = previous.getOrdem();
+        byOrdem.remove(ordem, ordem);
+        byLinha.remove(previous.getLinha(), ordem);
+        byVelocidade.remove(previous.getVelocidade(), ordem);
+    }
+
+    public void clear() {
+        byOrdem.clear();
+        byLinha.clear();
+        byVelocidade.clear();
+    }
+
+    // ========== PERCURSO ==========
+
+    /**
+     * Percorre os veículos na ordem do campo informado, desde o início.
+     *
+     * @param resolver obtém o registro atual de uma ordem (null se removido)
+     * @param visitor  recebe cada registro; retorna false para encerrar o percurso
+     */
+    public void walk(String sortBy, boolean descending,
+                     Function<String, GpsData> resolver, Predicate<GpsData> visitor) {
+        walk(sortBy, descending, null, resolver, visitor);
+    }
+
+    /**
+     * Percorre os veículos na ordem do campo informado, começando logo depois
+     * de {@code after} (chave de ordenação e ordem), ou desde o início se for null.
+     *
+     * <p>Cada entrada é resolvida para o registro atual; entradas cuja chave
+     * não corresponde mais ao registro (veículo atualizado durante o percurso)
+     * são ignoradas, pois o veículo aparece na nova posição.</p>
+     *
+     * @param resolver obtém o registro atual de uma ordem (null se removido)
+     * @param visitor  recebe cada registro; retorna false para encerrar o percurso
+     */
+    public void walk(String sortBy, boolean descending, GpsData after,
+                     Function<String, GpsData> resolver, Predicate<GpsData> visitor) {
+        Iterator<GpsData> records = iterator(sortBy, descending, after, resolver);
+        while (records.hasNext()) {
+            if (!visitor.test(records.next())) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Iterador preguiçoso equivalente a {@link #walk(String, boolean, GpsData, Function, Predicate)}:
+     * resolve cada entrada sob demanda, para que vários shards possam ser intercalados.
+     */
+    public Iterator<GpsData> iterator(String sortBy, boolean descending, GpsData after,
+                                      Function<String, GpsData> resolver) {
+        return switch (sortKey(sortBy)) {
+            case "ordem" -> iterator(byOrdem, descending, after, GpsData::getOrdem, resolver);
+            case "linha" -> iterator(byLinha, descending, after, GpsData::getLinha, resolver);
+            case "velocidade" -> iterator(byVelocidade, descending, after, GpsData::getVelocidade, resolver);
+            default -> {
+                Iterable<TimeIndex.Entry> entries = after == null
+                        ? timeIndex.entries(descending)
+                        : timeIndex.entriesAfter(TimeIndex.toEpochMillis(after.getDatahoraservidor()),
+                                after.getOrdem(), descending);
+                yield new ResolvingIterator<>(entries.iterator(), TimeIndex.Entry::getOrdem,
+                        (entry, data) -> TimeIndex.toEpochMillis(data.getDatahoraservidor()) == entry.getEpochMillis(),
+                        resolver);
+            }
+        };
+    }
+
+    /**
+     * Ordem exata das visões sobre os registros resolvidos, usada para
+     * intercalar os percursos de vários shards. Difere de
+     * {@link #comparatorFor(String, String)} apenas em data/hora, que segue
+     * o índice de tempo (epoch em milissegundos, depois ordem).
+     */
+    static Comparator<GpsData> viewOrder(String sortBy, boolean descending) {
+        Comparator<GpsData> order = DEFAULT_SORT_BY.equals(sortKey(sortBy))
+                ? Comparator.<GpsData>comparingLong(data -> TimeIndex.toEpochMillis(data.getDatahoraservidor()))
+                        .thenComparing(GpsData::getOrdem)
+                : comparatorFor(sortBy, "asc");
+        return descending ? order.reversed() : order;
+    }
+
+    private static <K extends Comparable<? super K>> Iterator<GpsData> iterator(SortedView<K> view, boolean descending,
+                                                                               GpsData after,
+                                                                               Function<GpsData, K> keyOf,
+                                                                               Function<String, GpsData> resolver) {
+        Iterable<SortedView.Entry<K>> entries = after == null
+                ? view.entries(descending)
+                : view.entriesAfter(keyOf.apply(after), after.getOrdem(), descending);
+        return new ResolvingIterator<>(entries.iterator(), SortedView.Entry::getOrdem,
+                (entry, data) -> Objects.equals(keyOf.apply(data), entry.getKey()), resolver);
+    }
+
+    /**
+     * Resolve as entradas de uma visão para os registros atuais, pulando as
+     * removidas e as que não correspondem mais à chave da entrada.
+     */
+    private static final class ResolvingIterator<E> implements Iterator<GpsData> {
+
+        private final Iterator<E> entries;
+        private final Function<E, String> ordemOf;
+        private final BiPredicate<E, GpsData> current;
+        private final Function<String, GpsData> resolver;
+        private GpsData next;
+
+        ResolvingIterator(Iterator<E> entries, Function<E, String> ordemOf,
+                          BiPredicate<E, GpsData> current, Function<String, GpsData> resolver) {
+            this.entries = entries;
+            this.ordemOf = ordemOf;
+            this.current = current;
+            this.resolver = resolver;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && entries.hasNext()) {
+                E entry = entries.next();
+                GpsData data = resolver.apply(ordemOf.apply(entry));
+                if (data != null && current.test(entry, data)) {
+                    next = data;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public GpsData next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            GpsData data = next;
+            next = null;
+            return data;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.azvtech.filter_service.index;
+
+import com.azvtech.filter_service.model.GeoCircle;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Índice espacial em grade uniforme sobre latitude/longitude.
+ *
+ * <p>Cada célula agrupa as ordens dos veículos cuja posição atual está dentro
+ * dela. Consultas por raio visitam apenas as células que intersectam o
+ * retângulo envolvente do círculo; o cálculo exato da distância continua
+ * sendo feito sobre os candidatos retornados.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class SpatialGridIndex {
+
+    /**
+     * Tamanho padrão da célula em graus (~550 m de latitude), adequado
+     * para consultas de 300 m a 1 km.
+     */
+    public static final double DEFAULT_CELL_SIZE_DEGREES = 0.005;
+
+    private final double cellSizeDegrees;
+    private final ConcurrentHashMap<Long, Set<String>> cells = new ConcurrentHashMap<>();
+
+    public SpatialGridIndex() {
+        this(DEFAULT_CELL_SIZE_DEGREES);
+    }
+
+    public SpatialGridIndex(double cellSizeDegrees) {
+        if (cellSizeDegrees <= 0) {
+            throw new IllegalArgumentException("Tamanho da célula deve ser positivo");
+        }
+        this.cellSizeDegrees = cellSizeDegrees;
+    }
+
+    /**
+     * Associa o veículo à célula da posição informada.
+     */
+    public void add(double latitude, double longitude, String ordem) {
+        if (ordem == null) {
+            return;
+        }
+        cells.compute(cellKey(latitude, longitude), (key, ordens) -> {
+            Set<String> bucket = ordens != null ? ordens : ConcurrentHashMap.newKeySet();
+            bucket.add(ordem);
+            return bucket;
+        });
+    }
+
+    /**
+     * Remove o veículo da célula da posição informada, descartando a célula se ficar vazia.
+     */
+    public void remove(double latitude, double longitude, String ordem) {
+        if (ordem == null) {
+            return;
+        }
+        cells.computeIfPresent(cellKey(latitude, longitude), (key, ordens) -> {
+            ordens.remove(ordem);
+            return ordens.isEmpty() ? null : ordens;
+        });
+    }
+
+    /**
+     * Move o veículo entre células. Não faz nada se a célula não mudou.
+     */
+    public void move(double oldLatitude, double oldLongitude,
+                     double newLatitude, double newLongitude, String ordem) {
+        if (cellKey(oldLatitude, oldLongitude) == cellKey(newLatitude, newLongitude)) {
+            return;
+        }
+        remove(oldLatitude, oldLongitude, ordem);
+        add(newLatitude, newLongitude, ordem);
+    }
+
+    /**
+     * Retorna as ordens das células que intersectam o retângulo envolvente
+     * do círculo. O resultado é um superconjunto dos veículos dentro do raio.
+     */
+    public Set<String> candidates(double latitude, double longitude, double radiusKm) {
+        Set<String> result = new HashSet<>();
+        forEachCell(cellRange(latitude, longitude, radiusKm), result::addAll);
+        return result;
+    }
+
+    /**
+     * Estima a quantidade de candidatos de uma consulta por raio somando o
+     * tamanho das células que seriam visitadas, sem copiar as ordens.
+     */
+    public int estimateCandidates(double latitude, double longitude, double radiusKm) {
+        int[] total = new int[1];
+        forEachCell(cellRange(latitude, longitude, radiusKm), ordens -> total[0] += ordens.size());
+        return total[0];
+    }
+
+    /**
+     * Retorna a quantidade de células ocupadas.
+     */
+    public int occupiedCellCount() {
+        return cells.size();
+    }
+
+    public double getCellSizeDegrees() {
+        return cellSizeDegrees;
+    }
+
+    public void clear() {
+        cells.clear();
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private void forEachCell(CellRange range, Consumer<Set<String>> action) {
+        if (range.wrapsLongitude || range.cellCount() > cells.size()) {
+            // Círculo cobre mais células do que existem ocupadas: percorre as ocupadas
+            for (Map.Entry<Long, Set<String>> entry : cells.entrySet()) {
+                if (range.contains(entry.getKey())) {
+                    action.accept(entry.getValue());
+                }
+            }
+            return;
+        }
+
+        for (long latCell = range.minLatCell; latCell <= range.maxLatCell; latCell++) {
+            for (long lonCell = range.minLonCell; lonCell <= range.maxLonCell; lonCell++) {
+                Set<String> ordens = cells.get(packKey(latCell, lonCell));
+                if (ordens != null) {
+                    action.accept(ordens);
+                }
+            }
+        }
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        return packKey(cellOf(latitude), cellOf(longitude));
+    }
+
+    private long cellOf(double degrees) {
+        return (long) Math.floor(degrees / cellSizeDegrees);
+    }
+
+    private static long packKey(long latCell, long lonCell) {
+        return (latCell << 32) | (lonCell & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Células do retângulo envolvente exato do círculo ({@link GeoCircle}, mesmo
+     * raio da Terra do haversine): o intervalo nunca corta o círculo, qualquer
+     * que seja o tamanho da célula.
+     */
+    private CellRange cellRange(double latitude, double longitude, double radiusKm) {
+        GeoCircle circle = new GeoCircle(latitude, longitude, radiusKm);
+        return new CellRange(
+                cellOf(circle.getMinLatitude()),
+                cellOf(circle.getMaxLatitude()),
+                cellOf(circle.getMinLongitude()),
+                cellOf(circle.getMaxLongitude()),
+                circle.wrapsLongitude()
+        );
+    }
+
+    /**
+     * Intervalo de células coberto pelo retângulo envolvente de uma consulta.
+     */
+    private static final class CellRange {
+        final long minLatCell;
+        final long maxLatCell;
+        final long minLonCell;
+        final long maxLonCell;
+        final boolean wrapsLongitude;
+
+        CellRange(long minLatCell, long maxLatCell, long minLonCell, long maxLonCell, boolean wrapsLongitude) {
+            this.minLatCell = minLatCell;
+            this.maxLatCell = maxLatCell;
+            this.minLonCell = minLonCell;
+            this.maxLonCell = maxLonCell;
+            this.wrapsLongitude = wrapsLongitude;
+        }
+
+        long cellCount() {
+            return (maxLatCell - minLatCell + 1) * (maxLonCell - minLonCell + 1);
+        }
+
+        boolean contains(long key) {
+            long latCell = key >> 32;
+            long lonCell = (int) key;
+            boolean latOk = latCell >= minLatCell && latCell <= maxLatCell;
+            // Com passagem pelo antimeridiano, qualquer longitude é candidata
+            return latOk && (wrapsLongitude || (lonCell >= minLonCell && lonCell <= maxLonCell));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.azvtech.filter_service.index;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Índice ordenado por {@code datahoraservidor} (epoch em milissegundos).
+ *
+ * <p>Consultas "últimos N minutos" percorrem apenas a cauda recente do índice
+ * e a remoção de dados antigos visita apenas as entradas expiradas, em vez de
+ * varrer toda a frota. Registros sem data/hora são indexados como
+ * {@link Long#MIN_VALUE}, ficando sempre entre os primeiros a expirar.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class TimeIndex {
+
+    private static final Comparator<Entry> ORDER =
+            Comparator.comparingLong(Entry::getEpochMillis).thenComparing(Entry::getOrdem);
+
+    private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>(ORDER);
+
+    /**
+     * Converte a data/hora do servidor para epoch em milissegundos
+     * (fuso padrão da JVM, o mesmo usado em {@code LocalDateTime.now()}).
+     */
+    public static long toEpochMillis(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return Long.MIN_VALUE;
+        }
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public void add(long epochMillis, String ordem) {
+        if (ordem != null) {
+            entries.add(new Entry(epochMillis, ordem));
+        }
+    }
+
+    public void remove(long epochMillis, String ordem) {
+        if (ordem != null) {
+            entries.remove(new Entry(epochMillis, ordem));
+        }
+    }
+
+    /**
+     * Reposiciona o veículo quando sua data/hora muda.
+     */
+    public void move(long oldEpochMillis, long newEpochMillis, String ordem) {
+        if (oldEpochMillis == newEpochMillis) {
+            return;
+        }
+        remove(oldEpochMillis, ordem);
+        add(newEpochMillis, ordem);
+    }
+
+    /**
+     * Retorna as ordens com data/hora maior ou igual ao corte informado.
+     */
+    public List<String> ordensSince(long cutoffMillis) {
+        NavigableSet<Entry> tail = entries.tailSet(new Entry(cutoffMillis, ""), true);
+        List<String> ordens = new ArrayList<>();
+        for (Entry entry : tail) {
+            ordens.add(entry.getOrdem());
+        }
+        return ordens;
+    }
+
+    /**
+     * Conta as entradas com data/hora maior ou igual ao corte, parando em {@code limit}.
+     * Usado pelo planejador de consultas para estimar o tamanho da cauda sem percorrê-la inteira.
+     */
+    public int countSince(long cutoffMillis, int limit) {
+        int count = 0;
+        for (Entry ignored : entries.tailSet(new Entry(cutoffMillis, ""), true)) {
+            if (++count >= limit) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Retorna as entradas com data/hora anterior ao corte informado.
+     */
+    public List<Entry> expiredBefore(long cutoffMillis) {
+        return new ArrayList<>(entries.headSet(new Entry(cutoffMillis, ""), false));
+    }
+
+    /**
+     * Retorna as entradas em ordem crescente ou decrescente de data/hora (visão concorrente, sem cópia).
+     * É a visão ordenada usada para {@code sortBy=datahoraservidor}.
+     */
+    public NavigableSet<Entry> entries(boolean descending) {
+        return descending ? entries.descendingSet() : entries;
+    }
+
+    /**
+     * Retorna as entradas posteriores a (data/hora, ordem) no sentido informado, excluindo-a.
+     */
+    public NavigableSet<Entry> entriesAfter(long epochMillis, String ordem, boolean descending) {
+        return entries(descending).tailSet(new Entry(epochMillis, ordem), false);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Entrada do índice: data/hora e ordem do veículo.
+     */
+    public static final class Entry {
+        private final long epochMillis;
+        private final String ordem;
+
+        public Entry(long epochMillis, String ordem) {
+            this.epochMillis = epochMillis;
+            this.ordem = ordem;
+        }
+
+        public long getEpochMillis() {
+            return epochMillis;
+        }
+
+        public String getOrdem() {
+            return ordem;
+        }
+    }
+}
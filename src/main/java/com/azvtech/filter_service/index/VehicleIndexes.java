@@ -0,0 +1,82 @@
+package com.azvtech.filter_service.index;
+
+import com.azvtech.filter_service.model.GpsData;
+
+/**
+ * Índices secundários de um shard: linha, grade espacial, data/hora e
+ * visões ordenadas (a visão por data/hora reutiliza o índice de tempo).
+ *
+ * <p>Cada shard do armazenamento tem o seu conjunto, mantido dentro da
+ * seção crítica da ordem: escritores de shards diferentes não disputam os
+ * mesmos buckets, células ou listas ordenadas.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class VehicleIndexes {
+
+    private final LinhaIndex linhaIndex;
+    private final SpatialGridIndex spatialIndex;
+    private final TimeIndex timeIndex;
+    private final SortedViews sortedViews;
+
+    public VehicleIndexes() {
+        this(new LinhaIndex(), new SpatialGridIndex(), new TimeIndex());
+    }
+
+    public VehicleIndexes(LinhaIndex linhaIndex, SpatialGridIndex spatialIndex, TimeIndex timeIndex) {
+        this.linhaIndex = linhaIndex;
+        this.spatialIndex = spatialIndex;
+        this.timeIndex = timeIndex;
+        this.sortedViews = new SortedViews(timeIndex);
+    }
+
+    public void add(GpsData current) {
+        String ordem = current.getOrdem();
+        linhaIndex.add(current.getLinha(), ordem);
+        spatialIndex.add(current.getLatitude(), current.getLongitude(), ordem);
+        timeIndex.add(TimeIndex.toEpochMillis(current.getDatahoraservidor()), ordem);
+        sortedViews.add(current);
+    }
+
+    public void move(GpsData previous, GpsData current) {
+        String ordem = current.getOrdem();
+        linhaIndex.move(previous.getLinha(), current.getLinha(), ordem);
+        spatialIndex.move(previous.getLatitude(), previous.getLongitude(),
+                current.getLatitude(), current.getLongitude(), ordem);
+        timeIndex.move(TimeIndex.toEpochMillis(previous.getDatahoraservidor()),
+                TimeIndex.toEpochMillis(current.getDatahoraservidor()), ordem);
+        sortedViews.move(previous, current);
+    }
+
+    public void remove(GpsData previous) {
+        String ordem = previous.getOrdem();
+        linhaIndex.remove(previous.getLinha(), ordem);
+        spatialIndex.remove(previous.getLatitude(), previous.getLongitude(), ordem);
+        timeIndex.remove(TimeIndex.toEpochMillis(previous.getDatahoraservidor()), ordem);
+        sortedViews.remove(previous);
+    }
+
+    public void clear() {
+        linhaIndex.clear();
+        spatialIndex.clear();
+        timeIndex.clear();
+        sortedViews.clear();
+    }
+
+    public LinhaIndex getLinhaIndex() {
+        return linhaIndex;
+    }
+
+    public SpatialGridIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
+    public TimeIndex getTimeIndex() {
+        return timeIndex;
+    }
+
+    public SortedViews getSortedViews() {
+        return sortedViews;
+    }
+}
@@ -0,0 +1,201 @@
+package com.azvtech.filter_service.ingest;
+
+import com.azvtech.filter_service.config.FilterProperties.IngestPolicy;
+import com.azvtech.filter_service.model.GpsData;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fila de ingestão agrupada por veículo, com descarte sob carga.
+ *
+ * <p>Os registros pendentes ficam em filas por ordem, na ordem de chegada
+ * dos veículos. Quando a fila enche:</p>
+ * <ul>
+ *     <li>{@link IngestPolicy#DROP_OLDEST_PER_VEHICLE}: o novo registro ocupa o
+ *     lugar do registro pendente mais antigo do mesmo veículo ou, se ele não
+ *     tiver nenhum, do veículo que espera há mais tempo;</li>
+ *     <li>{@link IngestPolicy#KEEP_LATEST_PER_VEHICLE}: cada veículo tem no máximo
+ *     um registro pendente, substituído por outro mais recente; o produtor
+ *     espera apenas quando um novo veículo não cabe. Se for interrompido
+ *     durante a espera, o registro é descartado: a fila nunca passa da
+ *     capacidade.</li>
+ * </ul>
+ *
+ * <p>Como o armazenamento aplica por data/hora, a ordem entre veículos
+ * diferentes não precisa ser preservada.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class CoalescingIngestQueue implements IngestQueue {
+
+    private static final long WAIT_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final IngestPolicy policy;
+    private final int capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final LinkedHashMap<String, ArrayDeque<GpsData>> pending = new LinkedHashMap<>();
+
+    // Contadores protegidos pelo lock; a leitura sem lock é apenas informativa
+    private volatile int size;
+    private volatile long dropped;
+    private volatile long coalesced;
+
+    public CoalescingIngestQueue(int capacity, IngestPolicy policy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacidade da fila deve ser positiva");
+        }
+        if (policy == IngestPolicy.BLOCK) {
+            throw new IllegalArgumentException("Política block usa o IngestionRingBuffer");
+        }
+        this.capacity = capacity;
+        this.policy = policy;
+    }
+
+    @Override
+    public long publish(GpsData data) {
+        if (data == null || data.getOrdem() == null) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            return policy == IngestPolicy.KEEP_LATEST_PER_VEHICLE ? keepLatest(data) : dropOldest(data);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super GpsData> sink, int maxElements) {
+        int drained = 0;
+        lock.lock();
+        try {
+            Iterator<ArrayDeque<GpsData>> vehicles = pending.values().iterator();
+            while (drained < maxElements && vehicles.hasNext()) {
+                ArrayDeque<GpsData> queue = vehicles.next();
+                while (drained < maxElements && !queue.isEmpty()) {
+                    sink.add(queue.pollFirst());
+                    drained++;
+                }
+                if (queue.isEmpty()) {
+                    vehicles.remove();
+                }
+            }
+            if (drained > 0) {
+                size -= drained;
+                notFull.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return drained;
+    }
+
+    @Override
+    public int depth() {
+        return size;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public long droppedCount() {
+        return dropped;
+    }
+
+    @Override
+    public long coalescedCount() {
+        return coalesced;
+    }
+
+    public IngestPolicy getPolicy() {
+        return policy;
+    }
+
+    // ========== MÉTODOS PRIVADOS (com o lock) ==========
+
+    private long keepLatest(GpsData data) {
+        long waited = 0;
+        ArrayDeque<GpsData> queue = pending.get(data.getOrdem());
+        if (queue == null) {
+            waited = awaitSpace(data.getOrdem());
+            // A espera libera o lock: outro produtor pode ter enfileirado a mesma ordem
+            queue = pending.get(data.getOrdem());
+            if (queue == null && size >= capacity) {
+                // Espera interrompida sem espaço: descarta em vez de exceder a capacidade
+                dropped++;
+                return waited;
+            }
+        }
+        if (queue == null) {
+            ArrayDeque<GpsData> single = new ArrayDeque<>(1);
+            single.add(data);
+            pending.put(data.getOrdem(), single);
+            size++;
+            return waited;
+        }
+        // Mesmo critério do armazenamento: em empate, permanece o primeiro
+        if (data.isMoreRecentThan(queue.peekFirst())) {
+            queue.pollFirst();
+            queue.addFirst(data);
+        }
+        coalesced++;
+        return waited;
+    }
+
+    private long dropOldest(GpsData data) {
+        ArrayDeque<GpsData> queue = pending.get(data.getOrdem());
+        if (size >= capacity) {
+            String victimOrdem = queue != null ? data.getOrdem() : pending.keySet().iterator().next();
+            ArrayDeque<GpsData> victim = pending.get(victimOrdem);
+            victim.pollFirst();
+            size--;
+            dropped++;
+            if (victim.isEmpty()) {
+                pending.remove(victimOrdem);
+                if (victim == queue) {
+                    queue = null;
+                }
+            }
+        }
+        if (queue == null) {
+            queue = new ArrayDeque<>(2);
+            pending.put(data.getOrdem(), queue);
+        }
+        queue.addLast(data);
+        size++;
+        return 0;
+    }
+
+    /**
+     * Espera haver espaço para um novo veículo, ou a ordem passar a ter um
+     * registro pendente (enfileirado por outro produtor durante a espera).
+     * Uma interrupção encerra a espera com o status de interrupção restaurado.
+     */
+    private long awaitSpace(String ordem) {
+        if (size < capacity) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        while (size >= capacity && !pending.containsKey(ordem)) {
+            try {
+                notFull.awaitNanos(WAIT_SLICE_NANOS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,51 @@
+package com.azvtech.filter_service.ingest;
+
+import com.azvtech.filter_service.model.GpsData;
+
+import java.util.Collection;
+
+/**
+ * Fila limitada entre os produtores da ingestão e a thread aplicadora.
+ *
+ * <p>Qualquer thread pode publicar; apenas a aplicadora drena.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public interface IngestQueue {
+
+    /**
+     * Publica um registro, esperando por espaço se a política exigir.
+     *
+     * @return tempo de espera por espaço, em nanossegundos
+     */
+    long publish(GpsData data);
+
+    /**
+     * Move para o destino até {@code maxElements} registros pendentes.
+     *
+     * @return quantidade de registros movidos
+     */
+    int drainTo(Collection<? super GpsData> sink, int maxElements);
+
+    /**
+     * Registros pendentes.
+     */
+    int depth();
+
+    int capacity();
+
+    /**
+     * Registros descartados pela política da fila.
+     */
+    default long droppedCount() {
+        return 0;
+    }
+
+    /**
+     * Registros substituídos por outro mais recente do mesmo veículo ainda na fila.
+     */
+    default long coalescedCount() {
+        return 0;
+    }
+}
@@ -0,0 +1,273 @@
+package com.azvtech.filter_service.ingest;
+
+import com.azvtech.filter_service.config.FilterProperties;
+import com.azvtech.filter_service.config.FilterProperties.IngestPolicy;
+import com.azvtech.filter_service.metrics.IngestionStats;
+import com.azvtech.filter_service.model.GpsData;
+import com.azvtech.filter_service.service.GpsFilterService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Desacopla a ingestão da escrita no armazenamento ({@code filter.ingest.enabled=true}).
+ *
+ * <p>Produtores (consumidores Kafka) publicam as posições em uma
+ * {@link IngestQueue} limitada; uma thread aplicadora dedicada drena a fila
+ * em lotes e os aplica com {@link GpsFilterService#updateAll}. Assim apenas
+ * uma thread escreve no armazenamento e nos índices, e cada lote drenado é
+ * coalescido por ordem antes de ser gravado. A política {@code block} usa o
+ * {@link IngestionRingBuffer}; as demais, a {@link CoalescingIngestQueue}.</p>
+ *
+ * <p>Quando a ocupação alcança a marca alta, os {@link BackpressureListener}
+ * registrados são avisados para pausar o consumo; abaixo da marca baixa, para
+ * retomá-lo.</p>
+ *
+ * <p>Métricas: {@code gps.ingest.queue.depth}, {@code gps.ingest.queue.fill}
+ * (0 a 1), {@code gps.ingest.queue.dropped}, {@code gps.ingest.queue.coalesced},
+ * {@code gps.ingest.queue.drain.size}, {@code gps.ingest.queue.publish.wait} e
+ * {@code gps.ingest.consumer.paused}.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "filter.ingest", name = "enabled", havingValue = "true")
+public class IngestionPipeline implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionPipeline.class);
+
+    /**
+     * Recebe os avisos de marca alta e baixa da fila (ex.: pausa do consumidor Kafka).
+     */
+    public interface BackpressureListener {
+
+        void pause();
+
+        void resume();
+    }
+
+    private final GpsFilterService gpsFilterService;
+    private final IngestPolicy policy;
+    private final IngestQueue queue;
+    private final int drainBatchSize;
+    private final long idleParkNanos;
+    private final int highWatermark;
+    private final int lowWatermark;
+
+    private final DistributionSummary drainSize;
+    private final Timer publishWait;
+
+    private final List<BackpressureListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean paused = new AtomicBoolean(false);
+
+    // Registros de lotes drenados não gravados por haver outro mais recente da mesma ordem
+    private final AtomicLong batchCoalesced = new AtomicLong(0);
+
+    private volatile boolean running;
+
+    // Indica que a aplicadora está gravando um lote já drenado
+    private volatile boolean applying;
+
+    private Thread applier;
+
+    @Autowired
+    public IngestionPipeline(GpsFilterService gpsFilterService, FilterProperties properties,
+                             ObjectProvider<MeterRegistry> registry) {
+        this(gpsFilterService, properties.getIngest(), registry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    /**
+     * Construtor com as dependências já resolvidas (usado também pelos testes).
+     */
+    IngestionPipeline(GpsFilterService gpsFilterService, FilterProperties.Ingest config, MeterRegistry registry) {
+        this.gpsFilterService = gpsFilterService;
+        this.policy = config.getPolicy() != null ? config.getPolicy() : IngestPolicy.BLOCK;
+        this.queue = policy == IngestPolicy.BLOCK
+                ? new IngestionRingBuffer(config.getQueueCapacity())
+                : new CoalescingIngestQueue(config.getQueueCapacity(), policy);
+        this.drainBatchSize = Math.max(1, config.getDrainBatchSize());
+        this.idleParkNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(1, config.getIdleParkMicros()));
+        this.highWatermark = Math.max(1, (int) (queue.capacity() * config.getHighWatermark()));
+        this.lowWatermark = Math.min(highWatermark - 1, (int) (queue.capacity() * config.getLowWatermark()));
+
+        this.drainSize = DistributionSummary.builder("gps.ingest.queue.drain.size")
+                .description("Registros por lote drenado da fila de ingestão")
+                .register(registry);
+        this.publishWait = Timer.builder("gps.ingest.queue.publish.wait")
+                .description("Espera dos produtores por espaço na fila de ingestão")
+                .register(registry);
+        Gauge.builder("gps.ingest.queue.depth", queue, IngestQueue::depth)
+                .description("Registros aguardando na fila de ingestão")
+                .register(registry);
+        Gauge.builder("gps.ingest.queue.fill", queue, q -> (double) q.depth() / q.capacity())
+                .description("Ocupação da fila de ingestão (0 a 1)")
+                .register(registry);
+        FunctionCounter.builder("gps.ingest.queue.dropped", queue, IngestQueue::droppedCount)
+                .description("Registros descartados pela política da fila de ingestão")
+                .register(registry);
+        FunctionCounter.builder("gps.ingest.queue.coalesced", this, IngestionPipeline::coalescedCount)
+                .description("Registros substituídos por outro mais recente do mesmo veículo")
+                .register(registry);
+        Gauge.builder("gps.ingest.consumer.paused", paused, flag -> flag.get() ? 1 : 0)
+                .description("1 enquanto o consumo está pausado pela marca alta da fila")
+                .register(registry);
+
+        gpsFilterService.setIngestionStatsSource(this::stats);
+    }
+
+    /**
+     * Publica o lote na fila. Com a aplicadora parada, aplica o lote diretamente.
+     *
+     * @return quantidade de registros aceitos
+     */
+    public int publishAll(Collection<GpsData> batch) {
+        if (!running) {
+            return gpsFilterService.updateAll(batch);
+        }
+        long waited = 0;
+        for (GpsData data : batch) {
+            waited += queue.publish(data);
+        }
+        publishWait.record(waited, TimeUnit.NANOSECONDS);
+        checkHighWatermark();
+        return batch.size();
+    }
+
+    public void addBackpressureListener(BackpressureListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Espera até que todos os registros publicados tenham sido aplicados.
+     *
+     * @return true se a fila esvaziou dentro do prazo
+     */
+    public boolean awaitDrained(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (queue.depth() > 0 || applying) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(idleParkNanos);
+        }
+        return true;
+    }
+
+    /**
+     * Estado atual da fila, exposto em {@code ServiceMetrics}.
+     */
+    public IngestionStats stats() {
+        return new IngestionStats(policy.name().toLowerCase().replace('_', '-'), queue.depth(), queue.capacity(),
+                queue.droppedCount(), coalescedCount(), paused.get());
+    }
+
+    public int depth() {
+        return queue.depth();
+    }
+
+    public int capacity() {
+        return queue.capacity();
+    }
+
+    public boolean isPaused() {
+        return paused.get();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        applier = new Thread(this::applyLoop, "gps-ingest-applier");
+        applier.setDaemon(true);
+        applier.start();
+        logger.info("Fila de ingestão iniciada: política {}, capacidade {}", policy, queue.capacity());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            applier.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Fila de ingestão parada");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private long coalescedCount() {
+        return queue.coalescedCount() + batchCoalesced.get();
+    }
+
+    private void checkHighWatermark() {
+        if (queue.depth() >= highWatermark && paused.compareAndSet(false, true)) {
+            logger.warn("Fila de ingestão em {}/{}: pausando o consumo", queue.depth(), queue.capacity());
+            listeners.forEach(BackpressureListener::pause);
+        }
+    }
+
+    private void checkLowWatermark() {
+        if (queue.depth() <= lowWatermark && paused.compareAndSet(true, false)) {
+            logger.info("Fila de ingestão em {}/{}: retomando o consumo", queue.depth(), queue.capacity());
+            listeners.forEach(BackpressureListener::resume);
+        }
+    }
+
+    private void applyLoop() {
+        List<GpsData> batch = new ArrayList<>(drainBatchSize);
+        // Após a parada, drena o que já foi publicado antes de encerrar
+        while (running || queue.depth() > 0) {
+            batch.clear();
+            applying = true;
+            int drained = queue.drainTo(batch, drainBatchSize);
+            if (drained == 0) {
+                applying = false;
+                checkLowWatermark();
+                LockSupport.parkNanos(idleParkNanos);
+                continue;
+            }
+            drainSize.record(drained);
+            try {
+                int applied = gpsFilterService.updateAll(batch);
+                batchCoalesced.addAndGet(drained - applied);
+            } catch (RuntimeException e) {
+                logger.error("Falha ao aplicar lote de {} registros: {}", drained, e.getMessage(), e);
+            } finally {
+                applying = false;
+            }
+            checkLowWatermark();
+        }
+    }
+}
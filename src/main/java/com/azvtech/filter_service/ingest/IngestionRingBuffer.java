@@ -0,0 +1,128 @@
+package com.azvtech.filter_service.ingest;
+
+import com.azvtech.filter_service.model.GpsData;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Buffer circular pré-alocado entre os produtores da ingestão e o aplicador
+ * do armazenamento (política {@code block}).
+ *
+ * <p>Vários produtores reservam sequências com um contador atômico, gravam
+ * o registro no slot e o publicam marcando a sequência do slot; um único
+ * consumidor percorre as sequências publicadas em ordem, em lotes. Não há
+ * locks: quando o buffer está cheio, o produtor espera o consumidor liberar
+ * o slot (back-pressure), e o tempo dessa espera é devolvido para métricas.</p>
+ *
+ * <p>{@link #drainTo} deve ser chamado sempre pela mesma thread.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class IngestionRingBuffer implements IngestQueue {
+
+    private static final long WAIT_PARK_NANOS = 1_000;
+
+    private final GpsData[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+
+    // Última sequência reservada por um produtor
+    private final AtomicLong claimed = new AtomicLong(-1);
+
+    // Última sequência entregue ao consumidor
+    private final AtomicLong consumed = new AtomicLong(-1);
+
+    /**
+     * @param capacity capacidade mínima; arredondada para a próxima potência de 2
+     */
+    public IngestionRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacidade do buffer deve ser positiva");
+        }
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new GpsData[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Publica um registro, esperando enquanto o buffer estiver cheio.
+     *
+     * @return tempo de espera por espaço, em nanossegundos
+     */
+    @Override
+    public long publish(GpsData data) {
+        long sequence = claimed.incrementAndGet();
+        long waitStart = 0;
+        while (sequence - slots.length > consumed.get()) {
+            if (waitStart == 0) {
+                waitStart = System.nanoTime();
+            }
+            LockSupport.parkNanos(WAIT_PARK_NANOS);
+        }
+        int index = (int) sequence & mask;
+        slots[index] = data;
+        // Escrita volátil: torna o slot visível ao consumidor
+        published.set(index, sequence);
+        return waitStart == 0 ? 0 : System.nanoTime() - waitStart;
+    }
+
+    /**
+     * Publica todos os registros, em ordem.
+     *
+     * @return tempo total de espera por espaço, em nanossegundos
+     */
+    public long publishAll(Collection<GpsData> batch) {
+        long waited = 0;
+        for (GpsData data : batch) {
+            waited += publish(data);
+        }
+        return waited;
+    }
+
+    /**
+     * Move para o destino até {@code maxElements} registros publicados,
+     * na ordem de publicação. Apenas uma thread consumidora.
+     *
+     * @return quantidade de registros movidos
+     */
+    @Override
+    public int drainTo(Collection<? super GpsData> sink, int maxElements) {
+        long next = consumed.get() + 1;
+        int drained = 0;
+        while (drained < maxElements) {
+            long sequence = next + drained;
+            int index = (int) sequence & mask;
+            if (published.get(index) != sequence) {
+                break;
+            }
+            sink.add(slots[index]);
+            slots[index] = null;
+            drained++;
+        }
+        if (drained > 0) {
+            consumed.set(next + drained - 1);
+        }
+        return drained;
+    }
+
+    /**
+     * Registros reservados e ainda não consumidos.
+     */
+    @Override
+    public int depth() {
+        return (int) Math.max(0, claimed.get() - consumed.get());
+    }
+
+    @Override
+    public int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,85 @@
+package com.azvtech.filter_service.integration;
+
+import com.azvtech.filter_service.config.KafkaConfig;
+import com.azvtech.filter_service.ingest.IngestionPipeline;
+import com.azvtech.filter_service.processor.GpsDataProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Consumidor Kafka das posições GPS ({@code filter.kafka.enabled=true}).
+ *
+ * <p>Recebe as mensagens em lotes (ver {@link KafkaConfig}) e delega a
+ * conversão e a aplicação de cada lote ao {@link GpsDataProcessor}. Com a
+ * fila de ingestão habilitada, o container é pausado quando a fila atinge a
+ * marca alta e retomado abaixo da marca baixa.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "filter.kafka", name = "enabled", havingValue = "true")
+public class GpsDataConsumer {
+
+    public static final String LISTENER_ID = "gpsDataConsumer";
+
+    private static final Logger logger = LoggerFactory.getLogger(GpsDataConsumer.class);
+
+    private final GpsDataProcessor processor;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+
+    public GpsDataConsumer(GpsDataProcessor processor, KafkaListenerEndpointRegistry listenerRegistry,
+                           ObjectProvider<IngestionPipeline> pipeline) {
+        this.processor = processor;
+        this.listenerRegistry = listenerRegistry;
+        pipeline.ifAvailable(p -> p.addBackpressureListener(new IngestionPipeline.BackpressureListener() {
+            @Override
+            public void pause() {
+                pauseConsumption();
+            }
+
+            @Override
+            public void resume() {
+                resumeConsumption();
+            }
+        }));
+    }
+
+    @KafkaListener(
+            id = LISTENER_ID,
+            topics = "${filter.kafka.topic:gps-data}",
+            groupId = "${filter.kafka.group-id:filter-service}",
+            containerFactory = KafkaConfig.BATCH_LISTENER_FACTORY
+    )
+    public void consume(List<String> messages) {
+        int applied = processor.process(messages);
+        logger.debug("Lote Kafka com {} mensagens, {} aplicadas", messages.size(), applied);
+    }
+
+    /**
+     * Pausa o container após o lote corrente; as partições continuam atribuídas.
+     */
+    public void pauseConsumption() {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(LISTENER_ID);
+        if (container != null && !container.isPauseRequested()) {
+            container.pause();
+            logger.warn("Consumo Kafka pausado por pressão na fila de ingestão");
+        }
+    }
+
+    public void resumeConsumption() {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(LISTENER_ID);
+        if (container != null && container.isPauseRequested()) {
+            container.resume();
+            logger.info("Consumo Kafka retomado");
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.azvtech.filter_service.metrics;
+
+/**
+ * Estado da fila de ingestão exposto em {@link ServiceMetrics}.
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class IngestionStats {
+
+    /**
+     * Fila de ingestão desabilitada: lotes aplicados diretamente.
+     */
+    public static final IngestionStats DISABLED = new IngestionStats("direct", 0, 0, 0, 0, false);
+
+    private final String policy;
+    private final int queueDepth;
+    private final int queueCapacity;
+    private final long droppedRecords;
+    private final long coalescedRecords;
+    private final boolean consumerPaused;
+
+    public IngestionStats(String policy, int queueDepth, int queueCapacity,
+                          long droppedRecords, long coalescedRecords, boolean consumerPaused) {
+        this.policy = policy;
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.droppedRecords = droppedRecords;
+        this.coalescedRecords = coalescedRecords;
+        this.consumerPaused = consumerPaused;
+    }
+
+    public String getPolicy() {
+        return policy;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Ocupação da fila, de 0 a 100%.
+     */
+    public double getQueueFillPercent() {
+        return queueCapacity > 0 ? 100.0 * queueDepth / queueCapacity : 0;
+    }
+
+    public long getDroppedRecords() {
+        return droppedRecords;
+    }
+
+    public long getCoalescedRecords() {
+        return coalescedRecords;
+    }
+
+    public boolean isConsumerPaused() {
+        return consumerPaused;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "IngestionStats{policy=%s, fill=%.1f%%, dropped=%d, coalesced=%d, paused=%s}",
+                policy, getQueueFillPercent(), droppedRecords, coalescedRecords, consumerPaused
+        );
+    }
+}
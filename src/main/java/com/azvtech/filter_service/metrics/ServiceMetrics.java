@@ -13,14 +13,22 @@ public class ServiceMetrics {
     private final long totalFilteredRecords;
     private final long freeMemory;
     private final long totalMemory;
+    private final long offHeapBytes;
+    private final IngestionStats ingestion;
 
+    /**
+     * @param offHeapBytes memória fora do heap ocupada pelo armazenamento (0 se não houver)
+     * @param ingestion    estado da fila de ingestão, ou null se ela estiver desabilitada
+     */
     public ServiceMetrics(long activeRecords, long totalRequests, long totalFilteredRecords,
-                          long freeMemory, long totalMemory) {
+                          long freeMemory, long totalMemory, long offHeapBytes, IngestionStats ingestion) {
         this.activeRecords = activeRecords;
         this.totalRequests = totalRequests;
         this.totalFilteredRecords = totalFilteredRecords;
         this.freeMemory = freeMemory;
         this.totalMemory = totalMemory;
+        this.offHeapBytes = offHeapBytes;
+        this.ingestion = ingestion != null ? ingestion : IngestionStats.DISABLED;
     }
 
     // Getters públicos
@@ -44,6 +52,20 @@ public class ServiceMetrics {
         return totalMemory;
     }
 
+    /**
+     * Bytes ocupados pelo armazenamento fora do heap (zero nos modos em heap).
+     */
+    public long getOffHeapBytes() {
+        return offHeapBytes;
+    }
+
+    /**
+     * Estado da fila de ingestão: ocupação, descartes e coalescências.
+     */
+    public IngestionStats getIngestion() {
+        return ingestion;
+    }
+
     public double getMemoryUsagePercent() {
         return totalMemory > 0 ? 100.0 * (totalMemory - freeMemory) / totalMemory : 0;
     }
@@ -51,8 +73,8 @@ public class ServiceMetrics {
     @Override
     public String toString() {
         return String.format(
-                "ServiceMetrics{activeRecords=%d, totalRequests=%d, totalFilteredRecords=%d, memoryUsage=%.1f%%}",
-                activeRecords, totalRequests, totalFilteredRecords, getMemoryUsagePercent()
+                "ServiceMetrics{activeRecords=%d, totalRequests=%d, totalFilteredRecords=%d, memoryUsage=%.1f%%, offHeapBytes=%d, ingestion=%s}",
+                activeRecords, totalRequests, totalFilteredRecords, getMemoryUsagePercent(), offHeapBytes, ingestion
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.azvtech.filter_service.model;
+
+/**
+ * Círculo na superfície da Terra usado pelas consultas por raio.
+ *
+ * <p>Pré-calcula o retângulo envolvente do círculo em graus, para que
+ * coordenadas distantes sejam descartadas com poucas comparações antes do
+ * cálculo exato por haversine. O retângulo usa o mesmo raio da Terra de
+ * {@link GpsData#haversineKm}: a meia-largura em latitude é o ângulo central
+ * {@code r / R} e a meia-largura em longitude é a extensão máxima do círculo,
+ * {@code asin(sin(r / R) / cos(lat))}, de modo que nenhum ponto dentro do raio
+ * fica fora do retângulo. Quando o círculo contém um polo ou cruza o
+ * antimeridiano, os limites de longitude são desativados.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public final class GeoCircle {
+
+    // Folga contra arredondamento entre o retângulo e o haversine (~0,1 mm)
+    private static final double MARGIN_DEGREES = 1e-9;
+
+    private final double latitude;
+    private final double longitude;
+    private final double radiusKm;
+    private final double minLatitude;
+    private final double maxLatitude;
+    private final double minLongitude;
+    private final double maxLongitude;
+    private final boolean wrapsLongitude;
+
+    public GeoCircle(double latitude, double longitude, double radiusKm) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.radiusKm = radiusKm;
+
+        double angularRadius = radiusKm / GpsData.EARTH_RADIUS_KM;
+        double deltaLat = Math.toDegrees(angularRadius) + MARGIN_DEGREES;
+        double sinRadius = Math.sin(Math.min(angularRadius, Math.PI / 2));
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        // Com o polo dentro do círculo, todas as longitudes são alcançadas
+        double deltaLon = sinRadius < cosLat
+                ? Math.toDegrees(Math.asin(sinRadius / cosLat)) + MARGIN_DEGREES
+                : 360.0;
+
+        this.minLatitude = Math.max(-90.0, latitude - deltaLat);
+        this.maxLatitude = Math.min(90.0, latitude + deltaLat);
+        this.wrapsLongitude = longitude - deltaLon < -180.0 || longitude + deltaLon > 180.0;
+        this.minLongitude = wrapsLongitude ? -180.0 : longitude - deltaLon;
+        this.maxLongitude = wrapsLongitude ? 180.0 : longitude + deltaLon;
+    }
+
+    /**
+     * Verifica se a coordenada está dentro do retângulo envolvente do círculo.
+     */
+    public boolean inBoundingBox(double lat, double lon) {
+        return lat >= minLatitude && lat <= maxLatitude && lon >= minLongitude && lon <= maxLongitude;
+    }
+
+    /**
+     * Verifica se a coordenada está dentro do círculo (retângulo primeiro, depois haversine).
+     */
+    public boolean contains(double lat, double lon) {
+        return inBoundingBox(lat, lon) && GpsData.haversineKm(lat, lon, latitude, longitude) <= radiusKm;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public double getRadiusKm() {
+        return radiusKm;
+    }
+
+    public double getMinLatitude() {
+        return minLatitude;
+    }
+
+    public double getMaxLatitude() {
+        return maxLatitude;
+    }
+
+    public double getMinLongitude() {
+        return minLongitude;
+    }
+
+    public double getMaxLongitude() {
+        return maxLongitude;
+    }
+
+    public boolean wrapsLongitude() {
+        return wrapsLongitude;
+    }
+}
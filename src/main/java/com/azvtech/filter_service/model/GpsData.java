@@ -11,6 +11,12 @@ import java.util.Objects;
  * @author Fellipe Toledo
  */
 public class GpsData {
+
+    /**
+     * Mean Earth radius in kilometers used by {@link #haversineKm}
+     */
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
     private String ordem;
     private double latitude;
     private double longitude;
@@ -18,6 +24,10 @@ public class GpsData {
     private String linha;
     private LocalDateTime datahoraservidor;
 
+    // Dictionary ids assigned at ingestion (-1 when not encoded)
+    private int ordemId = -1;
+    private int linhaId = -1;
+
     // Default constructor
     public GpsData() {
     }
@@ -40,6 +50,7 @@ public class GpsData {
 
     public void setOrdem(String ordem) {
         this.ordem = ordem;
+        this.ordemId = -1;
     }
 
     public double getLatitude() {
@@ -72,6 +83,7 @@ public class GpsData {
 
     public void setLinha(String linha) {
         this.linha = linha;
+        this.linhaId = -1;
     }
 
     public LocalDateTime getDatahoraservidor() {
@@ -82,6 +94,28 @@ public class GpsData {
         this.datahoraservidor = datahoraservidor;
     }
 
+    /**
+     * Dictionary id of the ordem, or -1 if the record was not encoded
+     */
+    public int getOrdemId() {
+        return ordemId;
+    }
+
+    /**
+     * Dictionary id of the linha, or -1 if the record was not encoded
+     */
+    public int getLinhaId() {
+        return linhaId;
+    }
+
+    /**
+     * Assigns the dictionary ids of the current ordem and linha values
+     */
+    public void assignDictionaryIds(int ordemId, int linhaId) {
+        this.ordemId = ordemId;
+        this.linhaId = linhaId;
+    }
+
     // Utility methods
     /**
      * Checks if the data is more recent than other compared data
@@ -98,13 +132,20 @@ public class GpsData {
      * Calculates the distance in kilometers to another GPS coordinate
      */
     public double calculateDistanceTo(double targetLat, double targetLon) {
-        final int R = 6371; // Raio da Terra em km
+        return haversineKm(this.latitude, this.longitude, targetLat, targetLon);
+    }
+
+    /**
+     * Calculates the haversine distance in kilometers between two coordinates
+     */
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        final double R = EARTH_RADIUS_KM;
 
-        double latDistance = Math.toRadians(targetLat - this.latitude);
-        double lonDistance = Math.toRadians(targetLon - this.longitude);
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
 
         double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(this.latitude)) * Math.cos(Math.toRadians(targetLat))
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
                 * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
 
         double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
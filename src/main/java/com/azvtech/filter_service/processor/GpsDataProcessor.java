@@ -0,0 +1,153 @@
+package com.azvtech.filter_service.processor;
+
+import com.azvtech.filter_service.ingest.IngestionPipeline;
+import com.azvtech.filter_service.model.GpsData;
+import com.azvtech.filter_service.service.GpsFilterService;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converte lotes de mensagens GPS (JSON) e os aplica ao {@link GpsFilterService}
+ * com uma única chamada de {@link GpsFilterService#updateAll}, ou os publica no
+ * {@link IngestionPipeline} quando o buffer de ingestão está habilitado.
+ *
+ * <p>Mensagens inválidas são descartadas e contadas, sem interromper o lote.
+ * Métricas publicadas por lote:</p>
+ * <ul>
+ *     <li>{@code gps.ingest.records}: registros aplicados (ou publicados no buffer);</li>
+ *     <li>{@code gps.ingest.rejected}: mensagens inválidas descartadas;</li>
+ *     <li>{@code gps.ingest.coalesced}: registros válidos não gravados, por haver
+ *     outro mais recente da mesma ordem no lote ou no armazenamento (apenas
+ *     na aplicação direta; com o buffer, o lote é coalescido pela aplicadora);</li>
+ *     <li>{@code gps.ingest.batch.size}: tamanho dos lotes recebidos;</li>
+ *     <li>{@code gps.ingest.batch.latency}: tempo de conversão e aplicação do lote;</li>
+ *     <li>{@code gps.ingest.records.per.second}: vazão do último lote.</li>
+ * </ul>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+@Component
+public class GpsDataProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(GpsDataProcessor.class);
+
+    private final GpsFilterService gpsFilterService;
+    private final ObjectReader reader;
+
+    // Buffer de ingestão; null quando os lotes são aplicados diretamente
+    private final IngestionPipeline pipeline;
+
+    private final Counter appliedRecords;
+    private final Counter rejectedRecords;
+    private final Counter coalescedRecords;
+    private final DistributionSummary batchSize;
+    private final Timer batchLatency;
+
+    // Vazão do último lote (registros/s), exposta como gauge
+    private volatile double lastRecordsPerSecond;
+
+    @Autowired
+    public GpsDataProcessor(GpsFilterService gpsFilterService, ObjectMapper objectMapper,
+                            ObjectProvider<MeterRegistry> registry, ObjectProvider<IngestionPipeline> pipeline) {
+        this(gpsFilterService, objectMapper, registry.getIfAvailable(SimpleMeterRegistry::new),
+                pipeline.getIfAvailable());
+    }
+
+    /**
+     * Construtor com as dependências já resolvidas (usado também pelos testes).
+     *
+     * @param pipeline buffer de ingestão, ou null para aplicar os lotes diretamente
+     */
+    GpsDataProcessor(GpsFilterService gpsFilterService, ObjectMapper objectMapper, MeterRegistry registry,
+                     IngestionPipeline pipeline) {
+        this.gpsFilterService = gpsFilterService;
+        this.pipeline = pipeline;
+        this.reader = objectMapper.readerFor(GpsData.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.appliedRecords = Counter.builder("gps.ingest.records")
+                .description("Registros GPS aplicados ao armazenamento")
+                .register(registry);
+        this.rejectedRecords = Counter.builder("gps.ingest.rejected")
+                .description("Mensagens GPS descartadas por conteúdo inválido")
+                .register(registry);
+        this.coalescedRecords = Counter.builder("gps.ingest.coalesced")
+                .description("Registros GPS substituídos por outro mais recente da mesma ordem")
+                .register(registry);
+        this.batchSize = DistributionSummary.builder("gps.ingest.batch.size")
+                .description("Mensagens por lote recebido")
+                .register(registry);
+        this.batchLatency = Timer.builder("gps.ingest.batch.latency")
+                .description("Tempo de conversão e aplicação de um lote")
+                .register(registry);
+        registry.gauge("gps.ingest.records.per.second", this, processor -> processor.lastRecordsPerSecond);
+    }
+
+    /**
+     * Converte e aplica um lote de mensagens JSON.
+     *
+     * @return quantidade de registros aplicados
+     */
+    public int process(List<String> messages) {
+        if (messages == null || messages.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+
+        List<GpsData> batch = new ArrayList<>(messages.size());
+        int rejected = 0;
+        for (String message : messages) {
+            GpsData data = parse(message);
+            if (data != null) {
+                batch.add(data);
+            } else {
+                rejected++;
+            }
+        }
+        int applied = pipeline != null ? pipeline.publishAll(batch) : gpsFilterService.updateAll(batch);
+
+        long elapsedNanos = System.nanoTime() - start;
+        batchSize.record(messages.size());
+        batchLatency.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        appliedRecords.increment(applied);
+        rejectedRecords.increment(rejected);
+        coalescedRecords.increment(batch.size() - applied);
+        lastRecordsPerSecond = applied * 1e9 / Math.max(1, elapsedNanos);
+
+        logger.debug("Lote processado: {} aplicados, {} descartados em {} µs",
+                applied, rejected, TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        return applied;
+    }
+
+    public double getLastRecordsPerSecond() {
+        return lastRecordsPerSecond;
+    }
+
+    private GpsData parse(String message) {
+        if (message == null || message.isBlank()) {
+            return null;
+        }
+        try {
+            GpsData data = reader.readValue(message);
+            return data != null && data.getOrdem() != null ? data : null;
+        } catch (Exception e) {
+            logger.warn("Mensagem GPS inválida descartada: {}", e.getMessage());
+            return null;
+        }
+    }
+}
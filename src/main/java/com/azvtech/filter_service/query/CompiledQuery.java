@@ -0,0 +1,193 @@
+package com.azvtech.filter_service.query;
+
+import com.azvtech.filter_service.index.TimeIndex;
+import com.azvtech.filter_service.model.GeoCircle;
+import com.azvtech.filter_service.model.GpsData;
+import com.azvtech.filter_service.store.ScanCriteria;
+import com.azvtech.filter_service.store.VehicleDictionaries;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Plano compilado de uma forma de consulta (filtros sem paginação/ordenação).
+ *
+ * <p>Guarda o que não depende do instante da execução: conjuntos de linhas e
+ * ordens, os respectivos ids de dicionário, o círculo da consulta por raio e
+ * a janela de tempo. {@link #bind(LocalDateTime)} produz os critérios da
+ * execução com um único predicado especializado, contendo apenas os estágios
+ * ativos, do mais barato/seletivo ao mais caro: ordem, linha, retângulo
+ * envolvente, tempo e distância exata.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class CompiledQuery {
+
+    private final Set<String> linhas;
+    private final Set<String> ordens;
+    private final VehicleDictionaries dictionaries;
+    private final GeoCircle circle;
+    private final int ultimosMinutos;
+    private final List<String> stages;
+    private final long fingerprint;
+
+    // Ids resolvidos na compilação; refeitos no bind enquanto houver valores desconhecidos
+    private volatile BitSet linhaIds;
+    private volatile BitSet ordemIds;
+
+    CompiledQuery(Set<String> linhas, Set<String> ordens, GeoCircle circle, int ultimosMinutos,
+                  VehicleDictionaries dictionaries, long fingerprint) {
+        this.fingerprint = fingerprint;
+        this.linhas = linhas;
+        this.ordens = ordens;
+        this.circle = circle;
+        this.ultimosMinutos = ultimosMinutos;
+        this.dictionaries = dictionaries;
+        this.linhaIds = linhas != null && dictionaries != null ? dictionaries.linhaIds(linhas) : null;
+        this.ordemIds = ordens != null && dictionaries != null ? dictionaries.ordemIds(ordens) : null;
+
+        List<String> names = new ArrayList<>();
+        if (ordens != null) {
+            names.add("ordem");
+        }
+        if (linhas != null) {
+            names.add("linha");
+        }
+        if (circle != null) {
+            names.add("bbox");
+        }
+        if (ultimosMinutos > 0) {
+            names.add("tempo");
+        }
+        if (circle != null) {
+            names.add("distancia");
+        }
+        this.stages = Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Vincula o plano ao instante informado, calculando o corte de tempo.
+     */
+    public ScanCriteria bind(LocalDateTime now) {
+        BitSet currentOrdemIds = resolveOrdemIds();
+        BitSet currentLinhaIds = resolveLinhaIds();
+
+        boolean time = ultimosMinutos > 0;
+        LocalDateTime cutoffTime = time ? now.minusMinutes(ultimosMinutos) : null;
+        long cutoffMillis = time ? TimeIndex.toEpochMillis(cutoffTime) : Long.MIN_VALUE;
+
+        Predicate<GpsData> predicate = null;
+        if (ordens != null) {
+            predicate = and(predicate, data -> matchesOrdem(data, currentOrdemIds));
+        }
+        if (linhas != null) {
+            predicate = and(predicate, data -> matchesLinha(data, currentLinhaIds));
+        }
+        if (circle != null) {
+            predicate = and(predicate, data -> circle.inBoundingBox(data.getLatitude(), data.getLongitude()));
+        }
+        if (time) {
+            predicate = and(predicate, data -> data.getDatahoraservidor() != null
+                    && !data.getDatahoraservidor().isBefore(cutoffTime));
+        }
+        if (circle != null) {
+            double latitude = circle.getLatitude();
+            double longitude = circle.getLongitude();
+            double raioKm = circle.getRadiusKm();
+            predicate = and(predicate, data -> GpsData.haversineKm(
+                    data.getLatitude(), data.getLongitude(), latitude, longitude) <= raioKm);
+        }
+        if (predicate == null) {
+            predicate = data -> true;
+        }
+
+        return new ScanCriteria(predicate, linhas, currentLinhaIds, ordens, currentOrdemIds,
+                dictionaries, circle, time, cutoffMillis);
+    }
+
+    /**
+     * Nomes dos estágios ativos, na ordem em que são avaliados.
+     */
+    public List<String> getStages() {
+        return stages;
+    }
+
+    /**
+     * Impressão digital estável da forma da consulta (mesmos filtros, mesmo
+     * valor): 64 bits de um SHA-256, usada para validar cursores.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public Set<String> getLinhas() {
+        return linhas;
+    }
+
+    public Set<String> getOrdens() {
+        return ordens;
+    }
+
+    public GeoCircle getCircle() {
+        return circle;
+    }
+
+    public int getUltimosMinutos() {
+        return ultimosMinutos;
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledQuery{stages=" + stages + '}';
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private BitSet resolveLinhaIds() {
+        BitSet ids = linhaIds;
+        if (ids != null && ids.cardinality() < linhas.size()) {
+            // Alguma linha ainda não existia no dicionário quando o plano foi compilado
+            ids = dictionaries.linhaIds(linhas);
+            linhaIds = ids;
+        }
+        return ids;
+    }
+
+    private BitSet resolveOrdemIds() {
+        BitSet ids = ordemIds;
+        if (ids != null && ids.cardinality() < ordens.size()) {
+            ids = dictionaries.ordemIds(ordens);
+            ordemIds = ids;
+        }
+        return ids;
+    }
+
+    /**
+     * Compara pelo id de dicionário quando o registro foi codificado; caso contrário, pela string.
+     */
+    private boolean matchesLinha(GpsData data, BitSet ids) {
+        int id = data.getLinhaId();
+        if (ids != null && id >= 0) {
+            return ids.get(id);
+        }
+        return linhas.contains(data.getLinha());
+    }
+
+    private boolean matchesOrdem(GpsData data, BitSet ids) {
+        int id = data.getOrdemId();
+        if (ids != null && id >= 0) {
+            return ids.get(id);
+        }
+        return ordens.contains(data.getOrdem());
+    }
+
+    private static Predicate<GpsData> and(Predicate<GpsData> current, Predicate<GpsData> stage) {
+        return current == null ? stage : current.and(stage);
+    }
+}
@@ -0,0 +1,181 @@
+package com.azvtech.filter_service.query;
+
+import com.azvtech.filter_service.index.SortedViews;
+import com.azvtech.filter_service.model.GpsData;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Cursor de paginação por chave (keyset).
+ *
+ * <p>Registra a chave de ordenação e a ordem do último registro entregue,
+ * de modo que a próxima página começa imediatamente depois dele, sem
+ * recalcular as páginas anteriores e sem deslocamentos quando veículos são
+ * atualizados entre as chamadas. Também guarda a versão dos dados no
+ * momento da página e uma impressão digital da consulta, para recusar
+ * cursores usados com outros filtros ou outra ordenação.</p>
+ *
+ * <p>O token é opaco para o cliente: bytes serializados em Base64 URL-safe.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public final class PageCursor {
+
+    private static final byte FORMAT_VERSION = 2;
+
+    private static final byte KEY_NULL = 0;
+    private static final byte KEY_STRING = 1;
+    private static final byte KEY_INT = 2;
+    private static final byte KEY_DATETIME = 3;
+
+    private final String sortKey;
+    private final boolean descending;
+    private final long queryFingerprint;
+    private final long dataVersion;
+    private final GpsData anchor;
+
+    private PageCursor(String sortKey, boolean descending, long queryFingerprint, long dataVersion, GpsData anchor) {
+        this.sortKey = sortKey;
+        this.descending = descending;
+        this.queryFingerprint = queryFingerprint;
+        this.dataVersion = dataVersion;
+        this.anchor = anchor;
+    }
+
+    /**
+     * Cria o cursor posicionado depois do último registro de uma página.
+     */
+    public static PageCursor after(GpsData last, String sortBy, String sortDirection,
+                                   long queryFingerprint, long dataVersion) {
+        String sortKey = SortedViews.sortKey(sortBy);
+        GpsData anchor = new GpsData();
+        anchor.setOrdem(last.getOrdem());
+        switch (sortKey) {
+            case "linha" -> anchor.setLinha(last.getLinha());
+            case "velocidade" -> anchor.setVelocidade(last.getVelocidade());
+            case "datahoraservidor" -> anchor.setDatahoraservidor(last.getDatahoraservidor());
+            default -> { }
+        }
+        return new PageCursor(sortKey, "desc".equalsIgnoreCase(sortDirection), queryFingerprint, dataVersion, anchor);
+    }
+
+    /**
+     * Decodifica um token recebido do cliente.
+     *
+     * @throws IllegalArgumentException se o token estiver malformado
+     */
+    public static PageCursor decode(String token) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readByte() != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Versão de cursor não suportada");
+            }
+            String sortKey = in.readUTF();
+            boolean descending = in.readBoolean();
+            long fingerprint = in.readLong();
+            long dataVersion = in.readLong();
+
+            GpsData anchor = new GpsData();
+            anchor.setOrdem(in.readUTF());
+            byte keyType = in.readByte();
+            switch (keyType) {
+                case KEY_NULL -> { }
+                case KEY_STRING -> anchor.setLinha(in.readUTF());
+                case KEY_INT -> anchor.setVelocidade(in.readInt());
+                case KEY_DATETIME -> anchor.setDatahoraservidor(LocalDateTime.parse(in.readUTF()));
+                default -> throw new IllegalArgumentException("Cursor inválido");
+            }
+            if (!SortedViews.supports(sortKey)) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new PageCursor(sortKey, descending, fingerprint, dataVersion, anchor);
+        } catch (IOException | DateTimeParseException | IllegalArgumentException e) {
+            // Base64 inválido, bytes truncados ou valores inconsistentes
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    /**
+     * Serializa o cursor em um token opaco.
+     */
+    public String encode() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(FORMAT_VERSION);
+            out.writeUTF(sortKey);
+            out.writeBoolean(descending);
+            out.writeLong(queryFingerprint);
+            out.writeLong(dataVersion);
+            out.writeUTF(anchor.getOrdem());
+            switch (sortKey) {
+                case "linha" -> writeString(out, anchor.getLinha());
+                case "velocidade" -> {
+                    out.writeByte(KEY_INT);
+                    out.writeInt(anchor.getVelocidade());
+                }
+                case "datahoraservidor" -> {
+                    if (anchor.getDatahoraservidor() == null) {
+                        out.writeByte(KEY_NULL);
+                    } else {
+                        out.writeByte(KEY_DATETIME);
+                        out.writeUTF(anchor.getDatahoraservidor().toString());
+                    }
+                }
+                default -> out.writeByte(KEY_NULL);
+            }
+            out.flush();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Verifica se o cursor foi emitido para a mesma consulta e ordenação.
+     */
+    public boolean matches(String sortBy, String sortDirection, long queryFingerprint) {
+        return sortKey.equals(SortedViews.sortKey(sortBy))
+                && descending == "desc".equalsIgnoreCase(sortDirection)
+                && this.queryFingerprint == queryFingerprint;
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public long getDataVersion() {
+        return dataVersion;
+    }
+
+    /**
+     * Registro sintético com a chave de ordenação e a ordem do último registro entregue.
+     * Registros posteriores a ele segundo o comparador da ordenação pertencem às próximas páginas.
+     */
+    public GpsData getAnchor() {
+        return anchor;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeByte(KEY_NULL);
+        } else {
+            out.writeByte(KEY_STRING);
+            out.writeUTF(value);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.azvtech.filter_service.query;
+
+import com.azvtech.filter_service.dto.FilterRequest;
+import com.azvtech.filter_service.model.GeoCircle;
+import com.azvtech.filter_service.store.VehicleDictionaries;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Compila requisições de filtro em planos de consulta reutilizáveis.
+ *
+ * <p>Requisições com a mesma forma (mesmos filtros, independentemente de
+ * paginação, ordenação e da ordem dos valores nas listas) compartilham o
+ * mesmo {@link CompiledQuery}, mantido em um cache pequeno. O
+ * {@code hashCode} da forma serve apenas a esse cache; a impressão digital
+ * que valida cursores é um SHA-256 (truncado em 64 bits) da forma canônica.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class QueryCompiler {
+
+    public static final int DEFAULT_PLAN_CACHE_SIZE = 256;
+
+    private final VehicleDictionaries dictionaries;
+    private final Cache<QueryShape, CompiledQuery> plans;
+
+    /**
+     * Compilador sem dicionários: os planos comparam linhas e ordens por string.
+     */
+    public QueryCompiler() {
+        this(null, DEFAULT_PLAN_CACHE_SIZE);
+    }
+
+    public QueryCompiler(VehicleDictionaries dictionaries) {
+        this(dictionaries, DEFAULT_PLAN_CACHE_SIZE);
+    }
+
+    public QueryCompiler(VehicleDictionaries dictionaries, int planCacheSize) {
+        this.dictionaries = dictionaries;
+        this.plans = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, planCacheSize))
+                .build();
+    }
+
+    /**
+     * Retorna o plano da requisição, compilando-o apenas na primeira ocorrência da forma.
+     */
+    public CompiledQuery compile(FilterRequest request) {
+        return plans.get(QueryShape.of(request), this::doCompile);
+    }
+
+    /**
+     * Quantidade de planos em cache.
+     */
+    public long cachedPlanCount() {
+        plans.cleanUp();
+        return plans.estimatedSize();
+    }
+
+    public void clear() {
+        plans.invalidateAll();
+    }
+
+    private CompiledQuery doCompile(QueryShape shape) {
+        GeoCircle circle = shape.raioKm != null
+                ? new GeoCircle(shape.latitude, shape.longitude, shape.raioKm)
+                : null;
+        return new CompiledQuery(
+                shape.linhas != null ? new HashSet<>(shape.linhas) : null,
+                shape.ordens != null ? new HashSet<>(shape.ordens) : null,
+                circle,
+                shape.ultimosMinutos,
+                dictionaries,
+                shape.fingerprint());
+    }
+
+    /**
+     * Forma canônica de uma requisição: apenas os filtros ativos, com valores ordenados e sem repetição.
+     */
+    private static final class QueryShape {
+        final Set<String> linhas;
+        final Set<String> ordens;
+        final Double latitude;
+        final Double longitude;
+        final Double raioKm;
+        final int ultimosMinutos;
+
+        private QueryShape(Set<String> linhas, Set<String> ordens,
+                           Double latitude, Double longitude, Double raioKm, int ultimosMinutos) {
+            this.linhas = linhas;
+            this.ordens = ordens;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.raioKm = raioKm;
+            this.ultimosMinutos = ultimosMinutos;
+        }
+
+        static QueryShape of(FilterRequest request) {
+            boolean location = request.hasLocationFilter();
+            return new QueryShape(
+                    request.hasLinhasFilter() ? canonical(request.getLinhas()) : null,
+                    request.hasOrdensFilter() ? canonical(request.getOrdens()) : null,
+                    location ? request.getLatitude() : null,
+                    location ? request.getLongitude() : null,
+                    location ? request.getRaioKm() : null,
+                    request.hasTimeFilter() ? request.getUltimosMinutos() : 0);
+        }
+
+        private static Set<String> canonical(List<String> values) {
+            Set<String> result = new TreeSet<>();
+            for (String value : values) {
+                if (value != null) {
+                    result.add(value);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Primeiros 64 bits do SHA-256 da forma canônica: estável entre
+         * instâncias e reinícios e sem as colisões frequentes de um hash de 32 bits.
+         */
+        long fingerprint() {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                byte[] hash = digest.digest(canonicalForm().getBytes(StandardCharsets.UTF_8));
+                return ByteBuffer.wrap(hash).getLong();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 indisponível", e);
+            }
+        }
+
+        /**
+         * Representação textual sem ambiguidade: cada valor é prefixado pelo seu tamanho.
+         */
+        private String canonicalForm() {
+            StringBuilder form = new StringBuilder(64);
+            appendValues(form, 'L', linhas);
+            appendValues(form, 'O', ordens);
+            form.append("P:").append(latitude).append(',').append(longitude).append(',').append(raioKm);
+            form.append(";M:").append(ultimosMinutos);
+            return form.toString();
+        }
+
+        private static void appendValues(StringBuilder form, char tag, Set<String> values) {
+            form.append(tag).append(':');
+            if (values == null) {
+                form.append('-');
+            } else {
+                form.append(values.size());
+                for (String value : values) {
+                    form.append(',').append(value.length()).append(':').append(value);
+                }
+            }
+            form.append(';');
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof QueryShape other)) return false;
+            return ultimosMinutos == other.ultimosMinutos
+                    && Objects.equals(linhas, other.linhas)
+                    && Objects.equals(ordens, other.ordens)
+                    && Objects.equals(latitude, other.latitude)
+                    && Objects.equals(longitude, other.longitude)
+                    && Objects.equals(raioKm, other.raioKm);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(linhas, ordens, latitude, longitude, raioKm, ultimosMinutos);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.azvtech.filter_service.query;
+
+import com.azvtech.filter_service.config.FilterProperties;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Executor das etapas de filtragem das consultas, em um pool dedicado
+ * ({@code filter.query.*}).
+ *
+ * <p>O modo de execução é decidido por consulta a partir da estimativa de
+ * candidatos do plano: abaixo de {@code parallel-threshold} a filtragem roda
+ * na própria thread da requisição, sem custo de coordenação; acima, o
+ * intervalo de candidatos é dividido em blocos contíguos de
+ * {@code chunk-size} registros, cada bloco acumula seu próprio resultado
+ * parcial e os parciais são combinados. O pool não é o
+ * {@link ForkJoinPool#commonPool()}, de modo que consultas não disputam
+ * threads com outros usos do pool comum da JVM.</p>
+ *
+ * <p>Com requisições atendidas por threads virtuais
+ * ({@code spring.threads.virtual.enabled}), a consulta inteira é repassada
+ * a esse pool de threads de plataforma ({@link #callOnPlatformThread(Supplier)}):
+ * a thread virtual apenas espera o resultado, e o trabalho de CPU fica
+ * limitado ao tamanho do pool, independentemente da quantidade de conexões.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class QueryExecutor {
+
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+    private final int chunkSize;
+    private final boolean offloadVirtualThreads;
+
+    public QueryExecutor(FilterProperties.Query config) {
+        this(config.resolveParallelism(), config.getParallelThreshold(), config.getChunkSize(),
+                config.isOffloadVirtualThreads());
+    }
+
+    public QueryExecutor(int parallelism, int parallelThreshold, int chunkSize) {
+        this(parallelism, parallelThreshold, chunkSize, true);
+    }
+
+    public QueryExecutor(int parallelism, int parallelThreshold, int chunkSize, boolean offloadVirtualThreads) {
+        if (parallelism < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Paralelismo e tamanho do bloco devem ser positivos");
+        }
+        this.pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("filter-query-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        this.parallelThreshold = parallelThreshold;
+        this.chunkSize = chunkSize;
+        this.offloadVirtualThreads = offloadVirtualThreads;
+    }
+
+    /**
+     * Modo de execução de uma consulta.
+     */
+    public enum Mode {
+        SEQUENTIAL("sequencial"),
+        PARALLEL("paralelo");
+
+        private final String label;
+
+        Mode(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * Processa um bloco {@code [from, to)} de candidatos sobre o acumulador da tarefa.
+     *
+     * @param <A> resultado parcial
+     */
+    @FunctionalInterface
+    public interface ChunkTask<A> {
+        void run(int from, int to, A accumulator);
+    }
+
+    /**
+     * Escolhe o modo pela quantidade estimada de candidatos. Com um único
+     * processador no pool, a execução é sempre sequencial.
+     */
+    public Mode modeFor(long estimatedCandidates) {
+        return estimatedCandidates >= parallelThreshold && pool.getParallelism() > 1
+                ? Mode.PARALLEL
+                : Mode.SEQUENTIAL;
+    }
+
+    /**
+     * Executa a tarefa sobre os índices {@code [0, size)}: de uma vez na thread
+     * atual no modo sequencial, ou em blocos no pool dedicado no modo paralelo.
+     */
+    public <A> A execute(int size, Mode mode, Supplier<A> supplier, ChunkTask<A> task, BinaryOperator<A> combiner) {
+        if (mode == Mode.SEQUENTIAL || size <= chunkSize) {
+            A accumulator = supplier.get();
+            task.run(0, size, accumulator);
+            return accumulator;
+        }
+        return pool.invoke(new ChunkedTask<>(0, size, chunkSize, supplier, task, combiner));
+    }
+
+    /**
+     * Executa a consulta em uma thread do pool dedicado quando chamada de uma
+     * thread virtual; nas demais threads, executa diretamente. Exceções da
+     * consulta são repassadas sem encapsulamento.
+     */
+    public <T> T callOnPlatformThread(Supplier<T> query) {
+        if (!offloadVirtualThreads || !Thread.currentThread().isVirtual()) {
+            return query.get();
+        }
+        // CompletableFuture entrega a exceção original (ForkJoinTask a copiaria)
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(query, pool);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta interrompida", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Falha ao executar consulta", cause);
+        }
+    }
+
+    /**
+     * Encerra o pool dedicado: tarefas já submetidas terminam, novas são recusadas.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Pool dedicado, também usado para distribuir varreduras entre shards.
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Divide o intervalo ao meio até blocos de no máximo {@code chunkSize}
+     * índices; o bloco da esquerda é processado pela thread atual.
+     */
+    private static final class ChunkedTask<A> extends RecursiveTask<A> {
+
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final Supplier<A> supplier;
+        private final ChunkTask<A> task;
+        private final BinaryOperator<A> combiner;
+
+        ChunkedTask(int from, int to, int chunkSize, Supplier<A> supplier,
+                    ChunkTask<A> task, BinaryOperator<A> combiner) {
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.supplier = supplier;
+            this.task = task;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from <= chunkSize) {
+                A accumulator = supplier.get();
+                task.run(from, to, accumulator);
+                return accumulator;
+            }
+            // Divisão alinhada ao tamanho do bloco: cada tarefa percorre um trecho contíguo
+            int chunks = (to - from + chunkSize - 1) / chunkSize;
+            int mid = from + (chunks / 2) * chunkSize;
+            ChunkedTask<A> right = new ChunkedTask<>(mid, to, chunkSize, supplier, task, combiner);
+            right.fork();
+            A left = new ChunkedTask<>(from, mid, chunkSize, supplier, task, combiner).compute();
+            return combiner.apply(left, right.join());
+        }
+    }
+}
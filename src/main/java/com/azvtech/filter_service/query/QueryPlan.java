@@ -0,0 +1,195 @@
+package com.azvtech.filter_service.query;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plano de acesso escolhido pelo {@link QueryPlanner} para uma execução.
+ *
+ * <p>Registra o índice que conduz a consulta, o índice eventualmente
+ * intersectado com ele, as estimativas de cada caminho e os estágios do
+ * predicado aplicados sobre os candidatos. Na varredura completa não há
+ * candidatos: todos os registros do armazenamento são avaliados. No percurso
+ * da visão ordenada também não: a visão do campo de ordenação é percorrida
+ * até completar a página. Quando a ordem completa do resultado já está em
+ * cache, nenhum índice é consultado e a página é lida diretamente dela.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class QueryPlan {
+
+    /**
+     * Caminhos de acesso disponíveis.
+     */
+    public enum AccessPath {
+        ORDEM("ordem"),
+        LINHA("linha"),
+        ESPACIAL("espacial"),
+        TEMPO("tempo"),
+        VISAO_ORDENADA("visao"),
+        VARREDURA("varredura"),
+        RESULTADO_EM_CACHE("resultado-em-cache");
+
+        private final String label;
+
+        AccessPath(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final AccessPath drivingPath;
+    private final AccessPath intersectedPath;
+    private final Map<AccessPath, Integer> estimates;
+    private final int storeSize;
+    private final int matchBound;
+    private final Set<String> candidateOrdens;
+    private final List<String> stages;
+    private final String sortKey;
+
+    QueryPlan(AccessPath drivingPath, AccessPath intersectedPath, Map<AccessPath, Integer> estimates,
+              int storeSize, int matchBound, Set<String> candidateOrdens, List<String> stages, String sortKey) {
+        this.drivingPath = drivingPath;
+        this.intersectedPath = intersectedPath;
+        this.estimates = estimates.isEmpty()
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new EnumMap<>(estimates));
+        this.storeSize = storeSize;
+        this.matchBound = matchBound;
+        this.candidateOrdens = candidateOrdens;
+        this.stages = stages;
+        this.sortKey = sortKey;
+    }
+
+    /**
+     * Plano de uma página servida a partir da ordem completa do resultado, já em cache.
+     */
+    public static QueryPlan cachedResult(String sortKey, int resultSize, List<String> stages) {
+        return new QueryPlan(AccessPath.RESULTADO_EM_CACHE, null, Collections.emptyMap(),
+                resultSize, resultSize, null, stages, sortKey);
+    }
+
+    /**
+     * Plano de varredura completa sem consultar índices (versões dos dados a que eles não correspondem).
+     */
+    public static QueryPlan fullScan(String sortKey, int storeSize, List<String> stages) {
+        return new QueryPlan(AccessPath.VARREDURA, null, Collections.emptyMap(),
+                storeSize, storeSize, null, stages, sortKey);
+    }
+
+    public boolean isFullScan() {
+        return drivingPath == AccessPath.VARREDURA;
+    }
+
+    /**
+     * Indica que a consulta percorre a visão ordenada de {@link #getSortKey()}.
+     */
+    public boolean usesSortedView() {
+        return drivingPath == AccessPath.VISAO_ORDENADA;
+    }
+
+    /**
+     * Indica que a página foi lida da ordem do resultado em cache.
+     */
+    public boolean usesCachedResult() {
+        return drivingPath == AccessPath.RESULTADO_EM_CACHE;
+    }
+
+    /**
+     * Campo de ordenação da consulta.
+     */
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public AccessPath getDrivingPath() {
+        return drivingPath;
+    }
+
+    /**
+     * Índice intersectado com o índice condutor, ou null se os demais filtros
+     * forem aplicados apenas pelo predicado.
+     */
+    public AccessPath getIntersectedPath() {
+        return intersectedPath;
+    }
+
+    /**
+     * Estimativa de candidatos por caminho avaliado.
+     */
+    public Map<AccessPath, Integer> getEstimates() {
+        return estimates;
+    }
+
+    /**
+     * Limite superior da quantidade de registros aceitos, conhecido sem
+     * avaliar os filtros: a menor estimativa completa dos índices (ou o
+     * tamanho do armazenamento, sem filtros indexáveis).
+     */
+    public int getMatchBound() {
+        return matchBound;
+    }
+
+    /**
+     * Ordens candidatas produzidas pelos índices, ou null na varredura completa e na visão ordenada.
+     */
+    public Set<String> getCandidateOrdens() {
+        return candidateOrdens;
+    }
+
+    /**
+     * Quantidade de registros avaliados pelo predicado.
+     */
+    public int getCandidateCount() {
+        return candidateOrdens != null ? candidateOrdens.size() : storeSize;
+    }
+
+    public List<String> getStages() {
+        return stages;
+    }
+
+    /**
+     * Descrição legível do plano, exposta nos metadados da consulta.
+     * Exemplo: {@code linha(est=42) & espacial(est=80) -> 12 candidatos, filtros=[linha, bbox, distancia]}
+     */
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(drivingPath.getLabel());
+        if (usesSortedView() || usesCachedResult()) {
+            sb.append(':').append(sortKey);
+        } else if (!isFullScan()) {
+            sb.append("(est=").append(estimates.get(drivingPath)).append(')');
+        }
+        if (intersectedPath != null) {
+            sb.append(" & ").append(intersectedPath.getLabel())
+                    .append("(est=").append(estimates.get(intersectedPath)).append(')');
+        }
+        sb.append(" -> ").append(getCandidateCount()).append(" candidatos");
+        sb.append(", filtros=").append(stages);
+        if (candidateOrdens == null && !estimates.isEmpty()) {
+            sb.append(", estimativas={");
+            boolean first = true;
+            for (Map.Entry<AccessPath, Integer> entry : estimates.entrySet()) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                sb.append(entry.getKey().getLabel()).append('=').append(entry.getValue());
+                first = false;
+            }
+            sb.append('}');
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "QueryPlan{" + describe() + '}';
+    }
+}
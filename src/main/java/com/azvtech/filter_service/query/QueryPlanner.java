@@ -0,0 +1,186 @@
+package com.azvtech.filter_service.query;
+
+import com.azvtech.filter_service.index.LinhaIndex;
+import com.azvtech.filter_service.index.ShardedIndexes;
+import com.azvtech.filter_service.index.SortedViews;
+import com.azvtech.filter_service.index.SpatialGridIndex;
+import com.azvtech.filter_service.index.TimeIndex;
+import com.azvtech.filter_service.index.VehicleIndexes;
+import com.azvtech.filter_service.model.GeoCircle;
+import com.azvtech.filter_service.query.QueryPlan.AccessPath;
+import com.azvtech.filter_service.store.ScanCriteria;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Planejador de consultas baseado em custo.
+ *
+ * <p>Estima quantos candidatos cada índice aplicável produziria (tamanho
+ * exato para ordens, soma dos buckets para linhas, soma das células
+ * visitadas para raio e tamanho da cauda recente para tempo) e conduz a
+ * consulta pelo mais seletivo. Um segundo índice é intersectado quando sua
+ * estimativa é comparável à do primeiro; os demais filtros ficam a cargo do
+ * predicado compilado. Se nenhum índice reduzir o conjunto abaixo da fração
+ * configurada da frota, a consulta percorre a visão ordenada do campo de
+ * ordenação (quando existe) ou usa a varredura completa.</p>
+ *
+ * <p>Com o armazenamento em shards, cada shard tem seus próprios índices;
+ * as estimativas são a soma das estimativas dos shards e os candidatos, a
+ * união dos candidatos de cada um.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class QueryPlanner {
+
+    public static final double DEFAULT_FULL_SCAN_SELECTIVITY = 0.5;
+
+    // Intersecta o segundo índice se ele produzir no máximo este múltiplo dos candidatos do primeiro
+    private static final int INTERSECT_RATIO = 2;
+
+    private final ShardedIndexes indexes;
+    private final boolean sortedViews;
+    private final double fullScanSelectivity;
+
+    /**
+     * Planejador de shard único sem visões ordenadas: consultas pouco seletivas usam varredura completa.
+     */
+    public QueryPlanner(LinhaIndex linhaIndex, SpatialGridIndex spatialIndex, TimeIndex timeIndex) {
+        this(ShardedIndexes.single(new VehicleIndexes(linhaIndex, spatialIndex, timeIndex)), false,
+                DEFAULT_FULL_SCAN_SELECTIVITY);
+    }
+
+    /**
+     * @param indexes             índices de cada shard
+     * @param sortedViews         se consultas pouco seletivas podem percorrer as visões ordenadas
+     * @param fullScanSelectivity fração da frota acima da qual os índices deixam de compensar
+     */
+    public QueryPlanner(ShardedIndexes indexes, boolean sortedViews, double fullScanSelectivity) {
+        this.indexes = indexes;
+        this.sortedViews = sortedViews;
+        this.fullScanSelectivity = fullScanSelectivity;
+    }
+
+    /**
+     * Escolhe o caminho de acesso da consulta e resolve as ordens candidatas.
+     *
+     * @param query     plano compilado da requisição
+     * @param criteria  critérios vinculados ao instante da execução
+     * @param storeSize quantidade atual de veículos no armazenamento
+     * @param sortBy    campo de ordenação da requisição
+     */
+    public QueryPlan plan(CompiledQuery query, ScanCriteria criteria, int storeSize, String sortBy) {
+        String sortKey = SortedViews.sortKey(sortBy);
+        Map<AccessPath, Integer> estimates = new EnumMap<>(AccessPath.class);
+        int fullScanLimit = (int) Math.min(Integer.MAX_VALUE, Math.ceil(storeSize * fullScanSelectivity));
+
+        if (query.getOrdens() != null) {
+            estimates.put(AccessPath.ORDEM, query.getOrdens().size());
+        }
+        if (query.getLinhas() != null) {
+            int total = 0;
+            for (String linha : query.getLinhas()) {
+                total += indexes.linhaBucketSize(linha);
+            }
+            estimates.put(AccessPath.LINHA, total);
+        }
+        GeoCircle circle = query.getCircle();
+        if (circle != null) {
+            estimates.put(AccessPath.ESPACIAL, indexes.estimateSpatialCandidates(
+                    circle.getLatitude(), circle.getLongitude(), circle.getRadiusKm()));
+        }
+        boolean timeTruncated = false;
+        if (criteria.hasTime()) {
+            // A cauda só precisa ser contada até o ponto em que deixa de ser competitiva
+            int limit = Math.min(Math.min(fullScanLimit, saturatedMultiply(best(estimates), INTERSECT_RATIO)),
+                    Integer.MAX_VALUE - 1) + 1;
+            int tail = indexes.countSince(criteria.getCutoffMillis(), limit);
+            estimates.put(AccessPath.TEMPO, tail);
+            timeTruncated = tail >= limit;
+        }
+
+        AccessPath driving = cheapest(estimates, null);
+        if (driving == null || estimates.get(driving) > fullScanLimit) {
+            AccessPath fallback = sortedViews && SortedViews.supports(sortKey)
+                    ? AccessPath.VISAO_ORDENADA
+                    : AccessPath.VARREDURA;
+            return new QueryPlan(fallback, null, estimates, storeSize,
+                    matchBound(estimates, timeTruncated, storeSize), null, query.getStages(), sortKey);
+        }
+
+        Set<String> candidates = candidatesOf(driving, query, criteria);
+
+        AccessPath intersected = null;
+        if (driving != AccessPath.ORDEM) {
+            AccessPath second = cheapest(estimates, driving);
+            if (second != null && second != AccessPath.ORDEM
+                    && estimates.get(second) <= saturatedMultiply(estimates.get(driving), INTERSECT_RATIO)) {
+                candidates.retainAll(candidatesOf(second, query, criteria));
+                intersected = second;
+            }
+        }
+
+        return new QueryPlan(driving, intersected, estimates, storeSize, candidates.size(), candidates,
+                query.getStages(), sortKey);
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private Set<String> candidatesOf(AccessPath path, CompiledQuery query, ScanCriteria criteria) {
+        return switch (path) {
+            case ORDEM -> new HashSet<>(query.getOrdens());
+            case LINHA -> {
+                // Ordens repetidas (veículo em troca de linha) são consideradas uma única vez
+                Set<String> ordens = new HashSet<>();
+                for (String linha : query.getLinhas()) {
+                    indexes.linhaOrdens(linha, ordens);
+                }
+                yield ordens;
+            }
+            case ESPACIAL -> indexes.spatialCandidates(query.getCircle().getLatitude(),
+                    query.getCircle().getLongitude(), query.getCircle().getRadiusKm());
+            case TEMPO -> new HashSet<>(indexes.ordensSince(criteria.getCutoffMillis()));
+            case VISAO_ORDENADA, VARREDURA, RESULTADO_EM_CACHE -> throw new IllegalArgumentException("Caminho sem candidatos: " + path);
+        };
+    }
+
+    /**
+     * Menor estimativa que limita os aceitos por cima; a cauda de tempo
+     * interrompida no limite de contagem não serve como limite superior.
+     */
+    private static int matchBound(Map<AccessPath, Integer> estimates, boolean timeTruncated, int storeSize) {
+        int bound = storeSize;
+        for (Map.Entry<AccessPath, Integer> entry : estimates.entrySet()) {
+            if (entry.getKey() != AccessPath.TEMPO || !timeTruncated) {
+                bound = Math.min(bound, entry.getValue());
+            }
+        }
+        return bound;
+    }
+
+    private static AccessPath cheapest(Map<AccessPath, Integer> estimates, AccessPath excluded) {
+        AccessPath best = null;
+        for (Map.Entry<AccessPath, Integer> entry : estimates.entrySet()) {
+            if (entry.getKey() != excluded && (best == null || entry.getValue() < estimates.get(best))) {
+                best = entry.getKey();
+            }
+        }
+        return best;
+    }
+
+    private static int best(Map<AccessPath, Integer> estimates) {
+        int best = Integer.MAX_VALUE;
+        for (int estimate : estimates.values()) {
+            best = Math.min(best, estimate);
+        }
+        return best;
+    }
+
+    private static int saturatedMultiply(int value, int factor) {
+        long result = (long) value * factor;
+        return (int) Math.min(Integer.MAX_VALUE, result);
+    }
+}
@@ -0,0 +1,23 @@
+package com.azvtech.filter_service.query;
+
+import com.azvtech.filter_service.dto.GpsDataResponse;
+
+import java.util.function.Predicate;
+
+/**
+ * Resultado de uma consulta já validada e planejada, entregue registro a
+ * registro, na ordem pedida, quando o consumidor está pronto para recebê-los.
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface ResultStream {
+
+    /**
+     * Entrega os registros ao consumidor até o fim do resultado ou até ele retornar false.
+     *
+     * @return quantidade de registros entregues
+     */
+    int forEach(Predicate<GpsDataResponse> sink);
+}
@@ -0,0 +1,99 @@
+package com.azvtech.filter_service.query;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Seleção parcial dos {@code k} menores elementos segundo um comparador.
+ *
+ * <p>Mantém um heap limitado cujo topo é o pior elemento retido, de modo que
+ * cada elemento oferecido custa O(log k) e nenhuma cópia ordenada do
+ * conjunto completo é alocada. Também conta todos os elementos oferecidos,
+ * para que o total filtrado continue disponível para a paginação.
+ * Na execução em blocos, cada bloco acumula seu próprio heap e os heaps
+ * são combinados ao final (ver {@link QueryExecutor#execute} e {@link #merge(TopK)}).</p>
+ *
+ * <p>Com um limite inferior (paginação por cursor), elementos que não vêm
+ * estritamente depois dele são contados, mas não retidos.</p>
+ *
+ * @param <T> tipo dos elementos
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public final class TopK<T> {
+
+    private final int k;
+    private final Comparator<? super T> comparator;
+    private final PriorityQueue<T> heap;
+    private final T after;
+    private int count;
+
+    public TopK(int k, Comparator<? super T> comparator) {
+        this(k, comparator, null);
+    }
+
+    /**
+     * @param after limite inferior exclusivo, ou null para considerar todos os elementos
+     */
+    public TopK(int k, Comparator<? super T> comparator, T after) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k não pode ser negativo");
+        }
+        this.k = k;
+        this.comparator = comparator;
+        this.after = after;
+        // Heap invertido: o topo é o elemento que sai primeiro quando chega um melhor
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(k, 1024)), comparator.reversed());
+    }
+
+    /**
+     * Oferece um elemento; ele é retido apenas se estiver entre os k melhores vistos até agora.
+     */
+    public void offer(T element) {
+        count++;
+        if (k == 0 || (after != null && comparator.compare(element, after) <= 0)) {
+            return;
+        }
+        if (heap.size() < k) {
+            heap.add(element);
+        } else if (comparator.compare(element, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(element);
+        }
+    }
+
+    /**
+     * Combina os elementos retidos por outra instância nesta.
+     */
+    public TopK<T> merge(TopK<T> other) {
+        int otherCount = other.count;
+        for (T element : other.heap) {
+            offer(element);
+        }
+        // offer() já contou os elementos retidos; soma apenas os descartados pela outra instância
+        count += otherCount - other.heap.size();
+        return this;
+    }
+
+    /**
+     * Retorna os elementos retidos em ordem crescente segundo o comparador.
+     */
+    public List<T> toSortedList() {
+        List<T> result = new ArrayList<>(heap);
+        result.sort(comparator);
+        return result;
+    }
+
+    /**
+     * Quantidade total de elementos oferecidos (retidos ou não).
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public int getK() {
+        return k;
+    }
+}
@@ -1,17 +1,53 @@
 package com.azvtech.filter_service.service;
 
+import com.azvtech.filter_service.cache.OrderedResultCache;
+import com.azvtech.filter_service.cache.QueryResultCache;
+import com.azvtech.filter_service.cache.ResultCacheKey;
+import com.azvtech.filter_service.cache.SimplifiedTrajectoryCache;
+import com.azvtech.filter_service.config.FilterProperties;
 import com.azvtech.filter_service.dto.*;
+import com.azvtech.filter_service.history.PositionHistory;
+import com.azvtech.filter_service.history.PositionTrack;
+import com.azvtech.filter_service.history.TrackPoints;
+import com.azvtech.filter_service.history.TrajectorySimplifier;
+import com.azvtech.filter_service.index.ShardedIndexes;
+import com.azvtech.filter_service.index.SortedViews;
+import com.azvtech.filter_service.index.TimeIndex;
+import com.azvtech.filter_service.metrics.IngestionStats;
 import com.azvtech.filter_service.metrics.ServiceMetrics;
 import com.azvtech.filter_service.model.GpsData;
+import com.azvtech.filter_service.query.CompiledQuery;
+import com.azvtech.filter_service.query.PageCursor;
+import com.azvtech.filter_service.query.QueryCompiler;
+import com.azvtech.filter_service.query.QueryExecutor;
+import com.azvtech.filter_service.query.QueryPlan;
+import com.azvtech.filter_service.query.QueryPlanner;
+import com.azvtech.filter_service.query.ResultStream;
+import com.azvtech.filter_service.query.TopK;
+import com.azvtech.filter_service.snapshot.VehicleSnapshots;
+import com.azvtech.filter_service.store.ColumnarVehicleStore;
+import com.azvtech.filter_service.store.MapVehicleStore;
+import com.azvtech.filter_service.store.OffHeapVehicleStore;
+import com.azvtech.filter_service.store.ScanCriteria;
+import com.azvtech.filter_service.store.ShardedVehicleStore;
+import com.azvtech.filter_service.store.StoreListener;
+import com.azvtech.filter_service.store.VehicleDictionaries;
+import com.azvtech.filter_service.store.VehicleReader;
+import com.azvtech.filter_service.store.VehicleStore;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -26,56 +62,210 @@ public class GpsFilterService {
 
     private static final Logger logger = LoggerFactory.getLogger(GpsFilterService.class);
 
-    // Armazenamento em memória dos dados GPS (Thread-safe)
-    private final ConcurrentHashMap<String, GpsData> inMemoryDataStore = new ConcurrentHashMap<>();
+    // Execuções sobre o snapshot atual repetidas quando os índices mudam durante a consulta
+    private static final int MAX_INDEXED_ATTEMPTS = 3;
+
+    // Dicionários de linha/ordem: strings canônicas e ids compactos atribuídos na ingestão
+    private final VehicleDictionaries dictionaries = new VehicleDictionaries();
+
+    // Armazenamento em memória dos dados GPS (Thread-safe, implementação configurável)
+    private final VehicleStore store;
+
+    // Índices por shard (linha, grade espacial, data/hora e visões ordenadas), mantidos junto com o armazenamento
+    private final ShardedIndexes indexes;
+
+    // Compila as requisições em planos especializados, reutilizados por forma de consulta
+    private final QueryCompiler queryCompiler;
+
+    // Escolhe, por estimativa de custo, o índice que conduz cada consulta
+    private final QueryPlanner queryPlanner;
+
+    // Filtragem sequencial ou paralela (pool dedicado), conforme os candidatos estimados
+    private final QueryExecutor queryExecutor;
+
+    // Mantém os índices consistentes dentro da seção crítica de cada ordem
+    private final StoreListener indexMaintainer = new IndexMaintainer(true, true);
+
+    // Mesma manutenção para lotes: a versão dos dados avança uma vez ao final do lote
+    private final StoreListener batchIndexMaintainer = new IndexMaintainer(false, true);
+
+    // Com snapshots: cada escrita vai para a próxima versão e os índices são atualizados na publicação
+    private final StoreListener snapshotRecorder = new SnapshotRecorder();
+
+    // Versões imutáveis lidas pelas consultas (null sem filter.snapshot.enabled)
+    private final VehicleSnapshots snapshots;
+
+    private final FilterProperties properties;
+
+    // Versão dos dados em memória: incrementada a cada inserção, atualização ou remoção aplicada
+    // (com snapshots, a cada versão publicada)
+    private final AtomicLong dataVersion = new AtomicLong(0);
 
     // Estatísticas do serviço
     private final AtomicLong totalRequests = new AtomicLong(0);
     private final AtomicLong totalFilteredRecords = new AtomicLong(0);
 
-    // Cache de consultas recentes (implementado via Spring Cache + Caffeine)
-    private static final String CACHE_NAME = "gpsFilters";
+    // Cache de respostas recentes, marcadas com a versão dos dados
+    private final QueryResultCache resultCache;
+
+    // Ordem completa de resultados recentes, compartilhada pelas páginas da mesma consulta
+    private final OrderedResultCache orderedResults;
+    private final SimplifiedTrajectoryCache simplifiedTrajectories;
+
+    // Histórico recente de posições por veículo (trajetórias)
+    private final PositionHistory history;
+
+    // Estado da fila de ingestão, registrado pela pipeline quando habilitada
+    private volatile Supplier<IngestionStats> ingestionStats = () -> IngestionStats.DISABLED;
+
+    @Autowired
+    public GpsFilterService(FilterProperties properties, QueryResultCache resultCache) {
+        this.properties = properties;
+        this.resultCache = resultCache;
+        this.orderedResults = new OrderedResultCache(properties.getCache());
+        this.simplifiedTrajectories = new SimplifiedTrajectoryCache(properties.getCache());
+        this.history = properties.getHistory().isEnabled() ? new PositionHistory(properties.getHistory()) : null;
+        this.queryExecutor = new QueryExecutor(properties.getQuery());
+        int shardCount = properties.getStore().resolveShardCount();
+        this.store = shardCount > 1
+                ? new ShardedVehicleStore(shardCount,
+                index -> createStore(properties.getStore(), shardCount, dictionaries), queryExecutor.getPool(),
+                size -> queryExecutor.modeFor(size) == QueryExecutor.Mode.PARALLEL)
+                : createStore(properties.getStore(), 1, dictionaries);
+        this.indexes = store instanceof ShardedVehicleStore sharded
+                ? new ShardedIndexes(sharded.shardCount(), sharded::shardIndex)
+                : new ShardedIndexes(1, ordem -> 0);
+        this.snapshots = properties.getSnapshot().isEnabled()
+                ? new VehicleSnapshots(properties.getSnapshot(), new IndexMaintainer(false, false),
+                dataVersion.get(), dataVersion::incrementAndGet)
+                : null;
+        this.queryCompiler = new QueryCompiler(dictionaries, properties.getQuery().getPlanCacheSize());
+        this.queryPlanner = new QueryPlanner(indexes, true, properties.getQuery().getFullScanSelectivity());
+        logger.info("Armazenamento de veículos: {}{}", store.type(),
+                snapshots != null ? " (snapshots a cada " + properties.getSnapshot().getPublishIntervalMs() + " ms)" : "");
+    }
 
     /**
      * Processa uma solicitação de filtro e retorna os dados correspondentes.
+     *
+     * @throws IllegalArgumentException se o cursor informado for inválido ou de outra consulta
      */
-    @Cacheable(value = CACHE_NAME, key = "#request.hashCode()")
     public FilterResponse filterData(FilterRequest request) {
         long startTime = System.currentTimeMillis();
         totalRequests.incrementAndGet();
 
         logger.debug("Processando solicitação de filtro: {}", request);
 
+        ResultCacheKey cacheKey = ResultCacheKey.of(request);
+        for (int attempt = 0; ; attempt++) {
+            ReadView view = openView(request, attempt);
+
+            // 0. Resposta em cache para a mesma consulta e a mesma versão dos dados (ou dentro da janela STALE)
+            FilterResponse cached = resultCache.lookup(cacheKey, view.version, System.currentTimeMillis() - startTime);
+            if (cached != null) {
+                logger.debug("Resposta servida do cache ({})", cached.getMetadata().getCacheStatus());
+                return cached;
+            }
+
+            // Trabalho de CPU no pool de plataforma quando a requisição chega em thread virtual
+            FilterResponse response = queryExecutor.callOnPlatformThread(() -> executeQuery(request, startTime, view));
+            if (isConsistent(view)) {
+                resultCache.put(cacheKey, view.version, response);
+                return response;
+            }
+            logger.debug("Índices publicados durante a consulta ao snapshot {}; repetindo", view.version);
+        }
+    }
+
+    private FilterResponse executeQuery(FilterRequest request, long startTime, ReadView view) {
+        VehicleReader reader = view.reader;
+        long version = view.version;
+
+        // 1. Obter o plano compilado da consulta e validar o cursor, se houver
+        CompiledQuery compiledQuery = queryCompiler.compile(request);
+        PageCursor cursor = resolveCursor(request, compiledQuery);
+        GpsData after = cursor != null ? cursor.getAnchor() : null;
+        // Com cursor, a página começa logo depois dele: nenhuma página anterior é recalculada
+        int pageOffset = cursor != null ? 0 : request.getPageNumber();
+
         try {
-            // 1. Obter todos os dados em memória
-            Collection<GpsData> allData = inMemoryDataStore.values();
+            ScanCriteria criteria = compiledQuery.bind(LocalDateTime.now());
 
-            // 2. Aplicar filtros sequenciais
-            List<GpsData> filteredData = allData.parallelStream()
-                    .filter(data -> filterByLinha(data, request.getLinhas()))
-                    .filter(data -> filterByOrdem(data, request.getOrdens()))
-                    .filter(data -> filterByLocation(data, request.getLatitude(),
-                            request.getLongitude(), request.getRaioKm()))
-                    .filter(data -> filterByTime(data, request.getUltimosMinutos()))
-                    .collect(Collectors.toList());
+            // Páginas além da primeira (sem cursor) podem reaproveitar a ordem completa do resultado
+            boolean laterPage = cursor == null && pageOffset > 0;
+            ResultCacheKey orderingKey = laterPage ? ResultCacheKey.forOrdering(request) : null;
+            OrderedResultCache.OrderedResult cachedOrder = laterPage ? orderedResults.lookup(orderingKey) : null;
+            if (cachedOrder != null && !isCurrentOrder(cachedOrder, request, version)) {
+                cachedOrder = null;
+            }
 
-            // 3. Ordenar os dados
-            List<GpsData> sortedData = sortData(filteredData, request.getSortBy(), request.getSortDirection());
+            QueryPlan plan;
+            List<GpsData> paginatedData;
+            int filteredCount;
+            boolean estimatedCount = false;
+            if (cachedOrder != null) {
+                // 2a. Ordem do resultado em cache: a página é uma fatia dela, lida do mesmo snapshot
+                String[] ordens = cachedOrder.getOrdens();
+                VehicleReader source = cachedOrder.getSource() != null ? cachedOrder.getSource() : reader;
+                long sourceVersion = cachedOrder.getSource() != null ? cachedOrder.getVersion() : version;
+                paginatedData = sliceOrder(ordens, pageOffset, request.getPageSize(), criteria, source);
+                if (paginatedData != null) {
+                    plan = QueryPlan.cachedResult(SortedViews.sortKey(request.getSortBy()),
+                            ordens.length, compiledQuery.getStages());
+                    logger.debug("Página servida da ordem em cache: {}", plan.describe());
+                    return finishQuery(request, compiledQuery, startTime, sourceVersion, plan,
+                            QueryExecutor.Mode.SEQUENTIAL, paginatedData, ordens.length, false);
+                }
+                logger.debug("Ordem em cache desatualizada para a página {}; recalculando", pageOffset);
+            }
 
-            // 4. Aplicar paginação
-            List<GpsData> paginatedData = paginateData(sortedData, request.getPageNumber(), request.getPageSize());
+            // 2. Escolher o caminho de acesso (sem índices quando eles não correspondem à versão lida)
+            plan = view.indexed
+                    ? queryPlanner.plan(compiledQuery, criteria, reader.size(), request.getSortBy())
+                    : QueryPlan.fullScan(SortedViews.sortKey(request.getSortBy()), reader.size(), compiledQuery.getStages());
+            QueryExecutor.Mode mode = executionMode(plan, reader);
+            logger.debug("Plano da consulta: {} ({})", plan.describe(), mode.getLabel());
 
-            // 5. Converter para DTO de resposta
-            List<GpsDataResponse> responseData = convertToResponse(paginatedData);
+            // A visão ordenada já pula as páginas anteriores sem ordenar o resultado inteiro
+            boolean sharedOrder = laterPage && !plan.usesSortedView();
+            if (sharedOrder) {
+                // 3. Página além da primeira: ordenar o resultado inteiro uma vez e guardar a ordem
+                List<GpsData> ordered = collectOrdered(plan, criteria, request.getSortBy(),
+                        request.getSortDirection(), reader, mode);
+                orderedResults.put(orderingKey, ordered, view.pin != null ? reader : null, version);
+                filteredCount = ordered.size();
+                paginatedData = paginateData(ordered, pageOffset, request.getPageSize());
+            } else if (plan.usesSortedView()) {
+                // 3a. Consulta pouco seletiva: percorrer a visão ordenada até completar a página.
+                //     A contagem exata exigiria varrer a frota a cada página: por padrão o total
+                //     é o limite superior estimado pelo planejador
+                if (!criteria.hasAnyFilter()) {
+                    filteredCount = reader.size();
+                } else if (properties.getQuery().isExactSortedViewCount()) {
+                    filteredCount = reader.count(criteria);
+                } else {
+                    filteredCount = plan.getMatchBound();
+                    estimatedCount = true;
+                }
+                paginatedData = walkSortedView(plan.getSortKey(), request.getSortDirection(), criteria,
+                        after, pageOffset, request.getPageSize(), reader);
+            } else {
+                // 3b. Selecionar apenas os registros necessários até a página pedida (top-K),
+                //     em vez de ordenar todo o resultado filtrado
+                Comparator<GpsData> comparator = SortedViews.comparatorFor(request.getSortBy(), request.getSortDirection());
+                int limit = topKLimit(pageOffset, request.getPageSize());
 
-            // 6. Calcular estatísticas
-            long processingTime = System.currentTimeMillis() - startTime;
-            totalFilteredRecords.addAndGet(filteredData.size());
+                TopK<GpsData> topK = plan.isFullScan()
+                        ? scanTopK(criteria, limit, comparator, after, reader, mode)
+                        : selectTopK(plan.getCandidateOrdens(), criteria, limit, comparator, after, reader, mode);
+                filteredCount = topK.getCount();
 
-            // 7. Construir resposta
-            return buildResponse(responseData, filteredData.size(),
-                    request.getPageNumber(), request.getPageSize(),
-                    processingTime);
+                // 4. Aplicar paginação
+                paginatedData = paginateData(topK.toSortedList(), pageOffset, request.getPageSize());
+            }
+
+            return finishQuery(request, compiledQuery, startTime, version, plan, mode, paginatedData,
+                    filteredCount, estimatedCount);
 
         } catch (Exception e) {
             logger.error("Erro ao processar filtro: {}", e.getMessage(), e);
@@ -83,6 +273,105 @@ public class GpsFilterService {
         }
     }
 
+    /**
+     * Prepara o resultado filtrado completo, na ordem pedida, para ser
+     * entregue um registro por vez, sem montar a lista do resultado nem a de
+     * respostas.
+     *
+     * <p>Usa a mesma compilação, o mesmo plano e os mesmos critérios de
+     * {@link #filterData(FilterRequest)}; a paginação por número é ignorada e
+     * o cursor, se informado, define o ponto de partida. Quando o plano
+     * percorreria a visão ordenada ou varreria a frota inteira, os registros
+     * vêm diretamente da visão ordenada, à medida que o consumidor os aceita;
+     * consultas conduzidas por um índice seletivo ordenam apenas as candidatas.
+     * Como o consumidor pode bloquear (escrita para um cliente lento), o
+     * percurso roda na thread de quem consome, e não no pool de consultas.</p>
+     *
+     * <p>Com snapshots, o resultado é lido inteiro da versão fixada, por
+     * varredura e ordenação, sem índices nem visões ordenadas: eles
+     * acompanham a versão atual, que muda a cada publicação durante o
+     * streaming, e não há como repetir registros já entregues.</p>
+     *
+     * @throws IllegalArgumentException se o cursor informado for inválido ou de outra consulta
+     */
+    public ResultStream openStream(FilterRequest request) {
+        totalRequests.incrementAndGet();
+        logger.debug("Processando filtro em streaming: {}", request);
+
+        ReadView view = openView(request, 0);
+        VehicleReader reader = view.reader;
+        CompiledQuery compiledQuery = queryCompiler.compile(request);
+        PageCursor cursor = resolveCursor(request, compiledQuery);
+        GpsData after = cursor != null ? cursor.getAnchor() : null;
+        ScanCriteria criteria = compiledQuery.bind(LocalDateTime.now());
+
+        // Versão fixada: os índices só valem no instante da fixação, não durante todo o streaming
+        boolean indexed = view.indexed && view.pin == null;
+        QueryPlan plan = indexed
+                ? queryPlanner.plan(compiledQuery, criteria, reader.size(), request.getSortBy())
+                : QueryPlan.fullScan(SortedViews.sortKey(request.getSortBy()), reader.size(), compiledQuery.getStages());
+        logger.debug("Plano do streaming: {}", plan.describe());
+
+        boolean walksView = indexed && (plan.usesSortedView() || plan.isFullScan())
+                && SortedViews.supports(request.getSortBy());
+        return sink -> {
+            int[] delivered = {0};
+            if (walksView) {
+                indexes.walk(plan.getSortKey(), "desc".equalsIgnoreCase(request.getSortDirection()), after,
+                        reader::get, data -> {
+                            if (!criteria.matches(data)) {
+                                return true;
+                            }
+                            delivered[0]++;
+                            return sink.test(convertToGpsDataResponse(data));
+                        });
+            } else {
+                Comparator<GpsData> comparator = SortedViews.comparatorFor(request.getSortBy(),
+                        request.getSortDirection());
+                for (GpsData data : collectOrdered(plan, criteria, request.getSortBy(),
+                        request.getSortDirection(), reader, executionMode(plan, reader))) {
+                    if (after != null && comparator.compare(data, after) <= 0) {
+                        continue;
+                    }
+                    delivered[0]++;
+                    if (!sink.test(convertToGpsDataResponse(data))) {
+                        break;
+                    }
+                }
+            }
+            totalFilteredRecords.addAndGet(delivered[0]);
+            return delivered[0];
+        };
+    }
+
+    /**
+     * Gera o cursor da próxima página e monta a resposta da página selecionada.
+     */
+    private FilterResponse finishQuery(FilterRequest request, CompiledQuery compiledQuery, long startTime,
+                                       long version, QueryPlan plan, QueryExecutor.Mode mode,
+                                       List<GpsData> paginatedData, int filteredCount,
+                                       boolean estimatedCount) {
+        // 5. Cursor da próxima página: posicionado no último registro entregue
+        String nextCursor = null;
+        if (!paginatedData.isEmpty() && paginatedData.size() == request.getPageSize()) {
+            GpsData last = paginatedData.get(paginatedData.size() - 1);
+            nextCursor = PageCursor.after(last, request.getSortBy(), request.getSortDirection(),
+                    compiledQuery.getFingerprint(), version).encode();
+        }
+
+        // 6. Converter para DTO de resposta
+        List<GpsDataResponse> responseData = convertToResponse(paginatedData);
+
+        // 7. Calcular estatísticas
+        long processingTime = System.currentTimeMillis() - startTime;
+        totalFilteredRecords.addAndGet(filteredCount);
+
+        // 8. Construir resposta
+        return buildResponse(responseData, filteredCount,
+                request.getPageNumber(), request.getPageSize(),
+                processingTime, plan, mode, nextCursor, version, estimatedCount);
+    }
+
     /**
      * Atualiza os dados GPS na memória.
      */
@@ -92,28 +381,55 @@ public class GpsFilterService {
             return;
         }
 
-        GpsData existingData = inMemoryDataStore.get(newData.getOrdem());
+        store.upsert(dictionaries.intern(newData), snapshots != null ? snapshotRecorder : indexMaintainer);
+    }
+
+    /**
+     * Aplica um lote de posições (ingestão em massa pelo Kafka).
+     *
+     * <p>O lote é primeiro reduzido ao registro mais recente de cada ordem, de
+     * modo que rajadas de reenvio gravam cada veículo e seus índices uma única
+     * vez. Cada registro restante é aplicado pela comparação atômica de
+     * data/hora do armazenamento, sem perder atualizações de escritores
+     * concorrentes, e a versão dos dados avança uma vez por lote.
+     * Registros nulos ou sem ordem são descartados.</p>
+     *
+     * @return quantidade de registros aplicados
+     */
+    public int updateAll(Collection<GpsData> batch) {
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        Map<String, GpsData> newest = coalesce(batch);
 
-        if (existingData == null || newData.isMoreRecentThan(existingData)) {
-            inMemoryDataStore.put(newData.getOrdem(), newData);
-            logger.debug("Dados atualizados para veículo: {}", newData.getOrdem());
+        StoreListener listener = snapshots != null ? snapshotRecorder : batchIndexMaintainer;
+        int applied = 0;
+        for (GpsData data : newest.values()) {
+            if (store.upsert(dictionaries.intern(data), listener)) {
+                applied++;
+            }
         }
+        // Com snapshots, a versão avança na publicação
+        if (applied > 0 && snapshots == null) {
+            dataVersion.incrementAndGet();
+        }
+        return applied;
     }
 
     /**
-     * Remove dados antigos da memória (mais de 10 minutos).
+     * Remove dados antigos da memória (além da janela de retenção configurada).
+     * Executado periodicamente; visita apenas as entradas expiradas do índice de tempo.
      */
+    @Scheduled(fixedDelayString = "${filter.store.eviction-interval-ms:30000}",
+            initialDelayString = "${filter.store.eviction-interval-ms:30000}")
     public void removeStaleData() {
         int removedCount = 0;
-        LocalDateTime cutoffTime = LocalDateTime.now().minusMinutes(10);
-
-        Iterator<Map.Entry<String, GpsData>> iterator = inMemoryDataStore.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<String, GpsData> entry = iterator.next();
-            GpsData data = entry.getValue();
+        LocalDateTime cutoffTime = LocalDateTime.now().minusMinutes(properties.getStore().getRetentionMinutes());
+        long cutoffMillis = TimeIndex.toEpochMillis(cutoffTime);
 
-            if (data.getDatahoraservidor() == null || data.getDatahoraservidor().isBefore(cutoffTime)) {
-                iterator.remove();
+        for (TimeIndex.Entry expired : indexes.expiredBefore(cutoffMillis)) {
+            if (store.removeIfOlderThan(expired.getOrdem(), cutoffMillis,
+                    snapshots != null ? snapshotRecorder : indexMaintainer)) {
                 removedCount++;
             }
         }
@@ -121,6 +437,117 @@ public class GpsFilterService {
         if (removedCount > 0) {
             logger.info("Removidos {} registros antigos da memória", removedCount);
         }
+
+        if (history != null) {
+            long historyCutoff = TimeIndex.toEpochMillis(
+                    LocalDateTime.now().minusMinutes(properties.getHistory().getRetentionMinutes()));
+            int removedHistories = history.evictOlderThan(historyCutoff);
+            if (removedHistories > 0) {
+                logger.info("Removido o histórico de {} veículos sem posição recente", removedHistories);
+            }
+        }
+    }
+
+    /**
+     * Publica as alterações acumuladas como nova versão imutável dos dados
+     * ({@code filter.snapshot.publish-interval-ms}). Sem snapshots, não faz nada.
+     */
+    @Scheduled(fixedDelayString = "${filter.snapshot.publish-interval-ms:100}")
+    public void publishSnapshot() {
+        if (snapshots != null) {
+            snapshots.publish();
+        }
+    }
+
+    /**
+     * Encerra o pool de consultas (e de varredura dos shards) junto com o contexto.
+     */
+    @PreDestroy
+    public void shutdown() {
+        queryExecutor.shutdown();
+    }
+
+    /**
+     * Retorna as trajetórias recentes dos veículos pedidos, paginadas por veículo,
+     * simplificadas quando a requisição informa tolerância.
+     *
+     * @throws IllegalArgumentException se nem ordens nem linhas forem informadas
+     */
+    public TrajectoryResponse getTrajectories(TrajectoryRequest request) {
+        long startTime = System.currentTimeMillis();
+        if (!request.hasOrdensFilter() && !request.hasLinhasFilter()) {
+            throw new IllegalArgumentException("Informe ordens ou linhas para consultar trajetórias");
+        }
+        if (history == null) {
+            throw new IllegalStateException("Histórico de posições desabilitado (filter.history.enabled)");
+        }
+        return queryExecutor.callOnPlatformThread(() -> buildTrajectories(request, startTime));
+    }
+
+    private TrajectoryResponse buildTrajectories(TrajectoryRequest request, long startTime) {
+        long version = snapshots != null ? snapshots.current().getVersion() : dataVersion.get();
+        long cutoff = TimeIndex.toEpochMillis(LocalDateTime.now().minusMinutes(request.getUltimosMinutos()));
+        BitSet linhaIds = request.hasLinhasFilter() ? dictionaries.linhaIds(request.getLinhas()) : null;
+
+        // 1. Veículos candidatos, em ordem estável para a paginação
+        SortedSet<String> candidates = new TreeSet<>();
+        if (request.hasOrdensFilter()) {
+            request.getOrdens().stream().filter(Objects::nonNull).forEach(candidates::add);
+        } else {
+            candidates.addAll(history.ordens());
+        }
+
+        // 2. Veículos com ao menos um ponto na janela (e nas linhas pedidas). Os pontos
+        //    copiados nesta passada são os da resposta: cada histórico é lido uma única vez,
+        //    e a limpeza periódica não afeta os veículos já encontrados
+        List<String> matching = new ArrayList<>();
+        List<PositionTrack> matchingTracks = new ArrayList<>();
+        List<TrackPoints> matchingPoints = new ArrayList<>();
+        for (String ordem : candidates) {
+            PositionTrack track = history.trackOf(ordem);
+            TrackPoints points = track != null ? track.pointsSince(cutoff, linhaIds) : null;
+            if (points != null && !points.isEmpty()) {
+                matching.add(ordem);
+                matchingTracks.add(track);
+                matchingPoints.add(points);
+            }
+        }
+
+        // 3. Montar apenas os pontos da página pedida
+        int pageSize = request.getPageSize();
+        int pageNumber = request.getPageNumber();
+        List<String> pageOrdens = paginateData(matching, pageNumber, pageSize);
+        List<PositionTrack> pageTracks = paginateData(matchingTracks, pageNumber, pageSize);
+        List<TrackPoints> pagePoints = paginateData(matchingPoints, pageNumber, pageSize);
+        List<VehicleTrajectory> page = new ArrayList<>();
+        for (int i = 0; i < pageOrdens.size(); i++) {
+            String ordem = pageOrdens.get(i);
+            TrackPoints points = pagePoints.get(i);
+            if (request.hasSimplification()) {
+                SimplifiedTrajectoryBuilder builder = new SimplifiedTrajectoryBuilder(ordem, cutoff,
+                        pageTracks.get(i).newestEpochMillis(), request);
+                points.forEach(builder);
+                page.add(builder.build());
+            } else {
+                List<TrajectoryPoint> pontos = new ArrayList<>(points.size());
+                points.forEach((epoch, lat, lon, velocidade, linhaId) ->
+                        pontos.add(toTrajectoryPoint(epoch, lat, lon, velocidade, linhaId)));
+                page.add(new VehicleTrajectory(ordem, pontos));
+            }
+        }
+
+        int totalPages = (int) Math.ceil((double) matching.size() / pageSize);
+        PaginationInfo pagination = new PaginationInfo(pageNumber, pageSize, totalPages, matching.size());
+        pagination.setDataVersion(version);
+
+        QueryMetadata metadata = new QueryMetadata();
+        metadata.setProcessingTimeMs(System.currentTimeMillis() - startTime);
+        metadata.setFilteredCount(matching.size());
+        metadata.setQueryPlan((request.hasOrdensFilter() ? "historico:ordem" : "historico:varredura")
+                + (request.hasSimplification() ? "+simplificado" : ""));
+        metadata.setCandidateCount(candidates.size());
+
+        return new TrajectoryResponse(page, pagination, metadata);
     }
 
     /**
@@ -128,81 +555,398 @@ public class GpsFilterService {
      */
     public ServiceMetrics getServiceMetrics() {
         return new ServiceMetrics(
-                inMemoryDataStore.size(),
+                store.size(),
                 totalRequests.get(),
                 totalFilteredRecords.get(),
                 Runtime.getRuntime().freeMemory(),
-                Runtime.getRuntime().totalMemory()
+                Runtime.getRuntime().totalMemory(),
+                store.offHeapBytes(),
+                ingestionStats.get()
         );
     }
 
+    /**
+     * Registra a fonte do estado da fila de ingestão exposto nas métricas.
+     */
+    public void setIngestionStatsSource(Supplier<IngestionStats> source) {
+        this.ingestionStats = source != null ? source : () -> IngestionStats.DISABLED;
+    }
+
     /**
      * Retorna todos os dados em memória (apenas para debug/admin).
      */
     public List<GpsData> getAllData() {
-        return new ArrayList<>(inMemoryDataStore.values());
+        return store.values();
     }
 
     /**
      * Limpa todos os dados da memória (apenas para testes).
      */
     public void clearAllData() {
-        inMemoryDataStore.clear();
+        store.clear();
+        indexes.clear();
+        dataVersion.incrementAndGet();
+        resultCache.invalidateAll();
+        orderedResults.invalidateAll();
+        simplifiedTrajectories.invalidateAll();
+        if (history != null) {
+            history.clear();
+        }
+        if (snapshots != null) {
+            snapshots.clear();
+        }
         logger.info("Todos os dados foram removidos da memória");
     }
 
     // ========== MÉTODOS PRIVADOS DE FILTRAGEM ==========
 
-    private boolean filterByLinha(GpsData data, List<String> linhas) {
-        if (linhas == null || linhas.isEmpty()) {
-            return true;
+    private TrajectoryPoint toTrajectoryPoint(long epoch, double lat, double lon, int velocidade, int linhaId) {
+        return new TrajectoryPoint(lat, lon, velocidade,
+                linhaId >= 0 ? dictionaries.getLinhas().valueOf(linhaId) : null,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(epoch), ZoneId.systemDefault()));
+    }
+
+    /**
+     * Monta a trajetória simplificada de um veículo bloco a bloco de tempo
+     * ({@code filter.history.simplify-block-minutes}), à medida que os pontos
+     * são visitados. Blocos encerrados e inteiros na janela são reaproveitados
+     * do cache; os demais (o que cruza o corte e o que ainda recebe pontos)
+     * são simplificados a cada consulta.
+     */
+    private final class SimplifiedTrajectoryBuilder implements PositionTrack.PointVisitor {
+
+        private final String ordem;
+        private final long cutoff;
+        private final long newestEpoch;
+        private final long blockMillis;
+        private final TrajectoryRequest request;
+        private final TrajectorySimplifier simplifier;
+        private final List<TrajectoryPoint> pontos = new ArrayList<>();
+        private long blockStart = Long.MIN_VALUE;
+        private int blockRawCount;
+        private int rawCount;
+
+        SimplifiedTrajectoryBuilder(String ordem, long cutoff, long newestEpoch, TrajectoryRequest request) {
+            this.ordem = ordem;
+            this.cutoff = cutoff;
+            this.newestEpoch = newestEpoch;
+            this.blockMillis = Math.max(1, properties.getHistory().getSimplifyBlockMinutes()) * 60_000L;
+            this.request = request;
+            this.simplifier = new TrajectorySimplifier(request.getToleranciaMetros());
+        }
+
+        @Override
+        public void visit(long epoch, double lat, double lon, int velocidade, int linhaId) {
+            long start = Math.floorDiv(epoch, blockMillis) * blockMillis;
+            if (start != blockStart) {
+                flushBlock();
+                blockStart = start;
+            }
+            simplifier.add(epoch, lat, lon, velocidade, linhaId);
+            blockRawCount++;
+            rawCount++;
+        }
+
+        VehicleTrajectory build() {
+            flushBlock();
+            return new VehicleTrajectory(ordem, pontos, rawCount);
+        }
+
+        private void flushBlock() {
+            if (blockRawCount == 0) {
+                return;
+            }
+            // Pontos só chegam em ordem crescente: com um ponto após o fim, o bloco não muda mais
+            boolean closed = blockStart >= cutoff && newestEpoch >= blockStart + blockMillis;
+            SimplifiedTrajectoryCache.Key key = closed
+                    ? new SimplifiedTrajectoryCache.Key(ordem, blockStart, simplifier.getToleranceMeters(),
+                    request.hasLinhasFilter() ? request.getLinhas() : null)
+                    : null;
+            List<TrajectoryPoint> cached = key != null ? simplifiedTrajectories.get(key, blockRawCount) : null;
+            if (cached != null) {
+                pontos.addAll(cached);
+                simplifier.clear();
+            } else {
+                int from = pontos.size();
+                simplifier.emit((epoch, lat, lon, velocidade, linhaId) ->
+                        pontos.add(toTrajectoryPoint(epoch, lat, lon, velocidade, linhaId)));
+                if (key != null) {
+                    simplifiedTrajectories.put(key, blockRawCount, pontos.subList(from, pontos.size()));
+                }
+            }
+            blockRawCount = 0;
         }
-        return linhas.contains(data.getLinha());
     }
 
-    private boolean filterByOrdem(GpsData data, List<String> ordens) {
-        if (ordens == null || ordens.isEmpty()) {
-            return true;
+    /**
+     * Reduz o lote ao registro mais recente de cada ordem, com o mesmo
+     * resultado da aplicação sequencial: em empate de data/hora, vale o primeiro.
+     */
+    private static Map<String, GpsData> coalesce(Collection<GpsData> batch) {
+        Map<String, GpsData> newest = new LinkedHashMap<>(Math.max(16, batch.size() * 4 / 3));
+        for (GpsData data : batch) {
+            if (data == null || data.getOrdem() == null) {
+                continue;
+            }
+            newest.merge(data.getOrdem(), data,
+                    (current, candidate) -> candidate.isMoreRecentThan(current) ? candidate : current);
         }
-        return ordens.contains(data.getOrdem());
+        return newest;
     }
 
-    private boolean filterByLocation(GpsData data, Double latitude, Double longitude, Double raioKm) {
-        if (latitude == null || longitude == null || raioKm == null) {
-            return true;
+    /**
+     * Abre os dados lidos por uma execução. Com snapshots, fixa a versão
+     * pedida (explicitamente ou pelo cursor) se ainda retida, ou a atual;
+     * após tentativas em que os índices mudaram durante a consulta, a versão
+     * atual é lida sem eles.
+     */
+    private ReadView openView(FilterRequest request, int attempt) {
+        if (snapshots == null) {
+            return new ReadView(store, dataVersion.get(), null, true);
+        }
+        Long requested = requestedVersion(request);
+        VehicleSnapshots.Pin pin = requested != null ? snapshots.pin(requested) : null;
+        if (pin == null) {
+            pin = snapshots.pin();
         }
-        return data.isWithinRadius(latitude, longitude, raioKm);
+        boolean indexed = pin.isIndexed() && attempt < MAX_INDEXED_ATTEMPTS;
+        return new ReadView(pin.getSnapshot(), pin.getSnapshot().getVersion(), pin, indexed);
+    }
+
+    private boolean isConsistent(ReadView view) {
+        return view.pin == null || !view.indexed || snapshots.isConsistent(view.pin);
     }
 
-    private boolean filterByTime(GpsData data, Integer ultimosMinutos) {
-        if (ultimosMinutos == null || ultimosMinutos <= 0) {
-            return true;
+    private static Long requestedVersion(FilterRequest request) {
+        if (request.getSnapshotVersion() != null) {
+            return request.getSnapshotVersion();
         }
-        return data.isRecent(ultimosMinutos);
+        if (request.hasCursor()) {
+            try {
+                return PageCursor.decode(request.getCursor()).getDataVersion();
+            } catch (IllegalArgumentException e) {
+                // Cursor inválido é rejeitado adiante, na validação da consulta
+                return null;
+            }
+        }
+        return null;
     }
 
-    private List<GpsData> sortData(List<GpsData> data, String sortBy, String sortDirection) {
-        if (data == null || data.isEmpty()) {
-            return data;
+    /**
+     * Modo de execução da consulta: percursos de visão ordenada são sempre
+     * sequenciais, assim como varreduras de um leitor sem shards que não
+     * chega a formar mais de um bloco de slots; nos demais casos, decide pela
+     * quantidade estimada de candidatos.
+     */
+    private QueryExecutor.Mode executionMode(QueryPlan plan, VehicleReader reader) {
+        if (plan.usesSortedView() || (plan.isFullScan() && !(reader instanceof ShardedVehicleStore)
+                && reader.scanLimit() <= queryExecutor.getChunkSize())) {
+            return QueryExecutor.Mode.SEQUENTIAL;
         }
+        return queryExecutor.modeFor(plan.getCandidateCount());
+    }
 
-        Comparator<GpsData> comparator = switch (sortBy != null ? sortBy : "datahoraservidor") {
-            case "ordem" -> Comparator.comparing(GpsData::getOrdem);
-            case "linha" -> Comparator.comparing(GpsData::getLinha);
-            case "velocidade" -> Comparator.comparingInt(GpsData::getVelocidade);
-            default -> Comparator.comparing(GpsData::getDatahoraservidor);
-        };
+    /**
+     * Top-K de uma varredura completa. Com shards, cada shard é varrido com
+     * seu próprio heap (em paralelo no modo paralelo); sem shards, o executor
+     * divide o intervalo de slots em blocos, cada um com seu heap. Os heaps
+     * parciais são combinados ao final.
+     */
+    private TopK<GpsData> scanTopK(ScanCriteria criteria, int limit, Comparator<GpsData> comparator,
+                                          GpsData after, VehicleReader reader, QueryExecutor.Mode mode) {
+        if (reader instanceof ShardedVehicleStore sharded) {
+            return mergeTopK(sharded.fanOut((index, shard) -> {
+                TopK<GpsData> partial = new TopK<>(limit, comparator, after);
+                shard.scan(criteria, partial::offer);
+                return partial;
+            }, mode == QueryExecutor.Mode.PARALLEL));
+        }
+        return queryExecutor.execute(reader.scanLimit(), mode, () -> new TopK<>(limit, comparator, after),
+                (from, to, topK) -> reader.scanRange(criteria, from, to, topK::offer), TopK::merge);
+    }
 
-        if ("desc".equalsIgnoreCase(sortDirection)) {
-            comparator = comparator.reversed();
+    /**
+     * Top-K das ordens candidatas produzidas pelo plano. Com shards, as
+     * candidatas são separadas pelo shard a que pertencem e cada parte é
+     * filtrada no shard correspondente; sem shards, o executor divide as
+     * candidatas em blocos no modo paralelo.
+     */
+    private TopK<GpsData> selectTopK(Collection<String> candidates, ScanCriteria criteria, int limit,
+                                     Comparator<GpsData> comparator, GpsData after, VehicleReader reader,
+                                     QueryExecutor.Mode mode) {
+        if (reader instanceof ShardedVehicleStore sharded) {
+            List<List<String>> partitions = sharded.partition(candidates);
+            return mergeTopK(sharded.fanOut((index, shard) -> {
+                TopK<GpsData> partial = new TopK<>(limit, comparator, after);
+                collectMatches(partitions.get(index), criteria, shard, partial::offer);
+                return partial;
+            }, mode == QueryExecutor.Mode.PARALLEL));
         }
+        List<String> ordens = asList(candidates);
+        return queryExecutor.execute(ordens.size(), mode, () -> new TopK<>(limit, comparator, after),
+                (from, to, topK) -> collectMatches(ordens.subList(from, to), criteria, reader, topK::offer),
+                TopK::merge);
+    }
 
-        return data.stream()
-                .sorted(comparator)
-                .collect(Collectors.toList());
+    private static <T> ArrayList<T> concat(ArrayList<T> left, ArrayList<T> right) {
+        left.addAll(right);
+        return left;
+    }
+
+    private static List<String> asList(Collection<String> ordens) {
+        return ordens instanceof List<String> list ? list : new ArrayList<>(ordens);
+    }
+
+    private static TopK<GpsData> mergeTopK(List<TopK<GpsData>> partials) {
+        TopK<GpsData> merged = partials.get(0);
+        for (int i = 1; i < partials.size(); i++) {
+            merged.merge(partials.get(i));
+        }
+        return merged;
+    }
+
+    private static void collectMatches(List<String> ordens, ScanCriteria criteria, VehicleReader reader,
+                                       Consumer<GpsData> sink) {
+        for (String ordem : ordens) {
+            GpsData data = reader.get(ordem);
+            if (data != null && criteria.matches(data)) {
+                sink.accept(data);
+            }
+        }
     }
 
-    private List<GpsData> paginateData(List<GpsData> data, int pageNumber, int pageSize) {
+    /**
+     * Percorre a visão ordenada aplicando os filtros, pula as páginas anteriores
+     * e encerra ao completar a página pedida.
+     */
+    private List<GpsData> walkSortedView(String sortKey, String sortDirection, ScanCriteria criteria,
+                                         GpsData after, int pageNumber, int pageSize, VehicleReader reader) {
+        if (pageSize <= 0) {
+            return Collections.emptyList();
+        }
+        long skip = (long) pageNumber * pageSize;
+        long[] matched = {0};
+        List<GpsData> page = new ArrayList<>(pageSize);
+
+        indexes.walk(sortKey, "desc".equalsIgnoreCase(sortDirection), after, reader::get, data -> {
+            if (!criteria.matches(data) || matched[0]++ < skip) {
+                return true;
+            }
+            page.add(data);
+            return page.size() < pageSize;
+        });
+        return page;
+    }
+
+    /**
+     * Resultado filtrado completo na ordem pedida: a visão ordenada já entrega
+     * os registros em ordem; nos demais planos os aceitos são ordenados ao final.
+     */
+    private List<GpsData> collectOrdered(QueryPlan plan, ScanCriteria criteria,
+                                         String sortBy, String sortDirection, VehicleReader reader,
+                                         QueryExecutor.Mode mode) {
+        if (plan.usesSortedView()) {
+            List<GpsData> ordered = new ArrayList<>();
+            indexes.walk(plan.getSortKey(), "desc".equalsIgnoreCase(sortDirection), reader::get, data -> {
+                if (criteria.matches(data)) {
+                    ordered.add(data);
+                }
+                return true;
+            });
+            return ordered;
+        }
+
+        List<GpsData> matched;
+        if (reader instanceof ShardedVehicleStore sharded) {
+            // Cada shard filtra sua parte (varredura ou candidatas) em paralelo
+            List<List<String>> partitions = plan.isFullScan() ? null : sharded.partition(plan.getCandidateOrdens());
+            matched = new ArrayList<>();
+            for (List<GpsData> partial : sharded.fanOut((index, shard) -> {
+                List<GpsData> accepted = new ArrayList<>();
+                if (partitions == null) {
+                    shard.scan(criteria, accepted::add);
+                } else {
+                    collectMatches(partitions.get(index), criteria, shard, accepted::add);
+                }
+                return accepted;
+            }, mode == QueryExecutor.Mode.PARALLEL)) {
+                matched.addAll(partial);
+            }
+        } else if (plan.isFullScan()) {
+            matched = queryExecutor.execute(reader.scanLimit(), mode, ArrayList::new,
+                    (from, to, accepted) -> reader.scanRange(criteria, from, to, accepted::add),
+                    GpsFilterService::concat);
+        } else {
+            List<String> ordens = asList(plan.getCandidateOrdens());
+            matched = queryExecutor.execute(ordens.size(), mode, ArrayList::new,
+                    (from, to, accepted) -> collectMatches(ordens.subList(from, to), criteria, reader, accepted::add),
+                    GpsFilterService::concat);
+        }
+        matched.sort(SortedViews.comparatorFor(sortBy, sortDirection));
+        return matched;
+    }
+
+    /**
+     * Indica se a ordem em cache ainda descreve o resultado da consulta: a de
+     * um snapshot é imutável (e deve ser a versão pedida explicitamente, se
+     * houver); a do armazenamento atual vale apenas enquanto a versão dos
+     * dados não mudar.
+     */
+    private static boolean isCurrentOrder(OrderedResultCache.OrderedResult cachedOrder, FilterRequest request,
+                                          long version) {
+        if (cachedOrder.getSource() != null) {
+            return request.getSnapshotVersion() == null || cachedOrder.getVersion() == version;
+        }
+        return cachedOrder.getVersion() == version;
+    }
+
+    /**
+     * Resolve a página pedida a partir da ordem em cache, reaplicando os
+     * critérios da consulta. Retorna null se algum veículo da fatia foi
+     * removido ou deixou de atender aos filtros (por exemplo, saiu da janela
+     * de tempo), caso em que a ordem precisa ser recalculada.
+     */
+    private static List<GpsData> sliceOrder(String[] ordens, int pageNumber, int pageSize,
+                                            ScanCriteria criteria, VehicleReader reader) {
+        long start = (long) pageNumber * pageSize;
+        if (pageSize <= 0 || start >= ordens.length) {
+            return Collections.emptyList();
+        }
+        int end = (int) Math.min(start + pageSize, ordens.length);
+        List<GpsData> page = new ArrayList<>(end - (int) start);
+        for (int i = (int) start; i < end; i++) {
+            GpsData data = reader.get(ordens[i]);
+            if (data == null || !criteria.matches(data)) {
+                return null;
+            }
+            page.add(data);
+        }
+        return page;
+    }
+
+    /**
+     * Decodifica o cursor da requisição e verifica se ele pertence à mesma consulta e ordenação.
+     */
+    private static PageCursor resolveCursor(FilterRequest request, CompiledQuery compiledQuery) {
+        if (!request.hasCursor()) {
+            return null;
+        }
+        PageCursor cursor = PageCursor.decode(request.getCursor());
+        if (!cursor.matches(request.getSortBy(), request.getSortDirection(), compiledQuery.getFingerprint())) {
+            throw new IllegalArgumentException("Cursor não corresponde aos filtros ou à ordenação da consulta");
+        }
+        return cursor;
+    }
+
+    /**
+     * Quantidade de registros que precisam ser retidos para montar a página pedida.
+     */
+    private static int topKLimit(int pageNumber, int pageSize) {
+        long limit = ((long) pageNumber + 1) * pageSize;
+        return (int) Math.min(Integer.MAX_VALUE - 8, Math.max(0, limit));
+    }
+
+    private static <T> List<T> paginateData(List<T> data, int pageNumber, int pageSize) {
         if (data == null || data.isEmpty()) {
             return Collections.emptyList();
         }
@@ -235,7 +979,8 @@ public class GpsFilterService {
 
     private FilterResponse buildResponse(List<GpsDataResponse> data, int totalCount,
                                          int pageNumber, int pageSize,
-                                         long processingTime) {
+                                         long processingTime, QueryPlan plan, QueryExecutor.Mode mode,
+                                         String nextCursor, long version, boolean estimatedCount) {
         // Calcular informações de paginação
         int totalPages = pageSize > 0 ? (int) Math.ceil((double) totalCount / pageSize) : 0;
 
@@ -244,12 +989,19 @@ public class GpsFilterService {
         pagination.setPageSize(pageSize);
         pagination.setTotalPages(totalPages);
         pagination.setTotalElements(totalCount);
+        pagination.setTotalEstimated(estimatedCount);
+        pagination.setNextCursor(nextCursor);
+        pagination.setDataVersion(version);
 
         // Calcular metadados da consulta
         QueryMetadata metadata = new QueryMetadata();
         metadata.setProcessingTimeMs(processingTime);
         metadata.setFilteredCount(totalCount);
-        metadata.setCacheStatus("LIVE");
+        metadata.setCacheStatus(QueryResultCache.MISS);
+        metadata.setQueryPlan(plan.describe());
+        metadata.setCandidateCount(plan.getCandidateCount());
+        metadata.setSnapshotVersion(snapshots != null ? version : null);
+        metadata.setExecutionMode(mode.getLabel());
 
         // Construir resposta
         FilterResponse response = new FilterResponse();
@@ -259,4 +1011,121 @@ public class GpsFilterService {
 
         return response;
     }
-}
\ No newline at end of file
+
+    /**
+     * Cria o armazenamento de um shard; capacidades configuradas são divididas entre os shards.
+     */
+    private static VehicleStore createStore(FilterProperties.Store config, int shardCount,
+                                            VehicleDictionaries dictionaries) {
+        int initialCapacity = ceilDiv(config.getInitialCapacity(), shardCount);
+        return switch (config.getType()) {
+            case COLUMNAR -> new ColumnarVehicleStore(initialCapacity, dictionaries);
+            case OFF_HEAP -> new OffHeapVehicleStore(initialCapacity,
+                    ceilDiv(config.getOffHeap().getMaxCapacity(), shardCount),
+                    config.getOffHeap().getGrowthFactor(), dictionaries);
+            case MAP -> new MapVehicleStore();
+        };
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    private void recordHistory(GpsData current) {
+        if (history != null) {
+            history.record(current.getOrdem(), TimeIndex.toEpochMillis(current.getDatahoraservidor()),
+                    current.getLatitude(), current.getLongitude(), current.getVelocidade(),
+                    current.getLinhaId());
+        }
+    }
+
+    /**
+     * Dados lidos por uma execução: o armazenamento atual ou um snapshot fixado.
+     */
+    private static final class ReadView {
+        final VehicleReader reader;
+        final long version;
+        final VehicleSnapshots.Pin pin;
+        // Se o plano pode usar os índices (eles correspondem à versão lida)
+        final boolean indexed;
+
+        ReadView(VehicleReader reader, long version, VehicleSnapshots.Pin pin, boolean indexed) {
+            this.reader = reader;
+            this.version = version;
+            this.pin = pin;
+            this.indexed = indexed;
+        }
+    }
+
+    /**
+     * Com snapshots: grava o histórico e registra cada mudança para a próxima
+     * versão publicada, dentro da seção crítica da ordem.
+     */
+    private class SnapshotRecorder implements StoreListener {
+
+        @Override
+        public void onInsert(GpsData current) {
+            recordHistory(current);
+            snapshots.put(current);
+        }
+
+        @Override
+        public void onUpdate(GpsData previous, GpsData current) {
+            recordHistory(current);
+            snapshots.put(current);
+        }
+
+        @Override
+        public void onRemove(GpsData previous) {
+            snapshots.remove(previous.getOrdem());
+        }
+    }
+
+    /**
+     * Atualiza os índices de linha, espacial e de tempo, as visões ordenadas e o
+     * histórico de posições a cada mudança no armazenamento (ou, com snapshots,
+     * a cada mudança publicada).
+     */
+    private class IndexMaintainer implements StoreListener {
+
+        private final boolean bumpVersion;
+        private final boolean recordsHistory;
+
+        IndexMaintainer(boolean bumpVersion, boolean recordsHistory) {
+            this.bumpVersion = bumpVersion;
+            this.recordsHistory = recordsHistory;
+        }
+
+        private void changed() {
+            if (bumpVersion) {
+                dataVersion.incrementAndGet();
+            }
+        }
+
+        private void recordHistory(GpsData current) {
+            if (recordsHistory) {
+                GpsFilterService.this.recordHistory(current);
+            }
+        }
+
+        @Override
+        public void onInsert(GpsData current) {
+            changed();
+            recordHistory(current);
+            indexes.of(current.getOrdem()).add(current);
+        }
+
+        @Override
+        public void onUpdate(GpsData previous, GpsData current) {
+            changed();
+            recordHistory(current);
+            indexes.of(current.getOrdem()).move(previous, current);
+        }
+
+        @Override
+        public void onRemove(GpsData previous) {
+            changed();
+            indexes.of(previous.getOrdem()).remove(previous);
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package com.azvtech.filter_service.snapshot;
+
+import com.azvtech.filter_service.model.GpsData;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Mapa imutável ordem -> {@link GpsData} com compartilhamento estrutural
+ * (hash array mapped trie de 32 vias).
+ *
+ * <p>Uma nova versão copia apenas o caminho da raiz até as folhas alteradas
+ * (poucos nós de até 32 posições); o restante da árvore é compartilhado com
+ * a versão anterior. As alterações são feitas por um {@link Editor}: nós
+ * criados pelo mesmo editor são alterados no lugar até o
+ * {@link Editor#freeze()}, de modo que muitas escritas entre duas publicações
+ * custam pouco mais que uma. A chave de cada folha é a própria ordem do
+ * registro.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public final class PersistentVehicleMap {
+
+    private static final int BITS = 5;
+
+    /**
+     * Partições do hash usadas para dividir a visita: os dois primeiros níveis da trie.
+     */
+    public static final int PARTITIONS = 1 << (2 * BITS);
+    private static final PersistentVehicleMap EMPTY = new PersistentVehicleMap(null, 0);
+
+    private final BitmapNode root;
+    private final int size;
+
+    private PersistentVehicleMap(BitmapNode root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static PersistentVehicleMap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Retorna o registro da ordem, ou null se não existir.
+     */
+    public GpsData get(String ordem) {
+        return root != null && ordem != null ? root.get(hashOf(ordem), 0, ordem) : null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Visita todos os registros, em ordem arbitrária.
+     */
+    public void forEach(Consumer<GpsData> action) {
+        if (root != null) {
+            root.forEach(action);
+        }
+    }
+
+    /**
+     * Visita apenas os registros das partições {@code [from, to)} do hash
+     * (de 0 a {@link #PARTITIONS}); intervalos disjuntos visitam registros
+     * disjuntos e podem ser percorridos em paralelo.
+     */
+    public void forEachInPartitions(int from, int to, Consumer<GpsData> action) {
+        if (root != null && from < to) {
+            root.forEachInPartitions(0, 0, from, to, action);
+        }
+    }
+
+    /**
+     * Abre um editor a partir desta versão, que continua inalterada.
+     */
+    public Editor edit() {
+        return new Editor(root, size);
+    }
+
+    /**
+     * Alterações acumuladas sobre uma versão do mapa. Não é thread-safe: os
+     * escritores devem ser serializados externamente.
+     */
+    public static final class Editor {
+
+        // Identidade dos nós que este editor pode alterar no lugar
+        private final Object token = new Object();
+        private final boolean[] flag = new boolean[1];
+        private BitmapNode root;
+        private int size;
+        private boolean frozen;
+
+        private Editor(BitmapNode root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        /**
+         * Insere ou substitui o registro da ordem de {@code data}.
+         */
+        public void put(GpsData data) {
+            ensureOpen();
+            int hash = hashOf(data.getOrdem());
+            flag[0] = false;
+            if (root == null) {
+                root = new BitmapNode(token, bitOf(hash, 0), new Object[]{data});
+                flag[0] = true;
+            } else {
+                root = root.put(token, hash, 0, data, flag);
+            }
+            if (flag[0]) {
+                size++;
+            }
+        }
+
+        /**
+         * Remove o registro da ordem.
+         *
+         * @return true se havia registro
+         */
+        public boolean remove(String ordem) {
+            ensureOpen();
+            if (root == null || ordem == null) {
+                return false;
+            }
+            flag[0] = false;
+            root = root.remove(token, hashOf(ordem), 0, ordem, flag);
+            if (flag[0]) {
+                size--;
+            }
+            return flag[0];
+        }
+
+        public GpsData get(String ordem) {
+            return root != null && ordem != null ? root.get(hashOf(ordem), 0, ordem) : null;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Encerra o editor e retorna a versão imutável com as alterações.
+         */
+        public PersistentVehicleMap freeze() {
+            ensureOpen();
+            frozen = true;
+            return size == 0 ? EMPTY : new PersistentVehicleMap(root, size);
+        }
+
+        private void ensureOpen() {
+            if (frozen) {
+                throw new IllegalStateException("Editor já encerrado");
+            }
+        }
+    }
+
+    // ========== NÓS ==========
+
+    private static int hashOf(String ordem) {
+        int h = ordem.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Partição do hash: posição no primeiro nível seguida da posição no segundo.
+     */
+    private static int partitionOf(int hash) {
+        return ((hash & 31) << BITS) | ((hash >>> BITS) & 31);
+    }
+
+    private static int bitOf(int hash, int shift) {
+        return 1 << ((hash >>> shift) & 31);
+    }
+
+    /**
+     * Nó interno: cada posição é uma folha ({@link GpsData}), um nó filho ou
+     * um nó de colisão.
+     */
+    private static final class BitmapNode {
+
+        final Object edit;
+        int bitmap;
+        Object[] slots;
+
+        BitmapNode(Object edit, int bitmap, Object[] slots) {
+            this.edit = edit;
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        GpsData get(int hash, int shift, String ordem) {
+            int bit = bitOf(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            Object slot = slots[index(bit)];
+            if (slot instanceof GpsData data) {
+                return ordem.equals(data.getOrdem()) ? data : null;
+            }
+            if (slot instanceof BitmapNode child) {
+                return child.get(hash, shift + BITS, ordem);
+            }
+            return ((CollisionNode) slot).get(ordem);
+        }
+
+        BitmapNode put(Object token, int hash, int shift, GpsData value, boolean[] added) {
+            int bit = bitOf(hash, shift);
+            int idx = index(bit);
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+                Object[] grown = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, grown, 0, idx);
+                grown[idx] = value;
+                System.arraycopy(slots, idx, grown, idx + 1, slots.length - idx);
+                if (edit == token) {
+                    bitmap |= bit;
+                    slots = grown;
+                    return this;
+                }
+                return new BitmapNode(token, bitmap | bit, grown);
+            }
+
+            Object slot = slots[idx];
+            Object replacement;
+            if (slot instanceof GpsData existing) {
+                if (existing.getOrdem().equals(value.getOrdem())) {
+                    replacement = value;
+                } else {
+                    added[0] = true;
+                    replacement = merge(token, existing, hashOf(existing.getOrdem()), value, hash, shift + BITS);
+                }
+            } else if (slot instanceof BitmapNode child) {
+                replacement = child.put(token, hash, shift + BITS, value, added);
+            } else {
+                CollisionNode collision = (CollisionNode) slot;
+                if (collision.hash == hash) {
+                    replacement = collision.put(token, value, added);
+                } else {
+                    added[0] = true;
+                    replacement = merge(token, collision, collision.hash, value, hash, shift + BITS);
+                }
+            }
+            return replacement == slot ? this : withSlot(token, idx, replacement);
+        }
+
+        /**
+         * @return o nó resultante, ou null se ficou vazio
+         */
+        BitmapNode remove(Object token, int hash, int shift, String ordem, boolean[] removed) {
+            int bit = bitOf(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int idx = index(bit);
+            Object slot = slots[idx];
+            if (slot instanceof GpsData data) {
+                if (!ordem.equals(data.getOrdem())) {
+                    return this;
+                }
+                removed[0] = true;
+                return without(token, bit, idx);
+            }
+            if (slot instanceof BitmapNode child) {
+                BitmapNode updated = child.remove(token, hash, shift + BITS, ordem, removed);
+                if (updated == child) {
+                    return this;
+                }
+                return updated == null ? without(token, bit, idx) : withSlot(token, idx, updated);
+            }
+            CollisionNode collision = (CollisionNode) slot;
+            CollisionNode updated = collision.remove(token, ordem, removed);
+            if (updated == collision) {
+                return this;
+            }
+            // Colisão com um único registro volta a ser folha
+            return withSlot(token, idx, updated.entries.length == 1 ? updated.entries[0] : updated);
+        }
+
+        void forEach(Consumer<GpsData> action) {
+            for (Object slot : slots) {
+                visit(slot, action);
+            }
+        }
+
+        /**
+         * Visita as posições cujas partições intersectam {@code [from, to)}. No
+         * primeiro nível cada posição cobre 32 partições; no segundo, uma só; abaixo
+         * dele, todos os registros estão na partição {@code base}.
+         */
+        void forEachInPartitions(int shift, int base, int from, int to, Consumer<GpsData> action) {
+            int bits = bitmap;
+            for (Object slot : slots) {
+                int position = Integer.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int low = shift == 0 ? position << BITS : shift == BITS ? base | position : base;
+                int high = shift == 0 ? low + (1 << BITS) : low + 1;
+                if (high <= from || low >= to) {
+                    continue;
+                }
+                if (low >= from && high <= to) {
+                    visit(slot, action);
+                } else if (slot instanceof GpsData data) {
+                    int partition = partitionOf(hashOf(data.getOrdem()));
+                    if (partition >= from && partition < to) {
+                        action.accept(data);
+                    }
+                } else if (slot instanceof BitmapNode child) {
+                    child.forEachInPartitions(shift + BITS, low, from, to, action);
+                } else {
+                    int partition = partitionOf(((CollisionNode) slot).hash);
+                    if (partition >= from && partition < to) {
+                        visit(slot, action);
+                    }
+                }
+            }
+        }
+
+        private static void visit(Object slot, Consumer<GpsData> action) {
+            if (slot instanceof GpsData data) {
+                action.accept(data);
+            } else if (slot instanceof BitmapNode child) {
+                child.forEach(action);
+            } else {
+                for (GpsData data : ((CollisionNode) slot).entries) {
+                    action.accept(data);
+                }
+            }
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private BitmapNode withSlot(Object token, int idx, Object value) {
+            if (edit == token) {
+                slots[idx] = value;
+                return this;
+            }
+            Object[] copy = slots.clone();
+            copy[idx] = value;
+            return new BitmapNode(token, bitmap, copy);
+        }
+
+        private BitmapNode without(Object token, int bit, int idx) {
+            if (slots.length == 1) {
+                return null;
+            }
+            Object[] shrunk = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, shrunk, 0, idx);
+            System.arraycopy(slots, idx + 1, shrunk, idx, slots.length - idx - 1);
+            if (edit == token) {
+                bitmap &= ~bit;
+                slots = shrunk;
+                return this;
+            }
+            return new BitmapNode(token, bitmap & ~bit, shrunk);
+        }
+
+        /**
+         * Nó com duas entradas (folhas ou colisões) cujos hashes coincidem até {@code shift}.
+         */
+        private static Object merge(Object token, Object first, int firstHash,
+                                    GpsData second, int secondHash, int shift) {
+            if (firstHash == secondHash) {
+                return new CollisionNode(token, firstHash, new GpsData[]{(GpsData) first, second});
+            }
+            int firstBit = bitOf(firstHash, shift);
+            int secondBit = bitOf(secondHash, shift);
+            if (firstBit == secondBit) {
+                return new BitmapNode(token, firstBit,
+                        new Object[]{merge(token, first, firstHash, second, secondHash, shift + BITS)});
+            }
+            Object[] pair = Integer.compareUnsigned(firstBit, secondBit) < 0
+                    ? new Object[]{first, second}
+                    : new Object[]{second, first};
+            return new BitmapNode(token, firstBit | secondBit, pair);
+        }
+    }
+
+    /**
+     * Registros de ordens diferentes com o mesmo hash.
+     */
+    private static final class CollisionNode {
+
+        final Object edit;
+        final int hash;
+        GpsData[] entries;
+
+        CollisionNode(Object edit, int hash, GpsData[] entries) {
+            this.edit = edit;
+            this.hash = hash;
+            this.entries = entries;
+        }
+
+        GpsData get(String ordem) {
+            for (GpsData data : entries) {
+                if (ordem.equals(data.getOrdem())) {
+                    return data;
+                }
+            }
+            return null;
+        }
+
+        CollisionNode put(Object token, GpsData value, boolean[] added) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].getOrdem().equals(value.getOrdem())) {
+                    if (edit == token) {
+                        entries[i] = value;
+                        return this;
+                    }
+                    GpsData[] copy = entries.clone();
+                    copy[i] = value;
+                    return new CollisionNode(token, hash, copy);
+                }
+            }
+            added[0] = true;
+            GpsData[] grown = Arrays.copyOf(entries, entries.length + 1);
+            grown[entries.length] = value;
+            if (edit == token) {
+                entries = grown;
+                return this;
+            }
+            return new CollisionNode(token, hash, grown);
+        }
+
+        CollisionNode remove(Object token, String ordem, boolean[] removed) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].getOrdem().equals(ordem)) {
+                    removed[0] = true;
+                    GpsData[] shrunk = new GpsData[entries.length - 1];
+                    System.arraycopy(entries, 0, shrunk, 0, i);
+                    System.arraycopy(entries, i + 1, shrunk, i, entries.length - i - 1);
+                    if (edit == token) {
+                        entries = shrunk;
+                        return this;
+                    }
+                    return new CollisionNode(token, hash, shrunk);
+                }
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.azvtech.filter_service.snapshot;
+
+import com.azvtech.filter_service.model.GpsData;
+import com.azvtech.filter_service.store.ScanCriteria;
+import com.azvtech.filter_service.store.VehicleReader;
+
+import java.util.function.Consumer;
+
+/**
+ * Versão imutável da posição de todos os veículos, publicada por {@link VehicleSnapshots}.
+ *
+ * <p>Uma consulta que fixa um snapshot enxerga exatamente os registros
+ * daquela versão, por mais que a ingestão avance durante a execução.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public final class VehicleSnapshot implements VehicleReader {
+
+    private final long version;
+    private final long publishedAtMillis;
+    private final PersistentVehicleMap data;
+
+    VehicleSnapshot(long version, long publishedAtMillis, PersistentVehicleMap data) {
+        this.version = version;
+        this.publishedAtMillis = publishedAtMillis;
+        this.data = data;
+    }
+
+    @Override
+    public GpsData get(String ordem) {
+        return data.get(ordem);
+    }
+
+    @Override
+    public void scan(ScanCriteria criteria, Consumer<GpsData> sink) {
+        data.forEach(record -> {
+            if (criteria.matches(record)) {
+                sink.accept(record);
+            }
+        });
+    }
+
+    /**
+     * Posições proporcionais aos registros: o trecho {@code [from, to)} visita
+     * a mesma fração das partições do hash, cerca de {@code to - from} registros.
+     */
+    @Override
+    public int scanLimit() {
+        return data.size();
+    }
+
+    @Override
+    public void scanRange(ScanCriteria criteria, int from, int to, Consumer<GpsData> sink) {
+        data.forEachInPartitions(partitionAt(from), partitionAt(to), record -> {
+            if (criteria.matches(record)) {
+                sink.accept(record);
+            }
+        });
+    }
+
+    @Override
+    public int count(ScanCriteria criteria) {
+        int[] count = {0};
+        data.forEach(record -> {
+            if (criteria.matches(record)) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    @Override
+    public int size() {
+        return data.size();
+    }
+
+    /**
+     * Versão dos dados; igual ao {@code dataVersion} das respostas.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public long getPublishedAtMillis() {
+        return publishedAtMillis;
+    }
+
+    private int partitionAt(int position) {
+        int size = data.size();
+        if (position >= size) {
+            return PersistentVehicleMap.PARTITIONS;
+        }
+        return position <= 0 ? 0 : (int) ((long) position * PersistentVehicleMap.PARTITIONS / size);
+    }
+
+    PersistentVehicleMap data() {
+        return data;
+    }
+}
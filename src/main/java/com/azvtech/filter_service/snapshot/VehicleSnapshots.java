@@ -0,0 +1,250 @@
+package com.azvtech.filter_service.snapshot;
+
+import com.azvtech.filter_service.config.FilterProperties;
+import com.azvtech.filter_service.model.GpsData;
+import com.azvtech.filter_service.store.StoreListener;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Versões imutáveis (MVCC) da posição dos veículos, publicadas em intervalos
+ * ({@code filter.snapshot.*}).
+ *
+ * <p>Escritores acumulam alterações num {@link PersistentVehicleMap.Editor};
+ * {@link #publish()} congela o editor numa nova {@link VehicleSnapshot},
+ * que compartilha com a anterior tudo o que não mudou. Leitores fixam a
+ * versão atual com uma leitura volátil, sem locks, e a mantêm enquanto
+ * precisarem. Versões antigas ficam disponíveis por
+ * {@code filter.snapshot.retention-ms} para paginação consistente e são
+ * coletadas pelo GC quando nenhuma consulta ou cache as referencia.</p>
+ *
+ * <p>Os índices secundários acompanham as versões: a publicação aplica ao
+ * {@link StoreListener} a diferença entre a versão anterior e a nova antes
+ * de torná-la atual. Um contador de sequência (ímpar durante a atualização)
+ * permite à consulta verificar, ao final, se os índices que usou
+ * correspondem à versão fixada.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class VehicleSnapshots {
+
+    /**
+     * Versão fixada por uma consulta.
+     */
+    public static final class Pin {
+
+        private final VehicleSnapshot snapshot;
+        private final long sequence;
+        private final boolean indexed;
+
+        Pin(VehicleSnapshot snapshot, long sequence, boolean indexed) {
+            this.snapshot = snapshot;
+            this.sequence = sequence;
+            this.indexed = indexed;
+        }
+
+        public VehicleSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+        /**
+         * Se os índices correspondiam a esta versão quando ela foi fixada.
+         */
+        public boolean isIndexed() {
+            return indexed;
+        }
+    }
+
+    private final StoreListener publishListener;
+    private final LongSupplier nextVersion;
+    private final long retentionMs;
+    private final int maxRetained;
+
+    // Alterações pendentes, protegidas por writeLock
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private PersistentVehicleMap.Editor working = PersistentVehicleMap.empty().edit();
+    private Set<String> pending = new HashSet<>();
+
+    private final Object publishLock = new Object();
+    private volatile VehicleSnapshot current;
+    private volatile long indexSequence;
+    private final ConcurrentLinkedDeque<VehicleSnapshot> retained = new ConcurrentLinkedDeque<>();
+
+    public VehicleSnapshots(FilterProperties.Snapshot config, StoreListener publishListener,
+                            long initialVersion, LongSupplier nextVersion) {
+        this.publishListener = publishListener;
+        this.nextVersion = nextVersion;
+        this.retentionMs = Math.max(0, config.getRetentionMs());
+        this.maxRetained = Math.max(1, config.getMaxRetained());
+        this.current = new VehicleSnapshot(initialVersion, System.currentTimeMillis(), PersistentVehicleMap.empty());
+        retained.addFirst(current);
+    }
+
+    /**
+     * Registra o estado atual do veículo para a próxima publicação.
+     */
+    public void put(GpsData data) {
+        writeLock.lock();
+        try {
+            working.put(data);
+            pending.add(data.getOrdem());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Registra a remoção do veículo para a próxima publicação.
+     */
+    public void remove(String ordem) {
+        writeLock.lock();
+        try {
+            working.remove(ordem);
+            pending.add(ordem);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Publica as alterações pendentes como nova versão, atualizando antes os índices.
+     *
+     * @return a versão atual (a anterior, se não havia alterações)
+     */
+    public VehicleSnapshot publish() {
+        synchronized (publishLock) {
+            PersistentVehicleMap next;
+            Set<String> changed;
+            writeLock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    return current;
+                }
+                next = working.freeze();
+                working = next.edit();
+                changed = pending;
+                pending = new HashSet<>();
+            } finally {
+                writeLock.unlock();
+            }
+
+            PersistentVehicleMap previous = current.data();
+            indexSequence++;
+            try {
+                for (String ordem : changed) {
+                    applyDiff(previous.get(ordem), next.get(ordem));
+                }
+                current = new VehicleSnapshot(nextVersion.getAsLong(), System.currentTimeMillis(), next);
+            } finally {
+                indexSequence++;
+            }
+            retain(current);
+            return current;
+        }
+    }
+
+    /**
+     * Versão atual, sem garantia de que os índices correspondam a ela.
+     */
+    public VehicleSnapshot current() {
+        return current;
+    }
+
+    /**
+     * Fixa a versão atual. Se uma publicação estiver atualizando os índices,
+     * a versão é fixada sem eles ({@link Pin#isIndexed()} falso).
+     */
+    public Pin pin() {
+        long sequence = indexSequence;
+        VehicleSnapshot snapshot = current;
+        boolean indexed = (sequence & 1) == 0 && indexSequence == sequence;
+        return new Pin(snapshot, sequence, indexed);
+    }
+
+    /**
+     * Fixa uma versão retida; os índices não correspondem a versões anteriores à atual.
+     *
+     * @return null se a versão não estiver mais retida
+     */
+    public Pin pin(long version) {
+        Pin pin = pin();
+        if (pin.snapshot.getVersion() == version) {
+            return pin;
+        }
+        for (VehicleSnapshot snapshot : retained) {
+            if (snapshot.getVersion() == version) {
+                return new Pin(snapshot, -1, false);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Se os índices ainda correspondem à versão fixada: uma consulta que os
+     * usou e recebe false deve ser repetida.
+     */
+    public boolean isConsistent(Pin pin) {
+        return !pin.indexed || indexSequence == pin.sequence;
+    }
+
+    public int retainedCount() {
+        return retained.size();
+    }
+
+    /**
+     * Descarta todas as versões e alterações pendentes, publicando uma versão vazia.
+     */
+    public void clear() {
+        synchronized (publishLock) {
+            writeLock.lock();
+            try {
+                working = PersistentVehicleMap.empty().edit();
+                pending = new HashSet<>();
+            } finally {
+                writeLock.unlock();
+            }
+            indexSequence++;
+            try {
+                current = new VehicleSnapshot(nextVersion.getAsLong(), System.currentTimeMillis(),
+                        PersistentVehicleMap.empty());
+            } finally {
+                indexSequence++;
+            }
+            retained.clear();
+            retained.addFirst(current);
+        }
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private void applyDiff(GpsData previous, GpsData next) {
+        if (previous == next) {
+            return;
+        }
+        if (previous == null) {
+            publishListener.onInsert(next);
+        } else if (next == null) {
+            publishListener.onRemove(previous);
+        } else {
+            publishListener.onUpdate(previous, next);
+        }
+    }
+
+    private void retain(VehicleSnapshot snapshot) {
+        retained.addFirst(snapshot);
+        long cutoff = snapshot.getPublishedAtMillis() - retentionMs;
+        int kept = 0;
+        for (Iterator<VehicleSnapshot> it = retained.iterator(); it.hasNext(); ) {
+            VehicleSnapshot candidate = it.next();
+            if (++kept > maxRetained || (candidate != snapshot && candidate.getPublishedAtMillis() < cutoff)) {
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.azvtech.filter_service.store;
+
+import com.azvtech.filter_service.model.GpsData;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Armazenamento colunar (struct-of-arrays) da posição atual dos veículos
+ * ({@code filter.store.type=columnar}).
+ *
+ * <p>Cada veículo ocupa um slot; os campos ficam em arrays primitivos
+ * (latitude/longitude em ponto fixo de 1e-7 graus, velocidade, epoch em
+ * milissegundos, ids de ordem/linha codificados por dicionário e a sequência
+ * de escrita de cada slot). A varredura de
+ * filtros é um laço sobre os arrays, materializando {@link GpsData} apenas
+ * para os registros aceitos.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class ColumnarVehicleStore extends SlotVehicleStore {
+
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    // Id da ordem + 1 (0 = slot livre)
+    private int[] ordemId;
+    private int[] latitude;
+    private int[] longitude;
+    private int[] velocidade;
+    private long[] epochMillis;
+    private int[] linhaId;
+    private int[] sequence;
+
+    public ColumnarVehicleStore() {
+        this(1024);
+    }
+
+    public ColumnarVehicleStore(int initialCapacity) {
+        this(initialCapacity, new VehicleDictionaries());
+    }
+
+    public ColumnarVehicleStore(int initialCapacity, VehicleDictionaries dictionaries) {
+        super(dictionaries);
+        int capacity = Math.max(16, initialCapacity);
+        this.ordemId = new int[capacity];
+        this.latitude = new int[capacity];
+        this.longitude = new int[capacity];
+        this.velocidade = new int[capacity];
+        this.epochMillis = new long[capacity];
+        this.linhaId = new int[capacity];
+        this.sequence = new int[capacity];
+    }
+
+    @Override
+    public String type() {
+        return "columnar";
+    }
+
+    @Override
+    public int capacity() {
+        return ordemId.length;
+    }
+
+    @Override
+    protected void resize(int newCapacity) {
+        ordemId = Arrays.copyOf(ordemId, newCapacity);
+        latitude = Arrays.copyOf(latitude, newCapacity);
+        longitude = Arrays.copyOf(longitude, newCapacity);
+        velocidade = Arrays.copyOf(velocidade, newCapacity);
+        epochMillis = Arrays.copyOf(epochMillis, newCapacity);
+        linhaId = Arrays.copyOf(linhaId, newCapacity);
+        sequence = Arrays.copyOf(sequence, newCapacity);
+    }
+
+    @Override
+    protected void writeSlot(int slot, GpsData data, long epochMillis, int ordemId, int linhaId) {
+        this.latitude[slot] = toFixed(data.getLatitude());
+        this.longitude[slot] = toFixed(data.getLongitude());
+        this.velocidade[slot] = data.getVelocidade();
+        this.epochMillis[slot] = epochMillis;
+        this.linhaId[slot] = linhaId;
+        // A ordem é escrita por último: varreduras usam-na como marcador de slot ocupado
+        this.ordemId[slot] = ordemId + 1;
+    }
+
+    @Override
+    protected void clearSlot(int slot) {
+        ordemId[slot] = 0;
+    }
+
+    @Override
+    protected int sequenceAt(int slot) {
+        return (int) SEQUENCE.getAcquire(sequence, slot);
+    }
+
+    @Override
+    protected void storeSequence(int slot, int value) {
+        SEQUENCE.setRelease(sequence, slot, value);
+    }
+
+    @Override
+    protected int ordemIdAt(int slot) {
+        return ordemId[slot] - 1;
+    }
+
+    @Override
+    protected int latitudeAt(int slot) {
+        return latitude[slot];
+    }
+
+    @Override
+    protected int longitudeAt(int slot) {
+        return longitude[slot];
+    }
+
+    @Override
+    protected int velocidadeAt(int slot) {
+        return velocidade[slot];
+    }
+
+    @Override
+    protected long epochMillisAt(int slot) {
+        return epochMillis[slot];
+    }
+
+    @Override
+    protected int linhaIdAt(int slot) {
+        return linhaId[slot];
+    }
+}
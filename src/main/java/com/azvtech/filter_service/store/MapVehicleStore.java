@@ -0,0 +1,98 @@
+package com.azvtech.filter_service.store;
+
+import com.azvtech.filter_service.index.TimeIndex;
+import com.azvtech.filter_service.model.GpsData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Armazenamento baseado em {@link ConcurrentHashMap} de objetos {@link GpsData}.
+ * É a implementação padrão ({@code filter.store.type=map}).
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class MapVehicleStore implements VehicleStore {
+
+    private final ConcurrentHashMap<String, GpsData> data = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean upsert(GpsData newData, StoreListener listener) {
+        boolean[] applied = new boolean[1];
+        data.compute(newData.getOrdem(), (ordem, existing) -> {
+            if (existing != null && !newData.isMoreRecentThan(existing)) {
+                return existing;
+            }
+            if (existing != null) {
+                listener.onUpdate(existing, newData);
+            } else {
+                listener.onInsert(newData);
+            }
+            applied[0] = true;
+            return newData;
+        });
+        return applied[0];
+    }
+
+    @Override
+    public boolean removeIfOlderThan(String ordem, long cutoffMillis, StoreListener listener) {
+        boolean[] removed = new boolean[1];
+        data.computeIfPresent(ordem, (key, existing) -> {
+            if (TimeIndex.toEpochMillis(existing.getDatahoraservidor()) < cutoffMillis) {
+                listener.onRemove(existing);
+                removed[0] = true;
+                return null;
+            }
+            return existing;
+        });
+        return removed[0];
+    }
+
+    @Override
+    public GpsData get(String ordem) {
+        return ordem != null ? data.get(ordem) : null;
+    }
+
+    @Override
+    public void scan(ScanCriteria criteria, Consumer<GpsData> sink) {
+        for (GpsData record : data.values()) {
+            if (criteria.matches(record)) {
+                sink.accept(record);
+            }
+        }
+    }
+
+    @Override
+    public int count(ScanCriteria criteria) {
+        int count = 0;
+        for (GpsData record : data.values()) {
+            if (criteria.matches(record)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public List<GpsData> values() {
+        return new ArrayList<>(data.values());
+    }
+
+    @Override
+    public int size() {
+        return data.size();
+    }
+
+    @Override
+    public void clear() {
+        data.clear();
+    }
+
+    @Override
+    public String type() {
+        return "map";
+    }
+}
@@ -0,0 +1,189 @@
+package com.azvtech.filter_service.store;
+
+import com.azvtech.filter_service.model.GpsData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Armazenamento da posição atual fora do heap ({@code filter.store.type=off-heap}).
+ *
+ * <p>Cada veículo ocupa um registro de largura fixa ({@value #RECORD_BYTES} bytes)
+ * num {@link ByteBuffer} direto, invisível para o coletor de lixo. No heap ficam
+ * apenas o mapa ordem -> slot e os dicionários compartilhados de linha e ordem
+ * (um único {@code String} por valor distinto).</p>
+ *
+ * <p>Layout do registro:</p>
+ * <pre>
+ *  0  int  latitude (ponto fixo 1e-7)
+ *  4  int  longitude (ponto fixo 1e-7)
+ *  8  int  velocidade
+ * 12  int  id da linha
+ * 16  long datahoraservidor (epoch ms)
+ * 24  int  id da ordem + 1 (0 = slot livre)
+ * 28  int  sequência de escrita (ímpar durante a gravação do registro)
+ * </pre>
+ *
+ * <p>A capacidade cresce pelo fator configurado até o máximo configurado;
+ * veículos novos além desse limite são rejeitados e contabilizados.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class OffHeapVehicleStore extends SlotVehicleStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapVehicleStore.class);
+
+    public static final int RECORD_BYTES = 32;
+
+    private static final int LATITUDE_OFFSET = 0;
+    private static final int LONGITUDE_OFFSET = 4;
+    private static final int VELOCIDADE_OFFSET = 8;
+    private static final int LINHA_OFFSET = 12;
+    private static final int EPOCH_OFFSET = 16;
+    private static final int ORDEM_OFFSET = 24;
+    private static final int SEQUENCE_OFFSET = 28;
+
+    // Acesso acquire/release à sequência de cada registro (alinhada em 4 bytes)
+    private static final VarHandle SEQUENCE =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final int maxCapacity;
+    private final double growthFactor;
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    private ByteBuffer buffer;
+
+    public OffHeapVehicleStore(int initialCapacity, int maxCapacity, double growthFactor) {
+        this(initialCapacity, maxCapacity, growthFactor, new VehicleDictionaries());
+    }
+
+    public OffHeapVehicleStore(int initialCapacity, int maxCapacity, double growthFactor,
+                               VehicleDictionaries dictionaries) {
+        super(dictionaries);
+        if (maxCapacity < 1) {
+            throw new IllegalArgumentException("Capacidade máxima deve ser positiva");
+        }
+        this.maxCapacity = maxCapacity;
+        this.growthFactor = growthFactor;
+        this.buffer = allocate(Math.min(maxCapacity, Math.max(16, initialCapacity)));
+    }
+
+    @Override
+    public String type() {
+        return "off-heap";
+    }
+
+    @Override
+    public int capacity() {
+        return buffer.capacity() / RECORD_BYTES;
+    }
+
+    @Override
+    public long offHeapBytes() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Quantidade de veículos novos rejeitados por falta de capacidade.
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @Override
+    protected int maxCapacity() {
+        return maxCapacity;
+    }
+
+    @Override
+    protected double growthFactor() {
+        return growthFactor;
+    }
+
+    @Override
+    protected void resize(int newCapacity) {
+        ByteBuffer current = buffer;
+        ByteBuffer resized = allocate(newCapacity);
+        resized.put(0, current, 0, current.capacity());
+        buffer = resized;
+        logger.info("Armazenamento off-heap redimensionado para {} veículos ({} bytes)",
+                newCapacity, resized.capacity());
+    }
+
+    @Override
+    protected void writeSlot(int slot, GpsData data, long epochMillis, int ordemId, int linhaId) {
+        int base = slot * RECORD_BYTES;
+        buffer.putInt(base + LATITUDE_OFFSET, toFixed(data.getLatitude()));
+        buffer.putInt(base + LONGITUDE_OFFSET, toFixed(data.getLongitude()));
+        buffer.putInt(base + VELOCIDADE_OFFSET, data.getVelocidade());
+        buffer.putInt(base + LINHA_OFFSET, linhaId);
+        buffer.putLong(base + EPOCH_OFFSET, epochMillis);
+        // A ordem é escrita por último: varreduras usam-na como marcador de slot ocupado
+        buffer.putInt(base + ORDEM_OFFSET, ordemId + 1);
+    }
+
+    @Override
+    protected void clearSlot(int slot) {
+        buffer.putInt(slot * RECORD_BYTES + ORDEM_OFFSET, 0);
+    }
+
+    @Override
+    protected int sequenceAt(int slot) {
+        return (int) SEQUENCE.getAcquire(buffer, slot * RECORD_BYTES + SEQUENCE_OFFSET);
+    }
+
+    @Override
+    protected void storeSequence(int slot, int sequence) {
+        SEQUENCE.setRelease(buffer, slot * RECORD_BYTES + SEQUENCE_OFFSET, sequence);
+    }
+
+    @Override
+    protected int ordemIdAt(int slot) {
+        return buffer.getInt(slot * RECORD_BYTES + ORDEM_OFFSET) - 1;
+    }
+
+    @Override
+    protected int latitudeAt(int slot) {
+        return buffer.getInt(slot * RECORD_BYTES + LATITUDE_OFFSET);
+    }
+
+    @Override
+    protected int longitudeAt(int slot) {
+        return buffer.getInt(slot * RECORD_BYTES + LONGITUDE_OFFSET);
+    }
+
+    @Override
+    protected int velocidadeAt(int slot) {
+        return buffer.getInt(slot * RECORD_BYTES + VELOCIDADE_OFFSET);
+    }
+
+    @Override
+    protected long epochMillisAt(int slot) {
+        return buffer.getLong(slot * RECORD_BYTES + EPOCH_OFFSET);
+    }
+
+    @Override
+    protected int linhaIdAt(int slot) {
+        return buffer.getInt(slot * RECORD_BYTES + LINHA_OFFSET);
+    }
+
+    @Override
+    protected void onCapacityExhausted(GpsData rejected) {
+        if (rejectedCount.getAndIncrement() == 0) {
+            logger.warn("Capacidade máxima do armazenamento off-heap atingida ({} veículos); "
+                    + "novos veículos serão rejeitados", maxCapacity);
+        }
+        logger.debug("Veículo rejeitado por falta de capacidade: {}", rejected.getOrdem());
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(Math.multiplyExact(capacity, RECORD_BYTES))
+                .order(ByteOrder.nativeOrder());
+    }
+}
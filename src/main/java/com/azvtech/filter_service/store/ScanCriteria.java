@@ -0,0 +1,127 @@
+package com.azvtech.filter_service.store;
+
+import com.azvtech.filter_service.model.GeoCircle;
+import com.azvtech.filter_service.model.GpsData;
+
+import java.util.BitSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Critérios de filtro de uma consulta, já vinculados ao instante da execução.
+ *
+ * <p>Expõe o predicado especializado da consulta, usado sobre objetos
+ * {@link GpsData}, e os mesmos critérios em forma primitiva (bitsets de ids,
+ * retângulo envolvente, corte em epoch), usados pelos armazenamentos baseados
+ * em slots para avaliar registros sem materializá-los. Filtros inativos ficam
+ * nulos/desligados.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class ScanCriteria {
+
+    private final Predicate<GpsData> predicate;
+
+    private final Set<String> linhas;
+    private final BitSet linhaIds;
+    private final Set<String> ordens;
+    private final BitSet ordemIds;
+    private final VehicleDictionaries dictionaries;
+
+    private final GeoCircle circle;
+
+    private final boolean time;
+    private final long cutoffMillis;
+
+    public ScanCriteria(Predicate<GpsData> predicate,
+                        Set<String> linhas, BitSet linhaIds,
+                        Set<String> ordens, BitSet ordemIds,
+                        VehicleDictionaries dictionaries,
+                        GeoCircle circle,
+                        boolean time, long cutoffMillis) {
+        this.predicate = predicate;
+        this.linhas = linhas;
+        this.linhaIds = linhaIds;
+        this.ordens = ordens;
+        this.ordemIds = ordemIds;
+        this.dictionaries = dictionaries;
+        this.circle = circle;
+        this.time = time;
+        this.cutoffMillis = time ? cutoffMillis : Long.MIN_VALUE;
+    }
+
+    /**
+     * Verifica se o registro atende a todos os critérios ativos.
+     */
+    public boolean matches(GpsData data) {
+        return predicate.test(data);
+    }
+
+    /**
+     * Verifica o critério de localização sobre coordenadas primitivas:
+     * retângulo envolvente primeiro, distância exata apenas se necessário.
+     */
+    public boolean matchesLocation(double lat, double lon) {
+        return circle == null || circle.contains(lat, lon);
+    }
+
+    public Predicate<GpsData> getPredicate() {
+        return predicate;
+    }
+
+    public Set<String> getLinhas() {
+        return linhas;
+    }
+
+    public Set<String> getOrdens() {
+        return ordens;
+    }
+
+    /**
+     * Dicionários usados na tradução dos ids, ou null se a comparação for por string.
+     */
+    public VehicleDictionaries getDictionaries() {
+        return dictionaries;
+    }
+
+    /**
+     * Ids das linhas solicitadas, ou null se o filtro estiver inativo ou sem dicionários.
+     */
+    public BitSet getLinhaIds() {
+        return linhaIds;
+    }
+
+    /**
+     * Ids das ordens solicitadas, ou null se o filtro estiver inativo ou sem dicionários.
+     */
+    public BitSet getOrdemIds() {
+        return ordemIds;
+    }
+
+    public boolean hasLocation() {
+        return circle != null;
+    }
+
+    /**
+     * Círculo da consulta por raio, ou null se o filtro estiver inativo.
+     */
+    public GeoCircle getCircle() {
+        return circle;
+    }
+
+    /**
+     * Verifica se há algum critério ativo (caso contrário, todo registro é aceito).
+     */
+    public boolean hasAnyFilter() {
+        return linhas != null || ordens != null || circle != null || time;
+    }
+
+    public boolean hasTime() {
+        return time;
+    }
+
+    public long getCutoffMillis() {
+        return cutoffMillis;
+    }
+}
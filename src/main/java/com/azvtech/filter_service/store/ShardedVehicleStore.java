@@ -0,0 +1,208 @@
+package com.azvtech.filter_service.store;
+
+import com.azvtech.filter_service.model.GpsData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * Armazenamento particionado em shards pelo hash da ordem
+ * ({@code filter.store.shards}).
+ *
+ * <p>Cada shard é um {@link VehicleStore} independente, com seus próprios
+ * locks e alocação de slots: a escrita de uma ordem toca apenas o shard dela,
+ * e escritores de shards diferentes não disputam a mesma estrutura. Leituras
+ * que precisam de todos os registros são distribuídas entre os shards em um
+ * pool dedicado ({@link #fanOut(ShardTask, boolean)}), e os resultados
+ * parciais são combinados por quem chamou (por exemplo, heaps top-K).</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class ShardedVehicleStore implements VehicleStore {
+
+    private final VehicleStore[] shards;
+    private final ForkJoinPool pool;
+    private final IntPredicate parallelFor;
+
+    /**
+     * @param shardCount  quantidade de shards
+     * @param factory     cria o armazenamento de cada shard a partir do seu índice
+     * @param pool        pool onde as varreduras dos shards são executadas
+     * @param parallelFor decide, pela quantidade de registros, se {@link #count(ScanCriteria)}
+     *                    distribui a contagem entre os shards no pool
+     */
+    public ShardedVehicleStore(int shardCount, IntFunction<VehicleStore> factory, ForkJoinPool pool,
+                               IntPredicate parallelFor) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Quantidade de shards deve ser positiva");
+        }
+        this.shards = new VehicleStore[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = factory.apply(i);
+        }
+        this.pool = pool;
+        this.parallelFor = parallelFor;
+    }
+
+    /**
+     * Tarefa executada sobre um shard em {@link #fanOut(ShardTask)}.
+     *
+     * @param <T> resultado parcial do shard
+     */
+    @FunctionalInterface
+    public interface ShardTask<T> {
+        T run(int index, VehicleStore shard);
+    }
+
+    /**
+     * Executa a tarefa em todos os shards em paralelo no pool dedicado e
+     * retorna os resultados parciais na ordem dos shards.
+     */
+    public <T> List<T> fanOut(ShardTask<T> task) {
+        return fanOut(task, true);
+    }
+
+    /**
+     * Executa a tarefa em todos os shards, em paralelo no pool dedicado ou,
+     * com {@code parallel=false}, um shard após o outro na própria thread.
+     */
+    public <T> List<T> fanOut(ShardTask<T> task, boolean parallel) {
+        List<T> results = new ArrayList<>(shards.length);
+        if (shards.length == 1 || !parallel) {
+            for (int i = 0; i < shards.length; i++) {
+                results.add(task.run(i, shards[i]));
+            }
+            return results;
+        }
+
+        List<ForkJoinTask<T>> pending = new ArrayList<>(shards.length - 1);
+        for (int i = 1; i < shards.length; i++) {
+            int index = i;
+            pending.add(pool.submit(() -> task.run(index, shards[index])));
+        }
+        // O primeiro shard roda na própria thread, que depois espera os demais
+        T first = task.run(0, shards[0]);
+        results.add(first);
+        for (ForkJoinTask<T> partial : pending) {
+            results.add(partial.join());
+        }
+        return results;
+    }
+
+    /**
+     * Separa as ordens pelo shard a que pertencem (uma lista por shard, na ordem dos shards).
+     */
+    public List<List<String>> partition(Collection<String> ordens) {
+        List<List<String>> partitions = new ArrayList<>(shards.length);
+        int expected = ordens.size() / shards.length + 1;
+        for (int i = 0; i < shards.length; i++) {
+            partitions.add(new ArrayList<>(expected));
+        }
+        for (String ordem : ordens) {
+            if (ordem != null) {
+                partitions.get(shardIndex(ordem)).add(ordem);
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Índice do shard responsável pela ordem.
+     */
+    public int shardIndex(String ordem) {
+        int h = ordem.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), shards.length);
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    @Override
+    public boolean upsert(GpsData data, StoreListener listener) {
+        return shardOf(data.getOrdem()).upsert(data, listener);
+    }
+
+    @Override
+    public boolean removeIfOlderThan(String ordem, long cutoffMillis, StoreListener listener) {
+        return ordem != null && shardOf(ordem).removeIfOlderThan(ordem, cutoffMillis, listener);
+    }
+
+    @Override
+    public GpsData get(String ordem) {
+        return ordem != null ? shardOf(ordem).get(ordem) : null;
+    }
+
+    /**
+     * Varredura sequencial, shard a shard: o consumidor não precisa ser thread-safe.
+     */
+    @Override
+    public void scan(ScanCriteria criteria, Consumer<GpsData> sink) {
+        for (VehicleStore shard : shards) {
+            shard.scan(criteria, sink);
+        }
+    }
+
+    /**
+     * Conta os registros aceitos shard a shard; em paralelo apenas quando o
+     * tamanho do armazenamento compensa a distribuição no pool.
+     */
+    @Override
+    public int count(ScanCriteria criteria) {
+        int total = 0;
+        for (int partial : fanOut((index, shard) -> shard.count(criteria), parallelFor.test(size()))) {
+            total += partial;
+        }
+        return total;
+    }
+
+    @Override
+    public List<GpsData> values() {
+        List<GpsData> values = new ArrayList<>(size());
+        for (VehicleStore shard : shards) {
+            values.addAll(shard.values());
+        }
+        return values;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (VehicleStore shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    @Override
+    public long offHeapBytes() {
+        long bytes = 0;
+        for (VehicleStore shard : shards) {
+            bytes += shard.offHeapBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    public void clear() {
+        for (VehicleStore shard : shards) {
+            shard.clear();
+        }
+    }
+
+    @Override
+    public String type() {
+        return shards[0].type() + " x" + shards.length + " shards";
+    }
+
+    private VehicleStore shardOf(String ordem) {
+        return shards[shardIndex(ordem)];
+    }
+}
@@ -0,0 +1,574 @@
+package com.azvtech.filter_service.store;
+
+import com.azvtech.filter_service.index.TimeIndex;
+import com.azvtech.filter_service.model.GeoCircle;
+import com.azvtech.filter_service.model.GpsData;
+
+import java.lang.invoke.VarHandle;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Base para armazenamentos que endereçam cada veículo por um slot de tamanho fixo.
+ *
+ * <p>Concentra o mapa ordem -> slot, a free-list, o controle de crescimento e
+ * a varredura de filtros; as subclasses decidem apenas onde os campos de cada
+ * slot ficam (arrays primitivos, buffers fora do heap etc.).</p>
+ *
+ * <p>Escritas numa mesma ordem são serializadas pelo mapa ordem -> slot.
+ * O crescimento usa o lock de escrita; escritas, leituras e varreduras usam o
+ * lock de leitura e podem ocorrer em paralelo. Cada slot tem uma sequência de
+ * escrita (seqlock): ímpar enquanto o registro está sendo gravado e
+ * incrementada de novo ao final. Leituras copiam ou avaliam os campos e
+ * repetem a leitura do slot se a sequência era ímpar ou mudou, de modo que
+ * nunca observam campos de versões diferentes do mesmo registro.
+ * A data/hora é mantida com precisão de milissegundos.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public abstract class SlotVehicleStore implements VehicleStore {
+
+    /**
+     * Escala do ponto fixo de latitude/longitude (1e-7 graus, ~1 cm).
+     */
+    protected static final double FIXED_POINT_SCALE = 1e7;
+
+    private static final int NO_SLOT = -1;
+
+    private final ConcurrentHashMap<String, Integer> slots = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock resizeLock = new ReentrantReadWriteLock();
+    private final VehicleDictionaries dictionaries;
+
+    // Garante visibilidade das escritas nos slots para as varreduras (happens-before)
+    private final AtomicLong modCount = new AtomicLong();
+
+    // Alocação de slots (protegida por allocationLock, nunca segurado ao pedir o resizeLock)
+    private final Object allocationLock = new Object();
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private volatile int highWater;
+
+    protected SlotVehicleStore(VehicleDictionaries dictionaries) {
+        this.dictionaries = dictionaries;
+    }
+
+    // ========== ACESSO AOS SLOTS (implementado pelas subclasses) ==========
+
+    /**
+     * Capacidade atual, em slots.
+     */
+    public abstract int capacity();
+
+    /**
+     * Capacidade máxima, em slots. Veículos novos além disso são rejeitados.
+     */
+    protected int maxCapacity() {
+        return Integer.MAX_VALUE - 8;
+    }
+
+    /**
+     * Fator de crescimento aplicado quando a capacidade se esgota.
+     */
+    protected double growthFactor() {
+        return 2.0;
+    }
+
+    /**
+     * Realoca o armazenamento preservando os slots existentes.
+     * Chamado com o lock de escrita, sem escritas concorrentes.
+     */
+    protected abstract void resize(int newCapacity);
+
+    /**
+     * Grava os campos do slot. Chamado com a sequência do slot ímpar.
+     */
+    protected abstract void writeSlot(int slot, GpsData data, long epochMillis, int ordemId, int linhaId);
+
+    /**
+     * Marca o slot como livre. Chamado com a sequência do slot ímpar.
+     */
+    protected abstract void clearSlot(int slot);
+
+    /**
+     * Lê a sequência de escrita do slot com semântica acquire.
+     */
+    protected abstract int sequenceAt(int slot);
+
+    /**
+     * Grava a sequência de escrita do slot com semântica release.
+     */
+    protected abstract void storeSequence(int slot, int sequence);
+
+    /**
+     * Retorna o id de dicionário da ordem do slot, ou -1 se ele estiver livre.
+     */
+    protected abstract int ordemIdAt(int slot);
+
+    protected abstract int latitudeAt(int slot);
+
+    protected abstract int longitudeAt(int slot);
+
+    protected abstract int velocidadeAt(int slot);
+
+    protected abstract long epochMillisAt(int slot);
+
+    protected abstract int linhaIdAt(int slot);
+
+    // ========== OPERAÇÕES DO ARMAZENAMENTO ==========
+
+    @Override
+    public boolean upsert(GpsData newData, StoreListener listener) {
+        String ordem = newData.getOrdem();
+        long newMillis = TimeIndex.toEpochMillis(newData.getDatahoraservidor());
+
+        while (true) {
+            int reserved = slots.containsKey(ordem) ? NO_SLOT : allocateSlot();
+            if (reserved == NO_SLOT && !slots.containsKey(ordem)) {
+                // Capacidade máxima atingida
+                onCapacityExhausted(newData);
+                return false;
+            }
+            boolean[] applied = new boolean[1];
+            boolean[] needsSlot = new boolean[1];
+            boolean[] usedReserved = new boolean[1];
+
+            resizeLock.readLock().lock();
+            try {
+                slots.compute(ordem, (key, slot) -> {
+                    if (slot != null) {
+                        if (!isMoreRecent(newMillis, epochMillisAt(slot))) {
+                            return slot;
+                        }
+                        GpsData previous = materialize(slot);
+                        writeRecord(slot, newData, newMillis);
+                        listener.onUpdate(previous, newData);
+                        applied[0] = true;
+                        return slot;
+                    }
+                    if (reserved == NO_SLOT) {
+                        // A ordem foi removida entre a verificação e o compute
+                        needsSlot[0] = true;
+                        return null;
+                    }
+                    writeRecord(reserved, newData, newMillis);
+                    listener.onInsert(newData);
+                    applied[0] = true;
+                    usedReserved[0] = true;
+                    return reserved;
+                });
+            } finally {
+                resizeLock.readLock().unlock();
+            }
+
+            if (reserved != NO_SLOT && !usedReserved[0]) {
+                releaseSlot(reserved);
+            }
+            if (!needsSlot[0]) {
+                if (applied[0]) {
+                    modCount.incrementAndGet();
+                }
+                return applied[0];
+            }
+        }
+    }
+
+    @Override
+    public boolean removeIfOlderThan(String ordem, long cutoffMillis, StoreListener listener) {
+        boolean[] removed = new boolean[1];
+        resizeLock.readLock().lock();
+        try {
+            slots.computeIfPresent(ordem, (key, slot) -> {
+                if (epochMillisAt(slot) >= cutoffMillis) {
+                    return slot;
+                }
+                GpsData previous = materialize(slot);
+                clearRecord(slot);
+                releaseSlot(slot);
+                listener.onRemove(previous);
+                removed[0] = true;
+                return null;
+            });
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+        if (removed[0]) {
+            modCount.incrementAndGet();
+        }
+        return removed[0];
+    }
+
+    @Override
+    public GpsData get(String ordem) {
+        if (ordem == null) {
+            return null;
+        }
+        Integer slot = slots.get(ordem);
+        if (slot == null) {
+            return null;
+        }
+        modCount.get();
+        SlotRecord record = new SlotRecord();
+        resizeLock.readLock().lock();
+        try {
+            readStable(slot, record);
+            return ordem.equals(dictionaries.getOrdens().valueOf(record.ordemId)) ? materialize(record) : null;
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void scan(ScanCriteria criteria, Consumer<GpsData> sink) {
+        forEachMatchingSlot(criteria, 0, Integer.MAX_VALUE, true, record -> sink.accept(materialize(record)));
+    }
+
+    /**
+     * Slots já alocados: a varredura pode ser dividida em trechos deste intervalo.
+     */
+    @Override
+    public int scanLimit() {
+        return highWater;
+    }
+
+    @Override
+    public void scanRange(ScanCriteria criteria, int from, int to, Consumer<GpsData> sink) {
+        forEachMatchingSlot(criteria, from, to, true, record -> sink.accept(materialize(record)));
+    }
+
+    @Override
+    public int count(ScanCriteria criteria) {
+        int[] count = new int[1];
+        forEachMatchingSlot(criteria, 0, Integer.MAX_VALUE, false, record -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Percorre os slots ocupados de {@code [from, to)} sob o lock de leitura, avaliando os critérios
+     * diretamente sobre os valores primitivos. A avaliação (e a cópia do
+     * registro aceito, se pedida) é validada pela sequência do slot e repetida
+     * se houve escrita concorrente nele.
+     */
+    private void forEachMatchingSlot(ScanCriteria criteria, int from, int to, boolean copy,
+                                     Consumer<SlotRecord> action) {
+        boolean sameDictionaries = criteria.getDictionaries() == dictionaries;
+        BitSet linhaIds = criteria.getLinhas() == null ? null
+                : sameDictionaries ? criteria.getLinhaIds() : dictionaries.linhaIds(criteria.getLinhas());
+        BitSet ordemIds = criteria.getOrdens() == null ? null
+                : sameDictionaries ? criteria.getOrdemIds() : dictionaries.ordemIds(criteria.getOrdens());
+        if ((linhaIds != null && linhaIds.isEmpty()) || (ordemIds != null && ordemIds.isEmpty())) {
+            return;
+        }
+        SlotFilter filter = new SlotFilter(ordemIds, linhaIds, criteria);
+        SlotRecord record = new SlotRecord();
+
+        modCount.get();
+        resizeLock.readLock().lock();
+        try {
+            int limit = Math.min(to, Math.min(highWater, capacity()));
+            for (int slot = Math.max(0, from); slot < limit; slot++) {
+                for (int spins = 0; ; spins = backOff(spins)) {
+                    int sequence = sequenceAt(slot);
+                    if ((sequence & 1) != 0) {
+                        continue;
+                    }
+                    boolean accepted = matches(slot, filter);
+                    if (accepted && copy) {
+                        copySlot(slot, record);
+                    }
+                    VarHandle.loadLoadFence();
+                    if (sequenceAt(slot) == sequence) {
+                        if (accepted) {
+                            action.accept(record);
+                        }
+                        break;
+                    }
+                }
+            }
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<GpsData> values() {
+        List<GpsData> result = new ArrayList<>(slots.size());
+        modCount.get();
+        resizeLock.readLock().lock();
+        try {
+            SlotRecord record = new SlotRecord();
+            int limit = Math.min(highWater, capacity());
+            for (int slot = 0; slot < limit; slot++) {
+                readStable(slot, record);
+                if (record.ordemId >= 0) {
+                    result.add(materialize(record));
+                }
+            }
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return slots.size();
+    }
+
+    @Override
+    public void clear() {
+        resizeLock.writeLock().lock();
+        try {
+            for (Integer slot : slots.values()) {
+                clearRecord(slot);
+                releaseSlot(slot);
+            }
+            slots.clear();
+            modCount.incrementAndGet();
+        } finally {
+            resizeLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Chamado quando um veículo novo não cabe por limite de capacidade.
+     */
+    protected void onCapacityExhausted(GpsData rejected) {
+    }
+
+    // ========== SEQUÊNCIA DOS SLOTS ==========
+
+    /**
+     * Grava o registro entre as duas metades da sequência do slot: ímpar
+     * antes do primeiro campo e par de novo (release) depois do último.
+     */
+    private void writeRecord(int slot, GpsData data, long epochMillis) {
+        int sequence = beginWrite(slot);
+        try {
+            writeSlot(slot, data, epochMillis, dictionaries.ordemIdOf(data), dictionaries.linhaIdOf(data));
+        } finally {
+            storeSequence(slot, sequence + 2);
+        }
+    }
+
+    private void clearRecord(int slot) {
+        int sequence = beginWrite(slot);
+        try {
+            clearSlot(slot);
+        } finally {
+            storeSequence(slot, sequence + 2);
+        }
+    }
+
+    private int beginWrite(int slot) {
+        int sequence = sequenceAt(slot);
+        storeSequence(slot, sequence + 1);
+        // Nenhum campo pode ficar visível antes da sequência ímpar
+        VarHandle.storeStoreFence();
+        return sequence;
+    }
+
+    /**
+     * Copia o slot para o registro, repetindo a cópia até obtê-la sem escrita concorrente.
+     */
+    private void readStable(int slot, SlotRecord record) {
+        for (int spins = 0; ; spins = backOff(spins)) {
+            int sequence = sequenceAt(slot);
+            if ((sequence & 1) == 0) {
+                copySlot(slot, record);
+                VarHandle.loadLoadFence();
+                if (sequenceAt(slot) == sequence) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static int backOff(int spins) {
+        if (spins < 64) {
+            Thread.onSpinWait();
+        } else {
+            // Escritor possivelmente sem CPU: cede a vez em vez de girar
+            Thread.yield();
+        }
+        return spins + 1;
+    }
+
+    // ========== MÉTODOS AUXILIARES ==========
+
+    /**
+     * Avalia os critérios sobre os campos do slot, na mesma ordem do plano
+     * compilado: ordem, linha, retângulo, tempo, distância.
+     */
+    private boolean matches(int slot, SlotFilter filter) {
+        int ordemId = ordemIdAt(slot);
+        if (ordemId < 0 || (filter.ordemIds != null && !filter.ordemIds.get(ordemId))) {
+            return false;
+        }
+        if (filter.linhaIds != null) {
+            int linhaId = linhaIdAt(slot);
+            if (linhaId < 0 || !filter.linhaIds.get(linhaId)) {
+                return false;
+            }
+        }
+        int lat = 0;
+        int lon = 0;
+        if (filter.circle != null) {
+            lat = latitudeAt(slot);
+            lon = longitudeAt(slot);
+            if (lat < filter.minLat || lat > filter.maxLat || lon < filter.minLon || lon > filter.maxLon) {
+                return false;
+            }
+        }
+        if (filter.time && epochMillisAt(slot) < filter.cutoffMillis) {
+            return false;
+        }
+        return filter.circle == null || filter.circle.contains(lat / FIXED_POINT_SCALE, lon / FIXED_POINT_SCALE);
+    }
+
+    private void copySlot(int slot, SlotRecord record) {
+        record.ordemId = ordemIdAt(slot);
+        record.latitude = latitudeAt(slot);
+        record.longitude = longitudeAt(slot);
+        record.velocidade = velocidadeAt(slot);
+        record.epochMillis = epochMillisAt(slot);
+        record.linhaId = linhaIdAt(slot);
+    }
+
+    protected static int toFixed(double degrees) {
+        return (int) Math.round(degrees * FIXED_POINT_SCALE);
+    }
+
+    private static int toFixedFloor(double degrees) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.floor(degrees * FIXED_POINT_SCALE));
+    }
+
+    private static int toFixedCeil(double degrees) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.ceil(degrees * FIXED_POINT_SCALE));
+    }
+
+    private static boolean isMoreRecent(long newMillis, long existingMillis) {
+        return newMillis != Long.MIN_VALUE && existingMillis != Long.MIN_VALUE && newMillis > existingMillis;
+    }
+
+    /**
+     * Materializa o slot. Usado apenas por escritores, dentro da seção crítica da ordem.
+     */
+    private GpsData materialize(int slot) {
+        SlotRecord record = new SlotRecord();
+        copySlot(slot, record);
+        return materialize(record);
+    }
+
+    private GpsData materialize(SlotRecord record) {
+        LocalDateTime datahora = record.epochMillis == Long.MIN_VALUE
+                ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(record.epochMillis), ZoneId.systemDefault());
+        GpsData data = new GpsData(
+                dictionaries.getOrdens().valueOf(record.ordemId),
+                record.latitude / FIXED_POINT_SCALE,
+                record.longitude / FIXED_POINT_SCALE,
+                record.velocidade,
+                dictionaries.getLinhas().valueOf(record.linhaId),
+                datahora
+        );
+        data.assignDictionaryIds(record.ordemId, record.linhaId);
+        return data;
+    }
+
+    private int allocateSlot() {
+        int slot;
+        synchronized (allocationLock) {
+            if (freeCount > 0) {
+                return freeSlots[--freeCount];
+            }
+            if (highWater >= maxCapacity()) {
+                return NO_SLOT;
+            }
+            slot = highWater;
+            highWater = slot + 1;
+        }
+        ensureCapacity(slot + 1);
+        return slot;
+    }
+
+    private void releaseSlot(int slot) {
+        synchronized (allocationLock) {
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        }
+    }
+
+    /**
+     * Cresce o armazenamento até comportar o slot pedido (sempre dentro da capacidade máxima).
+     * Nunca é chamado de dentro de um compute (que segura o lock de leitura).
+     */
+    private void ensureCapacity(int requiredSlots) {
+        if (capacity() >= requiredSlots) {
+            return;
+        }
+        resizeLock.writeLock().lock();
+        try {
+            int current = capacity();
+            if (current >= requiredSlots) {
+                return;
+            }
+            long grown = (long) Math.ceil(current * Math.max(1.1, growthFactor()));
+            int newCapacity = (int) Math.max(requiredSlots, Math.min(maxCapacity(), grown));
+            resize(newCapacity);
+        } finally {
+            resizeLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cópia dos campos de um slot, obtida sem escrita concorrente.
+     */
+    private static final class SlotRecord {
+        private int ordemId;
+        private int latitude;
+        private int longitude;
+        private int velocidade;
+        private long epochMillis;
+        private int linhaId;
+    }
+
+    /**
+     * Critérios da varredura já convertidos para ids e ponto fixo.
+     */
+    private static final class SlotFilter {
+        private final BitSet ordemIds;
+        private final BitSet linhaIds;
+        private final boolean time;
+        private final long cutoffMillis;
+        private final GeoCircle circle;
+        private final int minLat;
+        private final int maxLat;
+        private final int minLon;
+        private final int maxLon;
+
+        SlotFilter(BitSet ordemIds, BitSet linhaIds, ScanCriteria criteria) {
+            this.ordemIds = ordemIds;
+            this.linhaIds = linhaIds;
+            this.time = criteria.hasTime();
+            this.cutoffMillis = criteria.getCutoffMillis();
+            this.circle = criteria.getCircle();
+            boolean location = circle != null;
+            this.minLat = location ? toFixedFloor(circle.getMinLatitude()) : Integer.MIN_VALUE;
+            this.maxLat = location ? toFixedCeil(circle.getMaxLatitude()) : Integer.MAX_VALUE;
+            this.minLon = location ? toFixedFloor(circle.getMinLongitude()) : Integer.MIN_VALUE;
+            this.maxLon = location ? toFixedCeil(circle.getMaxLongitude()) : Integer.MAX_VALUE;
+        }
+    }
+}
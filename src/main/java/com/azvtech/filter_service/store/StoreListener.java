@@ -0,0 +1,28 @@
+package com.azvtech.filter_service.store;
+
+import com.azvtech.filter_service.model.GpsData;
+
+/**
+ * Callback de mudanças no armazenamento de veículos.
+ *
+ * <p>Os métodos são chamados dentro da seção crítica da ordem afetada,
+ * o que permite manter índices secundários consistentes com o registro
+ * armazenado sem locks adicionais.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public interface StoreListener {
+
+    StoreListener NONE = new StoreListener() {
+    };
+
+    default void onInsert(GpsData current) {
+    }
+
+    default void onUpdate(GpsData previous, GpsData current) {
+    }
+
+    default void onRemove(GpsData previous) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.azvtech.filter_service.store;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dicionário concorrente que mapeia strings para ids inteiros compactos.
+ *
+ * <p>Os ids são atribuídos sequencialmente a partir de zero e nunca são
+ * reaproveitados. Leituras ({@link #idOf}, {@link #valueOf}) não bloqueiam;
+ * apenas a criação de novos ids é serializada.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class StringDictionary {
+
+    /**
+     * Id retornado para valores nulos ou ausentes do dicionário.
+     */
+    public static final int NO_ID = -1;
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[64];
+    private int size;
+
+    /**
+     * Retorna o id do valor, criando um novo se necessário.
+     */
+    public int getOrCreate(String value) {
+        if (value == null) {
+            return NO_ID;
+        }
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(value);
+            if (id != null) {
+                return id;
+            }
+            int newId = size;
+            String[] current = values;
+            if (newId == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[newId] = value;
+            // Publica o array antes do id para que valueOf(newId) nunca retorne null
+            values = current;
+            size = newId + 1;
+            ids.put(value, newId);
+            return newId;
+        }
+    }
+
+    /**
+     * Retorna a instância canônica do valor, registrando-o se necessário.
+     */
+    public String intern(String value) {
+        return valueOf(getOrCreate(value));
+    }
+
+    /**
+     * Retorna o id do valor, ou {@link #NO_ID} se ele não estiver no dicionário.
+     */
+    public int idOf(String value) {
+        if (value == null) {
+            return NO_ID;
+        }
+        Integer id = ids.get(value);
+        return id != null ? id : NO_ID;
+    }
+
+    /**
+     * Retorna o valor associado ao id, ou null para {@link #NO_ID}.
+     */
+    public String valueOf(int id) {
+        if (id < 0) {
+            return null;
+        }
+        String[] current = values;
+        return id < current.length ? current[id] : null;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
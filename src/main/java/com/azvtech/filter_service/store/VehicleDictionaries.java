@@ -0,0 +1,95 @@
+package com.azvtech.filter_service.store;
+
+import com.azvtech.filter_service.model.GpsData;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Dicionários compartilhados de linhas e ordens.
+ *
+ * <p>Na ingestão, {@link #intern(GpsData)} troca as strings do registro pelas
+ * instâncias canônicas e atribui os ids compactos, de modo que o armazenamento
+ * retém uma única cópia de cada valor e os filtros comparam inteiros. Os ids
+ * nunca são reaproveitados; o tamanho dos dicionários acompanha a quantidade
+ * de linhas e veículos distintos vistos desde o início do serviço.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class VehicleDictionaries {
+
+    private final StringDictionary linhas = new StringDictionary();
+    private final StringDictionary ordens = new StringDictionary();
+
+    /**
+     * Canoniza as strings do registro e atribui os ids de linha e ordem.
+     */
+    public GpsData intern(GpsData data) {
+        if (isInterned(data)) {
+            return data;
+        }
+        int ordemId = ordens.getOrCreate(data.getOrdem());
+        int linhaId = linhas.getOrCreate(data.getLinha());
+        data.setOrdem(ordens.valueOf(ordemId));
+        data.setLinha(linhas.valueOf(linhaId));
+        data.assignDictionaryIds(ordemId, linhaId);
+        return data;
+    }
+
+    /**
+     * Verifica se o registro já foi codificado por estes dicionários.
+     */
+    public boolean isInterned(GpsData data) {
+        return data.getOrdemId() >= 0
+                && ordens.valueOf(data.getOrdemId()) == data.getOrdem()
+                && (data.getLinha() == null || linhas.valueOf(data.getLinhaId()) == data.getLinha());
+    }
+
+    /**
+     * Retorna o id de linha do registro, usando o id já atribuído quando válido.
+     */
+    public int linhaIdOf(GpsData data) {
+        return isInterned(data) ? data.getLinhaId() : linhas.getOrCreate(data.getLinha());
+    }
+
+    /**
+     * Retorna o id de ordem do registro, usando o id já atribuído quando válido.
+     */
+    public int ordemIdOf(GpsData data) {
+        return isInterned(data) ? data.getOrdemId() : ordens.getOrCreate(data.getOrdem());
+    }
+
+    /**
+     * Traduz valores de linha para um bitset de ids. Valores nunca vistos são ignorados.
+     */
+    public BitSet linhaIds(Collection<String> values) {
+        return toBitSet(linhas, values);
+    }
+
+    /**
+     * Traduz valores de ordem para um bitset de ids. Valores nunca vistos são ignorados.
+     */
+    public BitSet ordemIds(Collection<String> values) {
+        return toBitSet(ordens, values);
+    }
+
+    public StringDictionary getLinhas() {
+        return linhas;
+    }
+
+    public StringDictionary getOrdens() {
+        return ordens;
+    }
+
+    private static BitSet toBitSet(StringDictionary dictionary, Collection<String> values) {
+        BitSet ids = new BitSet();
+        for (String value : values) {
+            int id = dictionary.idOf(value);
+            if (id != StringDictionary.NO_ID) {
+                ids.set(id);
+            }
+        }
+        return ids;
+    }
+}
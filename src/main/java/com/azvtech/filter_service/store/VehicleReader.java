@@ -0,0 +1,53 @@
+package com.azvtech.filter_service.store;
+
+import com.azvtech.filter_service.model.GpsData;
+
+import java.util.function.Consumer;
+
+/**
+ * Leitura dos registros de veículos usada pelas consultas.
+ *
+ * <p>Implementada pelo armazenamento (estado atual, alterado pela ingestão)
+ * e pelos snapshots imutáveis de {@code com.azvtech.filter_service.snapshot}.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public interface VehicleReader {
+
+    /**
+     * Retorna o registro atual da ordem, ou null se não existir.
+     */
+    GpsData get(String ordem);
+
+    /**
+     * Percorre todos os registros, entregando ao consumidor os que atendem aos critérios.
+     */
+    void scan(ScanCriteria criteria, Consumer<GpsData> sink);
+
+    /**
+     * Conta os registros que atendem aos critérios, sem materializá-los quando possível.
+     */
+    int count(ScanCriteria criteria);
+
+    /**
+     * Tamanho do intervalo de posições de {@link #scanRange(ScanCriteria, int, int, Consumer)},
+     * que permite dividir a varredura completa em trechos independentes.
+     * Leitores sem posições endereçáveis são varridos como um único trecho.
+     */
+    default int scanLimit() {
+        return 1;
+    }
+
+    /**
+     * Varre apenas as posições {@code [from, to)} do intervalo de {@link #scanLimit()}.
+     * Trechos disjuntos podem ser varridos em paralelo, cada um com seu próprio consumidor.
+     */
+    default void scanRange(ScanCriteria criteria, int from, int to, Consumer<GpsData> sink) {
+        if (from <= 0 && to > 0) {
+            scan(criteria, sink);
+        }
+    }
+
+    int size();
+}
@@ -0,0 +1,51 @@
+package com.azvtech.filter_service.store;
+
+import com.azvtech.filter_service.model.GpsData;
+
+import java.util.List;
+
+/**
+ * Armazenamento da posição atual de cada veículo, indexado por ordem.
+ *
+ * <p>Implementações devem garantir que as operações sobre uma mesma ordem
+ * sejam atômicas e que o {@link StoreListener} seja notificado dentro
+ * dessa seção crítica.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public interface VehicleStore extends VehicleReader {
+
+    /**
+     * Armazena o registro se não houver dado para a ordem ou se ele for mais recente.
+     *
+     * @return true se o registro foi aplicado
+     */
+    boolean upsert(GpsData data, StoreListener listener);
+
+    /**
+     * Remove o registro da ordem se sua data/hora for anterior ao corte (ou nula).
+     *
+     * @return true se o registro foi removido
+     */
+    boolean removeIfOlderThan(String ordem, long cutoffMillis, StoreListener listener);
+
+    /**
+     * Retorna uma cópia de todos os registros armazenados.
+     */
+    List<GpsData> values();
+
+    /**
+     * Bytes ocupados fora do heap (zero para armazenamentos em heap).
+     */
+    default long offHeapBytes() {
+        return 0;
+    }
+
+    void clear();
+
+    /**
+     * Nome do tipo de armazenamento, para logs e métricas.
+     */
+    String type();
+}
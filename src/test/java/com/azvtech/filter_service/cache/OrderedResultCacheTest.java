@@ -0,0 +1,99 @@
+package com.azvtech.filter_service.cache;
+
+import com.azvtech.filter_service.config.FilterProperties;
+import com.azvtech.filter_service.dto.FilterRequest;
+import com.azvtech.filter_service.model.GpsData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link OrderedResultCache}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - OrderedResultCache")
+class OrderedResultCacheTest {
+
+    @Test
+    @DisplayName("Deve compartilhar a ordem entre páginas da mesma consulta")
+    void whenDifferentPagesOfSameQuery_thenShouldShareOrder() {
+        // Arrange
+        OrderedResultCache cache = new OrderedResultCache();
+        FilterRequest first = request(0);
+        FilterRequest second = request(3);
+        FilterRequest otherSort = request(3);
+        otherSort.setSortDirection("asc");
+
+        // Act
+        cache.put(ResultCacheKey.forOrdering(first), vehicles(3));
+        String[] ordens = cache.get(ResultCacheKey.forOrdering(second));
+
+        // Assert
+        assertAll("Chave de ordenação ignora apenas a paginação",
+                () -> assertArrayEquals(new String[]{"V0", "V1", "V2"}, ordens),
+                () -> assertNull(cache.get(ResultCacheKey.forOrdering(otherSort))),
+                () -> assertNotEquals(ResultCacheKey.of(first), ResultCacheKey.of(second))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve limitar a memória pelo total de ordens guardadas")
+    void whenWeightExceedsLimit_thenShouldEvict() {
+        // Arrange
+        FilterProperties.Cache config = new FilterProperties.Cache();
+        config.setOrderedResultMaxOrdens(10);
+        OrderedResultCache cache = new OrderedResultCache(config);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            FilterRequest request = request(0);
+            request.setLinhas(List.of("L" + i));
+            cache.put(ResultCacheKey.forOrdering(request), vehicles(4));
+        }
+
+        // Assert
+        assertTrue(cache.size() <= 2, "No máximo 10 ordens devem permanecer em cache");
+    }
+
+    @Test
+    @DisplayName("Não deve guardar quando o cache está desabilitado")
+    void whenDisabled_thenShouldNotStore() {
+        // Arrange
+        FilterProperties.Cache config = new FilterProperties.Cache();
+        config.setOrderedResultTtlMs(0);
+        OrderedResultCache cache = new OrderedResultCache(config);
+        ResultCacheKey key = ResultCacheKey.forOrdering(request(1));
+
+        // Act
+        String[] stored = cache.put(key, vehicles(2));
+
+        // Assert
+        assertAll("Ordem calculada mas não guardada",
+                () -> assertEquals(2, stored.length),
+                () -> assertNull(cache.get(key))
+        );
+    }
+
+    private static FilterRequest request(int pageNumber) {
+        FilterRequest request = new FilterRequest();
+        request.setSortBy("velocidade");
+        request.setSortDirection("desc");
+        request.setPageSize(10);
+        request.setPageNumber(pageNumber);
+        return request;
+    }
+
+    private static List<GpsData> vehicles(int count) {
+        List<GpsData> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(new GpsData("V" + i, -22.9, -43.1, i, "L0", LocalDateTime.now()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,165 @@
+package com.azvtech.filter_service.cache;
+
+import com.azvtech.filter_service.config.FilterProperties;
+import com.azvtech.filter_service.dto.FilterRequest;
+import com.azvtech.filter_service.dto.FilterResponse;
+import com.azvtech.filter_service.dto.PaginationInfo;
+import com.azvtech.filter_service.dto.QueryMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link QueryResultCache}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - QueryResultCache")
+class QueryResultCacheTest {
+
+    private ResultCacheKey key;
+    private FilterResponse response;
+
+    @BeforeEach
+    void setUp() {
+        key = ResultCacheKey.of(new FilterRequest());
+        response = new FilterResponse(Collections.emptyList(), new PaginationInfo(0, 20, 0, 0),
+                new QueryMetadata(12L, 0, QueryResultCache.MISS));
+    }
+
+    @Test
+    @DisplayName("Deve retornar HIT para a mesma versão dos dados")
+    void whenSameVersion_thenShouldHit() {
+        // Arrange
+        QueryResultCache cache = new QueryResultCache();
+        cache.put(key, 5L, response);
+
+        // Act
+        FilterResponse hit = cache.lookup(key, 5L, 1L);
+
+        // Assert
+        assertAll("Resposta em cache deve ser uma cópia com status próprio",
+                () -> assertNotNull(hit),
+                () -> assertEquals(QueryResultCache.HIT, hit.getMetadata().getCacheStatus()),
+                () -> assertEquals(1L, hit.getMetadata().getProcessingTimeMs()),
+                () -> assertEquals(QueryResultCache.MISS, response.getMetadata().getCacheStatus()),
+                () -> assertSame(response.getData(), hit.getData())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve preservar a versão do snapshot e o modo de execução nas respostas HIT e STALE")
+    void whenServedFromCache_thenShouldKeepSnapshotVersionAndExecutionMode() {
+        // Arrange
+        FilterProperties.Cache config = new FilterProperties.Cache();
+        config.setMaxStaleMs(60_000);
+        QueryResultCache cache = new QueryResultCache(config);
+        response.getMetadata().setSnapshotVersion(5L);
+        response.getMetadata().setExecutionMode("paralelo");
+        cache.put(key, 5L, response);
+
+        // Act
+        FilterResponse hit = cache.lookup(key, 5L, 1L);
+        FilterResponse stale = cache.lookup(key, 9L, 1L);
+
+        // Assert
+        assertAll("Metadados da execução original devem ser preservados",
+                () -> assertEquals(5L, hit.getMetadata().getSnapshotVersion()),
+                () -> assertEquals(5L, stale.getMetadata().getSnapshotVersion()),
+                () -> assertEquals("paralelo", hit.getMetadata().getExecutionMode()),
+                () -> assertEquals("paralelo", stale.getMetadata().getExecutionMode())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve invalidar quando a versão muda e não há janela de obsolescência")
+    void whenVersionChanged_thenShouldMiss() {
+        // Arrange
+        QueryResultCache cache = new QueryResultCache();
+        cache.put(key, 5L, response);
+
+        // Act & Assert
+        assertNull(cache.lookup(key, 6L, 1L));
+    }
+
+    @Test
+    @DisplayName("Deve servir como STALE dentro da janela configurada")
+    void whenVersionChangedWithinStaleWindow_thenShouldServeStale() {
+        // Arrange
+        FilterProperties.Cache config = new FilterProperties.Cache();
+        config.setMaxStaleMs(60_000);
+        QueryResultCache cache = new QueryResultCache(config);
+        cache.put(key, 5L, response);
+
+        // Act
+        FilterResponse stale = cache.lookup(key, 9L, 1L);
+
+        // Assert
+        assertEquals(QueryResultCache.STALE, stale.getMetadata().getCacheStatus());
+    }
+
+    @Test
+    @DisplayName("Não deve servir uma versão fixada com a resposta de outra versão")
+    void whenSnapshotVersionDiffers_thenShouldNotServeStale() {
+        // Arrange
+        FilterProperties.Cache config = new FilterProperties.Cache();
+        config.setMaxStaleMs(60_000);
+        QueryResultCache cache = new QueryResultCache(config);
+        FilterRequest pinned = new FilterRequest();
+        pinned.setSnapshotVersion(5L);
+        cache.put(ResultCacheKey.of(new FilterRequest()), 9L, response);
+
+        // Act
+        FilterResponse served = cache.lookup(ResultCacheKey.of(pinned), 5L, 1L);
+
+        // Assert
+        assertNull(served);
+    }
+
+    @Test
+    @DisplayName("Deve limitar o tempo de vida das consultas por janela de tempo")
+    void whenTimeWindowQuery_thenShouldExpireWithinTimeWindowTtl() {
+        // Arrange
+        FilterProperties.Cache config = new FilterProperties.Cache();
+        config.setTimeWindowTtlMs(0);
+        QueryResultCache cache = new QueryResultCache(config);
+        FilterRequest recent = new FilterRequest();
+        recent.setUltimosMinutos(5);
+        ResultCacheKey windowKey = ResultCacheKey.of(recent);
+        cache.put(key, 5L, response);
+        cache.put(windowKey, 5L, response);
+
+        // Act
+        FilterResponse plain = cache.lookup(key, 5L, 1L);
+        FilterResponse window = cache.lookup(windowKey, 5L, 1L);
+
+        // Assert
+        assertAll("Apenas a consulta por janela de tempo deve expirar",
+                () -> assertTrue(windowKey.hasTimeWindow()),
+                () -> assertNotNull(plain),
+                () -> assertNull(window)
+        );
+    }
+
+    @Test
+    @DisplayName("Não deve armazenar nada quando desabilitado")
+    void whenDisabled_thenShouldNeverHit() {
+        // Arrange
+        FilterProperties.Cache config = new FilterProperties.Cache();
+        config.setEnabled(false);
+        QueryResultCache cache = new QueryResultCache(config);
+
+        // Act
+        cache.put(key, 5L, response);
+
+        // Assert
+        assertAll("Cache desabilitado",
+                () -> assertNull(cache.lookup(key, 5L, 1L)),
+                () -> assertEquals(0, cache.size())
+        );
+    }
+}
@@ -0,0 +1,69 @@
+package com.azvtech.filter_service.cache;
+
+import com.azvtech.filter_service.dto.FilterRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link ResultCacheKey}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - ResultCacheKey")
+class ResultCacheKeyTest {
+
+    @Test
+    @DisplayName("Deve normalizar listas e coordenadas de requisições equivalentes")
+    void whenRequestsAreEquivalent_thenKeysShouldBeEqual() {
+        // Arrange
+        FilterRequest first = new FilterRequest();
+        first.setLinhas(Arrays.asList("200", "100"));
+        first.setLatitude(-22.906800);
+        first.setLongitude(-43.172900);
+        first.setRaioKm(1.0);
+
+        FilterRequest second = new FilterRequest();
+        second.setLinhas(Arrays.asList("100", "200", "100"));
+        second.setLatitude(-22.9068004);
+        second.setLongitude(-43.1729001);
+        second.setRaioKm(1.0000001);
+
+        // Act & Assert
+        assertAll("Chaves devem ser iguais",
+                () -> assertEquals(ResultCacheKey.of(first), ResultCacheKey.of(second)),
+                () -> assertEquals(ResultCacheKey.of(first).hashCode(), ResultCacheKey.of(second).hashCode())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve distinguir paginação, ordenação, cursor e versão do snapshot")
+    void whenPagingOrSortDiffers_thenKeysShouldDiffer() {
+        // Arrange
+        FilterRequest base = new FilterRequest();
+        FilterRequest otherPage = new FilterRequest();
+        otherPage.setPageNumber(1);
+        FilterRequest otherSort = new FilterRequest();
+        otherSort.setSortBy("velocidade");
+        FilterRequest withCursor = new FilterRequest();
+        withCursor.setCursor("abc");
+        FilterRequest pinned = new FilterRequest();
+        pinned.setSnapshotVersion(7L);
+        FilterRequest otherPin = new FilterRequest();
+        otherPin.setSnapshotVersion(8L);
+
+        // Act & Assert
+        assertAll("Chaves devem ser diferentes",
+                () -> assertNotEquals(ResultCacheKey.of(base), ResultCacheKey.of(otherPage)),
+                () -> assertNotEquals(ResultCacheKey.of(base), ResultCacheKey.of(otherSort)),
+                () -> assertNotEquals(ResultCacheKey.of(base), ResultCacheKey.of(withCursor)),
+                () -> assertNotEquals(ResultCacheKey.of(base), ResultCacheKey.of(pinned)),
+                () -> assertNotEquals(ResultCacheKey.of(pinned), ResultCacheKey.of(otherPin)),
+                () -> assertNotEquals(ResultCacheKey.forOrdering(pinned), ResultCacheKey.forOrdering(otherPin)),
+                () -> assertEquals(ResultCacheKey.of(pinned).hashCode(), ResultCacheKey.of(pinned).hashCode())
+        );
+    }
+}
@@ -0,0 +1,65 @@
+package com.azvtech.filter_service.cache;
+
+import com.azvtech.filter_service.config.FilterProperties;
+import com.azvtech.filter_service.dto.TrajectoryPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link SimplifiedTrajectoryCache}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - SimplifiedTrajectoryCache")
+class SimplifiedTrajectoryCacheTest {
+
+    private static final List<TrajectoryPoint> POINTS = List.of(
+            new TrajectoryPoint(-22.9, -43.2, 30, "100", LocalDateTime.of(2026, 1, 1, 10, 0)),
+            new TrajectoryPoint(-22.91, -43.21, 20, "100", LocalDateTime.of(2026, 1, 1, 10, 5))
+    );
+
+    @Test
+    @DisplayName("Deve normalizar as linhas da chave e validar a quantidade de pontos brutos")
+    void whenBlockCached_thenShouldMatchEquivalentKeyAndSameRawCount() {
+        // Arrange
+        SimplifiedTrajectoryCache cache = new SimplifiedTrajectoryCache();
+        SimplifiedTrajectoryCache.Key key = new SimplifiedTrajectoryCache.Key("A", 0L, 10.0, List.of("200", "100"));
+        SimplifiedTrajectoryCache.Key equivalent = new SimplifiedTrajectoryCache.Key("A", 0L, 10.0, List.of("100", "200", "100"));
+        SimplifiedTrajectoryCache.Key otherTolerance = new SimplifiedTrajectoryCache.Key("A", 0L, 20.0, List.of("100", "200"));
+
+        // Act
+        cache.put(key, 40, POINTS);
+
+        // Assert
+        assertAll("Chave equivalente encontra o bloco apenas com os mesmos pontos brutos",
+                () -> assertEquals(POINTS, cache.get(equivalent, 40)),
+                () -> assertNull(cache.get(equivalent, 39)),
+                () -> assertNull(cache.get(otherTolerance, 40)),
+                () -> assertEquals(1, cache.size())
+        );
+    }
+
+    @Test
+    @DisplayName("Não deve guardar blocos com o cache desabilitado")
+    void whenCacheDisabled_thenShouldNotStore() {
+        // Arrange
+        FilterProperties.Cache config = new FilterProperties.Cache();
+        config.setEnabled(false);
+        SimplifiedTrajectoryCache cache = new SimplifiedTrajectoryCache(config);
+        SimplifiedTrajectoryCache.Key key = new SimplifiedTrajectoryCache.Key("A", 0L, 10.0, null);
+
+        // Act
+        cache.put(key, 2, POINTS);
+
+        // Assert
+        assertAll("Cache desabilitado",
+                () -> assertNull(cache.get(key, 2)),
+                () -> assertEquals(0, cache.size())
+        );
+    }
+}
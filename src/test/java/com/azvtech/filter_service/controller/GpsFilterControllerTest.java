@@ -4,6 +4,12 @@ import com.azvtech.filter_service.dto.FilterRequest;
 import com.azvtech.filter_service.dto.FilterResponse;
 import com.azvtech.filter_service.dto.PaginationInfo;
 import com.azvtech.filter_service.dto.QueryMetadata;
+import com.azvtech.filter_service.dto.TrajectoryPoint;
+import com.azvtech.filter_service.dto.TrajectoryRequest;
+import com.azvtech.filter_service.dto.TrajectoryResponse;
+import com.azvtech.filter_service.dto.VehicleTrajectory;
+import com.azvtech.filter_service.exception.GlobalExceptionHandler;
+import com.azvtech.filter_service.metrics.IngestionStats;
 import com.azvtech.filter_service.metrics.ServiceMetrics;
 import com.azvtech.filter_service.service.GpsFilterService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -18,7 +24,9 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -46,7 +54,9 @@ class GpsFilterControllerTest {
         objectMapper = new ObjectMapper();
 
         // Configurar MockMvc com o controller
-        mockMvc = MockMvcBuilders.standaloneSetup(gpsFilterController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(gpsFilterController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
 
         // Configurar mock response
         mockResponse = new FilterResponse();
@@ -66,7 +76,7 @@ class GpsFilterControllerTest {
         mockResponse.setMetadata(metadata);
 
         // Configurar mock metrics
-        mockMetrics = new ServiceMetrics(100, 500, 1000, 1024, 2048);
+        mockMetrics = new ServiceMetrics(100, 500, 1000, 1024, 2048, 0, IngestionStats.DISABLED);
     }
 
     @Test
@@ -120,6 +130,21 @@ class GpsFilterControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("Deve retornar 400 para cursor inválido")
+    void whenInvalidCursor_thenShouldReturn400() throws Exception {
+        FilterRequest request = createValidFilterRequest();
+        request.setCursor("invalido");
+        when(filterService.filterData(any(FilterRequest.class)))
+                .thenThrow(new IllegalArgumentException("Cursor inválido"));
+
+        mockMvc.perform(post("/api/v1/filter")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Cursor inválido"));
+    }
+
     @Test
     @DisplayName("Deve retornar 400 para pageNumber negativo")
     void whenNegativePageNumber_thenShouldReturn400() throws Exception {
@@ -186,6 +211,36 @@ class GpsFilterControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("Deve retornar trajetórias no envelope de paginação")
+    void whenTrajectoriesRequested_thenShouldReturn200() throws Exception {
+        TrajectoryPoint point = new TrajectoryPoint(-22.9, -43.1, 30, "100", LocalDateTime.of(2026, 1, 1, 10, 0));
+        TrajectoryResponse trajectories = new TrajectoryResponse(
+                List.of(new VehicleTrajectory("ORD1", List.of(point))),
+                new PaginationInfo(0, 20, 1, 1), new QueryMetadata(3L, 1, null));
+        when(filterService.getTrajectories(any(TrajectoryRequest.class))).thenReturn(trajectories);
+
+        mockMvc.perform(post("/api/v1/filter/trajectories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ordens\":[\"ORD1\"],\"ultimosMinutos\":30}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].ordem").value("ORD1"))
+                .andExpect(jsonPath("$.data[0].pontos[0].datahoraservidor").value("2026-01-01T10:00:00"))
+                .andExpect(jsonPath("$.pagination.totalElements").value(1));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 para trajetória sem ordens nem linhas")
+    void whenTrajectoryWithoutVehicles_thenShouldReturn400() throws Exception {
+        when(filterService.getTrajectories(any(TrajectoryRequest.class)))
+                .thenThrow(new IllegalArgumentException("Informe ordens ou linhas para consultar trajetórias"));
+
+        mockMvc.perform(post("/api/v1/filter/trajectories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
     private FilterRequest createValidFilterRequest() {
         FilterRequest request = new FilterRequest();
         request.setPageSize(10);
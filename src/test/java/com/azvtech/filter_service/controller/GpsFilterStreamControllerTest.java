@@ -0,0 +1,139 @@
+package com.azvtech.filter_service.controller;
+
+import com.azvtech.filter_service.dto.FilterRequest;
+import com.azvtech.filter_service.dto.GpsDataResponse;
+import com.azvtech.filter_service.exception.GlobalExceptionHandler;
+import com.azvtech.filter_service.query.ResultStream;
+import com.azvtech.filter_service.service.GpsFilterService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Testes unitários para a classe {@link GpsFilterStreamController}.
+ *
+ * @author Fellipe Toledo
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes Unitários - GpsFilterStreamController")
+class GpsFilterStreamControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private GpsFilterService filterService;
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new GpsFilterStreamController(filterService, objectMapper))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Deve enviar um registro por linha em NDJSON")
+    void whenStreamGpsData_thenShouldWriteOneRecordPerLine() throws Exception {
+        // Arrange
+        List<GpsDataResponse> records = List.of(response("ORD1", 40), response("ORD2", 30));
+        ResultStream stream = sink -> {
+            int delivered = 0;
+            for (GpsDataResponse record : records) {
+                delivered++;
+                if (!sink.test(record)) {
+                    break;
+                }
+            }
+            return delivered;
+        };
+        when(filterService.openStream(any(FilterRequest.class))).thenReturn(stream);
+
+        // Act
+        MvcResult started = mockMvc.perform(post("/api/v1/filter/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new FilterRequest())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        String[] lines = body.split("\n");
+        assertAll("Cada linha é um registro completo",
+                () -> assertEquals(2, lines.length),
+                () -> assertEquals("ORD1", objectMapper.readTree(lines[0]).get("ordem").asText()),
+                () -> assertEquals(30, objectMapper.readTree(lines[1]).get("velocidade").asInt())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 antes do streaming para cursor inválido")
+    void whenInvalidCursor_thenShouldReturn400() throws Exception {
+        // Arrange
+        when(filterService.openStream(any(FilterRequest.class)))
+                .thenThrow(new IllegalArgumentException("Cursor inválido"));
+
+        // Act / Assert
+        mockMvc.perform(post("/api/v1/filter/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new FilterRequest())))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Cursor inválido"));
+    }
+
+    @Test
+    @DisplayName("Deve tratar JSON malformado e falhas internas como o controller de filtro")
+    void whenRequestIsMalformedOrServiceFails_thenShouldUseGlobalHandler() throws Exception {
+        // Arrange
+        when(filterService.openStream(any(FilterRequest.class)))
+                .thenThrow(new IllegalStateException("detalhe interno"));
+
+        // Act / Assert
+        mockMvc.perform(post("/api/v1/filter/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ invalido"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("JSON malformado"));
+        mockMvc.perform(post("/api/v1/filter/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new FilterRequest())))
+                .andExpect(status().isInternalServerError())
+                .andExpect(content().string("Erro interno do servidor"));
+    }
+
+    private static GpsDataResponse response(String ordem, int velocidade) {
+        GpsDataResponse response = new GpsDataResponse();
+        response.setOrdem(ordem);
+        response.setLatitude(-22.9);
+        response.setLongitude(-43.2);
+        response.setVelocidade(velocidade);
+        response.setLinha("100");
+        response.setDatahoraservidor(LocalDateTime.of(2024, 1, 15, 10, 30));
+        return response;
+    }
+}
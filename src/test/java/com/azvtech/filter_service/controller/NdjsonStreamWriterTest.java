@@ -0,0 +1,147 @@
+package com.azvtech.filter_service.controller;
+
+import com.azvtech.filter_service.dto.GpsDataResponse;
+import com.azvtech.filter_service.query.ResultStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link NdjsonStreamWriter}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - NdjsonStreamWriter")
+class NdjsonStreamWriterTest {
+
+    private ObjectMapper objectMapper;
+    private NdjsonStreamWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        writer = new NdjsonStreamWriter(objectMapper);
+    }
+
+    @Test
+    @DisplayName("Deve escrever cada registro em uma linha terminada por quebra de linha")
+    void whenWrite_thenShouldTerminateEveryLine() throws Exception {
+        // Arrange
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        int written = writer.write(stream(records(3)), output);
+
+        // Assert
+        String body = output.toString(StandardCharsets.UTF_8);
+        String[] lines = body.split("\n");
+        assertAll("Formato NDJSON",
+                () -> assertEquals(3, written),
+                () -> assertEquals(3, lines.length),
+                () -> assertTrue(body.endsWith("\n"), "Última linha deve terminar com quebra de linha"),
+                () -> assertEquals("ORD2", objectMapper.readTree(lines[2]).get("ordem").asText()),
+                () -> assertEquals("2024-01-15T10:30:00",
+                        objectMapper.readTree(lines[0]).get("datahoraservidor").asText())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve enviar o buffer ao destino durante a escrita sem fechá-lo")
+    void whenWriteManyRecords_thenShouldFlushPeriodicallyAndKeepOutputOpen() throws Exception {
+        // Arrange
+        int[] flushes = {0};
+        boolean[] closed = {false};
+        OutputStream output = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void flush() {
+                flushes[0]++;
+            }
+
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        // Act
+        writer.write(stream(records(NdjsonStreamWriter.FLUSH_INTERVAL * 3)), output);
+
+        // Assert
+        assertAll("Envio periódico",
+                () -> assertTrue(flushes[0] >= 3, "Deve enviar o buffer a cada bloco de registros"),
+                () -> assertFalse(closed[0], "O destino pertence ao chamador")
+        );
+    }
+
+    @Test
+    @DisplayName("Deve interromper o percurso quando a escrita falhar")
+    void whenOutputFails_thenShouldStopStreamAndPropagateIOException() {
+        // Arrange
+        OutputStream output = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Conexão encerrada");
+            }
+        };
+        int[] visited = {0};
+        List<GpsDataResponse> records = records(NdjsonStreamWriter.FLUSH_INTERVAL * 4);
+        ResultStream stream = sink -> {
+            for (GpsDataResponse record : records) {
+                visited[0]++;
+                if (!sink.test(record)) {
+                    break;
+                }
+            }
+            return visited[0];
+        };
+
+        // Act
+        IOException exception = assertThrows(IOException.class, () -> writer.write(stream, output));
+
+        // Assert
+        assertAll("Percurso interrompido",
+                () -> assertEquals("Conexão encerrada", exception.getMessage()),
+                () -> assertTrue(visited[0] <= NdjsonStreamWriter.FLUSH_INTERVAL,
+                        "Nenhum registro deve ser lido após a falha")
+        );
+    }
+
+    private static ResultStream stream(List<GpsDataResponse> records) {
+        return sink -> {
+            int delivered = 0;
+            for (GpsDataResponse record : records) {
+                delivered++;
+                if (!sink.test(record)) {
+                    break;
+                }
+            }
+            return delivered;
+        };
+    }
+
+    private static List<GpsDataResponse> records(int count) {
+        List<GpsDataResponse> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(new GpsDataResponse("ORD" + i, -22.9, -43.2, i % 90, "100",
+                    LocalDateTime.of(2024, 1, 15, 10, 30)));
+        }
+        return records;
+    }
+}
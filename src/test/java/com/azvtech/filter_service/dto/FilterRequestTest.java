@@ -314,4 +314,26 @@ class FilterRequestTest {
         request.setSortDirection("desc");
         return request;
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve considerar iguais requisições com os mesmos campos")
+    void whenRequestsHaveSameFields_thenShouldBeEqual() {
+        // Arrange
+        FilterRequest first = new FilterRequest();
+        first.setLinhas(Arrays.asList("100"));
+        first.setCursor("abc");
+        FilterRequest second = new FilterRequest();
+        second.setLinhas(Arrays.asList("100"));
+        second.setCursor("abc");
+        FilterRequest other = new FilterRequest();
+        other.setLinhas(Arrays.asList("200"));
+
+        // Assert
+        assertAll("equals/hashCode devem considerar todos os campos",
+                () -> assertEquals(first, second),
+                () -> assertEquals(first.hashCode(), second.hashCode()),
+                () -> assertNotEquals(first, other),
+                () -> assertTrue(first.hasCursor())
+        );
+    }
+}
@@ -105,4 +105,19 @@ class QueryMetadataTest {
         assertNotNull(emptyMetadata.getQueryTimestamp(),
                 "Timestamp deve ser automaticamente definido");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve expor o plano da consulta e a quantidade de candidatos")
+    void whenSetQueryPlan_thenShouldBeExposed() {
+        // Act
+        queryMetadata.setQueryPlan("linha(est=2) -> 2 candidatos, filtros=[linha]");
+        queryMetadata.setCandidateCount(2);
+
+        // Assert
+        assertAll("Plano deve ser exposto nos metadados",
+                () -> assertEquals("linha(est=2) -> 2 candidatos, filtros=[linha]", queryMetadata.getQueryPlan()),
+                () -> assertEquals(2, queryMetadata.getCandidateCount()),
+                () -> assertTrue(queryMetadata.toString().contains("queryPlan"))
+        );
+    }
+}
@@ -0,0 +1,187 @@
+package com.azvtech.filter_service.history;
+
+import com.azvtech.filter_service.config.FilterProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link CompressedTrack}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - CompressedTrack")
+class CompressedTrackTest {
+
+    private static final long DAY_START = 1_767_261_600_000L;
+    private static final int POINTS_PER_DAY = 5760;
+
+    @Test
+    @DisplayName("Deve reconstruir um dia de trajeto com menos de 4 bytes por ponto")
+    void whenEncodingDayLongTrace_thenShouldRoundTripUnderFourBytesPerPoint() {
+        // Arrange
+        List<long[]> trace = busTrace(POINTS_PER_DAY, new Random(42));
+        CompressedTrack track = new CompressedTrack(POINTS_PER_DAY);
+
+        // Act
+        for (long[] point : trace) {
+            track.append(point[0], point[1] / 1e6, point[2] / 1e6, (int) point[3], (int) point[4]);
+        }
+        List<double[]> decoded = new ArrayList<>();
+        int visited = track.forEachSince(Long.MIN_VALUE, null,
+                (epoch, lat, lon, vel, linha) -> decoded.add(new double[]{epoch, lat, lon, vel, linha}));
+        double bytesPerPoint = (double) track.memoryBytes() / track.size();
+
+        // Assert
+        assertEquals(POINTS_PER_DAY, visited);
+        for (int i = 0; i < trace.size(); i++) {
+            long[] expected = trace.get(i);
+            double[] actual = decoded.get(i);
+            assertEquals(expected[0], (long) actual[0], "Data/hora do ponto " + i);
+            assertEquals(expected[1] / 1e6, actual[1], 0.51e-5, "Latitude do ponto " + i);
+            assertEquals(expected[2] / 1e6, actual[2], 0.51e-5, "Longitude do ponto " + i);
+            assertEquals(expected[3], (long) actual[3], "Velocidade do ponto " + i);
+            assertEquals(expected[4], (long) actual[4], "Linha do ponto " + i);
+        }
+        assertAll("Compactação do dia inteiro",
+                () -> assertTrue(bytesPerPoint < 4.0, "Bytes por ponto: " + bytesPerPoint),
+                () -> assertEquals(POINTS_PER_DAY / CompressedTrack.DEFAULT_BLOCK_SIZE + 1, track.blockCount())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve preservar milissegundos abrindo novo bloco quando necessário")
+    void whenTimestampsHaveMillis_thenShouldKeepExactEpochs() {
+        // Arrange
+        CompressedTrack track = new CompressedTrack(100, 16);
+        long[] epochs = {DAY_START, DAY_START + 15_000, DAY_START + 30_123, DAY_START + 45_007, DAY_START + 3_600_000};
+
+        // Act
+        for (long epoch : epochs) {
+            track.append(epoch, -22.9, -43.1, 0, -1);
+        }
+        boolean outOfOrder = track.append(DAY_START + 1000, -22.9, -43.1, 0, -1);
+        List<Long> decoded = new ArrayList<>();
+        track.forEachSince(Long.MIN_VALUE, null, (epoch, lat, lon, vel, linha) -> decoded.add(epoch));
+
+        // Assert
+        assertAll("Datas exatas e bloco em milissegundos a partir do primeiro ponto fracionado",
+                () -> assertFalse(outOfOrder),
+                () -> assertEquals(List.of(epochs[0], epochs[1], epochs[2], epochs[3], epochs[4]), decoded),
+                () -> assertEquals(2, track.blockCount())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve decodificar só os blocos da janela e descartar blocos antigos")
+    void whenScanningWindowAndTrimming_thenShouldSkipOldBlocks() {
+        // Arrange
+        CompressedTrack track = new CompressedTrack(40, 10);
+        for (int i = 0; i < 60; i++) {
+            track.append(DAY_START + i * 15_000L, -22.9 + i * 1e-4, -43.1, 30, 5);
+        }
+        long cutoff = DAY_START + 55 * 15_000L;
+
+        // Act
+        List<Long> recent = new ArrayList<>();
+        int visited = track.forEachSince(cutoff, null, (epoch, lat, lon, vel, linha) -> recent.add(epoch));
+        int sizeBeforeTrim = track.size();
+        track.trimBefore(DAY_START + 35 * 15_000L);
+
+        // Assert
+        assertAll("Capacidade mantida por blocos inteiros e janela respeitada",
+                () -> assertEquals(5, visited),
+                () -> assertEquals(cutoff, recent.get(0)),
+                () -> assertEquals(40, sizeBeforeTrim),
+                () -> assertEquals(30, track.size()),
+                () -> assertEquals(3, track.blockCount()),
+                () -> assertEquals(DAY_START + 59 * 15_000L, track.newestEpochMillis())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve visitar os pontos decodificados fora do monitor da série")
+    void whenVisiting_thenShouldNotHoldTrackMonitor() {
+        // Arrange
+        CompressedTrack track = new CompressedTrack(100, 4);
+        for (int i = 0; i < 6; i++) {
+            track.append(DAY_START + i * 15_000L, -22.9, -43.1, 30, 1);
+        }
+        List<Boolean> heldLock = new ArrayList<>();
+
+        // Act
+        int visited = track.forEachSince(Long.MIN_VALUE, null,
+                (epoch, lat, lon, vel, linha) -> heldLock.add(Thread.holdsLock(track)));
+
+        // Assert
+        assertAll("Visitante roda sobre a cópia, sem o monitor",
+                () -> assertEquals(6, visited),
+                () -> assertFalse(heldLock.contains(true))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve criar séries compactadas quando o formato é compressed")
+    void whenHistoryFormatIsCompressed_thenShouldUseCompressedTracks() {
+        // Arrange
+        FilterProperties.History config = new FilterProperties.History();
+        config.setFormat(FilterProperties.HistoryFormat.COMPRESSED);
+        config.setCapacityPerVehicle(POINTS_PER_DAY);
+        config.setMaxPoints(10L * POINTS_PER_DAY);
+        PositionHistory history = new PositionHistory(config);
+
+        // Act
+        history.record("A", DAY_START, -22.9, -43.1, 10, 0);
+        history.record("A", DAY_START + 15_000, -22.9001, -43.1, 12, 0);
+
+        // Assert
+        assertAll("Série compactada com dois pontos",
+                () -> assertInstanceOf(CompressedTrack.class, history.trackOf("A")),
+                () -> assertEquals(2, history.trackOf("A").size()),
+                () -> assertTrue(history.memoryBytes() > 0)
+        );
+    }
+
+    /**
+     * Trajeto sintético de ônibus: envio a cada 15 s com atraso ocasional,
+     * paradas, variação de velocidade e curvas. Coordenadas em 1e-6 graus.
+     */
+    private static List<long[]> busTrace(int points, Random random) {
+        List<long[]> trace = new ArrayList<>(points);
+        double lat = -22.9068;
+        double lon = -43.1729;
+        double heading = random.nextDouble() * 2 * Math.PI;
+        int speed = 30;
+        int stopRemaining = 0;
+        long epoch = DAY_START;
+        int linha = 3;
+        for (int i = 0; i < points; i++) {
+            epoch += random.nextInt(10) == 0 ? 15_000 + (random.nextInt(5) - 2) * 1000L : 15_000;
+            if (stopRemaining > 0) {
+                stopRemaining--;
+                speed = 0;
+            } else if (random.nextInt(12) == 0) {
+                stopRemaining = 1 + random.nextInt(4);
+                speed = 0;
+            } else {
+                speed = Math.max(5, Math.min(60, (speed == 0 ? 15 : speed) + random.nextInt(9) - 4));
+                if (random.nextInt(8) == 0) {
+                    heading += (random.nextBoolean() ? 1 : -1) * Math.PI / 2;
+                }
+                double meters = speed / 3.6 * 15;
+                lat += meters * Math.cos(heading) / 111_320;
+                lon += meters * Math.sin(heading) / (111_320 * Math.cos(Math.toRadians(lat)));
+            }
+            if (i == points / 2) {
+                linha = 8;
+            }
+            trace.add(new long[]{epoch, Math.round(lat * 1e6), Math.round(lon * 1e6), speed, linha});
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,146 @@
+package com.azvtech.filter_service.history;
+
+import com.azvtech.filter_service.config.FilterProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para as classes {@link PositionHistory} e {@link PositionRing}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - PositionHistory")
+class PositionHistoryTest {
+
+    @Test
+    @DisplayName("Deve manter apenas os pontos mais recentes quando o buffer dá a volta")
+    void whenRingWraps_thenShouldKeepNewestInOrder() {
+        // Arrange
+        PositionRing ring = new PositionRing(3);
+
+        // Act
+        for (int i = 1; i <= 5; i++) {
+            ring.append(i * 1000L, -22.9 + i * 0.001, -43.1, i * 10, 7);
+        }
+        List<Long> epochs = new ArrayList<>();
+        int visited = ring.forEachSince(Long.MIN_VALUE, null, (epoch, lat, lon, vel, linha) -> epochs.add(epoch));
+
+        // Assert
+        assertAll("Três pontos mais recentes, em ordem cronológica",
+                () -> assertEquals(3, visited),
+                () -> assertEquals(List.of(3000L, 4000L, 5000L), epochs),
+                () -> assertEquals(5000L, ring.newestEpochMillis()),
+                () -> assertEquals(3, ring.size())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve filtrar por janela e linha e ignorar pontos fora de ordem")
+    void whenFilteringByCutoffAndLinha_thenShouldVisitOnlyMatches() {
+        // Arrange
+        PositionRing ring = new PositionRing(10);
+        ring.append(1000L, -22.9, -43.1, 10, 1);
+        ring.append(2000L, -22.9, -43.1, 20, 2);
+        ring.append(3000L, -22.9123456, -43.1654321, 30, 1);
+        boolean outOfOrder = ring.append(2500L, -22.9, -43.1, 99, 1);
+        BitSet linha1 = new BitSet();
+        linha1.set(1);
+
+        // Act
+        List<double[]> points = new ArrayList<>();
+        int visited = ring.forEachSince(1500L, linha1,
+                (epoch, lat, lon, vel, linha) -> points.add(new double[]{lat, lon, vel}));
+
+        // Assert
+        assertAll("Apenas o ponto de 3000 na linha 1",
+                () -> assertFalse(outOfOrder),
+                () -> assertEquals(1, visited),
+                () -> assertEquals(-22.9123456, points.get(0)[0], 1e-7),
+                () -> assertEquals(-43.1654321, points.get(0)[1], 1e-7),
+                () -> assertEquals(30, points.get(0)[2])
+        );
+    }
+
+    @Test
+    @DisplayName("Deve visitar a cópia dos pontos fora do monitor do buffer")
+    void whenVisiting_thenShouldNotHoldRingMonitor() {
+        // Arrange
+        PositionRing ring = new PositionRing(10);
+        ring.append(1000L, -22.9, -43.1, 10, 1);
+        ring.append(2000L, -22.9, -43.1, 20, 1);
+        List<Boolean> heldLock = new ArrayList<>();
+
+        // Act: o visitante grava no próprio buffer enquanto percorre
+        int visited = ring.forEachSince(Long.MIN_VALUE, null, (epoch, lat, lon, vel, linha) -> {
+            heldLock.add(Thread.holdsLock(ring));
+            ring.append(epoch + 10_000L, lat, lon, vel, linha);
+        });
+        TrackPoints recent = ring.pointsSince(11_500L, null);
+
+        // Assert
+        assertAll("Visitante roda sobre a cópia, sem o monitor",
+                () -> assertEquals(2, visited),
+                () -> assertEquals(List.of(false, false), heldLock),
+                () -> assertEquals(4, ring.size()),
+                () -> assertEquals(1, recent.size()),
+                () -> assertEquals(1, recent.forEach((epoch, lat, lon, vel, linha) ->
+                        assertEquals(12_000L, epoch)))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve limitar a quantidade de veículos pelo orçamento de pontos")
+    void whenBudgetIsExhausted_thenShouldRejectNewVehicles() {
+        // Arrange
+        FilterProperties.History config = new FilterProperties.History();
+        config.setCapacityPerVehicle(10);
+        config.setMaxPoints(25);
+        PositionHistory history = new PositionHistory(config);
+
+        // Act
+        boolean first = history.record("A", 1000L, -22.9, -43.1, 10, 0);
+        boolean second = history.record("B", 1000L, -22.9, -43.1, 10, 0);
+        boolean third = history.record("C", 1000L, -22.9, -43.1, 10, 0);
+        boolean existing = history.record("A", 2000L, -22.9, -43.1, 10, 0);
+
+        // Assert
+        assertAll("Orçamento de 25 pontos comporta 2 veículos de 10 pontos",
+                () -> assertTrue(first),
+                () -> assertTrue(second),
+                () -> assertFalse(third),
+                () -> assertTrue(existing),
+                () -> assertEquals(2, history.getMaxVehicles()),
+                () -> assertEquals(1, history.getRejectedVehicles()),
+                () -> assertEquals(2L * 10 * PositionRing.BYTES_PER_POINT, history.memoryBudgetBytes())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve descartar o histórico de veículos sem posição recente")
+    void whenEvictingOldHistories_thenShouldFreeBudget() {
+        // Arrange
+        FilterProperties.History config = new FilterProperties.History();
+        config.setCapacityPerVehicle(10);
+        config.setMaxPoints(10);
+        PositionHistory history = new PositionHistory(config);
+        history.record("A", 1000L, -22.9, -43.1, 10, 0);
+
+        // Act
+        int removed = history.evictOlderThan(5000L);
+        boolean afterEviction = history.record("B", 6000L, -22.9, -43.1, 10, 0);
+
+        // Assert
+        assertAll("Espaço liberado para novo veículo",
+                () -> assertEquals(1, removed),
+                () -> assertTrue(afterEviction),
+                () -> assertNull(history.trackOf("A")),
+                () -> assertEquals(1, history.vehicleCount())
+        );
+    }
+}
@@ -0,0 +1,76 @@
+package com.azvtech.filter_service.history;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link TrajectorySimplifier}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - TrajectorySimplifier")
+class TrajectorySimplifierTest {
+
+    @Test
+    @DisplayName("Deve reduzir um trajeto em L às extremidades e à esquina")
+    void whenTraceIsLShaped_thenShouldKeepEndpointsAndCorner() {
+        // Arrange
+        TrajectorySimplifier simplifier = new TrajectorySimplifier(5.0);
+        for (int i = 0; i <= 40; i++) {
+            double lat = -22.9 + Math.max(0, i - 20) * 0.0001;
+            double lon = -43.2 + Math.min(i, 20) * 0.0001;
+            simplifier.add(i * 15_000L, lat, lon, 30, 1);
+        }
+
+        // Act
+        List<Long> kept = new ArrayList<>();
+        int count = simplifier.emit((epoch, lat, lon, vel, linha) -> kept.add(epoch));
+
+        // Assert
+        assertAll("Extremidades e esquina mantidas, acumulador esvaziado",
+                () -> assertEquals(3, count),
+                () -> assertEquals(List.of(0L, 20 * 15_000L, 40 * 15_000L), kept),
+                () -> assertEquals(0, simplifier.size())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve manter desvios maiores que a tolerância e descartar ruído menor")
+    void whenDeviationExceedsTolerance_thenShouldKeepPoint() {
+        // Arrange: ruído de ~1 m em todos e, no segundo trajeto, desvio de ~11 m no ponto 5
+        TrajectorySimplifier noisy = new TrajectorySimplifier(5.0);
+        TrajectorySimplifier strict = new TrajectorySimplifier(5.0);
+        TrajectorySimplifier loose = new TrajectorySimplifier(20.0);
+        for (int i = 0; i <= 10; i++) {
+            double noise = (i % 2) * 0.00001;
+            double lon = -43.2 + i * 0.0005;
+            noisy.add(i * 1000L, -22.9 + noise, lon, 0, 1);
+            double lat = -22.9 + (i == 5 ? 0.0001 : noise);
+            strict.add(i * 1000L, lat, lon, 0, 1);
+            loose.add(i * 1000L, lat, lon, 0, 1);
+        }
+
+        // Act
+        int noisyCount = noisy.emit((epoch, lat, lon, vel, linha) -> {
+        });
+        List<Long> strictKept = new ArrayList<>();
+        strict.emit((epoch, lat, lon, vel, linha) -> strictKept.add(epoch));
+        int looseCount = loose.emit((epoch, lat, lon, vel, linha) -> {
+        });
+
+        // Assert
+        assertAll("Tolerância decide o desvio mantido",
+                () -> assertEquals(2, noisyCount),
+                () -> assertTrue(strictKept.contains(5000L)),
+                () -> assertEquals(0L, strictKept.get(0)),
+                () -> assertEquals(10_000L, strictKept.get(strictKept.size() - 1)),
+                () -> assertEquals(2, looseCount),
+                () -> assertThrows(IllegalArgumentException.class, () -> new TrajectorySimplifier(-1))
+        );
+    }
+}
@@ -0,0 +1,81 @@
+package com.azvtech.filter_service.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link LinhaIndex}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - LinhaIndex")
+class LinhaIndexTest {
+
+    private LinhaIndex linhaIndex;
+
+    @BeforeEach
+    void setUp() {
+        linhaIndex = new LinhaIndex();
+        linhaIndex.add("100", "ORD123");
+        linhaIndex.add("100", "ORD789");
+        linhaIndex.add("200", "ORD456");
+    }
+
+    @Test
+    @DisplayName("Deve retornar as ordens associadas à linha")
+    void whenOrdensOf_thenShouldReturnBucket() {
+        // Act
+        Set<String> ordens = linhaIndex.ordensOf("100");
+
+        // Assert
+        assertAll("Bucket da linha 100",
+                () -> assertEquals(Set.of("ORD123", "ORD789"), ordens),
+                () -> assertEquals(2, linhaIndex.bucketSize("100")),
+                () -> assertTrue(linhaIndex.ordensOf("999").isEmpty(),
+                        "Linha inexistente deve retornar conjunto vazio")
+        );
+    }
+
+    @Test
+    @DisplayName("Deve mover veículo ao trocar de linha")
+    void whenMove_thenShouldChangeBucket() {
+        // Act
+        linhaIndex.move("100", "200", "ORD123");
+
+        // Assert
+        assertAll("Veículo deve estar apenas na nova linha",
+                () -> assertFalse(linhaIndex.ordensOf("100").contains("ORD123")),
+                () -> assertTrue(linhaIndex.ordensOf("200").contains("ORD123"))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve descartar bucket vazio após remoção")
+    void whenRemoveLastOrdem_thenBucketShouldBeDiscarded() {
+        // Act
+        linhaIndex.remove("200", "ORD456");
+
+        // Assert
+        assertAll("Bucket vazio deve ser removido",
+                () -> assertEquals(0, linhaIndex.bucketSize("200")),
+                () -> assertEquals(1, linhaIndex.linhaCount())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve ignorar linha ou ordem nulas")
+    void whenNullValues_thenShouldBeIgnored() {
+        // Act
+        linhaIndex.add(null, "ORD999");
+        linhaIndex.add("300", null);
+        linhaIndex.move(null, null, "ORD999");
+
+        // Assert
+        assertEquals(2, linhaIndex.linhaCount(), "Nenhuma linha nova deve ser criada");
+    }
+}
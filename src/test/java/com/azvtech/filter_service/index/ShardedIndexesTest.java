@@ -0,0 +1,140 @@
+package com.azvtech.filter_service.index;
+
+import com.azvtech.filter_service.model.GpsData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link ShardedIndexes}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - ShardedIndexes")
+class ShardedIndexesTest {
+
+    private ShardedIndexes indexes;
+    private Map<String, GpsData> current;
+    private LocalDateTime testTimestamp;
+
+    @BeforeEach
+    void setUp() {
+        indexes = new ShardedIndexes(3, ordem -> Integer.parseInt(ordem.substring(3)) % 3);
+        current = new HashMap<>();
+        testTimestamp = LocalDateTime.of(2024, 1, 15, 10, 30, 0);
+        for (int i = 0; i < 30; i++) {
+            GpsData data = new GpsData("ORD" + i, -22.9 + (i % 4) * 0.01, -43.2, (i * 7) % 50,
+                    "L" + (i % 4), testTimestamp.minusSeconds((i * 11) % 17));
+            current.put(data.getOrdem(), data);
+            indexes.of(data.getOrdem()).add(data);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve manter cada ordem apenas nos índices do seu shard")
+    void whenAdd_thenOrdemShouldStayInItsShard() {
+        // Act
+        Set<String> inShard0 = indexes.of("ORD0").getLinhaIndex().ordensOf("L0");
+        Set<String> inShard1 = indexes.of("ORD1").getLinhaIndex().ordensOf("L0");
+
+        // Assert
+        assertAll("Índices particionados pelo shard da ordem",
+                () -> assertEquals(Set.of("ORD0", "ORD12", "ORD24"), inShard0),
+                () -> assertEquals(Set.of("ORD4", "ORD16", "ORD28"), inShard1),
+                () -> assertEquals(3, indexes.shardCount())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve somar as estimativas e unir os candidatos de todos os shards")
+    void whenEstimate_thenShouldAddUpShards() {
+        // Act
+        int linhaEstimate = indexes.linhaBucketSize("L1");
+        Set<String> linhaOrdens = new HashSet<>();
+        indexes.linhaOrdens("L1", linhaOrdens);
+        int spatialEstimate = indexes.estimateSpatialCandidates(-22.9, -43.2, 0.1);
+        Set<String> spatialCandidates = indexes.spatialCandidates(-22.9, -43.2, 0.1);
+        int recent = indexes.countSince(Long.MIN_VALUE, Integer.MAX_VALUE);
+        int limited = indexes.countSince(Long.MIN_VALUE, 12);
+
+        // Assert
+        assertAll("Estimativas e candidatos combinados",
+                () -> assertEquals(8, linhaEstimate),
+                () -> assertEquals(8, linhaOrdens.size()),
+                () -> assertEquals(8, spatialEstimate),
+                () -> assertEquals(8, spatialCandidates.size()),
+                () -> assertEquals(30, recent),
+                () -> assertEquals(12, limited),
+                () -> assertEquals(30, indexes.ordensSince(Long.MIN_VALUE).size()),
+                () -> assertEquals(30, indexes.expiredBefore(Long.MAX_VALUE).size())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve intercalar as visões dos shards na ordem global")
+    void whenWalk_thenShouldMergeShardsInOrder() {
+        for (String sortBy : List.of("ordem", "linha", "velocidade", "datahoraservidor")) {
+            for (boolean descending : List.of(false, true)) {
+                // Arrange
+                List<GpsData> sorted = new ArrayList<>(current.values());
+                sorted.sort(SortedViews.viewOrder(sortBy, descending));
+                GpsData anchor = sorted.get(9);
+
+                // Act
+                List<GpsData> walked = new ArrayList<>();
+                indexes.walk(sortBy, descending, current::get, walked::add);
+                List<GpsData> afterAnchor = new ArrayList<>();
+                indexes.walk(sortBy, descending, anchor, current::get, data -> {
+                    afterAnchor.add(data);
+                    return afterAnchor.size() < 5;
+                });
+
+                // Assert
+                String view = sortBy + (descending ? " desc" : " asc");
+                assertEquals(sorted, walked, "Visão " + view);
+                assertEquals(sorted.subList(10, 15), afterAnchor, "Continuação da visão " + view);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve mover, remover e limpar nos índices do shard")
+    void whenMoveRemoveAndClear_thenShouldUpdateShard() {
+        // Arrange
+        GpsData previous = current.get("ORD5");
+        GpsData moved = new GpsData("ORD5", previous.getLatitude(), previous.getLongitude(), 99, "L9",
+                previous.getDatahoraservidor());
+
+        // Act
+        indexes.of("ORD5").move(previous, moved);
+        current.put("ORD5", moved);
+        int afterMove = indexes.linhaBucketSize("L9");
+        List<String> fastest = new ArrayList<>();
+        indexes.walk("velocidade", true, current::get, data -> {
+            fastest.add(data.getOrdem());
+            return false;
+        });
+        indexes.of("ORD5").remove(moved);
+        int afterRemove = indexes.linhaBucketSize("L9");
+        indexes.clear();
+
+        // Assert
+        assertAll("Manutenção roteada ao shard da ordem",
+                () -> assertEquals(1, afterMove),
+                () -> assertEquals(List.of("ORD5"), fastest),
+                () -> assertEquals(0, afterRemove),
+                () -> assertEquals(0, indexes.countSince(Long.MIN_VALUE, Integer.MAX_VALUE)),
+                () -> assertThrows(IllegalArgumentException.class, () -> new ShardedIndexes(0, ordem -> 0))
+        );
+    }
+}
@@ -0,0 +1,124 @@
+package com.azvtech.filter_service.index;
+
+import com.azvtech.filter_service.model.GpsData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para as classes {@link SortedViews} e {@link SortedView}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - SortedViews")
+class SortedViewsTest {
+
+    private TimeIndex timeIndex;
+    private SortedViews sortedViews;
+    private Map<String, GpsData> current;
+    private LocalDateTime testTimestamp;
+
+    @BeforeEach
+    void setUp() {
+        timeIndex = new TimeIndex();
+        sortedViews = new SortedViews(timeIndex);
+        current = new HashMap<>();
+        testTimestamp = LocalDateTime.of(2024, 1, 15, 10, 30, 0);
+
+        insert(new GpsData("ORD1", 0, 0, 50, "200", testTimestamp.minusMinutes(2)));
+        insert(new GpsData("ORD2", 0, 0, 30, "100", testTimestamp.minusMinutes(1)));
+        insert(new GpsData("ORD3", 0, 0, 50, "100", testTimestamp.minusMinutes(3)));
+    }
+
+    @Test
+    @DisplayName("Deve percorrer cada visão na ordem do comparador equivalente")
+    void whenWalk_thenOrderShouldMatchComparator() {
+        for (String sortBy : List.of("ordem", "linha", "velocidade", "datahoraservidor")) {
+            for (String direction : List.of("asc", "desc")) {
+                // Act
+                List<String> walked = walk(sortBy, direction);
+                List<String> sorted = current.values().stream()
+                        .sorted(SortedViews.comparatorFor(sortBy, direction))
+                        .map(GpsData::getOrdem)
+                        .collect(Collectors.toList());
+
+                // Assert
+                assertEquals(sorted, walked, "Visão " + sortBy + " " + direction);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve reposicionar o veículo quando a chave muda")
+    void whenMove_thenVehicleShouldBeRepositioned() {
+        // Arrange
+        GpsData previous = current.get("ORD2");
+        GpsData updated = new GpsData("ORD2", 0, 0, 90, "100", testTimestamp);
+
+        // Act
+        sortedViews.move(previous, updated);
+        timeIndex.move(TimeIndex.toEpochMillis(previous.getDatahoraservidor()),
+                TimeIndex.toEpochMillis(updated.getDatahoraservidor()), "ORD2");
+        current.put("ORD2", updated);
+
+        // Assert
+        assertAll("ORD2 deve estar na nova posição",
+                () -> assertEquals(List.of("ORD2", "ORD3", "ORD1"), walk("velocidade", "desc")),
+                () -> assertEquals(List.of("ORD3", "ORD1", "ORD2"), walk("datahoraservidor", "asc"))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve ignorar entradas que não correspondem ao registro atual")
+    void whenRecordChangedWithoutMove_thenStaleEntryShouldBeSkipped() {
+        // Arrange: registro já atualizado no armazenamento, visão ainda não
+        current.put("ORD1", new GpsData("ORD1", 0, 0, 10, "200", testTimestamp.minusMinutes(2)));
+
+        // Act
+        List<String> walked = walk("velocidade", "asc");
+
+        // Assert
+        assertEquals(List.of("ORD2", "ORD3"), walked);
+    }
+
+    @Test
+    @DisplayName("Deve encerrar o percurso quando o visitante retorna false")
+    void whenVisitorStops_thenWalkShouldEnd() {
+        // Arrange
+        List<String> visited = new ArrayList<>();
+
+        // Act
+        sortedViews.walk("ordem", false, current::get, data -> {
+            visited.add(data.getOrdem());
+            return visited.size() < 2;
+        });
+
+        // Assert
+        assertAll("Percurso deve parar após dois registros",
+                () -> assertEquals(List.of("ORD1", "ORD2"), visited),
+                () -> assertTrue(SortedViews.supports(null)),
+                () -> assertFalse(SortedViews.supports("latitude"))
+        );
+    }
+
+    private void insert(GpsData data) {
+        current.put(data.getOrdem(), data);
+        sortedViews.add(data);
+        timeIndex.add(TimeIndex.toEpochMillis(data.getDatahoraservidor()), data.getOrdem());
+    }
+
+    private List<String> walk(String sortBy, String direction) {
+        List<String> ordens = new ArrayList<>();
+        sortedViews.walk(sortBy, "desc".equals(direction), current::get, data -> ordens.add(data.getOrdem()));
+        return ordens;
+    }
+}
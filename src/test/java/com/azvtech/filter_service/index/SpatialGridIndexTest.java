@@ -0,0 +1,132 @@
+package com.azvtech.filter_service.index;
+
+import com.azvtech.filter_service.model.GpsData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link SpatialGridIndex}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - SpatialGridIndex")
+class SpatialGridIndexTest {
+
+    private SpatialGridIndex spatialIndex;
+
+    @BeforeEach
+    void setUp() {
+        spatialIndex = new SpatialGridIndex();
+        spatialIndex.add(-22.9068, -43.1729, "CENTRO");     // Centro do Rio
+        spatialIndex.add(-22.9090, -43.1760, "CENTRO_2");   // ~400 m do Centro
+        spatialIndex.add(-23.0045, -43.3650, "BARRA");      // Barra da Tijuca
+    }
+
+    @Test
+    @DisplayName("Deve retornar apenas veículos das células próximas")
+    void whenCandidates_thenShouldReturnNearbyCells() {
+        // Act
+        Set<String> candidates = spatialIndex.candidates(-22.9068, -43.1729, 0.5);
+
+        // Assert
+        assertAll("Candidatos devem cobrir o raio consultado",
+                () -> assertTrue(candidates.contains("CENTRO")),
+                () -> assertTrue(candidates.contains("CENTRO_2")),
+                () -> assertFalse(candidates.contains("BARRA"),
+                        "Veículo a ~20 km não deve ser candidato")
+        );
+    }
+
+    @Test
+    @DisplayName("Deve incluir veículos logo dentro do raio em qualquer direção, mesmo com células finas")
+    void whenVehicleJustInsideRadius_thenCellRangeShouldNotClipCircle() {
+        // Arrange: células de ~11 m não escondem erros na largura do retângulo
+        SpatialGridIndex fineIndex = new SpatialGridIndex(0.0001);
+        double latitude = 60.0;
+        double longitude = 10.0;
+        double radiusKm = 50.0;
+        for (int bearing = 0; bearing < 360; bearing += 45) {
+            double[] point = destination(latitude, longitude, radiusKm * 0.9998, bearing);
+            fineIndex.add(point[0], point[1], "RUMO_" + bearing);
+        }
+
+        // Act
+        Set<String> candidates = fineIndex.candidates(latitude, longitude, radiusKm);
+
+        // Assert
+        assertAll("Todos os rumos devem ser candidatos",
+                () -> assertEquals(8, candidates.size(), "Candidatos: " + candidates),
+                () -> assertTrue(candidates.contains("RUMO_0")),
+                () -> assertTrue(candidates.contains("RUMO_90")),
+                () -> assertTrue(candidates.contains("RUMO_180")),
+                () -> assertTrue(candidates.contains("RUMO_270"))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve mover veículo entre células")
+    void whenMove_thenShouldChangeCell() {
+        // Act
+        spatialIndex.move(-23.0045, -43.3650, -22.9070, -43.1730, "BARRA");
+
+        // Assert
+        assertTrue(spatialIndex.candidates(-22.9068, -43.1729, 0.3).contains("BARRA"));
+        assertFalse(spatialIndex.candidates(-23.0045, -43.3650, 0.3).contains("BARRA"));
+    }
+
+    @Test
+    @DisplayName("Deve descartar célula vazia após remoção")
+    void whenRemoveLastOrdem_thenCellShouldBeDiscarded() {
+        // Act
+        spatialIndex.remove(-23.0045, -43.3650, "BARRA");
+
+        // Assert
+        assertTrue(spatialIndex.candidates(-23.0045, -43.3650, 0.3).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve cobrir toda a área quando o raio é muito grande")
+    void whenRadiusIsHuge_thenShouldReturnAllOccupiedCells() {
+        // Act
+        Set<String> candidates = spatialIndex.candidates(-22.9068, -43.1729, 5000);
+
+        // Assert
+        assertEquals(Set.of("CENTRO", "CENTRO_2", "BARRA"), candidates);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar tamanho de célula não positivo")
+    void whenCellSizeIsNotPositive_thenShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new SpatialGridIndex(0));
+    }
+
+    @Test
+    @DisplayName("Deve estimar candidatos sem copiar as ordens")
+    void whenEstimateCandidates_thenShouldMatchCandidateCount() {
+        // Act
+        int estimate = spatialIndex.estimateCandidates(-22.9068, -43.1729, 1.0);
+
+        // Assert
+        assertEquals(spatialIndex.candidates(-22.9068, -43.1729, 1.0).size(), estimate);
+    }
+
+    /**
+     * Ponto de destino a partir de uma origem, distância e rumo (esfera de raio
+     * {@link GpsData#EARTH_RADIUS_KM}).
+     */
+    private static double[] destination(double latitude, double longitude, double distanceKm, double bearing) {
+        double phi = Math.toRadians(latitude);
+        double delta = distanceKm / GpsData.EARTH_RADIUS_KM;
+        double theta = Math.toRadians(bearing);
+        double phi2 = Math.asin(Math.sin(phi) * Math.cos(delta)
+                + Math.cos(phi) * Math.sin(delta) * Math.cos(theta));
+        double lambda2 = Math.toRadians(longitude) + Math.atan2(Math.sin(theta) * Math.sin(delta) * Math.cos(phi),
+                Math.cos(delta) - Math.sin(phi) * Math.sin(phi2));
+        return new double[]{Math.toDegrees(phi2), Math.toDegrees(lambda2)};
+    }
+}
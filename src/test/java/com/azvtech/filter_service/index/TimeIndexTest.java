@@ -0,0 +1,86 @@
+package com.azvtech.filter_service.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link TimeIndex}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - TimeIndex")
+class TimeIndexTest {
+
+    private TimeIndex timeIndex;
+
+    @BeforeEach
+    void setUp() {
+        timeIndex = new TimeIndex();
+        timeIndex.add(1_000, "ORD1");
+        timeIndex.add(2_000, "ORD2");
+        timeIndex.add(3_000, "ORD3");
+    }
+
+    @Test
+    @DisplayName("Deve retornar apenas a cauda recente")
+    void whenOrdensSince_thenShouldReturnRecentTail() {
+        // Act
+        List<String> ordens = timeIndex.ordensSince(2_000);
+
+        // Assert
+        assertEquals(List.of("ORD2", "ORD3"), ordens);
+    }
+
+    @Test
+    @DisplayName("Deve retornar apenas entradas expiradas")
+    void whenExpiredBefore_thenShouldReturnHead() {
+        // Act
+        List<String> expired = timeIndex.expiredBefore(2_500).stream()
+                .map(TimeIndex.Entry::getOrdem)
+                .collect(Collectors.toList());
+
+        // Assert
+        assertEquals(List.of("ORD1", "ORD2"), expired);
+    }
+
+    @Test
+    @DisplayName("Deve reposicionar veículo quando a data/hora muda")
+    void whenMove_thenShouldReposition() {
+        // Act
+        timeIndex.move(1_000, 4_000, "ORD1");
+
+        // Assert
+        assertAll("ORD1 deve estar no fim do índice",
+                () -> assertEquals(List.of("ORD3", "ORD1"), timeIndex.ordensSince(3_000)),
+                () -> assertEquals(3, timeIndex.size())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve tratar data/hora nula como a mais antiga")
+    void whenDateTimeIsNull_thenShouldMapToMinValue() {
+        // Assert
+        assertAll("Conversão para epoch",
+                () -> assertEquals(Long.MIN_VALUE, TimeIndex.toEpochMillis(null)),
+                () -> assertTrue(TimeIndex.toEpochMillis(LocalDateTime.now()) > 0)
+        );
+    }
+
+    @Test
+    @DisplayName("Deve contar a cauda recente respeitando o limite")
+    void whenCountSince_thenShouldStopAtLimit() {
+        // Assert
+        assertAll("Contagem da cauda",
+                () -> assertEquals(2, timeIndex.countSince(2_000, 10)),
+                () -> assertEquals(1, timeIndex.countSince(1_000, 1)),
+                () -> assertEquals(0, timeIndex.countSince(5_000, 10))
+        );
+    }
+}
@@ -0,0 +1,194 @@
+package com.azvtech.filter_service.ingest;
+
+import com.azvtech.filter_service.config.FilterProperties.IngestPolicy;
+import com.azvtech.filter_service.model.GpsData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link CoalescingIngestQueue}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - CoalescingIngestQueue")
+class CoalescingIngestQueueTest {
+
+    private final LocalDateTime base = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    @Test
+    @DisplayName("Deve descartar o registro mais antigo do mesmo veículo quando cheia")
+    void whenFullAndVehicleHasPending_thenShouldDropItsOldest() {
+        // Arrange
+        CoalescingIngestQueue queue = new CoalescingIngestQueue(3, IngestPolicy.DROP_OLDEST_PER_VEHICLE);
+        queue.publish(vehicle("A", 0));
+        queue.publish(vehicle("B", 0));
+        queue.publish(vehicle("A", 1));
+
+        // Act
+        queue.publish(vehicle("A", 2));
+        List<GpsData> drained = new ArrayList<>();
+        queue.drainTo(drained, 10);
+
+        // Assert
+        assertAll("Registro A@0 deve ter sido descartado",
+                () -> assertEquals(List.of("A@1", "A@2", "B@0"), labels(drained)),
+                () -> assertEquals(1, queue.droppedCount()),
+                () -> assertEquals(0, queue.depth())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve descartar do veículo que espera há mais tempo quando o novo veículo não tem pendentes")
+    void whenFullAndVehicleHasNoPending_thenShouldDropFromOldestVehicle() {
+        // Arrange
+        CoalescingIngestQueue queue = new CoalescingIngestQueue(2, IngestPolicy.DROP_OLDEST_PER_VEHICLE);
+        queue.publish(vehicle("A", 0));
+        queue.publish(vehicle("B", 0));
+
+        // Act
+        queue.publish(vehicle("C", 0));
+        List<GpsData> drained = new ArrayList<>();
+        queue.drainTo(drained, 10);
+
+        // Assert
+        assertAll("Veículo A deve perder seu único registro pendente",
+                () -> assertEquals(List.of("B@0", "C@0"), labels(drained)),
+                () -> assertEquals(1, queue.droppedCount())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve manter apenas o registro mais recente de cada veículo")
+    void whenKeepLatest_thenShouldCoalescePerVehicle() {
+        // Arrange
+        CoalescingIngestQueue queue = new CoalescingIngestQueue(10, IngestPolicy.KEEP_LATEST_PER_VEHICLE);
+
+        // Act
+        queue.publish(vehicle("A", 1));
+        queue.publish(vehicle("A", 3));
+        queue.publish(vehicle("A", 2));
+        queue.publish(vehicle("B", 1));
+        List<GpsData> drained = new ArrayList<>();
+        queue.drainTo(drained, 10);
+
+        // Assert
+        assertAll("Uma entrada por veículo",
+                () -> assertEquals(List.of("A@3", "B@1"), labels(drained)),
+                () -> assertEquals(2, queue.coalescedCount()),
+                () -> assertEquals(0, queue.droppedCount())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve bloquear novo veículo até haver espaço na política keep-latest")
+    void whenKeepLatestIsFull_thenNewVehicleShouldWait() throws Exception {
+        // Arrange
+        CoalescingIngestQueue queue = new CoalescingIngestQueue(1, IngestPolicy.KEEP_LATEST_PER_VEHICLE);
+        queue.publish(vehicle("A", 0));
+
+        // Act
+        CompletableFuture<Long> blocked = CompletableFuture.supplyAsync(() -> queue.publish(vehicle("B", 0)));
+        Thread.sleep(50);
+        boolean doneBeforeDrain = blocked.isDone();
+        queue.publish(vehicle("A", 1));
+        queue.drainTo(new ArrayList<>(), 1);
+        long waited = blocked.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertAll("Produtor espera apenas por veículo novo",
+                () -> assertFalse(doneBeforeDrain),
+                () -> assertTrue(waited > 0),
+                () -> assertEquals(1, queue.depth())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve agrupar produtores concorrentes do mesmo veículo novo que esperavam espaço")
+    void whenConcurrentProducersWaitForSameNewVehicle_thenShouldCoalesceInsteadOfOverwriting() throws Exception {
+        // Arrange
+        CoalescingIngestQueue queue = new CoalescingIngestQueue(2, IngestPolicy.KEEP_LATEST_PER_VEHICLE);
+        queue.publish(vehicle("A", 0));
+        queue.publish(vehicle("C", 0));
+        CompletableFuture<Long> first = CompletableFuture.supplyAsync(() -> queue.publish(vehicle("B", 1)));
+        CompletableFuture<Long> second = CompletableFuture.supplyAsync(() -> queue.publish(vehicle("B", 2)));
+        Thread.sleep(50);
+
+        // Act: libera espaço para um único veículo novo
+        List<GpsData> drained = new ArrayList<>();
+        queue.drainTo(drained, 1);
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        int depthAfterPublish = queue.depth();
+        queue.drainTo(drained, 10);
+
+        // Assert
+        assertAll("Segundo produtor deve agrupar no registro do primeiro",
+                () -> assertEquals(2, depthAfterPublish, "C e uma única entrada de B"),
+                () -> assertEquals(List.of("A@0", "C@0", "B@2"), labels(drained)),
+                () -> assertEquals(1, queue.coalescedCount()),
+                () -> assertEquals(0, queue.droppedCount()),
+                () -> assertEquals(0, queue.depth(), "Profundidade deve voltar a zero")
+        );
+    }
+
+    @Test
+    @DisplayName("Deve descartar o novo veículo quando a espera por espaço é interrompida")
+    void whenWaitIsInterrupted_thenShouldDropInsteadOfExceedingCapacity() {
+        // Arrange
+        CoalescingIngestQueue queue = new CoalescingIngestQueue(2, IngestPolicy.KEEP_LATEST_PER_VEHICLE);
+        queue.publish(vehicle("A", 0));
+        queue.publish(vehicle("B", 0));
+
+        // Act
+        Thread.currentThread().interrupt();
+        queue.publish(vehicle("C", 0));
+        boolean interrupted = Thread.interrupted();
+        List<GpsData> drained = new ArrayList<>();
+        queue.drainTo(drained, 10);
+
+        // Assert
+        assertAll("Fila não deve passar da capacidade",
+                () -> assertTrue(interrupted),
+                () -> assertEquals(List.of("A@0", "B@0"), labels(drained)),
+                () -> assertEquals(1, queue.droppedCount())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve respeitar o limite do lote ao drenar")
+    void whenDrainingWithLimit_thenShouldKeepRemainder() {
+        // Arrange
+        CoalescingIngestQueue queue = new CoalescingIngestQueue(10, IngestPolicy.DROP_OLDEST_PER_VEHICLE);
+        for (int i = 0; i < 5; i++) {
+            queue.publish(vehicle("A", i));
+        }
+
+        // Act
+        List<GpsData> first = new ArrayList<>();
+        int drained = queue.drainTo(first, 3);
+
+        // Assert
+        assertAll("Restante permanece na fila",
+                () -> assertEquals(3, drained),
+                () -> assertEquals(2, queue.depth()),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new CoalescingIngestQueue(10, IngestPolicy.BLOCK))
+        );
+    }
+
+    private GpsData vehicle(String ordem, int second) {
+        return new GpsData(ordem, -22.9, -43.1, second, "L1", base.plusSeconds(second));
+    }
+
+    private static List<String> labels(List<GpsData> data) {
+        return data.stream().map(d -> d.getOrdem() + "@" + d.getVelocidade()).toList();
+    }
+}
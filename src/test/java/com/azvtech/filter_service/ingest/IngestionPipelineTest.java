@@ -0,0 +1,168 @@
+package com.azvtech.filter_service.ingest;
+
+import com.azvtech.filter_service.cache.QueryResultCache;
+import com.azvtech.filter_service.config.FilterProperties;
+import com.azvtech.filter_service.metrics.IngestionStats;
+import com.azvtech.filter_service.model.GpsData;
+import com.azvtech.filter_service.service.GpsFilterService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link IngestionPipeline}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - IngestionPipeline")
+class IngestionPipelineTest {
+
+    private GpsFilterService gpsFilterService;
+    private SimpleMeterRegistry registry;
+    private IngestionPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        FilterProperties.Ingest config = new FilterProperties.Ingest();
+        config.setQueueCapacity(128);
+        config.setDrainBatchSize(32);
+        gpsFilterService = new GpsFilterService(new FilterProperties(), new QueryResultCache());
+        registry = new SimpleMeterRegistry();
+        pipeline = new IngestionPipeline(gpsFilterService, config, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.stop();
+    }
+
+    @Test
+    @DisplayName("Deve aplicar no armazenamento os registros publicados no buffer")
+    void whenBatchesArePublished_thenApplierShouldUpdateStore() {
+        // Arrange
+        pipeline.start();
+        LocalDateTime now = LocalDateTime.now();
+
+        // Act
+        for (int round = 0; round < 5; round++) {
+            List<GpsData> batch = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                batch.add(new GpsData("V" + i, -22.9, -43.1, round, "L1", now.plusSeconds(round)));
+            }
+            assertEquals(100, pipeline.publishAll(batch));
+        }
+        boolean drained = pipeline.awaitDrained(Duration.ofSeconds(10));
+
+        // Assert
+        assertAll("Aplicadora deve gravar o registro mais recente de cada ordem",
+                () -> assertTrue(drained),
+                () -> assertEquals(100, gpsFilterService.getAllData().size()),
+                () -> assertTrue(gpsFilterService.getAllData().stream().allMatch(data -> data.getVelocidade() == 4)),
+                () -> assertEquals(500.0, registry.get("gps.ingest.queue.drain.size").summary().totalAmount()),
+                () -> assertEquals(5L, registry.get("gps.ingest.queue.publish.wait").timer().count()),
+                () -> assertEquals(0.0, registry.get("gps.ingest.queue.depth").gauge().value())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve aplicar diretamente quando a aplicadora não está em execução")
+    void whenNotRunning_thenShouldApplyDirectly() {
+        // Act
+        int applied = pipeline.publishAll(List.of(
+                new GpsData("V1", -22.9, -43.1, 10, "L1", LocalDateTime.now())));
+
+        // Assert
+        assertAll("Sem buffer ativo, o lote vai direto ao serviço",
+                () -> assertFalse(pipeline.isRunning()),
+                () -> assertEquals(1, applied),
+                () -> assertEquals(1, gpsFilterService.getAllData().size())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve pausar acima da marca alta, retomar abaixo da baixa e expor o estado nas métricas")
+    void whenQueueCrossesWatermarks_thenShouldPauseAndResume() throws Exception {
+        // Arrange
+        CountDownLatch applying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        GpsFilterService slowService = new GpsFilterService(new FilterProperties(), new QueryResultCache()) {
+            @Override
+            public int updateAll(Collection<GpsData> batch) {
+                applying.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.updateAll(batch);
+            }
+        };
+        FilterProperties.Ingest config = new FilterProperties.Ingest();
+        config.setQueueCapacity(16);
+        config.setDrainBatchSize(4);
+        config.setPolicy(FilterProperties.IngestPolicy.DROP_OLDEST_PER_VEHICLE);
+        config.setHighWatermark(0.5);
+        config.setLowWatermark(0.25);
+        IngestionPipeline throttled = new IngestionPipeline(slowService, config, new SimpleMeterRegistry());
+        List<String> events = new CopyOnWriteArrayList<>();
+        throttled.addBackpressureListener(new IngestionPipeline.BackpressureListener() {
+            @Override
+            public void pause() {
+                events.add("pause");
+            }
+
+            @Override
+            public void resume() {
+                events.add("resume");
+            }
+        });
+        throttled.start();
+        LocalDateTime now = LocalDateTime.now();
+
+        try {
+            // Act
+            throttled.publishAll(vehicles(0, 4, now));
+            assertTrue(applying.await(5, TimeUnit.SECONDS));
+            throttled.publishAll(vehicles(4, 22, now));
+            IngestionStats whilePaused = slowService.getServiceMetrics().getIngestion();
+            release.countDown();
+            boolean drained = throttled.awaitDrained(Duration.ofSeconds(10));
+
+            // Assert
+            assertAll("Marcas de ocupação devem controlar o consumo",
+                    () -> assertTrue(drained),
+                    () -> assertEquals(List.of("pause", "resume"), events),
+                    () -> assertTrue(whilePaused.isConsumerPaused()),
+                    () -> assertEquals(16, whilePaused.getQueueDepth()),
+                    () -> assertEquals(100.0, whilePaused.getQueueFillPercent()),
+                    () -> assertEquals(2, whilePaused.getDroppedRecords()),
+                    () -> assertEquals("drop-oldest-per-vehicle", whilePaused.getPolicy()),
+                    () -> assertFalse(throttled.isPaused())
+            );
+        } finally {
+            release.countDown();
+            throttled.stop();
+        }
+    }
+
+    private static List<GpsData> vehicles(int from, int to, LocalDateTime now) {
+        List<GpsData> batch = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            batch.add(new GpsData("V" + i, -22.9, -43.1, 10, "L1", now));
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,106 @@
+package com.azvtech.filter_service.ingest;
+
+import com.azvtech.filter_service.model.GpsData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link IngestionRingBuffer}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - IngestionRingBuffer")
+class IngestionRingBufferTest {
+
+    @Test
+    @DisplayName("Deve arredondar a capacidade para potência de 2")
+    void whenCapacityIsNotPowerOfTwo_thenShouldRoundUp() {
+        assertAll("Capacidade",
+                () -> assertEquals(8, new IngestionRingBuffer(5).capacity()),
+                () -> assertEquals(8, new IngestionRingBuffer(8).capacity()),
+                () -> assertThrows(IllegalArgumentException.class, () -> new IngestionRingBuffer(0))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve drenar na ordem de publicação, em lotes limitados, dando a volta no buffer")
+    void whenPublishedAcrossWrap_thenShouldDrainInOrder() {
+        // Arrange
+        IngestionRingBuffer buffer = new IngestionRingBuffer(4);
+        List<String> drained = new ArrayList<>();
+
+        // Act
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 3; i++) {
+                buffer.publish(vehicle("V" + round + i));
+            }
+            List<GpsData> batch = new ArrayList<>();
+            buffer.drainTo(batch, 2);
+            buffer.drainTo(batch, 2);
+            batch.forEach(data -> drained.add(data.getOrdem()));
+        }
+
+        // Assert
+        assertAll("Ordem de publicação preservada",
+                () -> assertEquals(List.of("V00", "V01", "V02", "V10", "V11", "V12", "V20", "V21", "V22"), drained),
+                () -> assertEquals(0, buffer.depth())
+        );
+    }
+
+    @Test
+    @DisplayName("Não deve perder nem duplicar registros com produtores concorrentes e buffer cheio")
+    void whenProducersAreConcurrent_thenConsumerShouldReceiveEveryRecordOnce() throws Exception {
+        // Arrange
+        IngestionRingBuffer buffer = new IngestionRingBuffer(64);
+        int producers = 4;
+        int perProducer = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // Act
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    buffer.publish(vehicle(producer + "-" + i));
+                }
+                return null;
+            });
+        }
+        start.countDown();
+
+        Set<String> received = new HashSet<>();
+        List<GpsData> batch = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (received.size() < producers * perProducer && System.currentTimeMillis() < deadline) {
+            batch.clear();
+            buffer.drainTo(batch, 100);
+            batch.forEach(data -> assertTrue(received.add(data.getOrdem()), "Registro duplicado"));
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertAll("Todos os registros entregues uma vez",
+                () -> assertEquals(producers * perProducer, received.size()),
+                () -> assertEquals(0, buffer.depth())
+        );
+    }
+
+    private static GpsData vehicle(String ordem) {
+        return new GpsData(ordem, -22.9, -43.1, 30, "L1", LocalDateTime.now());
+    }
+}
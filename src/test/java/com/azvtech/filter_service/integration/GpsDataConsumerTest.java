@@ -0,0 +1,68 @@
+package com.azvtech.filter_service.integration;
+
+import com.azvtech.filter_service.service.GpsFilterService;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes de integração para a classe {@link GpsDataConsumer} com broker Kafka embarcado.
+ *
+ * @author Fellipe Toledo
+ */
+@SpringBootTest(properties = {
+        "filter.kafka.enabled=true",
+        "filter.kafka.topic=gps-data-test",
+        "filter.kafka.max-poll-records=50",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.auto-offset-reset=earliest"
+})
+@EmbeddedKafka(partitions = 1, topics = "gps-data-test")
+@DisplayName("Testes de Integração - GpsDataConsumer")
+class GpsDataConsumerTest {
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private GpsFilterService gpsFilterService;
+
+    @Test
+    @DisplayName("Deve consumir as mensagens do tópico em lote e atualizar o armazenamento")
+    void whenMessagesArePublished_thenStoreShouldBeUpdated() throws Exception {
+        // Arrange
+        Map<String, Object> config = KafkaTestUtils.producerProps(broker);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        KafkaTemplate<String, String> template = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(config));
+
+        // Act
+        for (int i = 0; i < 120; i++) {
+            String ordem = "K" + i;
+            template.send("gps-data-test", ordem, "{\"ordem\":\"" + ordem + "\",\"latitude\":-22.9,"
+                    + "\"longitude\":-43.1,\"velocidade\":30,\"linha\":\"L1\","
+                    + "\"datahoraservidor\":\"2026-01-01T10:00:00\"}");
+        }
+        template.flush();
+
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (gpsFilterService.getAllData().size() < 120 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+
+        // Assert
+        assertEquals(120, gpsFilterService.getAllData().size(), "Todas as mensagens devem ser aplicadas");
+    }
+}
@@ -17,7 +17,7 @@ class ServiceMetricsTest {
     @DisplayName("Deve criar ServiceMetrics com valores corretos")
     void whenCreateServiceMetrics_thenAllFieldsShouldBeSet() {
         // Arrange & Act
-        ServiceMetrics metrics = new ServiceMetrics(100, 500, 1000, 1024, 2048);
+        ServiceMetrics metrics = new ServiceMetrics(100, 500, 1000, 1024, 2048, 0, IngestionStats.DISABLED);
 
         // Assert
         assertAll("Todos os campos devem ser configurados corretamente",
@@ -33,7 +33,7 @@ class ServiceMetricsTest {
     @DisplayName("Deve calcular percentual de uso de memória corretamente")
     void whenCalculateMemoryUsage_thenShouldReturnCorrectPercentage() {
         // Arrange
-        ServiceMetrics metrics = new ServiceMetrics(0, 0, 0, 512, 2048);
+        ServiceMetrics metrics = new ServiceMetrics(0, 0, 0, 512, 2048, 0, IngestionStats.DISABLED);
 
         // Act
         double usagePercent = metrics.getMemoryUsagePercent();
@@ -47,7 +47,7 @@ class ServiceMetricsTest {
     @DisplayName("Deve lidar com memória total zero")
     void whenTotalMemoryIsZero_thenMemoryUsageShouldBeZero() {
         // Arrange
-        ServiceMetrics metrics = new ServiceMetrics(0, 0, 0, 0, 0);
+        ServiceMetrics metrics = new ServiceMetrics(0, 0, 0, 0, 0, 0, IngestionStats.DISABLED);
 
         // Act
         double usagePercent = metrics.getMemoryUsagePercent();
@@ -61,7 +61,7 @@ class ServiceMetricsTest {
     @DisplayName("Deve gerar string não vazia com métricas")
     void whenCallToString_thenShouldReturnNonEmptyStringWithMetrics() {
         // Arrange
-        ServiceMetrics metrics = new ServiceMetrics(100, 500, 1000, 512, 2048);
+        ServiceMetrics metrics = new ServiceMetrics(100, 500, 1000, 512, 2048, 0, IngestionStats.DISABLED);
 
         // Act
         String result = metrics.toString();
@@ -80,4 +80,39 @@ class ServiceMetricsTest {
         assertTrue(result.contains("100") || result.contains("500") || result.contains("1000"),
                 "Deve conter pelo menos uma das métricas numéricas");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve expor os bytes fora do heap")
+    void whenCreateWithOffHeapBytes_thenShouldExposeThem() {
+        // Arrange & Act
+        ServiceMetrics withOffHeap = new ServiceMetrics(1, 1, 1, 512, 2048, 4096, IngestionStats.DISABLED);
+        ServiceMetrics withoutOffHeap = new ServiceMetrics(1, 1, 1, 512, 2048, 0, IngestionStats.DISABLED);
+
+        // Assert
+        assertAll("Bytes fora do heap",
+                () -> assertEquals(4096, withOffHeap.getOffHeapBytes()),
+                () -> assertEquals(0, withoutOffHeap.getOffHeapBytes())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve expor o estado da fila de ingestão")
+    void whenIngestionStatsProvided_thenShouldExposeThem() {
+        // Arrange
+        IngestionStats ingestion = new IngestionStats("keep-latest-per-vehicle", 25, 100, 3, 7, true);
+
+        // Act
+        ServiceMetrics withQueue = new ServiceMetrics(1, 1, 1, 512, 2048, 0, ingestion);
+        ServiceMetrics withoutQueue = new ServiceMetrics(1, 1, 1, 512, 2048, 0, IngestionStats.DISABLED);
+
+        // Assert
+        assertAll("Estado da ingestão",
+                () -> assertEquals(25.0, withQueue.getIngestion().getQueueFillPercent()),
+                () -> assertEquals(3, withQueue.getIngestion().getDroppedRecords()),
+                () -> assertEquals(7, withQueue.getIngestion().getCoalescedRecords()),
+                () -> assertTrue(withQueue.getIngestion().isConsumerPaused()),
+                () -> assertSame(IngestionStats.DISABLED, withoutQueue.getIngestion()),
+                () -> assertTrue(withQueue.toString().contains("dropped=3"))
+        );
+    }
+}
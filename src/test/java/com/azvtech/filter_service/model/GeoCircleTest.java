@@ -0,0 +1,112 @@
+package com.azvtech.filter_service.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link GeoCircle}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - GeoCircle")
+class GeoCircleTest {
+
+    @ParameterizedTest(name = "centro ({0}, {1}), raio {2} km, rumo {3}°")
+    @CsvSource({
+            "-22.9, -43.2, 5.0, 0",
+            "-22.9, -43.2, 5.0, 90",
+            "-22.9, -43.2, 5.0, 180",
+            "-22.9, -43.2, 5.0, 270",
+            "60.0, 10.0, 50.0, 90",
+            "60.0, 10.0, 50.0, 270",
+            "-75.0, 120.0, 200.0, 90",
+            "0.0, 0.0, 0.3, 0"
+    })
+    @DisplayName("Deve aceitar pontos logo dentro do raio em cada eixo")
+    void whenPointJustInsideRadius_thenShouldBeInBoundingBoxAndContained(
+            double latitude, double longitude, double radiusKm, double bearing) {
+        // Arrange
+        GeoCircle circle = new GeoCircle(latitude, longitude, radiusKm);
+        double[] point = destination(latitude, longitude, radiusKm * 0.9998, bearing);
+
+        // Act
+        boolean inBox = circle.inBoundingBox(point[0], point[1]);
+        boolean contained = circle.contains(point[0], point[1]);
+
+        // Assert
+        assertAll("Ponto a 99,98% do raio",
+                () -> assertTrue(GpsData.haversineKm(point[0], point[1], latitude, longitude) < radiusKm,
+                        "Pré-condição: ponto dentro do raio pelo haversine"),
+                () -> assertTrue(inBox, "Ponto deve estar no retângulo envolvente"),
+                () -> assertTrue(contained, "Ponto deve estar no círculo")
+        );
+    }
+
+    @Test
+    @DisplayName("Deve incluir a extensão máxima em longitude fora da latitude do centro")
+    void whenPointAtWidestLongitude_thenShouldBeInBoundingBox() {
+        // Arrange: em latitudes altas o ponto mais a leste do círculo fica mais perto do polo
+        GeoCircle circle = new GeoCircle(70.0, 25.0, 300.0);
+        double angular = 300.0 * 0.9999 / GpsData.EARTH_RADIUS_KM;
+        double cosLat = Math.cos(Math.toRadians(70.0));
+        double widestLat = Math.toDegrees(Math.asin(Math.sin(Math.toRadians(70.0)) / Math.cos(angular)));
+        double widestLon = 25.0 + Math.toDegrees(Math.asin(Math.sin(angular) / cosLat));
+
+        // Act / Assert
+        assertAll("Extensão máxima em longitude",
+                () -> assertTrue(GpsData.haversineKm(widestLat, widestLon, 70.0, 25.0) < 300.0,
+                        "Pré-condição: ponto dentro do raio"),
+                () -> assertTrue(circle.contains(widestLat, widestLon),
+                        "Ponto mais a leste deve estar no círculo")
+        );
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar pontos logo fora do raio")
+    void whenPointJustOutsideRadius_thenShouldNotBeContained() {
+        // Arrange
+        GeoCircle circle = new GeoCircle(-22.9, -43.2, 5.0);
+        double[] north = destination(-22.9, -43.2, 5.001, 0);
+        double[] east = destination(-22.9, -43.2, 5.001, 90);
+
+        // Act / Assert
+        assertAll("Pontos a 5,001 km",
+                () -> assertFalse(circle.contains(north[0], north[1]), "Ponto ao norte deve ficar fora"),
+                () -> assertFalse(circle.contains(east[0], east[1]), "Ponto a leste deve ficar fora")
+        );
+    }
+
+    @Test
+    @DisplayName("Deve desativar os limites de longitude quando o círculo contém o polo")
+    void whenCircleContainsPole_thenShouldWrapLongitude() {
+        // Arrange
+        GeoCircle circle = new GeoCircle(89.9, 0.0, 50.0);
+
+        // Act / Assert
+        assertAll("Círculo sobre o polo",
+                () -> assertTrue(circle.wrapsLongitude(), "Longitude deve ser ilimitada"),
+                () -> assertEquals(90.0, circle.getMaxLatitude(), "Latitude máxima limitada ao polo"),
+                () -> assertTrue(circle.contains(89.9, 180.0), "Ponto do outro lado do polo deve estar no círculo")
+        );
+    }
+
+    /**
+     * Ponto de destino a partir de uma origem, distância e rumo (esfera de raio
+     * {@link GpsData#EARTH_RADIUS_KM}).
+     */
+    private static double[] destination(double latitude, double longitude, double distanceKm, double bearing) {
+        double phi = Math.toRadians(latitude);
+        double lambda = Math.toRadians(longitude);
+        double delta = distanceKm / GpsData.EARTH_RADIUS_KM;
+        double theta = Math.toRadians(bearing);
+        double phi2 = Math.asin(Math.sin(phi) * Math.cos(delta)
+                + Math.cos(phi) * Math.sin(delta) * Math.cos(theta));
+        double lambda2 = lambda + Math.atan2(Math.sin(theta) * Math.sin(delta) * Math.cos(phi),
+                Math.cos(delta) - Math.sin(phi) * Math.sin(phi2));
+        return new double[]{Math.toDegrees(phi2), Math.toDegrees(lambda2)};
+    }
+}
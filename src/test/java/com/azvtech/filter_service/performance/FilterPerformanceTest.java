@@ -0,0 +1,217 @@
+package com.azvtech.filter_service.performance;
+
+import com.azvtech.filter_service.cache.QueryResultCache;
+import com.azvtech.filter_service.config.FilterProperties;
+import com.azvtech.filter_service.controller.NdjsonStreamWriter;
+import com.azvtech.filter_service.dto.FilterRequest;
+import com.azvtech.filter_service.dto.FilterResponse;
+import com.azvtech.filter_service.model.GpsData;
+import com.azvtech.filter_service.service.GpsFilterService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Benchmark de memória para consumir um resultado grande inteiro: páginas
+ * de {@value #PAGE_SIZE} registros percorridas por cursor
+ * ({@code POST /api/v1/filter}, maior página aceita pela validação) versus
+ * streaming NDJSON ({@code POST /api/v1/filter/stream}).
+ *
+ * <p>Cada página monta sua lista de respostas e seu corpo JSON; o streaming
+ * serializa cada registro assim que o percurso o entrega
+ * ({@link NdjsonStreamWriter}, o mesmo do controller). Ambos escrevem em um
+ * destino descartável. São medidos, por resultado completo:</p>
+ *
+ * <ul>
+ *   <li><b>retido</b>: heap ocupado pela requisição no seu ponto de maior uso
+ *   (após uma coleta completa), ou seja, a memória que cada requisição
+ *   simultânea mantém viva;</li>
+ *   <li><b>alocado</b>: total de bytes alocados pela thread que consome o
+ *   resultado ({@code com.sun.management.ThreadMXBean}), em sua maioria lixo
+ *   de vida curta;</li>
+ *   <li>tempo médio para consumir o resultado inteiro.</li>
+ * </ul>
+ *
+ * <p>O cache de respostas fica desligado para que cada requisição execute a
+ * consulta. Execução: classe principal, com argumentos opcionais
+ * {@code [veículos] [iterações]}.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class FilterPerformanceTest {
+
+    // Limite de FilterRequest.pageSize (@Max)
+    static final int PAGE_SIZE = 100;
+
+    private final GpsFilterService service;
+    private final ObjectMapper objectMapper;
+    private final NdjsonStreamWriter ndjsonWriter;
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final int vehicles;
+
+    // Heap vivo medido no ponto de maior uso da última requisição (-1 quando não medido)
+    private long retainedBytes = -1;
+    private boolean measuringRetained;
+
+    public FilterPerformanceTest(int vehicles) {
+        FilterProperties properties = new FilterProperties();
+        properties.getCache().setEnabled(false);
+        this.service = new GpsFilterService(properties, new QueryResultCache(properties.getCache()));
+        this.objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.ndjsonWriter = new NdjsonStreamWriter(objectMapper);
+        this.vehicles = vehicles;
+
+        LocalDateTime now = LocalDateTime.now();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<GpsData> batch = new ArrayList<>(vehicles);
+        for (int i = 0; i < vehicles; i++) {
+            batch.add(new GpsData("V" + i,
+                    -22.9 + random.nextDouble(-0.2, 0.2), -43.2 + random.nextDouble(-0.2, 0.2),
+                    random.nextInt(0, 90), "L" + (i % 500), now.minusSeconds(random.nextInt(0, 300))));
+        }
+        service.updateAll(batch);
+    }
+
+    public static void main(String[] args) {
+        int vehicles = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        FilterPerformanceTest benchmark = new FilterPerformanceTest(vehicles);
+        System.out.printf("Resultado completo de %d veículos, ordenado por velocidade, %d iterações%n",
+                vehicles, iterations);
+
+        // Aquecimento do JIT
+        for (int i = 0; i < 5; i++) {
+            benchmark.paginated();
+            benchmark.streamed();
+        }
+
+        System.out.println(benchmark.measure("páginas por cursor", iterations, benchmark::paginated));
+        System.out.println(benchmark.measure("streaming NDJSON", iterations, benchmark::streamed));
+        System.out.println(benchmark.measureRetained("páginas por cursor", benchmark::paginated));
+        System.out.println(benchmark.measureRetained("streaming NDJSON", benchmark::streamed));
+    }
+
+    /**
+     * Cliente paginado: percorre o resultado inteiro, página a página, pelo cursor.
+     */
+    public long paginated() {
+        long bytes = 0;
+        String cursor = null;
+        do {
+            FilterRequest request = request();
+            request.setPageSize(PAGE_SIZE);
+            request.setCursor(cursor);
+            FilterResponse response = service.filterData(request);
+            try {
+                byte[] body = objectMapper.writeValueAsBytes(response);
+                // Maior uso de cada requisição: lista de respostas e corpo da página vivos
+                sampleRetained();
+                OutputStream.nullOutputStream().write(body);
+                Reference.reachabilityFence(response);
+                bytes += body.length;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            cursor = response.getPagination().getNextCursor();
+        } while (cursor != null);
+        return bytes;
+    }
+
+    /**
+     * Streaming: um registro serializado por vez, como no controller NDJSON.
+     */
+    public long streamed() {
+        long[] bytes = {0};
+        int half = vehicles / 2;
+        OutputStream output = new OutputStream() {
+            private int lines;
+
+            @Override
+            public void write(int b) {
+                bytes[0]++;
+                // Meio do resultado: o uso é o mesmo em qualquer ponto do percurso
+                if (b == '\n' && ++lines == half) {
+                    sampleRetained();
+                }
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                for (int i = off; i < off + len; i++) {
+                    write(b[i]);
+                }
+            }
+        };
+        try {
+            ndjsonWriter.write(service.openStream(request()), output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes[0];
+    }
+
+    /**
+     * Heap vivo da requisição: ocupação no ponto de maior uso menos a ocupação
+     * antes da requisição, ambas após coleta completa.
+     */
+    private String measureRetained(String label, LongSupplier run) {
+        long baseline = usedAfterGc();
+        measuringRetained = true;
+        retainedBytes = -1;
+        run.getAsLong();
+        measuringRetained = false;
+        return String.format("%-26s retido no pico: %8.2f MB",
+                label, Math.max(0, retainedBytes - baseline) / (double) (1 << 20));
+    }
+
+    private void sampleRetained() {
+        if (measuringRetained && retainedBytes < 0) {
+            retainedBytes = usedAfterGc();
+        }
+    }
+
+    private long usedAfterGc() {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private String measure(String label, int iterations, LongSupplier run) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long allocated = 0;
+        long elapsed = 0;
+        long bodyBytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            bodyBytes = run.getAsLong();
+            elapsed += System.nanoTime() - start;
+            allocated += threads.getThreadAllocatedBytes(threadId) - before;
+        }
+        return String.format("%-26s alocado: %8.1f MB  corpo: %6.1f MB  tempo: %7.1f ms",
+                label, allocated / (double) iterations / (1 << 20), bodyBytes / (double) (1 << 20),
+                elapsed / (double) iterations / 1e6);
+    }
+
+    private static FilterRequest request() {
+        FilterRequest request = new FilterRequest();
+        request.setSortBy("velocidade");
+        request.setSortDirection("asc");
+        return request;
+    }
+}
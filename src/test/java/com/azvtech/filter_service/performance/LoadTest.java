@@ -0,0 +1,169 @@
+package com.azvtech.filter_service.performance;
+
+import com.azvtech.filter_service.cache.QueryResultCache;
+import com.azvtech.filter_service.config.FilterProperties;
+import com.azvtech.filter_service.dto.FilterRequest;
+import com.azvtech.filter_service.dto.FilterResponse;
+import com.azvtech.filter_service.model.GpsData;
+import com.azvtech.filter_service.service.GpsFilterService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Teste de carga do atendimento de consultas com threads de plataforma e
+ * com threads virtuais (perfil {@code virtual-threads}).
+ *
+ * <p>Cada requisição simulada reproduz o ciclo do
+ * {@code GpsFilterController.filterGpsData}: consulta ao
+ * {@link GpsFilterService}, serialização JSON da resposta e uma espera de
+ * E/S (escrita na conexão para um cliente lento). Todas as requisições são
+ * disparadas de uma vez, como uma rajada de dashboards, e a latência inclui a
+ * espera por uma thread livre.</p>
+ *
+ * <ul>
+ *   <li><b>plataforma</b>: pool fixo de 200 threads, o padrão do Tomcat;</li>
+ *   <li><b>virtual</b>: uma thread virtual por requisição; a consulta roda no
+ *   pool de plataforma {@code filter-query-*} ({@code filter.query.offload-virtual-threads}).</li>
+ * </ul>
+ *
+ * <p>Execução: classe principal, com argumentos opcionais
+ * {@code [requisições] [espera de E/S em ms] [veículos]}; imprime vazão e
+ * latências p50/p99 de cada modo.</p>
+ *
+ * @author Fellipe Toledo
+ * @version 1.0
+ */
+public class LoadTest {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int LINHAS = 200;
+
+    private final GpsFilterService service;
+    private final ObjectMapper objectMapper;
+    private final int ioWaitMillis;
+
+    public LoadTest(int vehicles, int ioWaitMillis) {
+        FilterProperties properties = new FilterProperties();
+        // Sem cache de respostas: cada requisição executa a consulta
+        properties.getCache().setEnabled(false);
+        this.service = new GpsFilterService(properties, new QueryResultCache(properties.getCache()));
+        this.objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.ioWaitMillis = ioWaitMillis;
+
+        LocalDateTime now = LocalDateTime.now();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<GpsData> batch = new ArrayList<>(vehicles);
+        for (int i = 0; i < vehicles; i++) {
+            batch.add(new GpsData("V" + i,
+                    -22.9 + random.nextDouble(-0.2, 0.2), -43.2 + random.nextDouble(-0.2, 0.2),
+                    random.nextInt(0, 90), "L" + (i % LINHAS), now.minusSeconds(random.nextInt(0, 300))));
+        }
+        service.updateAll(batch);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int ioWaitMillis = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int vehicles = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+
+        LoadTest loadTest = new LoadTest(vehicles, ioWaitMillis);
+        System.out.printf("Carga: %d requisições simultâneas, %d veículos, E/S de %d ms por resposta%n",
+                requests, vehicles, ioWaitMillis);
+
+        // Aquecimento do JIT e dos caches de planos
+        loadTest.run(Executors.newFixedThreadPool(TOMCAT_MAX_THREADS), requests / 5);
+
+        System.out.println(loadTest.run(Executors.newFixedThreadPool(TOMCAT_MAX_THREADS), requests)
+                .format("plataforma (" + TOMCAT_MAX_THREADS + " threads)"));
+        System.out.println(loadTest.run(Executors.newVirtualThreadPerTaskExecutor(), requests)
+                .format("virtual"));
+    }
+
+    /**
+     * Dispara todas as requisições no executor e mede a latência de cada uma
+     * desde a submissão.
+     */
+    public Result run(ExecutorService executor, int requests) throws Exception {
+        long[] latencies = new long[requests];
+        List<Future<?>> futures = new ArrayList<>(requests);
+        long start = System.nanoTime();
+        try (executor) {
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                long submitted = System.nanoTime();
+                futures.add(executor.submit(() -> {
+                    handle(randomRequest());
+                    latencies[index] = System.nanoTime() - submitted;
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Result(requests, elapsed, latencies);
+    }
+
+    /**
+     * Uma requisição: consulta, serialização e espera de E/S.
+     */
+    private void handle(FilterRequest request) throws Exception {
+        FilterResponse response = service.filterData(request);
+        byte[] body = objectMapper.writeValueAsBytes(response);
+        if (body.length == 0) {
+            throw new IllegalStateException("Resposta vazia");
+        }
+        Thread.sleep(ioWaitMillis);
+    }
+
+    private static FilterRequest randomRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        FilterRequest request = new FilterRequest();
+        request.setLinhas(List.of("L" + random.nextInt(LINHAS), "L" + random.nextInt(LINHAS)));
+        request.setSortBy("velocidade");
+        request.setPageSize(50);
+        return request;
+    }
+
+    /**
+     * Vazão e latências de uma execução.
+     */
+    public static final class Result {
+        private final int requests;
+        private final long elapsedNanos;
+        private final long[] sortedLatencies;
+
+        Result(int requests, long elapsedNanos, long[] latencies) {
+            this.requests = requests;
+            this.elapsedNanos = elapsedNanos;
+            this.sortedLatencies = latencies.clone();
+            Arrays.sort(sortedLatencies);
+        }
+
+        public double throughputPerSecond() {
+            return requests / (elapsedNanos / 1e9);
+        }
+
+        public double percentileMillis(double percentile) {
+            int index = (int) Math.min(sortedLatencies.length - 1,
+                    Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1);
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+
+        public String format(String mode) {
+            return String.format("%-26s vazão: %8.0f req/s  p50: %8.1f ms  p99: %8.1f ms",
+                    mode, throughputPerSecond(), percentileMillis(50), percentileMillis(99));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.azvtech.filter_service.processor;
+
+import com.azvtech.filter_service.cache.QueryResultCache;
+import com.azvtech.filter_service.config.FilterProperties;
+import com.azvtech.filter_service.model.GpsData;
+import com.azvtech.filter_service.service.GpsFilterService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link GpsDataProcessor}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - GpsDataProcessor")
+class GpsDataProcessorTest {
+
+    private GpsFilterService gpsFilterService;
+    private SimpleMeterRegistry registry;
+    private GpsDataProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        gpsFilterService = new GpsFilterService(new FilterProperties(), new QueryResultCache());
+        registry = new SimpleMeterRegistry();
+        processor = new GpsDataProcessor(gpsFilterService, new ObjectMapper().findAndRegisterModules(), registry, null);
+    }
+
+    @Test
+    @DisplayName("Deve aplicar o lote inteiro ao armazenamento")
+    void whenBatchIsValid_thenShouldApplyAllRecords() {
+        // Arrange
+        List<String> messages = Arrays.asList(
+                message("ORD1", "100", 40),
+                message("ORD2", "200", 55)
+        );
+
+        // Act
+        int applied = processor.process(messages);
+
+        // Assert
+        List<GpsData> stored = gpsFilterService.getAllData();
+        assertAll("Lote deve ser aplicado com uma única chamada",
+                () -> assertEquals(2, applied),
+                () -> assertEquals(2, stored.size()),
+                () -> assertEquals(2.0, registry.get("gps.ingest.records").counter().count()),
+                () -> assertEquals(1L, registry.get("gps.ingest.batch.latency").timer().count()),
+                () -> assertTrue(processor.getLastRecordsPerSecond() > 0)
+        );
+    }
+
+    @Test
+    @DisplayName("Deve descartar mensagens inválidas sem interromper o lote")
+    void whenBatchHasInvalidMessages_thenShouldSkipThem() {
+        // Arrange
+        List<String> messages = Arrays.asList(
+                message("ORD1", "100", 40),
+                "{nao-e-json",
+                "{\"linha\":\"300\"}",
+                "",
+                message("ORD3", "300", 12)
+        );
+
+        // Act
+        int applied = processor.process(messages);
+
+        // Assert
+        assertAll("Apenas mensagens válidas devem ser aplicadas",
+                () -> assertEquals(2, applied),
+                () -> assertEquals(2, gpsFilterService.getAllData().size()),
+                () -> assertEquals(3.0, registry.get("gps.ingest.rejected").counter().count()),
+                () -> assertEquals(5.0, registry.get("gps.ingest.batch.size").summary().totalAmount())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve contar registros substituídos por outro mais recente da mesma ordem")
+    void whenBatchRepeatsOrdem_thenShouldCountCoalesced() {
+        // Arrange
+        List<String> messages = Arrays.asList(
+                message("ORD1", "100", 40),
+                message("ORD1", "100", 50).replace("10:00:00", "10:00:15"),
+                message("ORD2", "200", 55)
+        );
+
+        // Act
+        int applied = processor.process(messages);
+
+        // Assert
+        assertAll("Apenas o registro mais recente de cada ordem deve ser gravado",
+                () -> assertEquals(2, applied),
+                () -> assertEquals(1.0, registry.get("gps.ingest.coalesced").counter().count()),
+                () -> assertEquals(0.0, registry.get("gps.ingest.rejected").counter().count())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve ignorar lote vazio")
+    void whenBatchIsEmpty_thenShouldDoNothing() {
+        // Act
+        int applied = processor.process(Collections.emptyList());
+
+        // Assert
+        assertAll("Lote vazio não gera registros nem métricas",
+                () -> assertEquals(0, applied),
+                () -> assertEquals(0L, registry.get("gps.ingest.batch.latency").timer().count())
+        );
+    }
+
+    static String message(String ordem, String linha, int velocidade) {
+        return "{\"ordem\":\"" + ordem + "\",\"latitude\":-22.9,\"longitude\":-43.1,\"velocidade\":" + velocidade
+                + ",\"linha\":\"" + linha + "\",\"datahoraservidor\":\"2026-01-01T10:00:00\"}";
+    }
+}
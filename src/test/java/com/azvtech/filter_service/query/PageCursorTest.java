@@ -0,0 +1,77 @@
+package com.azvtech.filter_service.query;
+
+import com.azvtech.filter_service.model.GpsData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link PageCursor}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - PageCursor")
+class PageCursorTest {
+
+    private GpsData last;
+    private LocalDateTime testTimestamp;
+
+    @BeforeEach
+    void setUp() {
+        testTimestamp = LocalDateTime.of(2024, 1, 15, 10, 30, 0);
+        last = new GpsData("ORD123", -22.9068, -43.1729, 45, "100", testTimestamp);
+    }
+
+    @Test
+    @DisplayName("Deve preservar a chave de ordenação ao codificar e decodificar")
+    void whenEncodeAndDecode_thenAnchorShouldBePreserved() {
+        // Act
+        PageCursor byTime = PageCursor.decode(PageCursor.after(last, "datahoraservidor", "desc", 7, 42L).encode());
+        PageCursor byLinha = PageCursor.decode(PageCursor.after(last, "linha", "asc", 7, 42L).encode());
+        PageCursor byVelocidade = PageCursor.decode(PageCursor.after(last, "velocidade", "asc", 7, 42L).encode());
+
+        // Assert
+        assertAll("Cursor deve ser reconstruído fielmente",
+                () -> assertEquals(testTimestamp, byTime.getAnchor().getDatahoraservidor()),
+                () -> assertEquals("ORD123", byTime.getAnchor().getOrdem()),
+                () -> assertTrue(byTime.isDescending()),
+                () -> assertEquals(42L, byTime.getDataVersion()),
+                () -> assertEquals("100", byLinha.getAnchor().getLinha()),
+                () -> assertFalse(byLinha.isDescending()),
+                () -> assertEquals(45, byVelocidade.getAnchor().getVelocidade())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve reconhecer a consulta e a ordenação de origem")
+    void whenMatches_thenShouldCompareSortAndFingerprint() {
+        // Arrange
+        PageCursor cursor = PageCursor.after(last, null, "desc", 7, 0L);
+        PageCursor wide = PageCursor.decode(PageCursor.after(last, null, "desc", (1L << 40) | 7, 0L).encode());
+
+        // Assert
+        assertAll("Cursor só vale para a mesma consulta",
+                () -> assertEquals("datahoraservidor", cursor.getSortKey()),
+                () -> assertTrue(cursor.matches("datahoraservidor", "desc", 7)),
+                () -> assertFalse(cursor.matches("datahoraservidor", "asc", 7)),
+                () -> assertFalse(cursor.matches("velocidade", "desc", 7)),
+                () -> assertFalse(cursor.matches("datahoraservidor", "desc", 8)),
+                () -> assertTrue(wide.matches("datahoraservidor", "desc", (1L << 40) | 7)),
+                () -> assertFalse(wide.matches("datahoraservidor", "desc", 7))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar tokens malformados")
+    void whenTokenIsMalformed_thenShouldThrow() {
+        assertAll("Tokens inválidos",
+                () -> assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("!!!")),
+                () -> assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("AQ")),
+                () -> assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(""))
+        );
+    }
+}
@@ -0,0 +1,182 @@
+package com.azvtech.filter_service.query;
+
+import com.azvtech.filter_service.dto.FilterRequest;
+import com.azvtech.filter_service.model.GpsData;
+import com.azvtech.filter_service.store.ScanCriteria;
+import com.azvtech.filter_service.store.VehicleDictionaries;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para as classes {@link QueryCompiler} e {@link CompiledQuery}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - QueryCompiler")
+class QueryCompilerTest {
+
+    private VehicleDictionaries dictionaries;
+    private QueryCompiler compiler;
+    private LocalDateTime testTimestamp;
+
+    @BeforeEach
+    void setUp() {
+        dictionaries = new VehicleDictionaries();
+        compiler = new QueryCompiler(dictionaries);
+        testTimestamp = LocalDateTime.of(2024, 1, 15, 10, 30, 0);
+    }
+
+    @Test
+    @DisplayName("Deve omitir filtros inativos e ordenar os estágios por custo")
+    void whenCompile_thenOnlyActiveStagesShouldBeKeptInOrder() {
+        // Arrange
+        FilterRequest full = new FilterRequest();
+        full.setLinhas(Arrays.asList("100"));
+        full.setOrdens(Arrays.asList("ORD123"));
+        full.setLatitude(-22.9068);
+        full.setLongitude(-43.1729);
+        full.setRaioKm(1.0);
+        full.setUltimosMinutos(5);
+
+        FilterRequest linhaOnly = new FilterRequest();
+        linhaOnly.setLinhas(Arrays.asList("100"));
+
+        // Act
+        CompiledQuery fullPlan = compiler.compile(full);
+        CompiledQuery linhaPlan = compiler.compile(linhaOnly);
+        CompiledQuery emptyPlan = compiler.compile(new FilterRequest());
+
+        // Assert
+        assertAll("Estágios devem refletir apenas os filtros ativos",
+                () -> assertEquals(List.of("ordem", "linha", "bbox", "tempo", "distancia"), fullPlan.getStages()),
+                () -> assertEquals(List.of("linha"), linhaPlan.getStages()),
+                () -> assertTrue(emptyPlan.getStages().isEmpty()),
+                () -> assertTrue(emptyPlan.bind(testTimestamp).matches(new GpsData("X", 0, 0, 0, "1", null)))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve reutilizar o plano para a mesma forma de consulta")
+    void whenSameShapeWithDifferentPaging_thenPlanShouldBeReused() {
+        // Arrange
+        FilterRequest first = new FilterRequest();
+        first.setLinhas(Arrays.asList("100", "200"));
+        first.setPageNumber(0);
+
+        FilterRequest second = new FilterRequest();
+        second.setLinhas(Arrays.asList("200", "100", "100"));
+        second.setPageNumber(3);
+        second.setSortBy("velocidade");
+
+        FilterRequest other = new FilterRequest();
+        other.setLinhas(Arrays.asList("300"));
+
+        // Act
+        CompiledQuery firstPlan = compiler.compile(first);
+        CompiledQuery secondPlan = compiler.compile(second);
+        CompiledQuery otherPlan = compiler.compile(other);
+
+        // Assert
+        assertAll("Planos devem ser compartilhados por forma de consulta",
+                () -> assertSame(firstPlan, secondPlan),
+                () -> assertNotSame(firstPlan, otherPlan),
+                () -> assertEquals(2, compiler.cachedPlanCount())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve gerar impressões digitais estáveis e distintas mesmo com hashCode colidente")
+    void whenShapesCollideOnHashCode_thenFingerprintsShouldDiffer() {
+        // Arrange: "Aa" e "BB" têm o mesmo String.hashCode
+        FilterRequest aa = new FilterRequest();
+        aa.setLinhas(Arrays.asList("Aa"));
+        FilterRequest bb = new FilterRequest();
+        bb.setLinhas(Arrays.asList("BB"));
+        FilterRequest reordered = new FilterRequest();
+        reordered.setLinhas(Arrays.asList("Aa", "Aa"));
+        reordered.setPageNumber(2);
+
+        // Act
+        long aaFingerprint = compiler.compile(aa).getFingerprint();
+        long bbFingerprint = compiler.compile(bb).getFingerprint();
+        long otherCompiler = new QueryCompiler().compile(reordered).getFingerprint();
+
+        // Assert
+        assertAll("Impressão digital deve depender apenas da forma canônica",
+                () -> assertEquals("Aa".hashCode(), "BB".hashCode()),
+                () -> assertNotEquals(aaFingerprint, bbFingerprint),
+                () -> assertEquals(aaFingerprint, otherCompiler)
+        );
+    }
+
+    @Test
+    @DisplayName("Deve aplicar o corte de tempo do instante vinculado")
+    void whenBind_thenTimeCutoffShouldUseGivenInstant() {
+        // Arrange
+        FilterRequest request = new FilterRequest();
+        request.setUltimosMinutos(5);
+        CompiledQuery plan = compiler.compile(request);
+        GpsData data = new GpsData("ORD123", -22.9068, -43.1729, 40, "100", testTimestamp.minusMinutes(3));
+
+        // Act
+        ScanCriteria now = plan.bind(testTimestamp);
+        ScanCriteria later = plan.bind(testTimestamp.plusMinutes(10));
+
+        // Assert
+        assertAll("O mesmo plano deve produzir cortes diferentes por instante",
+                () -> assertTrue(now.matches(data)),
+                () -> assertFalse(later.matches(data)),
+                () -> assertTrue(now.hasTime())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve reconhecer linhas que entraram no dicionário depois da compilação")
+    void whenValueInternedAfterCompile_thenBindShouldResolveIt() {
+        // Arrange
+        FilterRequest request = new FilterRequest();
+        request.setLinhas(Arrays.asList("100"));
+        CompiledQuery plan = compiler.compile(request);
+
+        // Act
+        GpsData data = dictionaries.intern(new GpsData("ORD123", 0, 0, 0, "100", testTimestamp));
+        ScanCriteria criteria = plan.bind(testTimestamp);
+
+        // Assert
+        assertAll("Ids devem ser resolvidos novamente no bind",
+                () -> assertTrue(criteria.getLinhaIds().get(data.getLinhaId())),
+                () -> assertTrue(criteria.matches(data))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve aplicar o filtro por raio com distância exata")
+    void whenLocationFilter_thenOnlyPointsInsideRadiusShouldMatch() {
+        // Arrange
+        FilterRequest request = new FilterRequest();
+        request.setLatitude(-22.9068);
+        request.setLongitude(-43.1729);
+        request.setRaioKm(1.0);
+        ScanCriteria criteria = compiler.compile(request).bind(testTimestamp);
+
+        GpsData inside = new GpsData("ORD1", -22.9070, -43.1730, 0, "100", testTimestamp);
+        // Dentro do retângulo envolvente, mas fora do círculo
+        GpsData corner = new GpsData("ORD2", -22.9068 + 0.0085, -43.1729 + 0.0092, 0, "100", testTimestamp);
+        GpsData far = new GpsData("ORD3", -22.9500, -43.2000, 0, "100", testTimestamp);
+
+        // Act & Assert
+        assertAll("Apenas pontos dentro do raio devem ser aceitos",
+                () -> assertTrue(criteria.matches(inside)),
+                () -> assertFalse(criteria.matches(corner)),
+                () -> assertFalse(criteria.matches(far)),
+                () -> assertTrue(criteria.hasLocation())
+        );
+    }
+}
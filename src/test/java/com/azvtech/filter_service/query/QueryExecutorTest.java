@@ -0,0 +1,146 @@
+package com.azvtech.filter_service.query;
+
+import com.azvtech.filter_service.config.FilterProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link QueryExecutor}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - QueryExecutor")
+class QueryExecutorTest {
+
+    private QueryExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new QueryExecutor(4, 100, 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve escolher o modo pela estimativa de candidatos")
+    void whenEstimating_thenShouldChooseModeByThreshold() {
+        // Arrange
+        QueryExecutor singleThread = new QueryExecutor(1, 100, 16);
+
+        // Act / Assert
+        assertAll("Paralelo apenas a partir do limite e com mais de uma thread",
+                () -> assertEquals(QueryExecutor.Mode.SEQUENTIAL, executor.modeFor(1)),
+                () -> assertEquals(QueryExecutor.Mode.SEQUENTIAL, executor.modeFor(99)),
+                () -> assertEquals(QueryExecutor.Mode.PARALLEL, executor.modeFor(100)),
+                () -> assertEquals(QueryExecutor.Mode.SEQUENTIAL, singleThread.modeFor(1_000_000)),
+                () -> assertEquals("paralelo", QueryExecutor.Mode.PARALLEL.getLabel()),
+                () -> assertEquals(100, executor.getParallelThreshold()),
+                () -> assertEquals(16, executor.getChunkSize())
+        );
+        singleThread.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve produzir o mesmo top-K nos dois modos, em blocos no pool dedicado")
+    void whenExecutingInParallel_thenShouldMatchSequentialResult() {
+        // Arrange
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add((i * 7919) % 1000);
+        }
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        List<int[]> chunks = new ArrayList<>();
+
+        // Act
+        TopK<Integer> sequential = executor.execute(values.size(), QueryExecutor.Mode.SEQUENTIAL,
+                () -> new TopK<>(10, Comparator.<Integer>naturalOrder()),
+                (from, to, topK) -> values.subList(from, to).forEach(topK::offer), TopK::merge);
+        TopK<Integer> parallel = executor.execute(values.size(), QueryExecutor.Mode.PARALLEL,
+                () -> new TopK<>(10, Comparator.<Integer>naturalOrder()),
+                (from, to, topK) -> {
+                    threads.add(Thread.currentThread().getName());
+                    synchronized (chunks) {
+                        chunks.add(new int[]{from, to});
+                    }
+                    values.subList(from, to).forEach(topK::offer);
+                }, TopK::merge);
+
+        // Assert
+        assertAll("Resultados parciais combinados",
+                () -> assertEquals(sequential.toSortedList(), parallel.toSortedList()),
+                () -> assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), parallel.toSortedList()),
+                () -> assertEquals(1000, parallel.getCount()),
+                () -> assertEquals(63, chunks.size()),
+                () -> assertTrue(chunks.stream().allMatch(chunk -> chunk[1] - chunk[0] <= 16)),
+                () -> assertTrue(threads.stream().anyMatch(name -> name.startsWith("filter-query-")))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve ler o tamanho do pool e o limite da configuração")
+    void whenCreatedFromProperties_thenShouldUseConfiguredValues() {
+        // Arrange
+        FilterProperties.Query config = new FilterProperties.Query();
+        config.setParallelism(3);
+        config.setParallelThreshold(50);
+
+        // Act
+        QueryExecutor configured = new QueryExecutor(config);
+        boolean runningBeforeShutdown = !configured.getPool().isShutdown();
+        configured.shutdown();
+
+        // Assert
+        assertAll("Configuração aplicada e pool encerrado",
+                () -> assertEquals(3, configured.getParallelism()),
+                () -> assertEquals(50, configured.getParallelThreshold()),
+                () -> assertEquals(1024, configured.getChunkSize()),
+                () -> assertTrue(runningBeforeShutdown),
+                () -> assertTrue(configured.getPool().isShutdown()),
+                () -> assertThrows(IllegalArgumentException.class, () -> new QueryExecutor(0, 1, 1))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve repassar ao pool de plataforma apenas consultas vindas de threads virtuais")
+    void whenCalledFromVirtualThread_thenShouldRunOnPlatformPool() throws Exception {
+        // Arrange
+        String[] virtualCaller = new String[1];
+        Throwable[] failure = new Throwable[1];
+        Thread caller = Thread.ofVirtual().start(() -> {
+            virtualCaller[0] = executor.callOnPlatformThread(() -> Thread.currentThread().isVirtual()
+                    ? "virtual" : Thread.currentThread().getName());
+            try {
+                executor.callOnPlatformThread(() -> {
+                    throw new IllegalArgumentException("Cursor inválido");
+                });
+            } catch (Throwable e) {
+                failure[0] = e;
+            }
+        });
+
+        // Act
+        caller.join();
+        String platformCaller = executor.callOnPlatformThread(() -> Thread.currentThread().getName());
+
+        // Assert
+        assertAll("Threads virtuais esperam; a consulta roda no pool dedicado",
+                () -> assertTrue(virtualCaller[0].startsWith("filter-query-")),
+                () -> assertInstanceOf(IllegalArgumentException.class, failure[0]),
+                () -> assertEquals("Cursor inválido", failure[0].getMessage()),
+                () -> assertEquals(Thread.currentThread().getName(), platformCaller)
+        );
+    }
+}
@@ -0,0 +1,167 @@
+package com.azvtech.filter_service.query;
+
+import com.azvtech.filter_service.dto.FilterRequest;
+import com.azvtech.filter_service.index.LinhaIndex;
+import com.azvtech.filter_service.index.SpatialGridIndex;
+import com.azvtech.filter_service.index.TimeIndex;
+import com.azvtech.filter_service.query.QueryPlan.AccessPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link QueryPlanner}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - QueryPlanner")
+class QueryPlannerTest {
+
+    private static final int FLEET_SIZE = 100;
+
+    private LinhaIndex linhaIndex;
+    private SpatialGridIndex spatialIndex;
+    private TimeIndex timeIndex;
+    private QueryPlanner planner;
+    private QueryCompiler compiler;
+    private LocalDateTime testTimestamp;
+
+    @BeforeEach
+    void setUp() {
+        linhaIndex = new LinhaIndex();
+        spatialIndex = new SpatialGridIndex();
+        timeIndex = new TimeIndex();
+        planner = new QueryPlanner(linhaIndex, spatialIndex, timeIndex);
+        compiler = new QueryCompiler();
+        testTimestamp = LocalDateTime.of(2024, 1, 15, 10, 30, 0);
+
+        // Linha 100 com 5 veículos, linha 200 com os demais; todos no mesmo ponto
+        for (int i = 0; i < FLEET_SIZE; i++) {
+            String ordem = "ORD" + i;
+            linhaIndex.add(i < 5 ? "100" : "200", ordem);
+            spatialIndex.add(-22.9068, -43.1729, ordem);
+            // Apenas os 10 primeiros veículos são recentes
+            LocalDateTime datahora = i < 10 ? testTimestamp.minusMinutes(1) : testTimestamp.minusMinutes(30);
+            timeIndex.add(TimeIndex.toEpochMillis(datahora), ordem);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve conduzir a consulta pelo índice mais seletivo")
+    void whenLinhaIsMostSelective_thenLinhaShouldDrive() {
+        // Arrange
+        FilterRequest request = new FilterRequest();
+        request.setLinhas(Arrays.asList("100"));
+        request.setLatitude(-22.9068);
+        request.setLongitude(-43.1729);
+        request.setRaioKm(1.0);
+
+        // Act
+        QueryPlan plan = plan(request);
+
+        // Assert
+        assertAll("Linha deve conduzir e o raio deve ficar no predicado",
+                () -> assertEquals(AccessPath.LINHA, plan.getDrivingPath()),
+                () -> assertNull(plan.getIntersectedPath()),
+                () -> assertEquals(5, plan.getEstimates().get(AccessPath.LINHA)),
+                () -> assertEquals(FLEET_SIZE, plan.getEstimates().get(AccessPath.ESPACIAL)),
+                () -> assertEquals(5, plan.getCandidateCount())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve intersectar índices com estimativas comparáveis")
+    void whenSecondIndexIsComparable_thenShouldIntersect() {
+        // Arrange
+        FilterRequest request = new FilterRequest();
+        request.setLinhas(Arrays.asList("100"));
+        request.setUltimosMinutos(5);
+
+        // Act
+        QueryPlan plan = plan(request);
+
+        // Assert
+        assertAll("Linha deve ser intersectada com a cauda recente",
+                () -> assertEquals(AccessPath.LINHA, plan.getDrivingPath()),
+                () -> assertEquals(AccessPath.TEMPO, plan.getIntersectedPath()),
+                () -> assertEquals(Set.of("ORD0", "ORD1", "ORD2", "ORD3", "ORD4"), plan.getCandidateOrdens()),
+                () -> assertTrue(plan.describe().startsWith("linha(est=5) & tempo"))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve usar varredura completa quando nenhum filtro é seletivo")
+    void whenNothingIsSelective_thenShouldFallBackToFullScan() {
+        // Arrange
+        FilterRequest byLinha = new FilterRequest();
+        byLinha.setLinhas(Arrays.asList("200"));
+
+        // Act
+        QueryPlan linhaPlan = plan(byLinha);
+        QueryPlan emptyPlan = plan(new FilterRequest());
+
+        // Assert
+        assertAll("Consultas pouco seletivas devem varrer o armazenamento",
+                () -> assertTrue(linhaPlan.isFullScan()),
+                () -> assertNull(linhaPlan.getCandidateOrdens()),
+                () -> assertEquals(FLEET_SIZE, linhaPlan.getCandidateCount()),
+                () -> assertTrue(linhaPlan.describe().contains("estimativas={linha=95}")),
+                () -> assertTrue(emptyPlan.isFullScan())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve preferir o tamanho exato das ordens solicitadas")
+    void whenOrdensFilter_thenOrdemShouldDrive() {
+        // Arrange
+        FilterRequest request = new FilterRequest();
+        request.setOrdens(Arrays.asList("ORD7", "ORD8"));
+        request.setUltimosMinutos(5);
+
+        // Act
+        QueryPlan plan = plan(request);
+
+        // Assert
+        assertAll("Ordens devem conduzir sem interseção",
+                () -> assertEquals(AccessPath.ORDEM, plan.getDrivingPath()),
+                () -> assertNull(plan.getIntersectedPath()),
+                () -> assertEquals(Set.of("ORD7", "ORD8"), plan.getCandidateOrdens())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve limitar os aceitos pela menor estimativa completa")
+    void whenFallingBack_thenMatchBoundShouldIgnoreTruncatedTimeTail() {
+        // Arrange
+        FilterRequest wideWindow = new FilterRequest();
+        wideWindow.setLinhas(Arrays.asList("200"));
+        wideWindow.setUltimosMinutos(60);
+        FilterRequest recent = new FilterRequest();
+        recent.setUltimosMinutos(5);
+
+        // Act
+        QueryPlan fallback = plan(wideWindow);
+        QueryPlan indexed = plan(recent);
+        QueryPlan unfiltered = plan(new FilterRequest());
+
+        // Assert
+        assertAll("Limite superior dos aceitos sem avaliar os filtros",
+                () -> assertTrue(fallback.isFullScan()),
+                () -> assertEquals(51, fallback.getEstimates().get(AccessPath.TEMPO)),
+                () -> assertEquals(95, fallback.getMatchBound()),
+                () -> assertEquals(10, indexed.getMatchBound()),
+                () -> assertEquals(FLEET_SIZE, unfiltered.getMatchBound())
+        );
+    }
+
+    private QueryPlan plan(FilterRequest request) {
+        CompiledQuery query = compiler.compile(request);
+        return planner.plan(query, query.bind(testTimestamp), FLEET_SIZE, null);
+    }
+}
@@ -0,0 +1,81 @@
+package com.azvtech.filter_service.query;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link TopK}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - TopK")
+class TopKTest {
+
+    @Test
+    @DisplayName("Deve reter apenas os k menores elementos em ordem")
+    void whenOfferMoreThanK_thenShouldKeepBestInOrder() {
+        // Arrange
+        TopK<Integer> topK = new TopK<>(3, Comparator.naturalOrder());
+
+        // Act
+        for (int value : new int[]{9, 4, 7, 1, 8, 3, 5}) {
+            topK.offer(value);
+        }
+
+        // Assert
+        assertAll("Top-3 deve conter os menores valores",
+                () -> assertEquals(List.of(1, 3, 4), topK.toSortedList()),
+                () -> assertEquals(7, topK.getCount())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve produzir o mesmo resultado que a ordenação completa ao combinar heaps de blocos paralelos")
+    void whenMergeChunksInParallel_thenShouldMatchFullSort() {
+        // Arrange
+        List<Integer> values = IntStream.range(0, 20_000)
+                .map(i -> (i * 7919) % 20_000)
+                .boxed()
+                .collect(Collectors.toList());
+        Comparator<Integer> descending = Comparator.<Integer>naturalOrder().reversed();
+
+        // Act
+        QueryExecutor executor = new QueryExecutor(4, 1, 1_000);
+        TopK<Integer> topK = executor.execute(values.size(), QueryExecutor.Mode.PARALLEL,
+                () -> new TopK<>(40, descending),
+                (from, to, partial) -> values.subList(from, to).forEach(partial::offer),
+                TopK::merge);
+        List<Integer> expected = values.stream().sorted(descending).limit(40).collect(Collectors.toList());
+
+        // Assert
+        assertAll("Heaps por bloco devem ser combinados corretamente",
+                () -> assertEquals(expected, topK.toSortedList()),
+                () -> assertEquals(values.size(), topK.getCount())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve contar elementos mesmo com k igual a zero")
+    void whenKIsZero_thenShouldOnlyCount() {
+        // Arrange
+        TopK<Integer> topK = new TopK<>(0, Comparator.naturalOrder());
+
+        // Act
+        topK.offer(1);
+        topK.offer(2);
+
+        // Assert
+        assertAll("Nenhum elemento retido",
+                () -> assertTrue(topK.toSortedList().isEmpty()),
+                () -> assertEquals(2, topK.getCount()),
+                () -> assertThrows(IllegalArgumentException.class, () -> new TopK<Integer>(-1, Comparator.naturalOrder()))
+        );
+    }
+}
@@ -1,7 +1,15 @@
 package com.azvtech.filter_service.service;
 
+import com.azvtech.filter_service.cache.QueryResultCache;
+import com.azvtech.filter_service.config.FilterProperties;
 import com.azvtech.filter_service.dto.FilterRequest;
 import com.azvtech.filter_service.dto.FilterResponse;
+import com.azvtech.filter_service.dto.GpsDataResponse;
+import com.azvtech.filter_service.dto.TrajectoryPoint;
+import com.azvtech.filter_service.dto.TrajectoryRequest;
+import com.azvtech.filter_service.dto.TrajectoryResponse;
+import com.azvtech.filter_service.dto.VehicleTrajectory;
+import com.azvtech.filter_service.index.SortedViews;
 import com.azvtech.filter_service.metrics.ServiceMetrics;
 import com.azvtech.filter_service.model.GpsData;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,6 +17,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -27,7 +36,7 @@ class GpsFilterServiceTest {
 
     @BeforeEach
     void setUp() {
-        gpsFilterService = new GpsFilterService();
+        gpsFilterService = new GpsFilterService(new FilterProperties(), new QueryResultCache());
         testTimestamp = LocalDateTime.now();
 
         // Adicionar dados de teste
@@ -145,4 +154,855 @@ class GpsFilterServiceTest {
         assertTrue(allData.stream().anyMatch(data -> "ORD999".equals(data.getOrdem())),
                 "Novos dados devem ser armazenados em memória");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve refletir troca de linha no filtro por linha")
+    void whenVehicleChangesLinha_thenFilterShouldUseNewLinha() {
+        // Arrange
+        GpsData moved = new GpsData("ORD123", -23.5505, -46.6333, 50, "200", testTimestamp.plusSeconds(30));
+        gpsFilterService.updateData(moved);
+
+        FilterRequest request = new FilterRequest();
+        request.setLinhas(Arrays.asList("100", "200"));
+        request.setPageSize(10);
+        request.setPageNumber(0);
+
+        FilterRequest linha100 = new FilterRequest();
+        linha100.setLinhas(Arrays.asList("100"));
+        linha100.setPageSize(10);
+        linha100.setPageNumber(0);
+
+        // Act
+        FilterResponse both = gpsFilterService.filterData(request);
+        FilterResponse onlyOld = gpsFilterService.filterData(linha100);
+
+        // Assert
+        assertAll("Veículo deve constar apenas na nova linha",
+                () -> assertEquals(3, both.getMetadata().getFilteredCount(),
+                        "Veículo não deve ser contado duas vezes"),
+                () -> assertEquals(1, onlyOld.getMetadata().getFilteredCount(),
+                        "Linha antiga deve manter apenas ORD789"),
+                () -> assertEquals("ORD789", onlyOld.getData().get(0).getOrdem())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve remover dados antigos também do índice de linha")
+    void whenRemoveStaleData_thenLinhaFilterShouldIgnoreRemoved() {
+        // Act
+        gpsFilterService.removeStaleData();
+
+        FilterRequest request = new FilterRequest();
+        request.setLinhas(Arrays.asList("100"));
+        request.setPageSize(10);
+        request.setPageNumber(0);
+        FilterResponse response = gpsFilterService.filterData(request);
+
+        // Assert
+        assertAll("ORD789 (15 minutos) deve ser removido",
+                () -> assertEquals(2, gpsFilterService.getAllData().size()),
+                () -> assertEquals(1, response.getMetadata().getFilteredCount()),
+                () -> assertEquals("ORD123", response.getData().get(0).getOrdem())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve filtrar dados por raio usando o índice espacial")
+    void whenFilterByLocation_thenShouldReturnOnlyVehiclesInsideRadius() {
+        // Arrange (ORD456 está a ~1,5 km de ORD123)
+        FilterRequest request = new FilterRequest();
+        request.setLatitude(-23.5505);
+        request.setLongitude(-46.6333);
+        request.setRaioKm(0.5);
+        request.setPageSize(10);
+        request.setPageNumber(0);
+
+        // Act
+        FilterResponse response = gpsFilterService.filterData(request);
+
+        // Assert
+        assertAll("Apenas ORD123 está dentro do raio",
+                () -> assertEquals(1, response.getMetadata().getFilteredCount()),
+                () -> assertEquals("ORD123", response.getData().get(0).getOrdem())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve filtrar dados recentes pelo índice de tempo")
+    void whenFilterByTime_thenShouldReturnOnlyRecentData() {
+        // Arrange
+        FilterRequest request = new FilterRequest();
+        request.setUltimosMinutos(10);
+        request.setPageSize(10);
+        request.setPageNumber(0);
+
+        // Act
+        FilterResponse response = gpsFilterService.filterData(request);
+
+        // Assert
+        assertAll("ORD789 (15 minutos) não é recente",
+                () -> assertEquals(2, response.getMetadata().getFilteredCount()),
+                () -> assertTrue(response.getData().stream()
+                        .noneMatch(data -> "ORD789".equals(data.getOrdem())))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve respeitar a janela de retenção configurada")
+    void whenRetentionIsConfigured_thenRemoveStaleDataShouldUseIt() {
+        // Arrange
+        FilterProperties properties = new FilterProperties();
+        properties.getStore().setRetentionMinutes(3);
+        GpsFilterService service = new GpsFilterService(properties, new QueryResultCache(properties.getCache()));
+        gpsFilterService.getAllData().forEach(service::updateData);
+
+        // Act
+        service.removeStaleData();
+
+        // Assert
+        List<GpsData> remaining = service.getAllData();
+        assertAll("Apenas ORD123 está dentro de 3 minutos",
+                () -> assertEquals(1, remaining.size()),
+                () -> assertEquals("ORD123", remaining.get(0).getOrdem())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve produzir o mesmo resultado com o armazenamento colunar")
+    void whenColumnarStore_thenFilterShouldMatchMapStore() {
+        // Arrange
+        FilterProperties properties = new FilterProperties();
+        properties.getStore().setType(FilterProperties.StoreType.COLUMNAR);
+        GpsFilterService columnar = new GpsFilterService(properties, new QueryResultCache(properties.getCache()));
+        gpsFilterService.getAllData().forEach(columnar::updateData);
+
+        FilterRequest request = new FilterRequest();
+        request.setUltimosMinutos(10);
+        request.setSortBy("velocidade");
+        request.setSortDirection("asc");
+        request.setPageSize(10);
+        request.setPageNumber(0);
+
+        // Act
+        FilterResponse response = columnar.filterData(request);
+
+        // Assert
+        assertAll("Armazenamento colunar deve aplicar os mesmos filtros",
+                () -> assertEquals(2, response.getMetadata().getFilteredCount()),
+                () -> assertEquals("ORD456", response.getData().get(0).getOrdem()),
+                () -> assertEquals("ORD123", response.getData().get(1).getOrdem())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve informar o plano escolhido nos metadados")
+    void whenFilter_thenMetadataShouldDescribeChosenPlan() {
+        // Arrange
+        FilterRequest byOrdem = new FilterRequest();
+        byOrdem.setOrdens(Arrays.asList("ORD456"));
+
+        FilterRequest unfiltered = new FilterRequest();
+
+        // Act
+        FilterResponse ordemResponse = gpsFilterService.filterData(byOrdem);
+        FilterResponse scanResponse = gpsFilterService.filterData(unfiltered);
+
+        // Assert
+        assertAll("Metadados devem expor o caminho de acesso",
+                () -> assertTrue(ordemResponse.getMetadata().getQueryPlan().startsWith("ordem")),
+                () -> assertEquals(1, ordemResponse.getMetadata().getCandidateCount()),
+                () -> assertTrue(scanResponse.getMetadata().getQueryPlan().startsWith("visao:datahoraservidor")),
+                () -> assertEquals(3, scanResponse.getMetadata().getCandidateCount())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve ordenar e paginar sem perder o total filtrado")
+    void whenSortedPageIsRequested_thenShouldReturnCorrectSliceAndTotal() {
+        // Arrange
+        FilterRequest request = new FilterRequest();
+        request.setSortBy("velocidade");
+        request.setSortDirection("desc");
+        request.setPageSize(1);
+        request.setPageNumber(1);
+
+        // Act
+        FilterResponse response = gpsFilterService.filterData(request);
+
+        // Assert
+        assertAll("Segunda página deve conter a segunda maior velocidade",
+                () -> assertEquals(1, response.getData().size()),
+                () -> assertEquals("ORD456", response.getData().get(0).getOrdem()),
+                () -> assertEquals(3, response.getMetadata().getFilteredCount()),
+                () -> assertEquals(3, response.getPagination().getTotalPages())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve paginar pela visão ordenada com o mesmo resultado da ordenação completa")
+    void whenUnfilteredPagesAreRequested_thenSortedViewShouldMatchFullSort() {
+        // Arrange
+        gpsFilterService.clearAllData();
+        for (int i = 0; i < 50; i++) {
+            gpsFilterService.updateData(new GpsData("V" + i, -22.9, -43.1, i % 7, "L" + (i % 3),
+                    testTimestamp.minusSeconds(i % 11)));
+        }
+
+        for (String sortBy : List.of("ordem", "linha", "velocidade", "datahoraservidor")) {
+            List<String> paged = new ArrayList<>();
+            int totalElements = -1;
+
+            // Act
+            for (int page = 0; page < 5; page++) {
+                FilterRequest request = new FilterRequest();
+                request.setSortBy(sortBy);
+                request.setSortDirection("desc");
+                request.setPageSize(10);
+                request.setPageNumber(page);
+                FilterResponse response = gpsFilterService.filterData(request);
+                response.getData().forEach(data -> paged.add(data.getOrdem()));
+                totalElements = (int) response.getPagination().getTotalElements();
+            }
+            List<String> expected = gpsFilterService.getAllData().stream()
+                    .sorted(SortedViews.comparatorFor(sortBy, "desc"))
+                    .map(GpsData::getOrdem)
+                    .toList();
+
+            // Assert
+            assertEquals(expected, paged, "Páginas ordenadas por " + sortBy);
+            assertEquals(50, totalElements);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve paginar por cursor sem repetir nem pular registros")
+    void whenPagingWithCursor_thenShouldVisitEveryRecordOnce() {
+        // Arrange
+        gpsFilterService.clearAllData();
+        for (int i = 0; i < 45; i++) {
+            gpsFilterService.updateData(new GpsData("V" + i, -22.9, -43.1, i % 9, "L" + (i % 2),
+                    testTimestamp.minusSeconds(i)));
+        }
+
+        for (List<String> linhas : Arrays.asList(null, List.of("L0"))) {
+            List<String> paged = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+
+            // Act
+            do {
+                FilterRequest request = new FilterRequest();
+                request.setLinhas(linhas);
+                request.setSortBy("velocidade");
+                request.setSortDirection("asc");
+                request.setPageSize(10);
+                request.setCursor(cursor);
+                FilterResponse response = gpsFilterService.filterData(request);
+                response.getData().forEach(data -> paged.add(data.getOrdem()));
+                cursor = response.getPagination().getNextCursor();
+                pages++;
+
+                // Atualização entre páginas não deve deslocar as páginas seguintes
+                if (pages == 1) {
+                    gpsFilterService.updateData(new GpsData("V44", -22.9, -43.1, 8, "L0", testTimestamp));
+                }
+            } while (cursor != null);
+
+            List<String> expected = gpsFilterService.getAllData().stream()
+                    .filter(data -> linhas == null || linhas.contains(data.getLinha()))
+                    .sorted(SortedViews.comparatorFor("velocidade", "asc"))
+                    .map(GpsData::getOrdem)
+                    .toList();
+
+            // Assert
+            assertEquals(expected, paged, "Paginação por cursor com linhas=" + linhas);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar cursor de outra consulta")
+    void whenCursorBelongsToAnotherQuery_thenShouldThrow() {
+        // Arrange
+        FilterRequest first = new FilterRequest();
+        first.setPageSize(1);
+        String cursor = gpsFilterService.filterData(first).getPagination().getNextCursor();
+
+        FilterRequest other = new FilterRequest();
+        other.setLinhas(Arrays.asList("100"));
+        other.setCursor(cursor);
+
+        // Act & Assert
+        assertAll("Cursor deve ser validado",
+                () -> assertNotNull(cursor),
+                () -> assertThrows(IllegalArgumentException.class, () -> gpsFilterService.filterData(other))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve reportar HIT e MISS conforme a versão dos dados")
+    void whenSameRequestIsRepeated_thenCacheStatusShouldFollowDataVersion() {
+        // Arrange
+        FilterRequest request = new FilterRequest();
+        request.setLinhas(Arrays.asList("100"));
+
+        // Act
+        FilterResponse first = gpsFilterService.filterData(request);
+        FilterResponse second = gpsFilterService.filterData(request);
+        gpsFilterService.updateData(new GpsData("ORD999", -23.55, -46.63, 10, "100", testTimestamp));
+        FilterResponse third = gpsFilterService.filterData(request);
+
+        // Assert
+        assertAll("Status do cache deve ser preciso",
+                () -> assertEquals("MISS", first.getMetadata().getCacheStatus()),
+                () -> assertEquals("HIT", second.getMetadata().getCacheStatus()),
+                () -> assertEquals(2, second.getData().size()),
+                () -> assertEquals("MISS", third.getMetadata().getCacheStatus()),
+                () -> assertEquals(3, third.getData().size())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve servir as páginas seguintes a partir da ordem do resultado em cache")
+    void whenNextPagesAreRequested_thenShouldReuseCachedOrder() {
+        // Arrange
+        gpsFilterService.clearAllData();
+        for (int i = 0; i < 30; i++) {
+            gpsFilterService.updateData(new GpsData("V" + i, -22.9, -43.1, i % 5, "L" + (i % 2),
+                    testTimestamp.minusSeconds(i)));
+        }
+        List<String> expected = gpsFilterService.getAllData().stream()
+                .filter(data -> "L1".equals(data.getLinha()))
+                .sorted(SortedViews.comparatorFor("velocidade", "asc"))
+                .map(GpsData::getOrdem)
+                .toList();
+
+        List<FilterResponse> responses = new ArrayList<>();
+        List<String> paged = new ArrayList<>();
+
+        // Act
+        for (int page = 0; page < 4; page++) {
+            FilterRequest request = new FilterRequest();
+            request.setLinhas(List.of("L1"));
+            request.setSortBy("velocidade");
+            request.setSortDirection("asc");
+            request.setPageSize(4);
+            request.setPageNumber(page);
+            FilterResponse response = gpsFilterService.filterData(request);
+            responses.add(response);
+            response.getData().forEach(data -> paged.add(data.getOrdem()));
+        }
+
+        // Assert
+        assertAll("Páginas devem ser fatias da mesma ordem",
+                () -> assertEquals(expected, paged),
+                () -> assertFalse(responses.get(1).getMetadata().getQueryPlan().startsWith("resultado-em-cache")),
+                () -> assertTrue(responses.get(2).getMetadata().getQueryPlan().startsWith("resultado-em-cache")),
+                () -> assertTrue(responses.get(3).getMetadata().getQueryPlan().startsWith("resultado-em-cache")),
+                () -> assertEquals(15, responses.get(3).getPagination().getTotalElements())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve percorrer a visão ordenada nas páginas seguintes de consultas sem filtro")
+    void whenLaterPageOfUnfilteredQuery_thenShouldWalkSortedViewInsteadOfCachingOrder() {
+        // Arrange
+        gpsFilterService.clearAllData();
+        for (int i = 0; i < 30; i++) {
+            gpsFilterService.updateData(new GpsData("V" + i, -22.9, -43.1, i, "L" + (i % 2),
+                    testTimestamp.minusSeconds(i)));
+        }
+        List<FilterResponse> responses = new ArrayList<>();
+
+        // Act
+        for (int page = 1; page < 3; page++) {
+            FilterRequest request = new FilterRequest();
+            request.setSortBy("velocidade");
+            request.setSortDirection("asc");
+            request.setPageSize(4);
+            request.setPageNumber(page);
+            responses.add(gpsFilterService.filterData(request));
+        }
+
+        // Assert
+        assertAll("Páginas devem vir do percurso da visão ordenada",
+                () -> assertTrue(responses.get(0).getMetadata().getQueryPlan().startsWith("visao"),
+                        "Plano: " + responses.get(0).getMetadata().getQueryPlan()),
+                () -> assertTrue(responses.get(1).getMetadata().getQueryPlan().startsWith("visao"),
+                        "Plano: " + responses.get(1).getMetadata().getQueryPlan()),
+                () -> assertEquals(List.of("V8", "V9", "V10", "V11"),
+                        responses.get(1).getData().stream().map(GpsDataResponse::getOrdem).toList())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve recalcular a ordem em cache quando um veículo deixa o filtro")
+    void whenVehicleLeavesFilterAfterOrderIsCached_thenLaterPagesShouldExcludeIt() {
+        // Arrange
+        gpsFilterService.clearAllData();
+        for (int i = 0; i < 30; i++) {
+            gpsFilterService.updateData(new GpsData("V" + i, -22.9, -43.1, i % 5, "L" + (i % 2),
+                    testTimestamp.minusSeconds(30 - i)));
+        }
+        FilterRequest firstLater = linhaPage(1);
+        gpsFilterService.filterData(firstLater);
+        FilterResponse cachedPage = gpsFilterService.filterData(linhaPage(2));
+        String leaving = cachedPage.getData().get(0).getOrdem();
+
+        // Act: o veículo muda de linha e deixa de atender ao filtro
+        gpsFilterService.updateData(new GpsData(leaving, -22.9, -43.1, 0, "L0", testTimestamp.plusSeconds(1)));
+        FilterResponse afterChange = gpsFilterService.filterData(linhaPage(2));
+        List<String> remaining = new ArrayList<>();
+        for (int page = 0; page < 4; page++) {
+            gpsFilterService.filterData(linhaPage(page)).getData().forEach(data -> remaining.add(data.getOrdem()));
+        }
+
+        // Assert
+        assertAll("Páginas não devem conter veículos fora do filtro",
+                () -> assertTrue(cachedPage.getMetadata().getQueryPlan().startsWith("resultado-em-cache")),
+                () -> assertFalse(afterChange.getMetadata().getQueryPlan().startsWith("resultado-em-cache"),
+                        "Ordem guardada antes da mudança não deve ser reaproveitada"),
+                () -> assertEquals(14, afterChange.getPagination().getTotalElements()),
+                () -> assertFalse(remaining.contains(leaving), "Veículo que mudou de linha não deve aparecer"),
+                () -> assertEquals(14, remaining.size(), "Todas as páginas devem continuar completas")
+        );
+    }
+
+    private static FilterRequest linhaPage(int page) {
+        FilterRequest request = new FilterRequest();
+        request.setLinhas(List.of("L1"));
+        request.setSortBy("velocidade");
+        request.setSortDirection("asc");
+        request.setPageSize(4);
+        request.setPageNumber(page);
+        return request;
+    }
+
+    @Test
+    @DisplayName("Deve aplicar apenas o registro mais recente de cada ordem do lote")
+    void whenBatchHasRepeatedOrdens_thenShouldCoalesceToNewest() {
+        // Arrange
+        long versionBefore = gpsFilterService.filterData(new FilterRequest()).getPagination().getDataVersion();
+        List<GpsData> batch = Arrays.asList(
+                new GpsData("ORD123", -23.50, -46.60, 10, "100", testTimestamp.plusSeconds(15)),
+                new GpsData("ORD123", -23.51, -46.61, 20, "300", testTimestamp.plusSeconds(45)),
+                new GpsData("ORD123", -23.52, -46.62, 30, "100", testTimestamp.plusSeconds(30)),
+                new GpsData("ORD456", -23.56, -46.64, 99, "200", testTimestamp.minusMinutes(30)),
+                new GpsData("NOVO", -23.53, -46.63, 40, "300", testTimestamp),
+                null
+        );
+
+        // Act
+        int applied = gpsFilterService.updateAll(batch);
+
+        FilterRequest byLinha = new FilterRequest();
+        byLinha.setLinhas(Arrays.asList("300"));
+        FilterResponse response = gpsFilterService.filterData(byLinha);
+
+        // Assert
+        GpsData ord123 = gpsFilterService.getAllData().stream()
+                .filter(data -> "ORD123".equals(data.getOrdem()))
+                .findFirst().orElseThrow();
+        assertAll("Lote deve ser coalescido por ordem",
+                () -> assertEquals(2, applied),
+                () -> assertEquals(20, ord123.getVelocidade()),
+                () -> assertEquals(2, response.getData().size()),
+                () -> assertEquals(4, gpsFilterService.getAllData().size()),
+                () -> assertEquals(versionBefore + 1, response.getPagination().getDataVersion())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve retornar a trajetória recente por ordem e por linha")
+    void whenTrajectoriesRequested_thenShouldReturnHistoryInWindow() {
+        // Arrange
+        gpsFilterService.updateData(new GpsData("ORD123", -23.5510, -46.6340, 50, "100", testTimestamp.plusSeconds(15)));
+        gpsFilterService.updateData(new GpsData("ORD123", -23.5520, -46.6350, 40, "300", testTimestamp.plusSeconds(30)));
+
+        TrajectoryRequest byOrdem = new TrajectoryRequest(List.of("ORD123", "INEXISTENTE"), null, 30);
+        TrajectoryRequest byLinha = new TrajectoryRequest(null, List.of("100"), 10);
+
+        // Act
+        TrajectoryResponse ordemResponse = gpsFilterService.getTrajectories(byOrdem);
+        TrajectoryResponse linhaResponse = gpsFilterService.getTrajectories(byLinha);
+
+        // Assert
+        List<TrajectoryPoint> pontos = ordemResponse.getData().get(0).getPontos();
+        assertAll("Trajetórias devem respeitar ordens, linhas e janela",
+                () -> assertEquals(1, ordemResponse.getPagination().getTotalElements()),
+                () -> assertEquals(3, pontos.size()),
+                () -> assertEquals(List.of(60, 50, 40), pontos.stream().map(TrajectoryPoint::getVelocidade).toList()),
+                () -> assertEquals("300", pontos.get(2).getLinha()),
+                () -> assertEquals(List.of("ORD123"),
+                        linhaResponse.getData().stream().map(VehicleTrajectory::getOrdem).toList()),
+                () -> assertEquals(2, linhaResponse.getData().get(0).getPointCount()),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> gpsFilterService.getTrajectories(new TrajectoryRequest()))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve simplificar a trajetória e reaproveitar blocos encerrados do cache")
+    void whenTrajectoryToleranceInformed_thenShouldSimplifyAndReuseClosedBlocks() {
+        // Arrange
+        FilterProperties properties = new FilterProperties();
+        properties.getHistory().setSimplifyBlockMinutes(5);
+        GpsFilterService service = new GpsFilterService(properties, new QueryResultCache(properties.getCache()));
+        LocalDateTime start = LocalDateTime.now().minusMinutes(25);
+        for (int i = 0; i < 100; i++) {
+            // 50 pontos em linha reta para leste, depois 50 para o norte
+            double lat = -22.9 + Math.max(0, i - 50) * 0.0001;
+            double lon = -43.2 + Math.min(i, 50) * 0.0001;
+            service.updateData(new GpsData("BUS", lat, lon, 30, "100", start.plusSeconds(i * 15L)));
+        }
+        TrajectoryRequest request = new TrajectoryRequest(List.of("BUS"), null, 60);
+        request.setToleranciaMetros(5.0);
+
+        // Act
+        TrajectoryResponse first = service.getTrajectories(request);
+        TrajectoryResponse second = service.getTrajectories(request);
+
+        // Assert
+        VehicleTrajectory trajectory = first.getData().get(0);
+        List<TrajectoryPoint> pontos = trajectory.getPontos();
+        assertAll("Trajetória simplificada por blocos de 5 minutos",
+                () -> assertEquals(100, trajectory.getPontosOriginais()),
+                () -> assertTrue(pontos.size() < 20, "Pontos mantidos: " + pontos.size()),
+                () -> assertEquals(start.withNano(0), pontos.get(0).getDatahoraservidor().withNano(0)),
+                () -> assertEquals(start.plusSeconds(99 * 15L).withNano(0),
+                        pontos.get(pontos.size() - 1).getDatahoraservidor().withNano(0)),
+                () -> assertEquals("historico:ordem+simplificado", first.getMetadata().getQueryPlan()),
+                () -> assertSame(pontos.get(0), second.getData().get(0).getPontos().get(0)),
+                () -> assertEquals(pontos.size(), second.getData().get(0).getPointCount())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve ler uma versão imutável publicada e manter as páginas na mesma versão")
+    void whenSnapshotsEnabled_thenQueriesShouldReadPublishedVersion() {
+        // Arrange
+        FilterProperties properties = new FilterProperties();
+        properties.getSnapshot().setEnabled(true);
+        GpsFilterService service = new GpsFilterService(properties, new QueryResultCache(properties.getCache()));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            service.updateData(new GpsData("S" + i, -22.9, -43.2, 10 * i, "100", now.minusSeconds(i)));
+        }
+        FilterRequest beforePublish = new FilterRequest();
+        beforePublish.setLinhas(List.of("100"));
+        int unpublished = service.filterData(beforePublish).getData().size();
+        service.publishSnapshot();
+
+        FilterRequest firstPage = new FilterRequest();
+        firstPage.setLinhas(List.of("100"));
+        firstPage.setPageSize(2);
+        FilterResponse page1 = service.filterData(firstPage);
+        Long version = page1.getMetadata().getSnapshotVersion();
+
+        // Act: novo veículo mais recente, publicado antes da página 2
+        service.updateData(new GpsData("S9", -22.9, -43.2, 90, "100", now.plusSeconds(1)));
+        service.publishSnapshot();
+        FilterRequest secondPage = new FilterRequest();
+        secondPage.setLinhas(List.of("100"));
+        secondPage.setPageSize(2);
+        secondPage.setPageNumber(1);
+        secondPage.setSnapshotVersion(version);
+        FilterResponse page2 = service.filterData(secondPage);
+        FilterResponse latest = service.filterData(firstPage);
+
+        // Assert
+        assertAll("Páginas da mesma versão e versão nova visível após a publicação",
+                () -> assertEquals(0, unpublished),
+                () -> assertEquals(List.of("S0", "S1"), page1.getData().stream().map(GpsDataResponse::getOrdem).toList()),
+                () -> assertEquals(List.of("S2", "S3"), page2.getData().stream().map(GpsDataResponse::getOrdem).toList()),
+                () -> assertEquals(version, page2.getMetadata().getSnapshotVersion()),
+                () -> assertEquals(5, page2.getPagination().getTotalElements()),
+                () -> assertEquals("S9", latest.getData().get(0).getOrdem()),
+                () -> assertTrue(latest.getMetadata().getSnapshotVersion() > version),
+                () -> assertEquals(latest.getMetadata().getSnapshotVersion(), latest.getPagination().getDataVersion())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve estimar o total das páginas da visão ordenada sem contar os aceitos")
+    void whenSortedViewPage_thenTotalShouldComeFromPlannerUnlessExactCountIsEnabled() {
+        // Arrange
+        FilterProperties exact = new FilterProperties();
+        exact.getQuery().setExactSortedViewCount(true);
+        GpsFilterService estimating = new GpsFilterService(new FilterProperties(), new QueryResultCache());
+        GpsFilterService counting = new GpsFilterService(exact, new QueryResultCache(exact.getCache()));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 100; i++) {
+            // 90 veículos na linha L1; 60 com posição recente
+            GpsData data = new GpsData("V" + i, -22.9, -43.2, 40, i < 90 ? "L1" : "L2",
+                    now.minusMinutes(i < 60 ? 1 : 20));
+            estimating.updateData(data);
+            counting.updateData(data);
+        }
+        FilterRequest request = new FilterRequest();
+        request.setLinhas(List.of("L1"));
+        request.setUltimosMinutos(10);
+        request.setPageSize(10);
+        request.setPageNumber(1);
+
+        // Act
+        FilterResponse estimated = estimating.filterData(request);
+        FilterResponse counted = counting.filterData(request);
+
+        // Assert
+        assertAll("Total estimado por padrão e exato sob demanda",
+                () -> assertTrue(estimated.getMetadata().getQueryPlan().startsWith("visao")),
+                () -> assertEquals(90, estimated.getPagination().getTotalElements()),
+                () -> assertTrue(estimated.getPagination().isTotalEstimated()),
+                () -> assertEquals(60, counted.getPagination().getTotalElements()),
+                () -> assertFalse(counted.getPagination().isTotalEstimated()),
+                () -> assertEquals(counted.getData().stream().map(GpsDataResponse::getOrdem).toList(),
+                        estimated.getData().stream().map(GpsDataResponse::getOrdem).toList())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve produzir o mesmo resultado com o armazenamento em shards")
+    void whenShardedStore_thenFilterShouldMatchSingleStore() {
+        // Arrange
+        FilterProperties single = new FilterProperties();
+        single.getStore().setShards(1);
+        FilterProperties sharded = new FilterProperties();
+        sharded.getStore().setShards(4);
+        sharded.getStore().setType(FilterProperties.StoreType.COLUMNAR);
+        GpsFilterService singleService = new GpsFilterService(single, new QueryResultCache(single.getCache()));
+        GpsFilterService shardedService = new GpsFilterService(sharded, new QueryResultCache(sharded.getCache()));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 200; i++) {
+            GpsData data = new GpsData("SH" + i, -22.9 + i * 0.0001, -43.2, (i * 37) % 90,
+                    "L" + (i % 5), now.minusSeconds(i));
+            singleService.updateData(data);
+            shardedService.updateData(data);
+        }
+
+        FilterRequest bySpeed = new FilterRequest();
+        bySpeed.setSortBy("velocidade");
+        bySpeed.setSortDirection("asc");
+        bySpeed.setPageSize(15);
+        FilterRequest byLinha = new FilterRequest();
+        byLinha.setLinhas(List.of("L1", "L3"));
+        byLinha.setSortBy("velocidade");
+        byLinha.setPageSize(10);
+        FilterRequest secondPage = new FilterRequest();
+        secondPage.setLinhas(List.of("L2"));
+        secondPage.setSortBy("ordem");
+        secondPage.setPageSize(7);
+        secondPage.setPageNumber(2);
+        FilterRequest recentDeepPage = new FilterRequest();
+        recentDeepPage.setPageSize(20);
+        recentDeepPage.setPageNumber(3);
+        FilterRequest nearby = new FilterRequest();
+        nearby.setLatitude(-22.895);
+        nearby.setLongitude(-43.2);
+        nearby.setRaioKm(0.3);
+        nearby.setUltimosMinutos(2);
+
+        // Act / Assert
+        assertEquals(200, shardedService.getServiceMetrics().getActiveRecords());
+        for (FilterRequest request : List.of(bySpeed, byLinha, secondPage, recentDeepPage, nearby)) {
+            FilterResponse expected = singleService.filterData(request);
+            FilterResponse actual = shardedService.filterData(request);
+            assertAll("Shards devem combinar os resultados parciais na mesma ordem",
+                    () -> assertEquals(expected.getMetadata().getQueryPlan(), actual.getMetadata().getQueryPlan(),
+                            "Estimativas somadas dos índices por shard"),
+                    () -> assertEquals(expected.getMetadata().getFilteredCount(),
+                            actual.getMetadata().getFilteredCount()),
+                    () -> assertEquals(expected.getData().stream().map(GpsDataResponse::getOrdem).toList(),
+                            actual.getData().stream().map(GpsDataResponse::getOrdem).toList())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Deve varrer em blocos paralelos um snapshot sem shards")
+    void whenUnshardedFullScanIsLarge_thenShouldRunInParallelChunks() {
+        // Arrange
+        FilterProperties parallel = new FilterProperties();
+        parallel.getStore().setShards(1);
+        parallel.getSnapshot().setEnabled(true);
+        parallel.getQuery().setParallelism(4);
+        parallel.getQuery().setParallelThreshold(100);
+        parallel.getQuery().setChunkSize(16);
+        FilterProperties sequential = new FilterProperties();
+        sequential.getStore().setShards(1);
+        sequential.getSnapshot().setEnabled(true);
+        GpsFilterService parallelService = new GpsFilterService(parallel, new QueryResultCache(parallel.getCache()));
+        GpsFilterService sequentialService = new GpsFilterService(sequential, new QueryResultCache(sequential.getCache()));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 400; i++) {
+            GpsData data = new GpsData("F" + i, -22.9, -43.2, (i * 13) % 90, "L" + (i % 3), now.minusSeconds(i));
+            parallelService.updateData(data);
+            sequentialService.updateData(data);
+        }
+        parallelService.publishSnapshot();
+        sequentialService.publishSnapshot();
+        long pinned = parallelService.filterData(new FilterRequest()).getMetadata().getSnapshotVersion();
+        // Uma versão mais nova deixa a fixada sem índices: a consulta varre o snapshot inteiro
+        for (GpsFilterService service : List.of(parallelService, sequentialService)) {
+            service.updateData(new GpsData("F0", -22.9, -43.2, 1, "L0", now.plusSeconds(1)));
+            service.publishSnapshot();
+        }
+        FilterRequest request = new FilterRequest();
+        request.setLinhas(List.of("L0", "L1"));
+        request.setSortBy("velocidade");
+        request.setPageSize(20);
+        request.setPageNumber(2);
+        request.setSnapshotVersion(pinned);
+
+        // Act
+        FilterResponse expected = sequentialService.filterData(request);
+        FilterResponse actual = parallelService.filterData(request);
+        parallelService.shutdown();
+        sequentialService.shutdown();
+
+        // Assert
+        assertAll("Varredura completa dividida em blocos do snapshot",
+                () -> assertTrue(actual.getMetadata().getQueryPlan().startsWith("varredura")),
+                () -> assertEquals("paralelo", actual.getMetadata().getExecutionMode()),
+                () -> assertEquals("sequencial", expected.getMetadata().getExecutionMode()),
+                () -> assertEquals(expected.getMetadata().getFilteredCount(), actual.getMetadata().getFilteredCount()),
+                () -> assertEquals(expected.getData().stream().map(GpsDataResponse::getOrdem).toList(),
+                        actual.getData().stream().map(GpsDataResponse::getOrdem).toList())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve executar em paralelo apenas consultas com muitos candidatos")
+    void whenCandidatesExceedThreshold_thenShouldRunInParallel() {
+        // Arrange
+        FilterProperties properties = new FilterProperties();
+        properties.getStore().setShards(1);
+        properties.getQuery().setParallelism(4);
+        properties.getQuery().setParallelThreshold(100);
+        properties.getQuery().setChunkSize(16);
+        GpsFilterService service = new GpsFilterService(properties, new QueryResultCache(properties.getCache()));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 400; i++) {
+            service.updateData(new GpsData("P" + i, -22.9, -43.2, i % 80, "L" + (i % 2), now.minusSeconds(i)));
+        }
+        FilterRequest oneVehicle = new FilterRequest();
+        oneVehicle.setOrdens(List.of("P7"));
+        FilterRequest wholeLinha = new FilterRequest();
+        wholeLinha.setLinhas(List.of("L1"));
+        wholeLinha.setSortBy("velocidade");
+        wholeLinha.setSortDirection("asc");
+        wholeLinha.setPageSize(5);
+
+        // Act
+        FilterResponse small = service.filterData(oneVehicle);
+        FilterResponse large = service.filterData(wholeLinha);
+
+        // Assert
+        assertAll("Modo de execução registrado nos metadados",
+                () -> assertEquals("sequencial", small.getMetadata().getExecutionMode()),
+                () -> assertEquals(1, small.getData().size()),
+                () -> assertEquals("paralelo", large.getMetadata().getExecutionMode()),
+                () -> assertEquals(200, large.getMetadata().getFilteredCount()),
+                () -> assertEquals(List.of("P1", "P161", "P241", "P321", "P81"),
+                        large.getData().stream().map(GpsDataResponse::getOrdem).sorted().toList())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve entregar em streaming o mesmo resultado das páginas, na mesma ordem")
+    void whenStreaming_thenShouldMatchConcatenatedPages() {
+        // Arrange
+        GpsFilterService service = new GpsFilterService(new FilterProperties(), new QueryResultCache());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 120; i++) {
+            service.updateData(new GpsData("ST" + i, -22.9, -43.2, (i * 13) % 70, "L" + (i % 3), now.minusSeconds(i)));
+        }
+        List<String> paged = new ArrayList<>();
+        for (int page = 0; page < 5; page++) {
+            FilterRequest request = new FilterRequest();
+            request.setSortBy("velocidade");
+            request.setPageSize(30);
+            request.setPageNumber(page);
+            service.filterData(request).getData().forEach(data -> paged.add(data.getOrdem()));
+        }
+        FilterRequest all = new FilterRequest();
+        all.setSortBy("velocidade");
+        FilterRequest byLinha = new FilterRequest();
+        byLinha.setLinhas(List.of("L1"));
+        byLinha.setSortBy("ordem");
+        byLinha.setSortDirection("asc");
+
+        // Act
+        List<String> streamed = new ArrayList<>();
+        int delivered = service.openStream(all).forEach(data -> streamed.add(data.getOrdem()));
+        List<String> firstFive = new ArrayList<>();
+        service.openStream(all).forEach(data -> {
+            firstFive.add(data.getOrdem());
+            return firstFive.size() < 5;
+        });
+        List<String> linha = new ArrayList<>();
+        service.openStream(byLinha).forEach(data -> linha.add(data.getOrdem()));
+
+        // Assert
+        assertAll("Streaming deve reutilizar filtros e ordenação",
+                () -> assertEquals(120, delivered),
+                () -> assertEquals(paged, streamed),
+                () -> assertEquals(paged.subList(0, 5), firstFive),
+                () -> assertEquals(40, linha.size()),
+                () -> assertEquals(linha.stream().sorted().toList(), linha),
+                () -> assertThrows(IllegalArgumentException.class, () -> {
+                    FilterRequest invalid = new FilterRequest();
+                    invalid.setCursor("invalido");
+                    service.openStream(invalid);
+                })
+        );
+    }
+
+    @Test
+    @DisplayName("Deve entregar em streaming a versão fixada completa mesmo com publicações durante o percurso")
+    void whenSnapshotPublishedDuringStream_thenShouldStreamPinnedVersionCompletely() {
+        // Arrange
+        FilterProperties properties = new FilterProperties();
+        properties.getSnapshot().setEnabled(true);
+        GpsFilterService service = new GpsFilterService(properties, new QueryResultCache(properties.getCache()));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 10; i++) {
+            service.updateData(new GpsData("SN" + i, -22.9, -43.2, 10 + i, "100", now.minusSeconds(10 - i)));
+        }
+        service.publishSnapshot();
+        FilterRequest request = new FilterRequest();
+        request.setSortBy("velocidade");
+        request.setSortDirection("asc");
+
+        // Act: após o primeiro registro, o último veículo passa para o início da ordem e é publicado
+        List<String> streamed = new ArrayList<>();
+        List<Integer> velocidades = new ArrayList<>();
+        int delivered = service.openStream(request).forEach(data -> {
+            if (streamed.isEmpty()) {
+                service.updateData(new GpsData("SN9", -22.9, -43.2, 1, "100", now.plusSeconds(1)));
+                service.publishSnapshot();
+            }
+            streamed.add(data.getOrdem());
+            velocidades.add(data.getVelocidade());
+            return true;
+        });
+
+        // Assert
+        assertAll("Streaming deve refletir apenas a versão fixada",
+                () -> assertEquals(10, delivered),
+                () -> assertEquals(List.of("SN0", "SN1", "SN2", "SN3", "SN4", "SN5", "SN6", "SN7", "SN8", "SN9"),
+                        streamed),
+                () -> assertEquals(19, velocidades.get(9), "Registro deve vir da versão fixada"),
+                () -> assertEquals("SN9", firstOrdem(service, request),
+                        "Nova versão deve valer para o próximo streaming")
+        );
+    }
+
+    private static String firstOrdem(GpsFilterService service, FilterRequest request) {
+        List<String> first = new ArrayList<>();
+        service.openStream(request).forEach(data -> {
+            first.add(data.getOrdem());
+            return false;
+        });
+        return first.get(0);
+    }
+}
@@ -0,0 +1,128 @@
+package com.azvtech.filter_service.snapshot;
+
+import com.azvtech.filter_service.model.GpsData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link PersistentVehicleMap}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - PersistentVehicleMap")
+class PersistentVehicleMapTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    @Test
+    @DisplayName("Deve manter a versão anterior inalterada após novas edições")
+    void whenEditingFrozenVersion_thenPreviousVersionShouldNotChange() {
+        // Arrange
+        PersistentVehicleMap.Editor editor = PersistentVehicleMap.empty().edit();
+        for (int i = 0; i < 2000; i++) {
+            editor.put(vehicle("V" + i, 10));
+        }
+        PersistentVehicleMap first = editor.freeze();
+
+        // Act
+        PersistentVehicleMap.Editor next = first.edit();
+        for (int i = 0; i < 50; i++) {
+            next.put(vehicle("V" + i, 99));
+        }
+        for (int i = 1990; i < 2000; i++) {
+            next.remove("V" + i);
+        }
+        next.put(vehicle("NOVO", 1));
+        PersistentVehicleMap second = next.freeze();
+
+        // Assert
+        Set<String> visited = new HashSet<>();
+        second.forEach(data -> visited.add(data.getOrdem()));
+        assertAll("Versões independentes",
+                () -> assertEquals(2000, first.size()),
+                () -> assertEquals(10, first.get("V0").getVelocidade()),
+                () -> assertNotNull(first.get("V1995")),
+                () -> assertNull(first.get("NOVO")),
+                () -> assertEquals(1991, second.size()),
+                () -> assertEquals(99, second.get("V0").getVelocidade()),
+                () -> assertEquals(10, second.get("V100").getVelocidade()),
+                () -> assertNull(second.get("V1995")),
+                () -> assertEquals(1991, visited.size()),
+                () -> assertThrows(IllegalStateException.class, () -> next.put(vehicle("X", 1)))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve distinguir ordens com o mesmo hash")
+    void whenKeysCollide_thenShouldKeepBothEntries() {
+        // Arrange: "Aa" e "BB" têm o mesmo hashCode
+        PersistentVehicleMap.Editor editor = PersistentVehicleMap.empty().edit();
+        editor.put(vehicle("Aa", 1));
+        editor.put(vehicle("BB", 2));
+        editor.put(vehicle("AaAa", 3));
+        editor.put(vehicle("BBBB", 4));
+        PersistentVehicleMap base = editor.freeze();
+
+        // Act
+        PersistentVehicleMap.Editor next = base.edit();
+        next.put(vehicle("Aa", 10));
+        boolean removed = next.remove("BB");
+        boolean missing = next.remove("C#");
+        PersistentVehicleMap updated = next.freeze();
+
+        // Assert
+        assertAll("Colisões resolvidas pela ordem",
+                () -> assertEquals(1, base.get("Aa").getVelocidade()),
+                () -> assertEquals(2, base.get("BB").getVelocidade()),
+                () -> assertEquals(4, base.size()),
+                () -> assertTrue(removed),
+                () -> assertFalse(missing),
+                () -> assertEquals(10, updated.get("Aa").getVelocidade()),
+                () -> assertNull(updated.get("BB")),
+                () -> assertEquals(4, updated.get("BBBB").getVelocidade()),
+                () -> assertEquals(3, updated.size())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve visitar cada registro uma única vez em partições disjuntas")
+    void whenVisitingPartitions_thenRangesShouldCoverEveryRecordOnce() {
+        // Arrange
+        PersistentVehicleMap.Editor editor = PersistentVehicleMap.empty().edit();
+        for (int i = 0; i < 5000; i++) {
+            editor.put(vehicle("V" + i, 10));
+        }
+        editor.put(vehicle("Aa", 1));
+        editor.put(vehicle("BB", 2));
+        PersistentVehicleMap map = editor.freeze();
+        int[] bounds = {0, 7, 32, 33, 500, 1000, PersistentVehicleMap.PARTITIONS};
+
+        // Act
+        List<String> visited = new ArrayList<>();
+        for (int i = 0; i + 1 < bounds.length; i++) {
+            map.forEachInPartitions(bounds[i], bounds[i + 1], data -> visited.add(data.getOrdem()));
+        }
+        List<String> single = new ArrayList<>();
+        map.forEachInPartitions(33, 34, data -> single.add(data.getOrdem()));
+
+        // Assert
+        assertAll("Partições devem dividir o mapa sem repetir registros",
+                () -> assertEquals(map.size(), visited.size()),
+                () -> assertEquals(map.size(), new HashSet<>(visited).size()),
+                () -> assertTrue(visited.containsAll(List.of("Aa", "BB", "V0", "V4999"))),
+                () -> assertTrue(single.size() < map.size() / 100)
+        );
+    }
+
+    private static GpsData vehicle(String ordem, int velocidade) {
+        return new GpsData(ordem, -22.9, -43.2, velocidade, "100", NOW);
+    }
+}
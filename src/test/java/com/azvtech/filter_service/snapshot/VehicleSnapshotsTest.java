@@ -0,0 +1,110 @@
+package com.azvtech.filter_service.snapshot;
+
+import com.azvtech.filter_service.config.FilterProperties;
+import com.azvtech.filter_service.model.GpsData;
+import com.azvtech.filter_service.store.StoreListener;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para as classes {@link VehicleSnapshots} e {@link VehicleSnapshot}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - VehicleSnapshots")
+class VehicleSnapshotsTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    @Test
+    @DisplayName("Deve publicar as alterações acumuladas e notificar a diferença")
+    void whenPublishing_thenShouldApplyDiffToListener() {
+        // Arrange
+        List<String> events = new ArrayList<>();
+        VehicleSnapshots snapshots = newSnapshots(events);
+        snapshots.put(vehicle("A", 10));
+        snapshots.put(vehicle("B", 20));
+        snapshots.publish();
+
+        // Act
+        snapshots.put(vehicle("A", 11));
+        snapshots.put(vehicle("A", 12));
+        snapshots.remove("B");
+        snapshots.put(vehicle("C", 30));
+        snapshots.remove("C");
+        VehicleSnapshot second = snapshots.publish();
+        VehicleSnapshot unchanged = snapshots.publish();
+
+        // Assert
+        assertAll("Uma notificação por ordem alterada entre versões",
+                () -> assertEquals(List.of("insert:A", "insert:B"), events.subList(0, 2)),
+                () -> assertTrue(events.subList(2, events.size()).containsAll(List.of("update:A:12", "remove:B"))),
+                () -> assertEquals(4, events.size()),
+                () -> assertEquals(2, second.getVersion()),
+                () -> assertSame(second, unchanged),
+                () -> assertEquals(1, second.size()),
+                () -> assertEquals(12, second.get("A").getVelocidade())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve manter a versão fixada e detectar publicação durante a consulta")
+    void whenPublishingAfterPin_thenPinnedVersionShouldNotChange() {
+        // Arrange
+        VehicleSnapshots snapshots = newSnapshots(new ArrayList<>());
+        snapshots.put(vehicle("A", 10));
+        snapshots.publish();
+        VehicleSnapshots.Pin pin = snapshots.pin();
+
+        // Act
+        snapshots.put(vehicle("A", 50));
+        snapshots.put(vehicle("B", 60));
+        snapshots.publish();
+        VehicleSnapshots.Pin retained = snapshots.pin(pin.getSnapshot().getVersion());
+
+        // Assert
+        assertAll("Leitura isolada da versão fixada",
+                () -> assertTrue(pin.isIndexed()),
+                () -> assertEquals(10, pin.getSnapshot().get("A").getVelocidade()),
+                () -> assertEquals(1, pin.getSnapshot().size()),
+                () -> assertFalse(snapshots.isConsistent(pin)),
+                () -> assertTrue(snapshots.isConsistent(snapshots.pin())),
+                () -> assertSame(pin.getSnapshot(), retained.getSnapshot()),
+                () -> assertFalse(retained.isIndexed()),
+                () -> assertNull(snapshots.pin(999)),
+                () -> assertEquals(50, snapshots.current().get("A").getVelocidade())
+        );
+    }
+
+    private static VehicleSnapshots newSnapshots(List<String> events) {
+        AtomicLong version = new AtomicLong();
+        StoreListener listener = new StoreListener() {
+            @Override
+            public void onInsert(GpsData current) {
+                events.add("insert:" + current.getOrdem());
+            }
+
+            @Override
+            public void onUpdate(GpsData previous, GpsData current) {
+                events.add("update:" + current.getOrdem() + ":" + current.getVelocidade());
+            }
+
+            @Override
+            public void onRemove(GpsData previous) {
+                events.add("remove:" + previous.getOrdem());
+            }
+        };
+        return new VehicleSnapshots(new FilterProperties.Snapshot(), listener, 0, version::incrementAndGet);
+    }
+
+    private static GpsData vehicle(String ordem, int velocidade) {
+        return new GpsData(ordem, -22.9, -43.2, velocidade, "100", NOW);
+    }
+}
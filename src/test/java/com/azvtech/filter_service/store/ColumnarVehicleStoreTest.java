@@ -0,0 +1,249 @@
+package com.azvtech.filter_service.store;
+
+import com.azvtech.filter_service.dto.FilterRequest;
+import com.azvtech.filter_service.model.GpsData;
+import com.azvtech.filter_service.query.QueryCompiler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link ColumnarVehicleStore}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - ColumnarVehicleStore")
+class ColumnarVehicleStoreTest {
+
+    private ColumnarVehicleStore store;
+    private LocalDateTime testTimestamp;
+
+    @BeforeEach
+    void setUp() {
+        store = new ColumnarVehicleStore(16);
+        testTimestamp = LocalDateTime.of(2024, 1, 15, 10, 30, 0);
+
+        store.upsert(new GpsData("ORD123", -23.5505, -46.6333, 60, "100", testTimestamp), StoreListener.NONE);
+        store.upsert(new GpsData("ORD456", -23.5605, -46.6433, 45, "200", testTimestamp.minusMinutes(5)), StoreListener.NONE);
+        store.upsert(new GpsData("ORD789", -23.5705, -46.6533, 30, "100", testTimestamp.minusMinutes(15)), StoreListener.NONE);
+    }
+
+    @Test
+    @DisplayName("Deve materializar o registro com os mesmos valores")
+    void whenGet_thenShouldMaterializeSameValues() {
+        // Act
+        GpsData data = store.get("ORD123");
+
+        // Assert
+        assertAll("Campos devem sobreviver à codificação colunar",
+                () -> assertEquals("ORD123", data.getOrdem()),
+                () -> assertEquals(-23.5505, data.getLatitude()),
+                () -> assertEquals(-46.6333, data.getLongitude()),
+                () -> assertEquals(60, data.getVelocidade()),
+                () -> assertEquals("100", data.getLinha()),
+                () -> assertEquals(testTimestamp, data.getDatahoraservidor())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve ignorar atualização mais antiga e aplicar a mais recente")
+    void whenUpsert_thenShouldKeepMostRecent() {
+        // Act
+        boolean older = store.upsert(
+                new GpsData("ORD123", 0, 0, 0, "999", testTimestamp.minusMinutes(1)), StoreListener.NONE);
+        boolean newer = store.upsert(
+                new GpsData("ORD123", -23.0, -46.0, 10, "300", testTimestamp.plusMinutes(1)), StoreListener.NONE);
+
+        // Assert
+        assertAll("Apenas o registro mais recente deve ser aplicado",
+                () -> assertFalse(older),
+                () -> assertTrue(newer),
+                () -> assertEquals("300", store.get("ORD123").getLinha()),
+                () -> assertEquals(3, store.size())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve varrer as colunas aplicando os critérios")
+    void whenScan_thenShouldApplyCriteria() {
+        // Arrange
+        FilterRequest request = new FilterRequest();
+        request.setLinhas(Arrays.asList("100"));
+        request.setUltimosMinutos(10);
+
+        // Act
+        List<GpsData> result = new ArrayList<>();
+        store.scan(new QueryCompiler().compile(request).bind(testTimestamp), result::add);
+
+        // Assert
+        assertAll("Apenas ORD123 é da linha 100 e recente",
+                () -> assertEquals(1, result.size()),
+                () -> assertEquals("ORD123", result.get(0).getOrdem())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve filtrar por raio sobre coordenadas em ponto fixo")
+    void whenScanByLocation_thenShouldReturnVehiclesInsideRadius() {
+        // Arrange
+        FilterRequest request = new FilterRequest();
+        request.setLatitude(-23.5505);
+        request.setLongitude(-46.6333);
+        request.setRaioKm(2.0);
+
+        // Act
+        List<String> ordens = new ArrayList<>();
+        store.scan(new QueryCompiler().compile(request).bind(testTimestamp), data -> ordens.add(data.getOrdem()));
+
+        // Assert
+        assertEquals(List.of("ORD123", "ORD456"), ordens.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Deve contar os registros aceitos sem materializá-los")
+    void whenCount_thenShouldMatchScan() {
+        // Arrange
+        FilterRequest request = new FilterRequest();
+        request.setLatitude(-23.5505);
+        request.setLongitude(-46.6333);
+        request.setRaioKm(2.0);
+
+        // Act
+        int count = store.count(new QueryCompiler().compile(request).bind(testTimestamp));
+
+        // Assert
+        assertEquals(2, count);
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar slots liberados e crescer quando necessário")
+    void whenRemoveAndGrow_thenSlotsShouldBeReused() {
+        // Act
+        boolean removed = store.removeIfOlderThan("ORD789", Long.MAX_VALUE, StoreListener.NONE);
+        for (int i = 0; i < 40; i++) {
+            store.upsert(new GpsData("BUS" + i, -22.9, -43.1, i, "L" + (i % 3), testTimestamp), StoreListener.NONE);
+        }
+
+        // Assert
+        assertAll("Armazenamento deve crescer mantendo os registros",
+                () -> assertTrue(removed),
+                () -> assertNull(store.get("ORD789")),
+                () -> assertEquals(42, store.size()),
+                () -> assertEquals(42, store.values().size()),
+                () -> assertTrue(store.capacity() >= 42),
+                () -> assertEquals("L1", store.get("BUS37").getLinha())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve notificar o listener com o registro anterior")
+    void whenUpdate_thenListenerShouldReceivePrevious() {
+        // Arrange
+        List<String> events = new ArrayList<>();
+        StoreListener listener = new StoreListener() {
+            @Override
+            public void onUpdate(GpsData previous, GpsData current) {
+                events.add(previous.getLinha() + "->" + current.getLinha());
+            }
+        };
+
+        // Act
+        store.upsert(new GpsData("ORD456", 0, 0, 0, "300", testTimestamp), listener);
+
+        // Assert
+        assertEquals(List.of("200->300"), events);
+    }
+
+    @Test
+    @DisplayName("Deve dividir a varredura em trechos disjuntos de slots")
+    void whenScanRange_thenChunksShouldCoverEveryRecordOnce() {
+        // Arrange
+        ScanCriteria all = new QueryCompiler().compile(new FilterRequest()).bind(testTimestamp);
+        int limit = store.scanLimit();
+
+        // Act
+        List<String> first = new ArrayList<>();
+        store.scanRange(all, 0, 2, data -> first.add(data.getOrdem()));
+        List<String> rest = new ArrayList<>();
+        store.scanRange(all, 2, limit, data -> rest.add(data.getOrdem()));
+
+        // Assert
+        assertAll("Trechos de slots devem cobrir o armazenamento sem repetir",
+                () -> assertEquals(3, limit),
+                () -> assertEquals(List.of("ORD123", "ORD456"), first),
+                () -> assertEquals(List.of("ORD789"), rest)
+        );
+    }
+
+    @Test
+    @DisplayName("Deve esperar a escrita em andamento em vez de ler campos de versões diferentes")
+    void whenReadDuringWrite_thenShouldNotSeeTornRecord() throws Exception {
+        // Arrange
+        CountDownLatch midWrite = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        ColumnarVehicleStore pausing = new ColumnarVehicleStore(16) {
+            @Override
+            protected void writeSlot(int slot, GpsData data, long epochMillis, int ordemId, int linhaId) {
+                if (data.getVelocidade() != 80) {
+                    super.writeSlot(slot, data, epochMillis, ordemId, linhaId);
+                    return;
+                }
+                // Grava a posição nova com a velocidade antiga e pausa no meio da escrita
+                GpsData half = new GpsData(data.getOrdem(), data.getLatitude(), data.getLongitude(), 10,
+                        data.getLinha(), data.getDatahoraservidor());
+                super.writeSlot(slot, half, epochMillis, ordemId, linhaId);
+                midWrite.countDown();
+                try {
+                    resume.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.writeSlot(slot, data, epochMillis, ordemId, linhaId);
+            }
+        };
+        pausing.upsert(new GpsData("ORD1", -22.0, -43.0, 10, "100", testTimestamp), StoreListener.NONE);
+        ScanCriteria all = new QueryCompiler().compile(new FilterRequest()).bind(testTimestamp);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act
+            threads.submit(() -> pausing.upsert(new GpsData("ORD1", -22.5, -43.5, 80, "100",
+                    testTimestamp.plusSeconds(1)), StoreListener.NONE));
+            assertTrue(midWrite.await(5, TimeUnit.SECONDS));
+            Future<List<GpsData>> reader = threads.submit(() -> {
+                List<GpsData> seen = new ArrayList<>();
+                seen.add(pausing.get("ORD1"));
+                pausing.scan(all, seen::add);
+                return seen;
+            });
+            assertThrows(TimeoutException.class, () -> reader.get(200, TimeUnit.MILLISECONDS),
+                    "Leitura não deve concluir com o registro pela metade");
+            resume.countDown();
+            List<GpsData> seen = reader.get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertAll("Leituras devem ver apenas o registro completo",
+                    () -> assertEquals(2, seen.size()),
+                    () -> assertTrue(seen.stream().allMatch(data -> data.getVelocidade() == 80
+                            && data.getLatitude() == -22.5 && data.getLongitude() == -43.5))
+            );
+        } finally {
+            resume.countDown();
+            threads.shutdownNow();
+        }
+    }
+}
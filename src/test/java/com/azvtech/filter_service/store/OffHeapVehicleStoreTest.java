@@ -0,0 +1,174 @@
+package com.azvtech.filter_service.store;
+
+import com.azvtech.filter_service.dto.FilterRequest;
+import com.azvtech.filter_service.model.GpsData;
+import com.azvtech.filter_service.query.QueryCompiler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link OffHeapVehicleStore}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - OffHeapVehicleStore")
+class OffHeapVehicleStoreTest {
+
+    private OffHeapVehicleStore store;
+    private LocalDateTime testTimestamp;
+
+    @BeforeEach
+    void setUp() {
+        store = new OffHeapVehicleStore(16, 40, 2.0);
+        testTimestamp = LocalDateTime.of(2024, 1, 15, 10, 30, 0);
+
+        store.upsert(new GpsData("ORD123", -23.5505, -46.6333, 60, "100", testTimestamp), StoreListener.NONE);
+        store.upsert(new GpsData("ORD456", -23.5605, -46.6433, 45, "200", testTimestamp.minusMinutes(5)), StoreListener.NONE);
+    }
+
+    @Test
+    @DisplayName("Deve ler do buffer os mesmos valores gravados")
+    void whenGet_thenShouldReadSameValues() {
+        // Act
+        GpsData data = store.get("ORD456");
+
+        // Assert
+        assertAll("Campos devem sobreviver ao registro de largura fixa",
+                () -> assertEquals("ORD456", data.getOrdem()),
+                () -> assertEquals(-23.5605, data.getLatitude()),
+                () -> assertEquals(-46.6433, data.getLongitude()),
+                () -> assertEquals(45, data.getVelocidade()),
+                () -> assertEquals("200", data.getLinha()),
+                () -> assertEquals(testTimestamp.minusMinutes(5), data.getDatahoraservidor())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve reportar os bytes ocupados fora do heap")
+    void whenOffHeapBytes_thenShouldMatchCapacity() {
+        assertEquals(16L * OffHeapVehicleStore.RECORD_BYTES, store.offHeapBytes());
+    }
+
+    @Test
+    @DisplayName("Deve crescer pelo fator configurado até a capacidade máxima")
+    void whenCapacityIsExhausted_thenShouldGrowAndThenReject() {
+        // Act
+        for (int i = 0; i < 50; i++) {
+            store.upsert(new GpsData("BUS" + i, -22.9, -43.1, i, "300", testTimestamp), StoreListener.NONE);
+        }
+
+        // Assert
+        assertAll("Crescimento deve respeitar o limite de 40 veículos",
+                () -> assertEquals(40, store.capacity()),
+                () -> assertEquals(40, store.size()),
+                () -> assertEquals(12, store.getRejectedCount()),
+                () -> assertEquals(40L * OffHeapVehicleStore.RECORD_BYTES, store.offHeapBytes()),
+                () -> assertEquals(-23.5505, store.get("ORD123").getLatitude(),
+                        "Registros existentes devem ser preservados no novo buffer")
+        );
+    }
+
+    @Test
+    @DisplayName("Deve varrer o buffer aplicando os critérios")
+    void whenScan_thenShouldApplyCriteria() {
+        // Arrange
+        FilterRequest request = new FilterRequest();
+        request.setLinhas(Arrays.asList("200", "999"));
+
+        // Act
+        List<GpsData> result = new ArrayList<>();
+        store.scan(new QueryCompiler().compile(request).bind(testTimestamp), result::add);
+
+        // Assert
+        assertAll("Apenas ORD456 é da linha 200",
+                () -> assertEquals(1, result.size()),
+                () -> assertEquals("ORD456", result.get(0).getOrdem())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve liberar o slot ao remover dados antigos")
+    void whenRemoveIfOlderThan_thenSlotShouldBeFreed() {
+        // Act
+        boolean removed = store.removeIfOlderThan("ORD456", Long.MAX_VALUE, StoreListener.NONE);
+
+        // Assert
+        assertAll("ORD456 deve ser removido",
+                () -> assertTrue(removed),
+                () -> assertNull(store.get("ORD456")),
+                () -> assertEquals(1, store.values().size())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve esperar a escrita em andamento em vez de ler campos de versões diferentes")
+    void whenReadDuringWrite_thenShouldNotSeeTornRecord() throws Exception {
+        // Arrange
+        CountDownLatch midWrite = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        OffHeapVehicleStore pausing = new OffHeapVehicleStore(16, 40, 2.0) {
+            @Override
+            protected void writeSlot(int slot, GpsData data, long epochMillis, int ordemId, int linhaId) {
+                if (data.getVelocidade() != 80) {
+                    super.writeSlot(slot, data, epochMillis, ordemId, linhaId);
+                    return;
+                }
+                // Grava a posição nova com a velocidade antiga e pausa no meio da escrita
+                GpsData half = new GpsData(data.getOrdem(), data.getLatitude(), data.getLongitude(), 10,
+                        data.getLinha(), data.getDatahoraservidor());
+                super.writeSlot(slot, half, epochMillis, ordemId, linhaId);
+                midWrite.countDown();
+                try {
+                    resume.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.writeSlot(slot, data, epochMillis, ordemId, linhaId);
+            }
+        };
+        pausing.upsert(new GpsData("ORD1", -22.0, -43.0, 10, "100", testTimestamp), StoreListener.NONE);
+        ScanCriteria all = new QueryCompiler().compile(new FilterRequest()).bind(testTimestamp);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act
+            threads.submit(() -> pausing.upsert(new GpsData("ORD1", -22.5, -43.5, 80, "100",
+                    testTimestamp.plusSeconds(1)), StoreListener.NONE));
+            assertTrue(midWrite.await(5, TimeUnit.SECONDS));
+            Future<List<GpsData>> reader = threads.submit(() -> {
+                List<GpsData> seen = new ArrayList<>();
+                seen.add(pausing.get("ORD1"));
+                pausing.scan(all, seen::add);
+                return seen;
+            });
+            assertThrows(TimeoutException.class, () -> reader.get(200, TimeUnit.MILLISECONDS),
+                    "Leitura não deve concluir com o registro pela metade");
+            resume.countDown();
+            List<GpsData> seen = reader.get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertAll("Leituras devem ver apenas o registro completo",
+                    () -> assertEquals(2, seen.size()),
+                    () -> assertTrue(seen.stream().allMatch(data -> data.getVelocidade() == 80
+                            && data.getLatitude() == -22.5 && data.getLongitude() == -43.5))
+            );
+        } finally {
+            resume.countDown();
+            threads.shutdownNow();
+        }
+    }
+}
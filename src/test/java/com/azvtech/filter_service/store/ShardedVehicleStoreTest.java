@@ -0,0 +1,171 @@
+package com.azvtech.filter_service.store;
+
+import com.azvtech.filter_service.dto.FilterRequest;
+import com.azvtech.filter_service.model.GpsData;
+import com.azvtech.filter_service.query.QueryCompiler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a classe {@link ShardedVehicleStore}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - ShardedVehicleStore")
+class ShardedVehicleStoreTest {
+
+    private ForkJoinPool pool;
+    private ShardedVehicleStore store;
+    private LocalDateTime testTimestamp;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+        VehicleDictionaries dictionaries = new VehicleDictionaries();
+        store = new ShardedVehicleStore(4, index -> new ColumnarVehicleStore(16, dictionaries), pool,
+                size -> size >= 50);
+        testTimestamp = LocalDateTime.of(2024, 1, 15, 10, 30, 0);
+        for (int i = 0; i < 100; i++) {
+            store.upsert(dictionaries.intern(new GpsData("ORD" + i, -23.55, -46.63, i,
+                    i % 2 == 0 ? "100" : "200", testTimestamp.minusSeconds(i))), StoreListener.NONE);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve encaminhar cada ordem sempre ao mesmo shard")
+    void whenUpsertAndGet_thenShouldRouteByOrdem() {
+        // Act
+        List<Integer> sizes = store.fanOut((index, shard) -> shard.size());
+        boolean older = store.upsert(new GpsData("ORD7", 0, 0, 0, "999", testTimestamp.minusHours(1)),
+                StoreListener.NONE);
+        int ownerSize = store.fanOut((index, shard) -> shard.get("ORD7") != null ? 1 : 0)
+                .stream().mapToInt(Integer::intValue).sum();
+
+        // Assert
+        assertAll("Registros distribuídos entre os shards e lidos pela ordem",
+                () -> assertEquals(100, store.size()),
+                () -> assertEquals(4, sizes.size()),
+                () -> assertEquals(100, sizes.stream().mapToInt(Integer::intValue).sum()),
+                () -> assertTrue(sizes.stream().allMatch(size -> size > 0)),
+                () -> assertFalse(older),
+                () -> assertEquals(1, ownerSize),
+                () -> assertEquals(7, store.get("ORD7").getVelocidade()),
+                () -> assertNull(store.get("INEXISTENTE")),
+                () -> assertEquals(store.shardIndex("ORD7"), store.shardIndex("ORD7"))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve varrer e contar todos os shards")
+    void whenScanAndCount_thenShouldCoverAllShards() {
+        // Arrange
+        FilterRequest request = new FilterRequest();
+        request.setLinhas(List.of("100"));
+        ScanCriteria criteria = new QueryCompiler().compile(request).bind(testTimestamp);
+
+        // Act
+        Set<String> scanned = new HashSet<>();
+        store.scan(criteria, data -> scanned.add(data.getOrdem()));
+        int count = store.count(criteria);
+
+        // Assert
+        assertAll("Varredura e contagem devem incluir todos os shards",
+                () -> assertEquals(50, scanned.size()),
+                () -> assertEquals(50, count),
+                () -> assertEquals(100, store.values().size())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve contar em paralelo apenas quando o tamanho do armazenamento compensa")
+    void whenCountSmallStore_thenShouldStayOnCallerThread() {
+        // Arrange
+        Set<Thread> countingThreads = ConcurrentHashMap.newKeySet();
+        List<Integer> decidedFor = new ArrayList<>();
+        ShardedVehicleStore small = new ShardedVehicleStore(4, index -> new MapVehicleStore() {
+            @Override
+            public int count(ScanCriteria criteria) {
+                countingThreads.add(Thread.currentThread());
+                return super.count(criteria);
+            }
+        }, pool, size -> {
+            decidedFor.add(size);
+            return size >= 1_000;
+        });
+        for (int i = 0; i < 10; i++) {
+            small.upsert(new GpsData("ORD" + i, -23.55, -46.63, i, "100", testTimestamp), StoreListener.NONE);
+        }
+        ScanCriteria criteria = new QueryCompiler().compile(new FilterRequest()).bind(testTimestamp);
+
+        // Act
+        int count = small.count(criteria);
+
+        // Assert
+        assertAll("Contagem de armazenamento pequeno deve ser sequencial",
+                () -> assertEquals(10, count),
+                () -> assertEquals(List.of(10), decidedFor),
+                () -> assertEquals(Set.of(Thread.currentThread()), countingThreads)
+        );
+    }
+
+    @Test
+    @DisplayName("Deve separar as ordens pelo shard responsável")
+    void whenPartition_thenEachOrdemShouldGoToItsShard() {
+        // Arrange
+        List<String> ordens = new ArrayList<>();
+        for (int i = 0; i < 100; i += 3) {
+            ordens.add("ORD" + i);
+        }
+        ordens.add(null);
+
+        // Act
+        List<List<String>> partitions = store.partition(ordens);
+
+        // Assert
+        assertEquals(4, partitions.size());
+        for (int index = 0; index < partitions.size(); index++) {
+            for (String ordem : partitions.get(index)) {
+                assertEquals(index, store.shardIndex(ordem), "Ordem no shard errado: " + ordem);
+            }
+        }
+        assertEquals(34, partitions.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    @DisplayName("Deve remover e limpar pelo shard da ordem")
+    void whenRemoveAndClear_thenShouldAffectShards() {
+        // Act
+        boolean removed = store.removeIfOlderThan("ORD99", Long.MAX_VALUE, StoreListener.NONE);
+        boolean missing = store.removeIfOlderThan("INEXISTENTE", Long.MAX_VALUE, StoreListener.NONE);
+        int afterRemove = store.size();
+        store.clear();
+
+        // Assert
+        assertAll("Remoção roteada e limpeza de todos os shards",
+                () -> assertTrue(removed),
+                () -> assertFalse(missing),
+                () -> assertEquals(99, afterRemove),
+                () -> assertEquals(0, store.size()),
+                () -> assertEquals("columnar x4 shards", store.type()),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new ShardedVehicleStore(0, index -> new MapVehicleStore(), pool, size -> true))
+        );
+    }
+}
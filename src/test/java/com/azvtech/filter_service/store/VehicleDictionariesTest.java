@@ -0,0 +1,130 @@
+package com.azvtech.filter_service.store;
+
+import com.azvtech.filter_service.dto.FilterRequest;
+import com.azvtech.filter_service.model.GpsData;
+import com.azvtech.filter_service.query.QueryCompiler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para as classes {@link VehicleDictionaries} e {@link StringDictionary}.
+ *
+ * @author Fellipe Toledo
+ */
+@DisplayName("Testes Unitários - VehicleDictionaries")
+class VehicleDictionariesTest {
+
+    private VehicleDictionaries dictionaries;
+    private LocalDateTime testTimestamp;
+
+    @BeforeEach
+    void setUp() {
+        dictionaries = new VehicleDictionaries();
+        testTimestamp = LocalDateTime.of(2024, 1, 15, 10, 30, 0);
+    }
+
+    @Test
+    @DisplayName("Deve canonizar strings e atribuir ids na ingestão")
+    void whenIntern_thenStringsShouldBeCanonicalAndIdsAssigned() {
+        // Arrange
+        GpsData first = new GpsData(new String("ORD123"), 0, 0, 0, new String("100"), testTimestamp);
+        GpsData second = new GpsData(new String("ORD123"), 0, 0, 0, new String("100"), testTimestamp);
+
+        // Act
+        dictionaries.intern(first);
+        dictionaries.intern(second);
+
+        // Assert
+        assertAll("Registros devem compartilhar as instâncias canônicas",
+                () -> assertSame(first.getOrdem(), second.getOrdem()),
+                () -> assertSame(first.getLinha(), second.getLinha()),
+                () -> assertEquals(0, first.getOrdemId()),
+                () -> assertEquals(0, first.getLinhaId()),
+                () -> assertTrue(dictionaries.isInterned(second))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve invalidar o id ao alterar a string")
+    void whenSetLinha_thenIdShouldBeReset() {
+        // Arrange
+        GpsData data = dictionaries.intern(new GpsData("ORD123", 0, 0, 0, "100", testTimestamp));
+
+        // Act
+        data.setLinha("200");
+
+        // Assert
+        assertAll("Id de linha deve ser descartado",
+                () -> assertEquals(-1, data.getLinhaId()),
+                () -> assertFalse(dictionaries.isInterned(data))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve traduzir listas para bitsets ignorando valores desconhecidos")
+    void whenLinhaIds_thenUnknownValuesShouldBeIgnored() {
+        // Arrange
+        dictionaries.intern(new GpsData("ORD1", 0, 0, 0, "100", testTimestamp));
+        dictionaries.intern(new GpsData("ORD2", 0, 0, 0, "200", testTimestamp));
+
+        // Act
+        BitSet ids = dictionaries.linhaIds(List.of("200", "999"));
+
+        // Assert
+        assertAll("Apenas a linha 200 é conhecida",
+                () -> assertEquals(1, ids.cardinality()),
+                () -> assertTrue(ids.get(dictionaries.getLinhas().idOf("200")))
+        );
+    }
+
+    @Test
+    @DisplayName("Deve comparar ids nos critérios de filtro")
+    void whenCriteriaUseDictionaries_thenShouldMatchByIds() {
+        // Arrange
+        GpsData data = dictionaries.intern(new GpsData("ORD1", 0, 0, 0, "100", testTimestamp));
+        GpsData other = dictionaries.intern(new GpsData("ORD2", 0, 0, 0, "200", testTimestamp));
+
+        FilterRequest request = new FilterRequest();
+        request.setLinhas(Arrays.asList("100"));
+        request.setOrdens(Arrays.asList("ORD1", "ORD2"));
+
+        // Act
+        ScanCriteria criteria = new QueryCompiler(dictionaries).compile(request).bind(testTimestamp);
+
+        // Assert
+        assertAll("Apenas ORD1 atende linha e ordem",
+                () -> assertTrue(criteria.matches(data)),
+                () -> assertFalse(criteria.matches(other)),
+                () -> assertEquals(2, criteria.getOrdemIds().cardinality())
+        );
+    }
+
+    @Test
+    @DisplayName("Deve crescer o dicionário mantendo os ids")
+    void whenManyValues_thenIdsShouldBeStable() {
+        // Arrange
+        StringDictionary dictionary = new StringDictionary();
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            dictionary.getOrCreate("L" + i);
+        }
+
+        // Assert
+        assertAll("Ids devem ser sequenciais e estáveis",
+                () -> assertEquals(200, dictionary.size()),
+                () -> assertEquals(150, dictionary.idOf("L150")),
+                () -> assertEquals("L199", dictionary.valueOf(199)),
+                () -> assertEquals(StringDictionary.NO_ID, dictionary.idOf("desconhecida")),
+                () -> assertNull(dictionary.valueOf(StringDictionary.NO_ID))
+        );
+    }
+}